@@ -18,9 +18,34 @@ android {
         versionName = "1.0"
 
         testInstrumentationRunner = "androidx.test.runner.AndroidJUnitRunner"
+
+        // Wrap the repository in InstrumentedDataRepository (per-call timings)
+        buildConfigField("boolean", "REPOSITORY_METRICS", "false")
+    }
+
+    buildFeatures {
+        buildConfig = true
+    }
+
+    // Beta key, from ~/.gradle/gradle.properties — never the debug key, so
+    // a beta installs over (and is replaced by) properly signed builds.
+    // Without the properties a beta is left unsigned, like release.
+    val betaStoreFile = providers.gradleProperty("BETA_STORE_FILE").orNull
+    signingConfigs {
+        if (betaStoreFile != null) {
+            create("beta") {
+                storeFile = file(betaStoreFile)
+                storePassword = providers.gradleProperty("BETA_STORE_PASSWORD").get()
+                keyAlias = providers.gradleProperty("BETA_KEY_ALIAS").get()
+                keyPassword = providers.gradleProperty("BETA_KEY_PASSWORD").get()
+            }
+        }
     }
 
     buildTypes {
+        debug {
+            buildConfigField("boolean", "REPOSITORY_METRICS", "true")
+        }
         release {
             isMinifyEnabled = false
             proguardFiles(
@@ -28,11 +53,26 @@ android {
                 "proguard-rules.pro"
             )
         }
+        // Release code and settings, plus repository metrics
+        create("beta") {
+            initWith(getByName("release"))
+            applicationIdSuffix = ".beta"
+            if (betaStoreFile != null) signingConfig = signingConfigs.getByName("beta")
+            matchingFallbacks += listOf("release")
+            buildConfigField("boolean", "REPOSITORY_METRICS", "true")
+        }
     }
     compileOptions {
         sourceCompatibility = JavaVersion.VERSION_11
         targetCompatibility = JavaVersion.VERSION_11
     }
+
+    // IDataRepositoryContract runs on the JVM (InMemoryDataRepository)
+    // and on a device (DatabaseHelper)
+    sourceSets {
+        getByName("test").java.srcDir("src/sharedTest/java")
+        getByName("androidTest").java.srcDir("src/sharedTest/java")
+    }
 }
 
 dependencies {
@@ -0,0 +1,65 @@
+package com.bankingapp.database;
+
+import android.content.ContentValues;
+
+import androidx.test.core.app.ApplicationProvider;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.bankingapp.models.Transaction;
+import com.bankingapp.utils.DateTimeHelper;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * The repository contract against a SQLite database, on a device. Each
+ * test gets a fresh in-memory database, never the app's own file.
+ * InMemoryDataRepositoryTest runs the same suite on the host JVM.
+ */
+@RunWith(AndroidJUnit4.class)
+public class DatabaseHelperContractTest extends IDataRepositoryContract {
+
+    private DatabaseHelper helper;
+
+    @Override
+    protected IDataRepository createRepository() {
+        helper = DatabaseHelper.createForTest(
+                ApplicationProvider.getApplicationContext(), null);
+        return helper;
+    }
+
+    @After
+    public void tearDown() {
+        helper.close();
+    }
+
+    // Provider clients may still write only the legacy date_time column
+    @Test
+    public void rawInsert_withoutTimeMillis_takesItFromDateTime() {
+        assertTrue(helper.registerUser("legacy", "pass123", "Legacy Client", "9000000001"));
+        int userId = helper.loginUser("legacy", "pass123").getId();
+        ContentValues values = new ContentValues();
+        values.put("user_id", userId);
+        values.put("type", Transaction.TYPE_SENT);
+        values.put("category", "Food");
+        values.put("amount_paise", 12_300L);
+        values.put("description", "legacy row");
+        values.put("date_time", "2024-03-15 10:30:00");
+
+        assertTrue(helper.insertTransactionValues(values) > 0);
+
+        List<Transaction> rows = helper.getTransactionsByDateRange(userId,
+                "2024-03-15", "2024-03-15");
+        assertEquals(1, rows.size());
+        assertEquals(DateTimeHelper.fromDbFormat("2024-03-15 10:30:00"),
+                rows.get(0).getTimeMillis());
+        assertEquals(12_300L, helper.getTotalSpentThisMonth(userId, "2024-03"));
+        assertEquals(0L, helper.getTotalSpentThisMonth(userId, "1970-01"));
+    }
+}
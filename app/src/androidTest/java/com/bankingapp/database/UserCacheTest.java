@@ -0,0 +1,74 @@
+package com.bankingapp.database;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.bankingapp.models.User;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * UserCache's one promise: once a row changes and is evicted, no read
+ * that started earlier can put the old row back. On a device because
+ * the cache is built on android.util.LruCache.
+ */
+@RunWith(AndroidJUnit4.class)
+public class UserCacheTest {
+
+    private static final int USER_ID = 7;
+
+    @Test
+    public void putFromBeforeAnEvict_isDropped() {
+        UserCache cache = new UserCache();
+        long readGeneration = cache.generation();
+        cache.evict(USER_ID);
+
+        cache.put(user(100L), readGeneration);
+
+        assertNull(cache.getById(USER_ID));
+    }
+
+    @Test
+    public void putRacingAnEvict_neverLeavesAnOldBalance() throws InterruptedException {
+        UserCache cache = new UserCache();
+        AtomicLong committed = new AtomicLong();   // the row's balance in "SQLite"
+        AtomicBoolean done = new AtomicBoolean();
+
+        // Readers: token, read the committed row, cache it — as getUserById does
+        Thread[] readers = new Thread[4];
+        for (int r = 0; r < readers.length; r++) {
+            readers[r] = new Thread(() -> {
+                while (!done.get()) {
+                    long readGeneration = cache.generation();
+                    cache.put(user(committed.get()), readGeneration);
+                }
+            });
+            readers[r].start();
+        }
+        // Writer: commit a new balance, then invalidate, as endWrite does
+        int commits = 20_000;
+        for (int i = 1; i <= commits; i++) {
+            committed.set(i);
+            cache.evict(USER_ID);
+        }
+        done.set(true);
+        for (Thread reader : readers) reader.join();
+
+        User cached = cache.getById(USER_ID);
+        if (cached != null) assertEquals(commits, cached.getBalancePaise());
+    }
+
+    private static User user(long balancePaise) {
+        User user = new User();
+        user.setId(USER_ID);
+        user.setPhone("9000000007");
+        user.setBalancePaise(balancePaise);
+        return user;
+    }
+}
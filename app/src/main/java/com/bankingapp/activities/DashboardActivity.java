@@ -23,9 +23,12 @@ import androidx.fragment.app.FragmentTransaction;
 
 import com.bankingapp.R;
 import com.bankingapp.adapters.TransactionAdapter;
-import com.bankingapp.database.DatabaseHelper;
+import com.bankingapp.database.AsyncDataRepository;
+import com.bankingapp.database.InvalidationTracker;
+import com.bankingapp.database.PageToken;
 import com.bankingapp.fragments.PayBillFragment;
 import com.bankingapp.fragments.SendMoneyFragment;
+import com.bankingapp.models.Money;
 import com.bankingapp.models.Transaction;
 import com.bankingapp.utils.DateTimeHelper;
 import com.bankingapp.utils.LocationHelper;
@@ -47,6 +50,7 @@ public class DashboardActivity extends AppCompatActivity {
 
     private static final int REQ_LOCATION = 101;
     private static final int REQ_NOTIF    = 100;
+    private static final int PAGE_SIZE    = 20;
 
     // ── Views ─────────────────────────────────────────────────────────────
     private TextView tvUserName, tvAccountNo, tvBalance;
@@ -62,10 +66,13 @@ public class DashboardActivity extends AppCompatActivity {
 
     // ── State ─────────────────────────────────────────────────────────────
     private boolean isBalanceVisible = false;
-    private double  currentBalance   = 0.0;
+    private long    currentBalance   = 0L;   // paise
+    private PageToken nextPage;              // null once history is exhausted
+    private boolean   pageLoading;           // a page read is in flight
+    private int       pageGeneration;        // bumped on reload; stale pages are dropped
 
     // ── Helpers ───────────────────────────────────────────────────────────
-    private DatabaseHelper     db;
+    private AsyncDataRepository db;
     private SessionManager     session;
     private LocationHelper     locationHelper;
     private NotificationHelper notifHelper;
@@ -78,13 +85,13 @@ public class DashboardActivity extends AppCompatActivity {
         if (getSupportActionBar() != null)
             getSupportActionBar().setTitle("Dashboard");
 
-        db      = new DatabaseHelper(this);
+        db      = AsyncDataRepository.getInstance(this);
         session = new SessionManager(this);
 
         bindViews();
         loadUserInfo();
-        refreshBalance();
-        loadRecentTransactions();
+        observeBalance();
+        observeRecentTransactions();
         setButtonListeners();
 
         notifHelper    = new NotificationHelper(this);
@@ -97,8 +104,6 @@ public class DashboardActivity extends AppCompatActivity {
     @Override
     protected void onResume() {
         super.onResume();
-        refreshBalance();
-        loadRecentTransactions();
         showDefaultContent();
         updateDateTimeDisplay();
         if (locationHelper != null) locationHelper.startUpdates();
@@ -196,6 +201,19 @@ public class DashboardActivity extends AppCompatActivity {
         recyclerAdapter.setOnItemClickListener(txn -> {
             android.util.Log.d("Dashboard", "Tapped: " + txn.getDescription());
         });
+
+        // Pull older transactions page by page as the list nears its end
+        recyclerTransactions.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView rv, int dx, int dy) {
+                if (dy <= 0 || nextPage == null) return;
+                LinearLayoutManager lm = (LinearLayoutManager) rv.getLayoutManager();
+                if (lm != null && lm.findLastVisibleItemPosition()
+                        >= recyclerAdapter.getItemCount() - 5) {
+                    loadMoreTransactions();
+                }
+            }
+        });
         layoutDefaultContent   = findViewById(R.id.layoutDefaultContent);
     }
 
@@ -218,16 +236,43 @@ public class DashboardActivity extends AppCompatActivity {
         tvBalance.setText("Balance: ₹ ----");
     }
 
-    private void refreshBalance() {
-        currentBalance = db.getBalance(session.getUserId());
-        if (isBalanceVisible)
-            tvBalance.setText("Balance: ₹ " + String.format("%,.2f", currentBalance));
+    // Re-reads whenever a committed write changes this user's balance
+    private void observeBalance() {
+        int userId = session.getUserId();
+        db.observe(this, repo -> repo.getBalance(userId), balance -> {
+            currentBalance = balance;
+            if (isBalanceVisible)
+                tvBalance.setText("Balance: " + Money.format(currentBalance));
+        }, InvalidationTracker.forUser(InvalidationTracker.USERS, userId));
     }
 
-    private void loadRecentTransactions() {
+    // Any change to this user's history reloads the first page and restarts paging
+    private void observeRecentTransactions() {
         int userId = session.getUserId();
-        List<Transaction> recent = db.getRecentTransactions(userId, 20);
-        recyclerAdapter.submitList(recent);
+        db.observe(this, repo -> repo.getTransactionPage(userId, null,
+                PAGE_SIZE, Transaction.LIST_COLUMNS), page -> {
+            pageGeneration++;   // drops a next-page read still in flight
+            pageLoading = false;
+            nextPage    = page.next;
+            recyclerAdapter.submitList(page.items);
+        }, InvalidationTracker.forUser(InvalidationTracker.TRANSACTIONS, userId));
+    }
+
+    private void loadMoreTransactions() {
+        if (pageLoading || nextPage == null) return;
+        int       userId     = session.getUserId();
+        int       generation = pageGeneration;
+        PageToken after      = nextPage;
+        pageLoading = true;
+        db.read(this, repo -> repo.getTransactionPage(userId, after,
+                PAGE_SIZE, Transaction.LIST_COLUMNS), page -> {
+            if (generation != pageGeneration) return;
+            pageLoading = false;
+            nextPage    = page.next;
+            recyclerAdapter.appendList(page.items);
+        }, error -> {
+            if (generation == pageGeneration) pageLoading = false;   // next scroll retries
+        });
     }
 
     private void showDefaultContent() {
@@ -243,7 +288,7 @@ public class DashboardActivity extends AppCompatActivity {
         btnToggleBalance.setOnClickListener(v -> {
             isBalanceVisible = !isBalanceVisible;
             if (isBalanceVisible) {
-                tvBalance.setText("Balance: ₹ " + String.format("%,.2f", currentBalance));
+                tvBalance.setText("Balance: " + Money.format(currentBalance));
                 btnToggleBalance.setText("Hide");
             } else {
                 tvBalance.setText("Balance: ₹ ----");
@@ -273,8 +318,7 @@ public class DashboardActivity extends AppCompatActivity {
     public void onTransactionComplete() {
         getSupportFragmentManager().popBackStack();
         layoutDefaultContent.setVisibility(View.VISIBLE);
-        refreshBalance();
-        loadRecentTransactions();
+        // Balance and history follow the write through their observers
     }
 
     /**
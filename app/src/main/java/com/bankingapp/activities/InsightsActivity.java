@@ -21,7 +21,11 @@ import androidx.annotation.Nullable;
 import androidx.appcompat.app.AppCompatActivity;
 
 import com.bankingapp.R;
-import com.bankingapp.database.DatabaseHelper;
+import com.bankingapp.database.AsyncDataRepository;
+import com.bankingapp.database.InvalidationTracker;
+import com.bankingapp.database.ObservableQuery;
+import com.bankingapp.models.Money;
+import com.bankingapp.models.MonthSummary;
 import com.bankingapp.models.SavingsGoal;
 import com.bankingapp.utils.SessionManager;
 import com.bankingapp.views.SpendingChartView;
@@ -31,7 +35,6 @@ import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.Locale;
-import java.util.Map;
 
 public class InsightsActivity extends AppCompatActivity {
 
@@ -47,7 +50,9 @@ public class InsightsActivity extends AppCompatActivity {
     private TextView tvNoGoals;
 
     // ── Helpers ───────────────────────────────────────────────────────────
-    private DatabaseHelper db;
+    private AsyncDataRepository db;
+    private ObservableQuery<MonthSummary> monthQuery;
+    private volatile String selectedMonth;   // read by monthQuery on a worker
     private SessionManager session;
     private GoalAdapter goalAdapter;
     private List<SavingsGoal> goalList = new ArrayList<>();
@@ -70,7 +75,7 @@ public class InsightsActivity extends AppCompatActivity {
             getSupportActionBar().setDisplayHomeAsUpEnabled(true);
         }
 
-        db      = new DatabaseHelper(this);
+        db      = AsyncDataRepository.getInstance(this);
         session = new SessionManager(this);
 
         bindViews();
@@ -78,7 +83,7 @@ public class InsightsActivity extends AppCompatActivity {
         setupMonthSpinner();
         setupRatingBar();
         setupGoalForm();
-        loadGoals();
+        observeGoals();
     }
 
     // ── Bind all views ────────────────────────────────────────────────────
@@ -99,7 +104,7 @@ public class InsightsActivity extends AppCompatActivity {
     // ── Build a list of the last 6 months for the Spinner ────────────────
     private void buildMonthList() {
         SimpleDateFormat labelFmt = new SimpleDateFormat("MMM yyyy", Locale.getDefault());
-        SimpleDateFormat keyFmt   = new SimpleDateFormat("yyyy-MM",  Locale.getDefault());
+        SimpleDateFormat keyFmt   = new SimpleDateFormat("yyyy-MM",  Locale.US);
 
         java.util.Calendar cal = java.util.Calendar.getInstance();
         for (int i = 0; i < 6; i++) {
@@ -133,19 +138,30 @@ public class InsightsActivity extends AppCompatActivity {
 
     // ── Load spending data from DB and update chart + totals ──────────────
     private void loadInsightsForMonth(String monthKey) {
+        if (monthKey.equals(selectedMonth)) return;
+        selectedMonth = monthKey;
+        if (monthQuery != null) {
+            monthQuery.refresh();   // only the month picked last may update the screen
+            return;
+        }
+        // One query for the whole month: totals + category breakdown.
+        // It re-runs by itself when this user's transactions change.
         int userId = session.getUserId();
+        monthQuery = db.observe(this,
+                repo -> repo.getMonthSummary(userId, selectedMonth),
+                this::showMonthSummary,
+                InvalidationTracker.forUser(InvalidationTracker.TRANSACTIONS, userId));
+    }
 
+    private void showMonthSummary(MonthSummary summary) {
         // 1. Total spent this month (SENT + BILL_PAYMENT)
-        double totalSpent = db.getTotalSpentThisMonth(userId, monthKey);
-        tvTotalSpent.setText(String.format("₹ %,.2f", totalSpent));
+        tvTotalSpent.setText(Money.format(summary.spentPaise));
 
         // 2. Total received this month
-        double totalReceived = db.getTotalReceivedThisMonth(userId, monthKey);
-        tvTotalReceived.setText(String.format("₹ %,.2f", totalReceived));
+        tvTotalReceived.setText(Money.format(summary.receivedPaise));
 
         // 3. Spending breakdown by category → feed into the chart
-        Map<String, Double> categoryMap = db.getSpendingByCategory(userId, monthKey);
-        spendingChart.setData(categoryMap); // triggers onDraw() via invalidate()
+        spendingChart.setData(summary); // triggers onDraw() via invalidate()
     }
 
     // ── Setup RatingBar — saves rating to SharedPreferences ───────────────
@@ -200,9 +216,9 @@ public class InsightsActivity extends AppCompatActivity {
             return;
         }
 
-        double target;
+        long target;   // paise
         try {
-            target = Double.parseDouble(tgtStr);
+            target = Money.parse(tgtStr);
         } catch (NumberFormatException e) {
             etGoalTarget.setError("Invalid amount");
             return;
@@ -215,22 +231,37 @@ public class InsightsActivity extends AppCompatActivity {
 
         // Insert into DB
         SavingsGoal goal = new SavingsGoal(session.getUserId(), name, target);
-        boolean success = db.insertGoal(goal);
+        btnAddGoal.setEnabled(false);
+        db.write(this, repo -> repo.insertGoal(goal), success -> {
+            btnAddGoal.setEnabled(true);
+            onGoalInserted(name, success);
+        }, error -> {
+            btnAddGoal.setEnabled(true);
+            onGoalInserted(name, false);
+        });
+    }
 
+    private void onGoalInserted(String name, boolean success) {
         if (success) {
             Toast.makeText(this, "Goal \"" + name + "\" added!", Toast.LENGTH_SHORT).show();
             etGoalName.setText("");
             etGoalTarget.setText("");
-            loadGoals(); // refresh list
+            // observeGoals() picks up the new row
         } else {
             Toast.makeText(this, "Failed to add goal", Toast.LENGTH_SHORT).show();
         }
     }
 
-    // ── Load savings goals from DB and update ListView ────────────────────
-    private void loadGoals() {
+    // ── Load savings goals from DB (and again on change) into ListView ────
+    private void observeGoals() {
+        int userId = session.getUserId();
+        db.observe(this, repo -> repo.getGoalsByUser(userId), this::showGoals,
+                InvalidationTracker.forUser(InvalidationTracker.GOALS, userId));
+    }
+
+    private void showGoals(List<SavingsGoal> goals) {
         goalList.clear();
-        goalList.addAll(db.getGoalsByUser(session.getUserId()));
+        goalList.addAll(goals);
 
         if (goalList.isEmpty()) {
             tvNoGoals.setVisibility(View.VISIBLE);
@@ -312,8 +343,8 @@ public class InsightsActivity extends AppCompatActivity {
             tvPercent.setText(pct + "%");
             pgBar.setProgress(pct);
 
-            tvSaved.setText(String.format("Saved: ₹ %,.2f", goal.getCurrentAmount()));
-            tvTarget.setText(String.format("Target: ₹ %,.2f", goal.getTargetAmount()));
+            tvSaved.setText("Saved: " + Money.format(goal.getCurrentPaise()));
+            tvTarget.setText("Target: " + Money.format(goal.getTargetPaise()));
 
             return convertView;
         }
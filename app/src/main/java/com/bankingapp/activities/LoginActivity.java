@@ -13,7 +13,7 @@ import androidx.appcompat.app.AlertDialog;
 import androidx.appcompat.app.AppCompatActivity;
 
 import com.bankingapp.R;
-import com.bankingapp.database.DatabaseHelper;
+import com.bankingapp.database.AsyncDataRepository;
 import com.bankingapp.models.User;
 import com.bankingapp.utils.PasswordUtils;
 import com.bankingapp.utils.SessionManager;
@@ -28,7 +28,7 @@ public class LoginActivity extends AppCompatActivity {
     private TextView    tvRegisterLink;
 
     // ── Helpers ───────────────────────────────────────────────────────────
-    private DatabaseHelper db;
+    private AsyncDataRepository db;
     private SessionManager sessionManager;
 
     @Override
@@ -42,7 +42,7 @@ public class LoginActivity extends AppCompatActivity {
         }
 
         // ── Initialize helpers ─────────────────────────────────────────────
-        db             = new DatabaseHelper(this);
+        db             = AsyncDataRepository.getInstance(this);
         sessionManager = new SessionManager(this);
 
         // ── Bind Views ─────────────────────────────────────────────────────
@@ -91,10 +91,20 @@ public class LoginActivity extends AppCompatActivity {
             return;
         }
 
-        // ── Step 2: Query database ─────────────────────────────────────────
-        User user = db.loginUser(username, password);
+        // ── Step 2: Query database (off the main thread) ──────────────────
+        btnLogin.setEnabled(false);
+        db.read(this, repo -> repo.loginUser(username, password), user -> {
+            btnLogin.setEnabled(true);
+            onLoginResult(user);
+        }, error -> {
+            btnLogin.setEnabled(true);
+            Toast.makeText(this, "Could not sign in. Please try again.",
+                    Toast.LENGTH_SHORT).show();
+        });
+    }
 
-        // ── Step 3: Handle result ─────────────────────────────────────────
+    // ── Step 3: Handle result ─────────────────────────────────────────────
+    private void onLoginResult(User user) {
         if (user != null) {
             // SUCCESS: create session and go to Dashboard
             sessionManager.createSession(
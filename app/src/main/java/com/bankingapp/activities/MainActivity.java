@@ -4,10 +4,14 @@ import android.content.Intent;
 import android.os.Bundle;
 import android.os.Handler;
 import android.os.Looper;
+import android.os.StrictMode;
 
 import androidx.appcompat.app.AppCompatActivity;
 
+import com.bankingapp.BuildConfig;
 import com.bankingapp.R;
+import com.bankingapp.services.ArchiveJobService;
+import com.bankingapp.services.MaintenanceJobService;
 import com.bankingapp.utils.SessionManager;
 
 public class MainActivity extends AppCompatActivity {
@@ -19,6 +23,7 @@ public class MainActivity extends AppCompatActivity {
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
+        enableStrictModeInDebug();
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_main);
 
@@ -29,6 +34,11 @@ public class MainActivity extends AppCompatActivity {
 
         sessionManager = new SessionManager(this);
 
+        // Old months move to compressed cold storage in the background
+        ArchiveJobService.schedule(this, ArchiveJobService.DEFAULT_HORIZON_MONTHS);
+        // ...and the database gets its statistics and free pages seen to
+        MaintenanceJobService.schedule(this, MaintenanceJobService.DEFAULT_BUDGET_MS);
+
         // ── Use Handler to delay navigation by SPLASH_DURATION_MS ──────────
         new Handler(Looper.getMainLooper()).postDelayed(new Runnable() {
             @Override
@@ -55,6 +65,16 @@ public class MainActivity extends AppCompatActivity {
         finish();
     }
 
+    // ── Debug builds: log any disk access that is still on the main thread ─
+    private void enableStrictModeInDebug() {
+        if (!BuildConfig.DEBUG) return;
+        StrictMode.setThreadPolicy(new StrictMode.ThreadPolicy.Builder()
+                .detectDiskReads()
+                .detectDiskWrites()
+                .penaltyLog()
+                .build());
+    }
+
     // ── Prevent back press on Splash screen ────────────────────────────────
     @Override
     public void onBackPressed() {
@@ -2,6 +2,8 @@ package com.bankingapp.activities;
 
 import android.content.Intent;
 import android.os.Bundle;
+import android.text.Editable;
+import android.text.TextWatcher;
 import android.view.View;
 import android.widget.Button;
 import android.widget.EditText;
@@ -11,14 +13,26 @@ import androidx.appcompat.app.AlertDialog;
 import androidx.appcompat.app.AppCompatActivity;
 
 import com.bankingapp.R;
-import com.bankingapp.database.DatabaseHelper;
+import com.bankingapp.database.AsyncDataRepository;
 import com.bankingapp.utils.PasswordUtils;
 
 public class RegisterActivity extends AppCompatActivity {
 
     private EditText etFullName, etRegUsername, etPhone, etRegPassword;
     private Button   btnCreateAccount;
-    private DatabaseHelper db;
+    private AsyncDataRepository db;
+
+    // ── Outcomes of the register call (checked + inserted on the writer) ─
+    private static final int REG_OK             = 0;
+    private static final int REG_USERNAME_TAKEN = 1;
+    private static final int REG_PHONE_TAKEN    = 2;
+    private static final int REG_FAILED         = 3;
+
+    // ── Live "already taken" hints while typing ───────────────────────────
+    // Debounced; most answers come from the in-memory UserKeyFilter
+    private static final long CHECK_DEBOUNCE_MS = 300;
+    private final Runnable usernameCheck = this::checkUsernameAvailable;
+    private final Runnable phoneCheck    = this::checkPhoneAvailable;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -30,7 +44,7 @@ public class RegisterActivity extends AppCompatActivity {
             getSupportActionBar().setDisplayHomeAsUpEnabled(true);
         }
 
-        db = new DatabaseHelper(this);
+        db = AsyncDataRepository.getInstance(this);
 
         // Bind Views
         etFullName       = findViewById(R.id.etFullName);
@@ -39,6 +53,9 @@ public class RegisterActivity extends AppCompatActivity {
         etRegPassword    = findViewById(R.id.etRegPassword);
         btnCreateAccount = findViewById(R.id.btnCreateAccount);
 
+        watchAvailability(etRegUsername, usernameCheck);
+        watchAvailability(etPhone, phoneCheck);
+
         btnCreateAccount.setOnClickListener(new View.OnClickListener() {
             @Override
             public void onClick(View v) {
@@ -47,6 +64,38 @@ public class RegisterActivity extends AppCompatActivity {
         });
     }
 
+    private void watchAvailability(EditText field, Runnable check) {
+        field.addTextChangedListener(new TextWatcher() {
+            @Override public void beforeTextChanged(CharSequence s, int st, int c, int a) {}
+            @Override public void onTextChanged(CharSequence s, int st, int b, int c) {}
+
+            @Override
+            public void afterTextChanged(Editable s) {
+                field.removeCallbacks(check);
+                field.postDelayed(check, CHECK_DEBOUNCE_MS);
+            }
+        });
+    }
+
+    private void checkUsernameAvailable() {
+        String username = etRegUsername.getText().toString().trim();
+        if (PasswordUtils.validateUsername(username) != null) return;
+        db.read(this, repo -> repo.isUsernameExists(username), taken -> {
+            // Ignore an answer for text the user has since changed
+            if (taken && username.equals(etRegUsername.getText().toString().trim()))
+                etRegUsername.setError(getString(R.string.err_username_taken));
+        });
+    }
+
+    private void checkPhoneAvailable() {
+        String phone = etPhone.getText().toString().trim();
+        if (!phone.matches("[0-9]{10}")) return;
+        db.read(this, repo -> repo.isPhoneExists(phone), taken -> {
+            if (taken && phone.equals(etPhone.getText().toString().trim()))
+                etPhone.setError(getString(R.string.err_phone_taken));
+        });
+    }
+
     private void attemptRegister() {
         String fullName  = etFullName.getText().toString().trim();
         String username  = etRegUsername.getText().toString().trim();
@@ -76,21 +125,36 @@ public class RegisterActivity extends AppCompatActivity {
             etRegPassword.requestFocus(); return;
         }
 
-        // ── Check duplicates ──────────────────────────────────────────────
-        if (db.isUsernameExists(username)) {
+        // ── Check duplicates + register, as one job on the writer thread ──
+        // Running the checks there too means no other registration can
+        // slip in between "not taken" and the insert.
+        btnCreateAccount.setEnabled(false);
+        db.write(this, repo -> {
+            if (repo.isUsernameExists(username)) return REG_USERNAME_TAKEN;
+            if (repo.isPhoneExists(phone))       return REG_PHONE_TAKEN;
+            return repo.registerUser(username, password, fullName, phone)
+                    ? REG_OK : REG_FAILED;
+        }, outcome -> {
+            btnCreateAccount.setEnabled(true);
+            onRegisterResult(outcome);
+        }, error -> {
+            btnCreateAccount.setEnabled(true);
+            onRegisterResult(REG_FAILED);
+        });
+    }
+
+    private void onRegisterResult(int outcome) {
+        if (outcome == REG_USERNAME_TAKEN) {
             etRegUsername.setError(getString(R.string.err_username_taken));
             etRegUsername.requestFocus(); return;
         }
 
-        if (db.isPhoneExists(phone)) {
+        if (outcome == REG_PHONE_TAKEN) {
             etPhone.setError(getString(R.string.err_phone_taken));
             etPhone.requestFocus(); return;
         }
 
-        // ── Register in DB ────────────────────────────────────────────────
-        boolean success = db.registerUser(username, password, fullName, phone);
-
-        if (success) {
+        if (outcome == REG_OK) {
             // POSITIVE dialog — required by syllabus
             new AlertDialog.Builder(this)
                     .setTitle("Account Created!")
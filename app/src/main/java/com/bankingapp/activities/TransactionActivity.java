@@ -1,19 +1,21 @@
 package com.bankingapp.activities;
 
 import android.app.DatePickerDialog;
-import android.database.Cursor;
 import android.graphics.Color;
-import android.net.Uri;
 import android.os.Bundle;
+import android.text.Editable;
+import android.text.TextWatcher;
 import android.view.ContextMenu;
 import android.view.LayoutInflater;
 import android.view.Menu;
 import android.view.MenuItem;
 import android.view.View;
 import android.view.ViewGroup;
+import android.widget.AbsListView;
 import android.widget.AdapterView;
 import android.widget.ArrayAdapter;
 import android.widget.Button;
+import android.widget.EditText;
 import android.widget.ListView;
 import android.widget.Spinner;
 import android.widget.TextView;
@@ -22,8 +24,15 @@ import androidx.appcompat.app.AlertDialog;
 import androidx.appcompat.app.AppCompatActivity;
 
 import com.bankingapp.R;
+import com.bankingapp.database.AsyncDataRepository;
+import com.bankingapp.database.IDataRepository;
+import com.bankingapp.database.InvalidationTracker;
+import com.bankingapp.database.ObservableQuery;
+import com.bankingapp.database.PageToken;
+import com.bankingapp.database.TransactionPage;
+import com.bankingapp.models.Money;
 import com.bankingapp.models.Transaction;
-import com.bankingapp.providers.TransactionProvider;
+import com.bankingapp.utils.DateTimeHelper;
 import com.bankingapp.utils.SessionManager;
 
 import java.util.ArrayList;
@@ -36,6 +45,7 @@ public class TransactionActivity extends AppCompatActivity {
     // ── Views ─────────────────────────────────────────────────────────────
     private Button   btnFromDate, btnToDate, btnApplyFilter, btnClearFilter;
     private Spinner  spinnerFilter;
+    private EditText etSearch;
     private ListView listTransactions;
     private TextView tvTotalSent, tvTotalReceived, tvTxnCount, tvEmptyList;
 
@@ -46,7 +56,25 @@ public class TransactionActivity extends AppCompatActivity {
     private TransactionDetailAdapter adapter;
     private int selectedContextPosition = -1;  // for context menu
 
-    private SessionManager session;
+    // ── Paging state for the current filter ───────────────────────────────
+    private static final int PAGE_SIZE     = 50;
+    private static final int PREFETCH_ROWS = 10;
+    private HistoryFilter shownFilter;     // filter the list currently shows
+    private PageToken     nextPage;        // null before first page / at end
+    private boolean       hasMorePages;
+    private boolean       pageLoading;     // a next-page read is in flight
+
+    // First page + totals; re-runs on filter change and on new transactions
+    private ObservableQuery<FirstPage> historyQuery;
+    private volatile HistoryFilter requestedFilter;   // read by historyQuery on a worker
+
+    // ── Search state (non-empty query replaces the filtered history) ─────
+    private static final long SEARCH_DEBOUNCE_MS = 300;
+    private String searchQuery = "";
+    private final Runnable searchRunnable = this::applySearch;
+
+    private SessionManager      session;
+    private AsyncDataRepository db;
 
     // ── Filter type options ────────────────────────────────────────────────
     private final String[] FILTER_TYPES = {
@@ -64,11 +92,13 @@ public class TransactionActivity extends AppCompatActivity {
         }
 
         session = new SessionManager(this);
+        db      = AsyncDataRepository.getInstance(this);
 
         bindViews();
         setupSpinner();
         setupDateButtons();
         setupFilterButtons();
+        setupSearch();
         loadTransactions("", "", "All");
     }
 
@@ -79,6 +109,7 @@ public class TransactionActivity extends AppCompatActivity {
         btnApplyFilter   = findViewById(R.id.btnApplyFilter);
         btnClearFilter   = findViewById(R.id.btnClearFilter);
         spinnerFilter    = findViewById(R.id.spinnerFilter);
+        etSearch         = findViewById(R.id.etSearch);
         listTransactions = findViewById(R.id.listTransactions);
         tvTotalSent      = findViewById(R.id.tvTotalSent);
         tvTotalReceived  = findViewById(R.id.tvTotalReceived);
@@ -108,7 +139,7 @@ public class TransactionActivity extends AppCompatActivity {
                 this,
                 (view, year, month, dayOfMonth) -> {
                     // month is 0-indexed, so +1
-                    String date = String.format(Locale.getDefault(),
+                    String date = String.format(Locale.US,
                             "%04d-%02d-%02d", year, month + 1, dayOfMonth);
                     if (isFromDate) {
                         selectedFromDate = date;
@@ -142,82 +173,98 @@ public class TransactionActivity extends AppCompatActivity {
         });
     }
 
+    // ── Search box: runs shortly after the user stops typing ──────────────
+    private void setupSearch() {
+        etSearch.addTextChangedListener(new TextWatcher() {
+            @Override public void beforeTextChanged(CharSequence s, int st, int c, int a) {}
+            @Override public void onTextChanged(CharSequence s, int st, int b, int c) {}
+
+            @Override
+            public void afterTextChanged(Editable s) {
+                etSearch.removeCallbacks(searchRunnable);
+                etSearch.postDelayed(searchRunnable, SEARCH_DEBOUNCE_MS);
+            }
+        });
+        etSearch.setOnEditorActionListener((v, actionId, event) -> {
+            etSearch.removeCallbacks(searchRunnable);
+            applySearch();
+            return false;
+        });
+    }
+
+    private void applySearch() {
+        String query = etSearch.getText().toString().trim();
+        if (query.equals(searchQuery)) return;
+        if (query.isEmpty()) {
+            // Back to the history the filter bar describes
+            loadTransactions(selectedFromDate, selectedToDate,
+                    spinnerFilter.getSelectedItem().toString());
+            return;
+        }
+        searchQuery = query;
+        // Search spans all dates and types; the strip shows the match count
+        showFilter(HistoryFilter.search(query));
+    }
+
     // ─────────────────────────────────────────────────────────────────────
-    // CORE: Load transactions via ContentProvider
+    // CORE: totals via the repository, rows via keyset pages
     // ─────────────────────────────────────────────────────────────────────
     private void loadTransactions(String fromDate, String toDate,
                                   String typeFilter) {
-        transactionList.clear();
-
-        int    userId = session.getUserId();
-
-        // Build URI: content://com.bankingapp.provider/transactions/{userId}
-        Uri uri = Uri.withAppendedPath(
-                TransactionProvider.CONTENT_URI,
-                String.valueOf(userId));
-
-        // Build WHERE clause based on filters
-        StringBuilder selection = new StringBuilder();
-        List<String>  selArgs   = new ArrayList<>();
-
-        // Date range filter
-        if (!fromDate.isEmpty() && !toDate.isEmpty()) {
-            selection.append("date_time BETWEEN ? AND ?");
-            selArgs.add(fromDate + " 00:00:00");
-            selArgs.add(toDate   + " 23:59:59");
-        } else if (!fromDate.isEmpty()) {
-            selection.append("date_time >= ?");
-            selArgs.add(fromDate + " 00:00:00");
-        } else if (!toDate.isEmpty()) {
-            selection.append("date_time <= ?");
-            selArgs.add(toDate + " 23:59:59");
-        }
+        searchQuery = "";
+        etSearch.removeCallbacks(searchRunnable);
+        etSearch.getText().clear();   // the watcher then sees "" == searchQuery
+
+        // Resolve filters once — every page of this query reuses them
+        long   fromMillis = fromDate.isEmpty() ? Long.MIN_VALUE
+                : DateTimeHelper.dayStartMillis(fromDate);
+        long   toMillis   = toDate.isEmpty()   ? Long.MAX_VALUE
+                : DateTimeHelper.dayEndMillis(toDate);
+        String type       = typeFilter.equals("All") ? null
+                : typeFilterToDbValue(typeFilter);
+        showFilter(HistoryFilter.history(fromMillis, toMillis, type));
+    }
 
-        // Type filter
-        if (!typeFilter.equals("All")) {
-            if (selection.length() > 0) selection.append(" AND ");
-            String dbType = typeFilterToDbValue(typeFilter);
-            selection.append("type = ?");
-            selArgs.add(dbType);
+    // Points the observed first page at a new filter or search
+    private void showFilter(HistoryFilter filter) {
+        requestedFilter = filter;
+        if (historyQuery != null) {
+            historyQuery.refresh();   // a page for the old filter is dropped
+            return;
         }
+        int userId = session.getUserId();
+        historyQuery = db.observe(this,
+                repo -> readFirstPage(repo, userId, requestedFilter),
+                this::showFirstPage,
+                InvalidationTracker.forUser(InvalidationTracker.TRANSACTIONS, userId));
+    }
 
-        String selString = selection.length() > 0 ? selection.toString() : null;
-        String[] selArgsArr = selArgs.isEmpty() ? null :
-                selArgs.toArray(new String[0]);
-
-        // ── Query via ContentProvider (not DatabaseHelper directly) ───────
-        Cursor cursor = getContentResolver().query(
-                uri,
-                null,           // all columns
-                selString,
-                selArgsArr,
-                "date_time DESC"
-        );
-
-        double totalSent     = 0;
-        double totalReceived = 0;
-
-        if (cursor != null) {
-            while (cursor.moveToNext()) {
-                Transaction txn = new Transaction(cursor);
-                transactionList.add(txn);
-
-                // Accumulate totals
-                if (txn.getType().equals(Transaction.TYPE_SENT) ||
-                        txn.getType().equals(Transaction.TYPE_BILL_PAYMENT)) {
-                    totalSent += txn.getAmount();
-                } else if (txn.getType().equals(Transaction.TYPE_RECEIVED)) {
-                    totalReceived += txn.getAmount();
-                }
-            }
-            cursor.close();
+    private void showFirstPage(FirstPage first) {
+        shownFilter  = first.filter;
+        nextPage     = first.next;
+        hasMorePages = first.hasMore;
+        pageLoading  = false;
+        transactionList.clear();
+        transactionList.addAll(first.items);
+        if (first.filter.isSearch()) {
+            tvTotalSent.setText("Search results");
+            tvTotalReceived.setText("");
+            showMatchCount();
+        } else {
+            // Update summary strip
+            tvTotalSent.setText("Sent: " + Money.format(first.totalSent));
+            tvTotalReceived.setText("Received: " + Money.format(first.totalReceived));
+            tvTxnCount.setText("Total: " + first.count);
         }
+        showResults();
+    }
 
-        // Update summary strip
-        tvTotalSent.setText(String.format("Sent: ₹ %,.2f", totalSent));
-        tvTotalReceived.setText(String.format("Received: ₹ %,.2f", totalReceived));
-        tvTxnCount.setText("Total: " + transactionList.size());
+    private void showMatchCount() {
+        tvTxnCount.setText("Matches: " + transactionList.size()
+                + (hasMorePages ? "+" : ""));
+    }
 
+    private void showResults() {
         // Show/hide empty state
         if (transactionList.isEmpty()) {
             tvEmptyList.setVisibility(View.VISIBLE);
@@ -233,11 +280,127 @@ public class TransactionActivity extends AppCompatActivity {
             listTransactions.setAdapter(adapter);
             // Register ListView for Context Menu
             registerForContextMenu(listTransactions);
+            listTransactions.setOnScrollListener(new AbsListView.OnScrollListener() {
+                @Override
+                public void onScrollStateChanged(AbsListView view, int scrollState) {}
+
+                @Override
+                public void onScroll(AbsListView view, int firstVisible,
+                                     int visibleCount, int totalCount) {
+                    // Pull the next page shortly before the user reaches the end
+                    if (hasMorePages && totalCount > 0 &&
+                            firstVisible + visibleCount >= totalCount - PREFETCH_ROWS) {
+                        loadNextPage();
+                    }
+                }
+            });
         } else {
             adapter.notifyDataSetChanged();
         }
     }
 
+    // ── Append the next keyset page (or search page) to the list ─────────
+    private void loadNextPage() {
+        if (!hasMorePages || pageLoading || shownFilter == null) return;
+        HistoryFilter filter = shownFilter;
+        int           userId = session.getUserId();
+        pageLoading = true;
+        if (filter.isSearch()) {
+            int offset = transactionList.size();
+            db.read(this, repo -> repo.searchTransactions(
+                    userId, filter.query, offset, PAGE_SIZE), matches -> {
+                if (filter != shownFilter) return;   // list was reloaded meanwhile
+                pageLoading  = false;
+                hasMorePages = matches.size() == PAGE_SIZE;
+                transactionList.addAll(matches);
+                showMatchCount();
+                adapter.notifyDataSetChanged();
+            }, error -> {
+                if (filter == shownFilter) pageLoading = false;   // next scroll retries
+            });
+            return;
+        }
+        PageToken after = nextPage;
+        db.read(this, repo -> repo.getTransactionPage(userId, filter.fromMillis,
+                filter.toMillis, filter.type, after, PAGE_SIZE), page -> {
+            if (filter != shownFilter) return;
+            pageLoading  = false;
+            nextPage     = page.next;
+            hasMorePages = page.hasMore();
+            transactionList.addAll(page.items);
+            adapter.notifyDataSetChanged();
+        }, error -> {
+            if (filter == shownFilter) pageLoading = false;   // next scroll retries
+        });
+    }
+
+    // ── Worker thread: first page plus the filter's summary totals ────────
+    private FirstPage readFirstPage(IDataRepository repo, int userId,
+                                    HistoryFilter filter) {
+        if (filter.isSearch()) {
+            List<Transaction> matches =
+                    repo.searchTransactions(userId, filter.query, 0, PAGE_SIZE);
+            return new FirstPage(filter, matches, null,
+                    matches.size() == PAGE_SIZE, 0L, 0L, 0);
+        }
+        TransactionPage page = repo.getTransactionPage(userId, filter.fromMillis,
+                filter.toMillis, filter.type, null, PAGE_SIZE);
+
+        // Whole months come from the monthly rollup, so a wide range (or an
+        // archived one) costs about as much as a narrow one
+        IDataRepository.RangeTotals totals = repo.getRangeTotals(userId,
+                filter.fromMillis, filter.toMillis, filter.type);
+        return new FirstPage(filter, page.items, page.next, page.hasMore(),
+                totals.spentPaise, totals.receivedPaise, totals.count);
+    }
+
+    // ── What the list shows: a date/type filter or a search ───────────────
+    private static final class HistoryFilter {
+        final long   fromMillis;
+        final long   toMillis;
+        final String type;    // null = all types
+        final String query;   // non-null = search
+
+        private HistoryFilter(long fromMillis, long toMillis, String type, String query) {
+            this.fromMillis = fromMillis;
+            this.toMillis   = toMillis;
+            this.type       = type;
+            this.query      = query;
+        }
+
+        static HistoryFilter history(long fromMillis, long toMillis, String type) {
+            return new HistoryFilter(fromMillis, toMillis, type, null);
+        }
+
+        static HistoryFilter search(String query) {
+            return new HistoryFilter(Long.MIN_VALUE, Long.MAX_VALUE, null, query);
+        }
+
+        boolean isSearch() { return query != null; }
+    }
+
+    // ── First page of a filter, read in one go on a worker ───────────────
+    private static final class FirstPage {
+        final HistoryFilter     filter;
+        final List<Transaction> items;
+        final PageToken         next;
+        final boolean           hasMore;
+        final long              totalSent;       // paise; history only
+        final long              totalReceived;
+        final int               count;
+
+        FirstPage(HistoryFilter filter, List<Transaction> items, PageToken next,
+                  boolean hasMore, long totalSent, long totalReceived, int count) {
+            this.filter        = filter;
+            this.items         = items;
+            this.next          = next;
+            this.hasMore       = hasMore;
+            this.totalSent     = totalSent;
+            this.totalReceived = totalReceived;
+            this.count         = count;
+        }
+    }
+
     // ── Map Spinner display text to DB column value ────────────────────────
     private String typeFilterToDbValue(String displayText) {
         switch (displayText) {
@@ -290,7 +453,7 @@ public class TransactionActivity extends AppCompatActivity {
                         "Amount:      " + txn.getFormattedAmount() + "\n" +
                         "To/From:     " + txn.getToFromName()  + "\n" +
                         "Phone:       " + txn.getToFromPhone() + "\n" +
-                        "Date & Time: " + txn.getDateTime()    + "\n" +
+                        "Date & Time: " + txn.getFormattedDateTime() + "\n" +
                         "Status:      " + txn.getStatus();
 
         new AlertDialog.Builder(this)
@@ -310,7 +473,7 @@ public class TransactionActivity extends AppCompatActivity {
             locInfo = String.format(Locale.getDefault(),
                     "Latitude:  %.6f\nLongitude: %.6f\n\n" +
                             "Transaction recorded at this location on:\n%s",
-                    txn.getLatitude(), txn.getLongitude(), txn.getDateTime());
+                    txn.getLatitude(), txn.getLongitude(), txn.getFormattedDateTime());
         }
 
         new AlertDialog.Builder(this)
@@ -349,7 +512,7 @@ public class TransactionActivity extends AppCompatActivity {
 
             tvDesc.setText(txn.getDescription());
             tvToFrom.setText(txn.getToFromName());
-            tvDate.setText(txn.getDateTime());
+            tvDate.setText(txn.getFormattedDateTime());
             tvCat.setText(txn.getCategory());
             tvAmount.setText(txn.getFormattedAmount());
 
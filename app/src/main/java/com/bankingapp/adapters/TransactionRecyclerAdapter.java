@@ -70,6 +70,14 @@ public class TransactionRecyclerAdapter
         diff.dispatchUpdatesTo(this);
     }
 
+    // ── Append the next page (no diff needed — existing rows unchanged) ───
+    public void appendList(List<Transaction> page) {
+        if (page.isEmpty()) return;
+        int start = items.size();
+        items.addAll(page);
+        notifyItemRangeInserted(start, page.size());
+    }
+
     // ── RecyclerView.Adapter overrides ────────────────────────────────────
     @Override
     public int getItemViewType(int position) {
@@ -0,0 +1,135 @@
+package com.bankingapp.database;
+
+import com.bankingapp.models.Transaction;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * ArchiveBlock — the compressed form of one batch of archived
+ * transactions (one user, one month) stored in transaction_archive.
+ *
+ * Column by column rather than row by row: a block of one user's month
+ * repeats the same types, statuses, counterparties and date prefixes,
+ * and deflate finds those far more easily when like sits next to like.
+ * Ids and times are written as deltas from the previous row, so most of
+ * them shrink to a run of zero bytes. user_id is not stored; the block's
+ * row carries it.
+ */
+final class ArchiveBlock {
+
+    private static final int FORMAT = 1;
+
+    private ArchiveBlock() {}
+
+    /** Deflated block holding {@code rows} in the order given. */
+    static byte[] encode(List<Transaction> rows) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + rows.size() * 48);
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try (DataOutputStream out = new DataOutputStream(
+                new DeflaterOutputStream(bytes, deflater))) {
+            out.writeByte(FORMAT);
+            out.writeInt(rows.size());
+            int  lastId   = 0;
+            long lastTime = 0;
+            for (Transaction t : rows) {
+                out.writeInt(t.getId() - lastId);
+                lastId = t.getId();
+            }
+            for (Transaction t : rows) {
+                out.writeLong(t.getTimeMillis() - lastTime);
+                lastTime = t.getTimeMillis();
+            }
+            for (Transaction t : rows) out.writeLong(t.getAmountPaise());
+            for (Transaction t : rows) writeText(out, t.getType());
+            for (Transaction t : rows) writeText(out, t.getCategory());
+            for (Transaction t : rows) writeText(out, t.getDescription());
+            for (Transaction t : rows) writeText(out, t.getToFromName());
+            for (Transaction t : rows) writeText(out, t.getToFromPhone());
+            for (Transaction t : rows) writeText(out, t.getDateTime());
+            for (Transaction t : rows) writeText(out, t.getStatus());
+            for (Transaction t : rows) out.writeDouble(t.getLatitude());
+            for (Transaction t : rows) out.writeDouble(t.getLongitude());
+        } catch (IOException e) {
+            // A ByteArrayOutputStream never fails
+            throw new IllegalStateException(e);
+        } finally {
+            deflater.end();
+        }
+        return bytes.toByteArray();
+    }
+
+    /** The rows of {@code block}, in the order they were encoded. */
+    static List<Transaction> decode(int userId, byte[] block) {
+        try (DataInputStream in = new DataInputStream(
+                new InflaterInputStream(new ByteArrayInputStream(block)))) {
+            int format = in.readUnsignedByte();
+            if (format != FORMAT) {
+                throw new IllegalStateException("Unknown archive block format " + format);
+            }
+            int n = in.readInt();
+            int[]  ids     = new int[n];
+            long[] times   = new long[n];
+            long[] amounts = new long[n];
+            int  id   = 0;
+            long time = 0;
+            for (int i = 0; i < n; i++) ids[i]     = id   += in.readInt();
+            for (int i = 0; i < n; i++) times[i]   = time += in.readLong();
+            for (int i = 0; i < n; i++) amounts[i] = in.readLong();
+            String[] types        = readTexts(in, n);
+            String[] categories   = readTexts(in, n);
+            String[] descriptions = readTexts(in, n);
+            String[] names        = readTexts(in, n);
+            String[] phones       = readTexts(in, n);
+            String[] dateTimes    = readTexts(in, n);
+            String[] statuses     = readTexts(in, n);
+            double[] latitudes    = new double[n];
+            double[] longitudes   = new double[n];
+            for (int i = 0; i < n; i++) latitudes[i]  = in.readDouble();
+            for (int i = 0; i < n; i++) longitudes[i] = in.readDouble();
+
+            List<Transaction> rows = new ArrayList<>(n);
+            for (int i = 0; i < n; i++) {
+                rows.add(new Transaction(ids[i], userId, types[i], categories[i],
+                        amounts[i], descriptions[i], names[i], phones[i],
+                        dateTimes[i], times[i], latitudes[i], longitudes[i],
+                        statuses[i]));
+            }
+            return rows;
+        } catch (IOException e) {
+            throw new IllegalStateException("Corrupt archive block", e);
+        }
+    }
+
+    // Length-prefixed UTF-8; -1 for NULL (writeUTF stops at 64 KB)
+    private static void writeText(DataOutputStream out, String s) throws IOException {
+        if (s == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] utf8 = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(utf8.length);
+        out.write(utf8);
+    }
+
+    private static String[] readTexts(DataInputStream in, int n) throws IOException {
+        String[] texts = new String[n];
+        for (int i = 0; i < n; i++) {
+            int length = in.readInt();
+            if (length < 0) continue;
+            byte[] utf8 = new byte[length];
+            in.readFully(utf8);
+            texts[i] = new String(utf8, StandardCharsets.UTF_8);
+        }
+        return texts;
+    }
+}
@@ -0,0 +1,242 @@
+package com.bankingapp.database;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+import android.util.Log;
+
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleEventObserver;
+import androidx.lifecycle.LifecycleOwner;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * AsyncDataRepository — runs IDataRepository calls off the main thread.
+ *
+ * Reads go to a small fixed pool (WAL lets them run beside the writer);
+ * writes go to a single thread, so they execute one at a time in the
+ * order they were submitted. Both queues are bounded: a flood of
+ * requests fails fast with RejectedExecutionException instead of piling
+ * up work for screens that are already gone.
+ *
+ * Results and errors are delivered on the main looper. A rejected call
+ * goes to the error callback, or is logged and dropped when there is
+ * none: back-pressure must never crash the app. Screens that disable a
+ * control while a call runs should pass an error callback to restore
+ * it. Passing a LifecycleOwner ties the request to that screen: it is
+ * cancelled automatically at ON_DESTROY. A cancelled read is dropped if
+ * it has not started; a cancelled write still runs (a half-cancelled
+ * transfer is worse than a late one), only its callback is suppressed.
+ *
+ * Usage:
+ *   async.read(this, repo -> repo.getBalance(userId), balance -> show(balance));
+ *   async.observe(this, repo -> repo.getBalance(userId), balance -> show(balance),
+ *           InvalidationTracker.forUser(InvalidationTracker.USERS, userId));
+ */
+public final class AsyncDataRepository {
+
+    // ── Work and result callbacks ─────────────────────────────────────────
+    public interface Call<T> {
+        T run(IDataRepository repo) throws Exception;
+    }
+
+    public interface Callback<T> {
+        void onResult(T result);
+    }
+
+    public interface ErrorCallback {
+        void onError(Throwable error);
+    }
+
+    private static final String TAG = "AsyncDataRepository";
+
+    // ── Pool sizing ───────────────────────────────────────────────────────
+    private static final int READER_THREADS = 2;
+    private static final int READ_QUEUE     = 32;
+    private static final int WRITE_QUEUE    = 64;
+
+    private static AsyncDataRepository instance;
+
+    public static synchronized AsyncDataRepository getInstance(Context context) {
+        if (instance == null) {
+            DatabaseHelper helper = DatabaseHelper.getInstance(context);
+            instance = new AsyncDataRepository(DatabaseHelper.getRepository(context),
+                    helper.getInvalidationTracker());
+        }
+        return instance;
+    }
+
+    private final IDataRepository     repo;
+    private final InvalidationTracker tracker;
+    private final ThreadPoolExecutor  readers;
+    private final ThreadPoolExecutor  writer;
+    private final Handler             mainHandler = new Handler(Looper.getMainLooper());
+
+    AsyncDataRepository(IDataRepository repo, InvalidationTracker tracker) {
+        this.repo    = repo;
+        this.tracker = tracker;
+        this.readers = newPool("db-read", READER_THREADS, READ_QUEUE);
+        this.writer  = newPool("db-write", 1, WRITE_QUEUE);
+    }
+
+    /** The wrapped synchronous repository (call it from worker threads only). */
+    public IDataRepository sync() {
+        return repo;
+    }
+
+    // ═════════════════════════════════════════════════════════════════════
+    // SUBMITTING WORK
+    // ═════════════════════════════════════════════════════════════════════
+
+    public <T> Request read(LifecycleOwner owner, Call<T> call, Callback<T> onResult) {
+        return read(owner, call, onResult, null);
+    }
+
+    public <T> Request read(LifecycleOwner owner, Call<T> call,
+                            Callback<T> onResult, ErrorCallback onError) {
+        return submit(readers, false, owner, call, onResult, onError);
+    }
+
+    public <T> Request write(LifecycleOwner owner, Call<T> call, Callback<T> onResult) {
+        return write(owner, call, onResult, null);
+    }
+
+    public <T> Request write(LifecycleOwner owner, Call<T> call,
+                             Callback<T> onResult, ErrorCallback onError) {
+        return submit(writer, true, owner, call, onResult, onError);
+    }
+
+    /**
+     * Runs {@code call} now and again whenever a committed write touches
+     * one of {@code keys} (see InvalidationTracker), delivering every
+     * result to {@code onResult} while {@code owner} is started.
+     */
+    public <T> ObservableQuery<T> observe(LifecycleOwner owner, Call<T> call,
+                                          Callback<T> onResult, String... keys) {
+        ObservableQuery<T> query = new ObservableQuery<>(this, tracker, call, onResult);
+        query.start(owner, keys);
+        return query;
+    }
+
+    // Call from the main thread: lifecycle observers are main-thread only
+    private <T> Request submit(ThreadPoolExecutor executor, boolean isWrite,
+                               LifecycleOwner owner, Call<T> call,
+                               Callback<T> onResult, ErrorCallback onError) {
+        Request request = new Request(isWrite);
+        if (owner != null) request.bindTo(owner.getLifecycle());
+        try {
+            request.future = executor.submit(() -> {
+                if (request.isCancelled() && !isWrite) return;
+                try {
+                    T result = call.run(repo);
+                    deliver(request, () -> { if (onResult != null) onResult.onResult(result); });
+                } catch (Throwable t) {
+                    deliver(request, () -> fail(t, onError));
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            deliver(request, () -> fail(e, onError));
+        }
+        return request;
+    }
+
+    private void deliver(Request request, Runnable action) {
+        mainHandler.post(() -> {
+            request.unbind();
+            if (!request.isCancelled()) action.run();
+        });
+    }
+
+    // No error callback: a rejection is logged; anything else fails the
+    // way the synchronous call would have
+    private static void fail(Throwable t, ErrorCallback onError) {
+        if (onError != null) {
+            onError.onError(t);
+        } else if (t instanceof RejectedExecutionException) {
+            Log.w(TAG, "Dropped a database call: queue full", t);
+        } else if (t instanceof RuntimeException) {
+            throw (RuntimeException) t;
+        } else if (t instanceof Error) {
+            throw (Error) t;
+        } else {
+            throw new RuntimeException(t);
+        }
+    }
+
+    // ═════════════════════════════════════════════════════════════════════
+    // REQUEST HANDLE
+    // ═════════════════════════════════════════════════════════════════════
+
+    /** Handle for one submitted call; cancel() is safe from any thread. */
+    public static final class Request {
+        private final    boolean   isWrite;
+        private volatile boolean   cancelled;
+        private volatile Future<?> future;
+        private Lifecycle              lifecycle;   // main thread only
+        private LifecycleEventObserver observer;
+
+        private Request(boolean isWrite) {
+            this.isWrite = isWrite;
+        }
+
+        public void cancel() {
+            cancelled = true;
+            Future<?> f = future;
+            // Never abandon a write half-way; reads may be dropped from the queue
+            if (f != null && !isWrite) f.cancel(false);
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        private void bindTo(Lifecycle lifecycle) {
+            if (lifecycle.getCurrentState() == Lifecycle.State.DESTROYED) {
+                cancelled = true;
+                return;
+            }
+            this.lifecycle = lifecycle;
+            this.observer  = (source, event) -> {
+                if (event == Lifecycle.Event.ON_DESTROY) cancel();
+            };
+            lifecycle.addObserver(observer);
+        }
+
+        private void unbind() {
+            if (lifecycle != null) {
+                lifecycle.removeObserver(observer);
+                lifecycle = null;
+                observer  = null;
+            }
+        }
+    }
+
+    // ── Threads: named, background priority, daemon ───────────────────────
+    private static ThreadPoolExecutor newPool(String name, int threads, int queue) {
+        ThreadFactory factory = new ThreadFactory() {
+            private final AtomicInteger count = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread t = new Thread(() -> {
+                    Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+                    r.run();
+                }, name + "-" + count.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            }
+        };
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads,
+                30, TimeUnit.SECONDS, new ArrayBlockingQueue<>(queue), factory);
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+}
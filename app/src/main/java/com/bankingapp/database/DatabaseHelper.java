@@ -3,38 +3,130 @@ package com.bankingapp.database;
 import android.content.ContentValues;
 import android.content.Context;
 import android.database.Cursor;
+import android.database.DatabaseUtils;
+import android.database.SQLException;
 import android.database.sqlite.SQLiteDatabase;
 import android.database.sqlite.SQLiteOpenHelper;
+import android.database.sqlite.SQLiteStatement;
 
+import androidx.annotation.VisibleForTesting;
+
+import com.bankingapp.BuildConfig;
 import com.bankingapp.models.Bill;
+import com.bankingapp.models.MonthSummary;
 import com.bankingapp.models.SavingsGoal;
 import com.bankingapp.models.Transaction;
 import com.bankingapp.models.User;
+import com.bankingapp.utils.DateTimeHelper;
 import com.bankingapp.utils.PasswordUtils;
 
-import java.text.SimpleDateFormat;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
 import java.util.ArrayList;
-import java.util.Date;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 public class DatabaseHelper extends SQLiteOpenHelper
         implements IDataRepository {
 
     // ── Database Info ─────────────────────────────────────────────────────
     private static final String DB_NAME    = "banking_app.db";
-    private static final int    DB_VERSION = 1;
+    private static final int    DB_VERSION = 9;
 
     // ── Table Names ───────────────────────────────────────────────────────
     private static final String TABLE_USERS        = "users";
     private static final String TABLE_TRANSACTIONS = "transactions";
     private static final String TABLE_BILLS        = "bills";
-    private static final String COL_BALANCE  = "balance";
+    private static final String COL_BALANCE  = "balance_paise";
     private static final String TABLE_GOALS        = "savings_goals";
+    private static final String TABLE_MONTH_TOTALS = "monthly_category_totals";
+    private static final String TABLE_SEARCH       = "transactions_fts";
+
+    // Newest first; id breaks ties between rows written in the same ms
+    private static final String ORDER_NEWEST_FIRST = "time_millis DESC, id DESC";
+
+    // ── Fixed write shapes (compiled once — see StatementCache) ──────────
+    private static final String SQL_INSERT_TRANSACTION =
+            "INSERT INTO " + TABLE_TRANSACTIONS + " (user_id, type, category, " +
+                    "amount_paise, description, to_from_name, to_from_phone, " +
+                    "date_time, time_millis, latitude, longitude, status) " +
+                    "VALUES (?,?,?,?,?,?,?,?,?,?,?,?)";
+
+    private static final String SQL_INSERT_BILL =
+            "INSERT INTO " + TABLE_BILLS + " (user_id, bill_type, amount_paise, " +
+                    "paid_at, status) VALUES (?,?,?,?,?)";
+
+    private static final String SQL_UPDATE_BALANCE =
+            "UPDATE " + TABLE_USERS + " SET " + COL_BALANCE + "=? WHERE id=?";
+
+    // Guarded debit: matches no row when funds are insufficient
+    private static final String SQL_DEBIT_BALANCE =
+            "UPDATE " + TABLE_USERS + " SET " + COL_BALANCE + " = " + COL_BALANCE +
+                    " - ? WHERE id=? AND " + COL_BALANCE + " >= ?";
+
+    private static final String SQL_CREDIT_BALANCE =
+            "UPDATE " + TABLE_USERS + " SET " + COL_BALANCE + " = " + COL_BALANCE +
+                    " + ? WHERE id=?";
+
+    // Rollup upsert, split in two: ON CONFLICT needs SQLite 3.24 (API 30)
+    private static final String SQL_ADD_TO_MONTH_TOTAL =
+            "UPDATE " + TABLE_MONTH_TOTALS + " SET total = total + ?, count = count + 1" +
+                    " WHERE user_id=? AND month=? AND type=? AND category=?";
+
+    private static final String SQL_INSERT_MONTH_TOTAL =
+            "INSERT INTO " + TABLE_MONTH_TOTALS +
+                    " (user_id, month, type, category, total, count) VALUES (?,?,?,?,?,1)";
 
-    // ── CREATE TABLE Statements ───────────────────────────────────────────
+    private static final String SQL_SUBTRACT_FROM_MONTH_TOTAL =
+            "UPDATE " + TABLE_MONTH_TOTALS + " SET total = total - ?, count = count - 1" +
+                    " WHERE user_id=? AND month=? AND type=? AND category=?";
+
+    // A bucket whose last row left must not show up as a zero category
+    private static final String SQL_DROP_EMPTY_MONTH_TOTAL =
+            "DELETE FROM " + TABLE_MONTH_TOTALS +
+                    " WHERE user_id=? AND month=? AND type=? AND category=? AND count <= 0";
+
+    // Same grouping as the v5 migration seed
+    private static final String SQL_REBUILD_MONTH_TOTALS =
+            "INSERT INTO " + TABLE_MONTH_TOTALS +
+                    " (user_id, month, type, category, total, count)" +
+                    " SELECT user_id," +
+                    " strftime('%Y-%m', time_millis / 1000, 'unixepoch', 'localtime')," +
+                    " type, IFNULL(category, ''), SUM(amount_paise), COUNT(*)" +
+                    " FROM " + TABLE_TRANSACTIONS + " GROUP BY 1, 2, 3, 4";
+
+    // Bulk inserts commit every BULK_CHUNK_ROWS rows so the WAL stays small
+    private static final int BULK_CHUNK_ROWS = 500;
+
+    // Rows per keyset page while streaming an export
+    private static final int EXPORT_PAGE_ROWS = 500;
+
+    private final SlowQueryLog        slowLog    = SlowQueryLog.getInstance();
+    private final StatementCache      statements = new StatementCache();
+    private final Ledger              ledger     = new Ledger(statements, slowLog);
+    private final TransactionArchive  archive    = new TransactionArchive(statements, slowLog);
+    private final DatabaseMaintenance maintenance = new DatabaseMaintenance(statements, slowLog);
+
+    // Exports hold the read side for their whole run; an archive batch
+    // needs the write side, so no row moves to cold storage mid-export
+    private final ReentrantReadWriteLock archiveGate = new ReentrantReadWriteLock();
+    private final InvalidationTracker tracker    = new InvalidationTracker();
+    private final UserCache           users      = new UserCache();
+    private final UserKeyFilter       userKeys   = new UserKeyFilter();
+
+    // ── CREATE TABLE Statements (version-1 schema) ────────────────────────
+    // Later columns and types come from DatabaseMigrations.
     private static final String CREATE_USERS =
             "CREATE TABLE " + TABLE_USERS + " (" +
                     "id           INTEGER PRIMARY KEY AUTOINCREMENT," +
@@ -87,29 +179,84 @@ public class DatabaseHelper extends SQLiteOpenHelper
                     "FOREIGN KEY (user_id) REFERENCES users(id)" +
                     ")";
 
-    // ── Constructor ───────────────────────────────────────────────────────
-    public DatabaseHelper(Context context) {
-        super(context, DB_NAME, null, DB_VERSION);
+    // ── Singleton ─────────────────────────────────────────────────────────
+    // One process-wide helper keeps a single connection pool open for the
+    // lifetime of the app, so SQLite's page cache survives between calls.
+    // Never call close() on the database returned by this helper.
+    private static DatabaseHelper instance;
+
+    public static synchronized DatabaseHelper getInstance(Context context) {
+        if (instance == null) {
+            // Application context — never hold on to an Activity
+            instance = new DatabaseHelper(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    // ── Repository seen by the rest of the app ────────────────────────────
+    // The helper itself, or — with BuildConfig.REPOSITORY_METRICS (debug
+    // and beta builds) — the helper behind an InstrumentedDataRepository
+    // that times every call. Screens and TransactionManager go through it.
+    private static IDataRepository repository;
+
+    public static synchronized IDataRepository getRepository(Context context) {
+        if (repository == null) {
+            DatabaseHelper helper = getInstance(context);
+            repository = BuildConfig.REPOSITORY_METRICS
+                    ? new InstrumentedDataRepository(helper)
+                    : helper;
+        }
+        return repository;
+    }
+
+    // Per-method call timings, or null when metrics are off (release)
+    public static synchronized InstrumentedDataRepository getMetrics() {
+        return repository instanceof InstrumentedDataRepository
+                ? (InstrumentedDataRepository) repository
+                : null;
+    }
+
+    /**
+     * A helper of its own over database {@code name}, or an in-memory one
+     * when null — for instrumented tests, which must never write into the
+     * installed app's banking_app.db. The caller closes it.
+     */
+    @VisibleForTesting
+    public static DatabaseHelper createForTest(Context context, String name) {
+        return new DatabaseHelper(context.getApplicationContext(), name);
+    }
+
+    // ── Constructor (use getInstance) ─────────────────────────────────────
+    private DatabaseHelper(Context context) {
+        this(context, DB_NAME);
+    }
+
+    private DatabaseHelper(Context context, String name) {
+        // Debug builds time every cursor (see SlowQueryLog); release: null
+        super(context, name, SlowQueryLog.getInstance().cursorFactory(), DB_VERSION);
+        // WAL: readers (Insights, ContentProvider) run alongside the writer
+        setWriteAheadLoggingEnabled(true);
+        tracker.addObserver(users, InvalidationTracker.USERS);
     }
 
     // ── onCreate: runs once when DB is first created ───────────────────────
+    // Creates the version-1 schema, then replays every migration so fresh
+    // installs and upgraded installs end up with exactly the same schema.
     @Override
     public void onCreate(SQLiteDatabase db) {
         db.execSQL(CREATE_USERS);
         db.execSQL(CREATE_TRANSACTIONS);
         db.execSQL(CREATE_BILLS);
         db.execSQL(CREATE_GOALS);
+        DatabaseMigrations.migrate(db, 1, DB_VERSION);
         insertDemoData(db);  // Pre-load demo account
     }
 
     // ── onUpgrade: runs when DB_VERSION is incremented ───────────────────
+    // Applies each step between the two versions in order — data is kept.
     @Override
     public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
-        db.execSQL("DROP TABLE IF EXISTS " + TABLE_GOALS);
-        db.execSQL("DROP TABLE IF EXISTS " + TABLE_BILLS);
-        db.execSQL("DROP TABLE IF EXISTS " + TABLE_TRANSACTIONS);
-        db.execSQL("DROP TABLE IF EXISTS " + TABLE_USERS);
-        onCreate(db);
+        DatabaseMigrations.migrate(db, oldVersion, newVersion);
     }
 
     // ── Demo Data (for testing login immediately) ─────────────────────────
@@ -120,9 +267,11 @@ public class DatabaseHelper extends SQLiteOpenHelper
         cv.put("full_name",  "Demo User");
         cv.put("phone",      "9999999999");
         cv.put("account_no", "AC0059431234");
-        cv.put("balance",    25000.00);
+        cv.put(COL_BALANCE,  2_500_000L);   // ₹25,000.00 in paise
         cv.put("created_at", getCurrentDateTime());
-        db.insert(TABLE_USERS, null, cv);
+        long id = db.insert(TABLE_USERS, null, cv);
+        ledger.post(db, Ledger.KIND_OPENING, -1, System.currentTimeMillis(),
+                Ledger.ACCOUNT_EXTERNAL, (int) id, 2_500_000L);
     }
 
     // ═════════════════════════════════════════════════════════════════════
@@ -132,18 +281,34 @@ public class DatabaseHelper extends SQLiteOpenHelper
     @Override
     public boolean registerUser(String username, String password,
                                 String fullName, String phone) {
-        SQLiteDatabase db = this.getWritableDatabase();
         ContentValues cv  = new ContentValues();
         cv.put("username",   username);
         cv.put("password",   PasswordUtils.hash(password));
         cv.put("full_name",  fullName);
         cv.put("phone",      phone);
         cv.put("account_no", generateAccountNo());
-        cv.put("balance",    10000.00);   // Starting demo balance
+        cv.put(COL_BALANCE,  1_000_000L);   // Starting demo balance: ₹10,000.00
         cv.put("created_at", getCurrentDateTime());
-        long result = db.insert(TABLE_USERS, null, cv);
-        db.close();
-        return result != -1;
+        SQLiteDatabase db = beginWrite();
+        boolean registered = false;
+        try {
+            long result = slowLog.insert(db, TABLE_USERS, cv);
+            if (result == -1) return false;
+            // The opening grant goes through the journal like any credit
+            ledger.post(db, Ledger.KIND_OPENING, -1, System.currentTimeMillis(),
+                    Ledger.ACCOUNT_EXTERNAL, (int) result, 1_000_000L);
+            tracker.markDirty(TABLE_USERS, (int) result);
+            db.setTransactionSuccessful();
+            registered = true;
+            return true;
+        } finally {
+            endWrite(db);
+            if (registered) {
+                // The phone may be cached as "no account" from an earlier payment
+                users.forgetPhone(phone);
+                userKeys.add(username, phone);
+            }
+        }
     }
 
     @Override
@@ -162,44 +327,75 @@ public class DatabaseHelper extends SQLiteOpenHelper
             user = new User(cursor);
         }
         if (cursor != null) cursor.close();
-        db.close();
         return user;  // null if login failed
     }
 
     @Override
     public User getUserById(int userId) {
         SQLiteDatabase db = this.getReadableDatabase();
+        boolean cacheable = isCacheable(db);
+        if (cacheable) {
+            User cached = users.getById(userId);
+            if (cached != null) return cached;
+        }
+        long generation = users.generation();
         Cursor cursor = db.query(TABLE_USERS, null,
                 "id=?", new String[]{ String.valueOf(userId) },
                 null, null, null);
         User user = null;
         if (cursor != null && cursor.moveToFirst()) user = new User(cursor);
         if (cursor != null) cursor.close();
-        db.close();
+        if (cacheable && user != null) users.put(user, generation);
         return user;
     }
 
     @Override
     public User getUserByPhone(String phone) {
         SQLiteDatabase db = this.getReadableDatabase();
+        boolean cacheable = isCacheable(db);
+        if (cacheable) {
+            User cached = users.getByPhone(phone);
+            if (cached != null) return cached == UserCache.ABSENT ? null : cached;
+        }
+        long generation = users.generation();
         Cursor cursor = db.query(TABLE_USERS, null,
                 "phone=?", new String[]{ phone }, null, null, null);
         User user = null;
         if (cursor != null && cursor.moveToFirst()) user = new User(cursor);
         if (cursor != null) cursor.close();
-        db.close();
+        if (cacheable) {
+            if (user != null) users.put(user, generation);
+            else              users.putAbsent(phone, generation);
+        }
         return user;
     }
 
     @Override
-    public boolean updateUserBalance(int userId, double newBalance) {
-        SQLiteDatabase db = this.getWritableDatabase();
-        ContentValues cv  = new ContentValues();
-        cv.put("balance", newBalance);
-        int rows = db.update(TABLE_USERS, cv,
-                "id=?", new String[]{ String.valueOf(userId) });
-        db.close();
-        return rows > 0;
+    public boolean updateUserBalance(int userId, long newBalancePaise) {
+        SQLiteDatabase db = beginWrite();
+        try {
+            // An overwrite is journaled as an ADJUSTMENT for the difference
+            long delta = newBalancePaise - getBalance(userId);
+            SQLiteStatement stmt = statements.get(db, SQL_UPDATE_BALANCE);
+            boolean updated;
+            synchronized (stmt) {
+                stmt.bindLong(1, newBalancePaise);
+                stmt.bindLong(2, userId);
+                updated = slowLog.executeUpdateDelete(db, SQL_UPDATE_BALANCE, stmt) > 0;
+            }
+            if (updated) tracker.markDirty(TABLE_USERS, userId);
+            if (updated && delta != 0) {
+                long now = System.currentTimeMillis();
+                if (delta > 0) ledger.post(db, Ledger.KIND_ADJUST, -1, now,
+                        Ledger.ACCOUNT_EXTERNAL, userId, delta);
+                else           ledger.post(db, Ledger.KIND_ADJUST, -1, now,
+                        userId, Ledger.ACCOUNT_EXTERNAL, -delta);
+            }
+            db.setTransactionSuccessful();
+            return updated;
+        } finally {
+            endWrite(db);
+        }
     }
 
     @Override
@@ -207,33 +403,36 @@ public class DatabaseHelper extends SQLiteOpenHelper
         SQLiteDatabase db = this.getWritableDatabase();
         ContentValues cv  = new ContentValues();
         cv.put("profile_pic", picPath);
-        int rows = db.update(TABLE_USERS, cv,
+        int rows = slowLog.update(db, TABLE_USERS, cv,
                 "id=?", new String[]{ String.valueOf(userId) });
-        db.close();
+        if (rows > 0) tracker.notifyChanged(TABLE_USERS, userId);
         return rows > 0;
     }
 
+    // Both checks ask the UserKeyFilter first: a definite "no" skips the query
     @Override
     public boolean isUsernameExists(String username) {
         SQLiteDatabase db = this.getReadableDatabase();
+        if (!userKeys.mightHaveUsername(db, username)) return false;
         Cursor cursor = db.query(TABLE_USERS,
                 new String[]{"id"}, "username=?",
                 new String[]{ username }, null, null, null);
         boolean exists = (cursor != null && cursor.getCount() > 0);
         if (cursor != null) cursor.close();
-        db.close();
+        if (!exists) userKeys.recordFalsePositive();
         return exists;
     }
 
     @Override
     public boolean isPhoneExists(String phone) {
         SQLiteDatabase db = this.getReadableDatabase();
+        if (!userKeys.mightHavePhone(db, phone)) return false;
         Cursor cursor = db.query(TABLE_USERS,
                 new String[]{"id"}, "phone=?",
                 new String[]{ phone }, null, null, null);
         boolean exists = (cursor != null && cursor.getCount() > 0);
         if (cursor != null) cursor.close();
-        db.close();
+        if (!exists) userKeys.recordFalsePositive();
         return exists;
     }
 
@@ -243,22 +442,155 @@ public class DatabaseHelper extends SQLiteOpenHelper
 
     @Override
     public boolean insertTransaction(Transaction t) {
-        SQLiteDatabase db = this.getWritableDatabase();
-        ContentValues cv  = new ContentValues();
-        cv.put("user_id",       t.getUserId());
-        cv.put("type",          t.getType());
-        cv.put("category",      t.getCategory());
-        cv.put("amount",        t.getAmount());
-        cv.put("description",   t.getDescription());
-        cv.put("to_from_name",  t.getToFromName());
-        cv.put("to_from_phone", t.getToFromPhone());
-        cv.put("date_time",     t.getDateTime());
-        cv.put("latitude",      t.getLatitude());
-        cv.put("longitude",     t.getLongitude());
-        cv.put("status",        t.getStatus());
-        long result = db.insert(TABLE_TRANSACTIONS, null, cv);
-        db.close();
-        return result != -1;
+        SQLiteDatabase db = beginWrite();
+        try {
+            boolean inserted = writeTransaction(db, t);
+            db.setTransactionSuccessful();
+            return inserted;
+        } finally {
+            endWrite(db);
+        }
+    }
+
+    @Override
+    public BulkResult insertTransactions(Collection<Transaction> transactions,
+                                         ProgressListener listener) {
+        return bulkInsert(transactions, BULK_CHUNK_ROWS, this::writeTransaction, listener);
+    }
+
+    /**
+     * All of {@code transactions} in one write transaction, for callers
+     * that already cut their input into chunks (StatementImporter).
+     */
+    public BulkResult insertTransactionChunk(Collection<Transaction> transactions) {
+        return bulkInsert(transactions, Math.max(1, transactions.size()),
+                this::writeTransaction, null);
+    }
+
+    private boolean writeTransaction(SQLiteDatabase db, Transaction t) {
+        return writeTransactionRow(db, t) != -1;
+    }
+
+    // Row + its rollup bucket, inside the caller's transaction; -1 on failure
+    private long writeTransactionRow(SQLiteDatabase db, Transaction t) {
+        SQLiteStatement stmt = statements.get(db, SQL_INSERT_TRANSACTION);
+        long id;
+        synchronized (stmt) {
+            bindTransaction(stmt, t);
+            id = executeInsert(db, SQL_INSERT_TRANSACTION, stmt);
+        }
+        if (id != -1) {
+            addToMonthTotal(db, t);
+            tracker.markDirty(TABLE_TRANSACTIONS, t.getUserId());
+        }
+        return id;
+    }
+
+    // ── Raw-row writes (TransactionProvider) ─────────────────────────────
+    // The provider hands over ContentValues and selections, not models.
+    // Each call is one write transaction that also moves the affected rows
+    // between monthly_category_totals buckets, so Insights stay exact.
+    // Hot rows only: archived months cannot be changed through here.
+
+    /** Inserts one raw row; its id, or -1 on a constraint failure. */
+    public long insertTransactionValues(ContentValues values) {
+        values = withBothTimes(values);
+        SQLiteDatabase db = beginWrite();
+        try {
+            long id = slowLog.insert(db, TABLE_TRANSACTIONS, values);
+            if (id != -1) {
+                for (Transaction t : transactionsById(db, Collections.singletonList(id))) {
+                    addToMonthTotal(db, t);
+                    tracker.markDirty(TABLE_TRANSACTIONS, t.getUserId());
+                }
+            }
+            db.setTransactionSuccessful();
+            return id;
+        } finally {
+            endWrite(db);
+        }
+    }
+
+    /** Updates the rows {@code selection} matches; the number changed. */
+    public int updateTransactionValues(ContentValues values, String selection,
+                                       String[] selectionArgs) {
+        values = withBothTimes(values);
+        SQLiteDatabase db = beginWrite();
+        try {
+            List<Transaction> before = transactionsWhere(db, selection, selectionArgs);
+            for (Transaction t : before) removeFromMonthTotal(db, t);
+            int rows = slowLog.update(db, TABLE_TRANSACTIONS, values, selection, selectionArgs);
+            // Re-read by id: the update may change the columns selection tested
+            List<Long> ids = new ArrayList<>(before.size());
+            for (Transaction t : before) {
+                ids.add((long) t.getId());
+                tracker.markDirty(TABLE_TRANSACTIONS, t.getUserId());
+            }
+            for (Transaction t : transactionsById(db, ids)) {
+                addToMonthTotal(db, t);
+                tracker.markDirty(TABLE_TRANSACTIONS, t.getUserId());
+            }
+            db.setTransactionSuccessful();
+            return rows;
+        } finally {
+            endWrite(db);
+        }
+    }
+
+    // Legacy clients write only date_time; left alone, time_millis would
+    // default to 0 and the row would sort, filter and roll up as 1970.
+    // Fills in whichever of the pair is missing, the way Transaction does.
+    private static ContentValues withBothTimes(ContentValues values) {
+        if (values == null) return null;
+        boolean hasText   = values.getAsString("date_time") != null;
+        boolean hasMillis = values.getAsLong("time_millis") != null;
+        if (hasText == hasMillis) return values;
+        ContentValues filled = new ContentValues(values);
+        if (hasText) {
+            // IllegalArgumentException for text that is not DB_FORMAT
+            filled.put("time_millis", DateTimeHelper.fromDbFormat(values.getAsString("date_time")));
+        } else {
+            filled.put("date_time", DateTimeHelper.toDbFormat(values.getAsLong("time_millis")));
+        }
+        return filled;
+    }
+
+    /** Deletes the rows {@code selection} matches; the number deleted. */
+    public int deleteTransactionValues(String selection, String[] selectionArgs) {
+        SQLiteDatabase db = beginWrite();
+        try {
+            for (Transaction t : transactionsWhere(db, selection, selectionArgs)) {
+                removeFromMonthTotal(db, t);
+                tracker.markDirty(TABLE_TRANSACTIONS, t.getUserId());
+            }
+            int rows = slowLog.delete(db, TABLE_TRANSACTIONS, selection, selectionArgs);
+            db.setTransactionSuccessful();
+            return rows;
+        } finally {
+            endWrite(db);
+        }
+    }
+
+    private List<Transaction> transactionsWhere(SQLiteDatabase db, String selection,
+                                                String[] selectionArgs) {
+        List<Transaction> list = new ArrayList<>();
+        Cursor cursor = db.query(TABLE_TRANSACTIONS, null, selection, selectionArgs,
+                null, null, null);
+        readRows(cursor, new Transaction.Columns(cursor)::read, list, Integer.MAX_VALUE);
+        return list;
+    }
+
+    // IN lists stay under SQLite's 999-variable limit
+    private List<Transaction> transactionsById(SQLiteDatabase db, List<Long> ids) {
+        List<Transaction> list = new ArrayList<>(ids.size());
+        for (int from = 0; from < ids.size(); from += BULK_CHUNK_ROWS) {
+            List<Long> part = ids.subList(from, Math.min(ids.size(), from + BULK_CHUNK_ROWS));
+            String[] args = new String[part.size()];
+            for (int i = 0; i < args.length; i++) args[i] = String.valueOf(part.get(i));
+            list.addAll(transactionsWhere(db,
+                    "id IN (" + DatabaseUtils.repeatedSqlPlaceholders(args.length) + ")", args));
+        }
+        return list;
     }
 
     @Override
@@ -267,12 +599,10 @@ public class DatabaseHelper extends SQLiteOpenHelper
         SQLiteDatabase db = this.getReadableDatabase();
         Cursor cursor = db.query(TABLE_TRANSACTIONS, null,
                 "user_id=?", new String[]{ String.valueOf(userId) },
-                null, null, "date_time DESC");
-        while (cursor.moveToNext()) {
-            list.add(new Transaction(cursor));
-        }
-        cursor.close(); db.close();
-        return list;
+                null, null, ORDER_NEWEST_FIRST);
+        readRows(cursor, new Transaction.Columns(cursor)::read, list, Integer.MAX_VALUE);
+        return archive.withArchived(db, userId, list, Long.MIN_VALUE, Long.MAX_VALUE,
+                null, Integer.MAX_VALUE);
     }
 
     @Override
@@ -281,24 +611,263 @@ public class DatabaseHelper extends SQLiteOpenHelper
         SQLiteDatabase db = this.getReadableDatabase();
         Cursor cursor = db.query(TABLE_TRANSACTIONS, null,
                 "user_id=?", new String[]{ String.valueOf(userId) },
-                null, null, "date_time DESC", String.valueOf(limit));
-        while (cursor.moveToNext()) list.add(new Transaction(cursor));
-        cursor.close(); db.close();
-        return list;
+                null, null, ORDER_NEWEST_FIRST, String.valueOf(limit));
+        readRows(cursor, new Transaction.Columns(cursor)::read, list, Integer.MAX_VALUE);
+        return archive.withArchived(db, userId, list, Long.MIN_VALUE, Long.MAX_VALUE,
+                null, limit);
     }
 
     @Override
     public List<Transaction> getTransactionsByDateRange(int userId,
                                                         String fromDate, String toDate) {
         List<Transaction> list = new ArrayList<>();
+        long fromMillis = DateTimeHelper.dayStartMillis(fromDate);
+        long toMillis   = DateTimeHelper.dayEndMillis(toDate);
         SQLiteDatabase db = this.getReadableDatabase();
         Cursor cursor = db.query(TABLE_TRANSACTIONS, null,
-                "user_id=? AND date_time BETWEEN ? AND ?",
-                new String[]{ String.valueOf(userId), fromDate, toDate + " 23:59:59" },
-                null, null, "date_time DESC");
-        while (cursor.moveToNext()) list.add(new Transaction(cursor));
-        cursor.close(); db.close();
-        return list;
+                "user_id=? AND time_millis >= ? AND time_millis < ?",
+                new String[]{ String.valueOf(userId),
+                        String.valueOf(fromMillis), String.valueOf(toMillis) },
+                null, null, ORDER_NEWEST_FIRST);
+        readRows(cursor, new Transaction.Columns(cursor)::read, list, Integer.MAX_VALUE);
+        return archive.withArchived(db, userId, list, fromMillis, toMillis,
+                null, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public TransactionPage getTransactionPage(int userId, long fromMillis,
+                                              long toMillis, String type,
+                                              PageToken after, int pageSize,
+                                              String[] projection) {
+        StringBuilder where = new StringBuilder(
+                "user_id=? AND time_millis >= ? AND time_millis < ?");
+        List<String> args = new ArrayList<>(7);
+        args.add(String.valueOf(userId));
+        args.add(String.valueOf(fromMillis));
+        args.add(String.valueOf(toMillis));
+        if (type != null) {
+            where.append(" AND type=?");
+            args.add(type);
+        }
+        if (after != null) {
+            // Seek past (time, id): the first term bounds the index range,
+            // the second drops rows of the same ms that were already shown
+            where.append(" AND time_millis <= ? AND (time_millis < ? OR id < ?)");
+            args.add(String.valueOf(after.timeMillis));
+            args.add(String.valueOf(after.timeMillis));
+            args.add(String.valueOf(after.id));
+        }
+
+        SQLiteDatabase db = this.getReadableDatabase();
+        // One extra row tells us whether another page exists
+        Cursor cursor = db.query(TABLE_TRANSACTIONS, projection,
+                where.toString(), args.toArray(new String[0]),
+                null, null, ORDER_NEWEST_FIRST, String.valueOf(pageSize + 1));
+        List<Transaction> list = new ArrayList<>(Math.min(pageSize + 1, cursor.getCount()));
+        readRows(cursor, new Transaction.Columns(cursor)::read, list, pageSize + 1);
+
+        // Archived rows come back in full whatever the projection; blocks
+        // are opened only once the page reaches back past the hot rows
+        long upper = after != null && after.timeMillis < toMillis
+                ? after.timeMillis + 1 : toMillis;
+        list = archive.withArchived(db, userId, list, fromMillis, upper,
+                row -> (type == null || type.equals(row.getType()))
+                        && (after == null || row.getTimeMillis() < after.timeMillis
+                            || (row.getTimeMillis() == after.timeMillis && row.getId() < after.id)),
+                pageSize + 1);
+
+        boolean hasMore = list.size() > pageSize;
+        if (hasMore) list = new ArrayList<>(list.subList(0, pageSize));
+        PageToken next = hasMore ? PageToken.after(list.get(list.size() - 1)) : null;
+        return new TransactionPage(list, next);
+    }
+
+    @Override
+    public List<Transaction> searchTransactions(int userId, String query,
+                                                int offset, int limit) {
+        String match = SearchText.toMatchQuery(query);
+        if (match.isEmpty() || limit <= 0) return new ArrayList<>();
+
+        // Every hit is ranked, not just the newest few: an old payment to a
+        // common name must still be findable. Pass one reads only id and
+        // matchinfo per hit (the FTS doclist walks newest-first, docid ==
+        // id, plus one primary-key lookup for the user check); full rows
+        // are loaded for the requested page alone.
+        SQLiteDatabase db = this.getReadableDatabase();
+        Cursor cursor = db.rawQuery(
+                "SELECT t.id, matchinfo(" + TABLE_SEARCH + ", 'pcx')" +
+                        " FROM " + TABLE_SEARCH +
+                        " JOIN " + TABLE_TRANSACTIONS + " t ON t.id = " + TABLE_SEARCH + ".docid" +
+                        " WHERE " + TABLE_SEARCH + " MATCH ? AND t.user_id = ?" +
+                        " ORDER BY " + TABLE_SEARCH + ".docid DESC",
+                new String[]{ match, String.valueOf(userId) });
+
+        List<Long>   hitIds = new ArrayList<>();
+        List<Double> scores = new ArrayList<>();
+        try {
+            while (cursor.moveToNext()) {
+                hitIds.add(cursor.getLong(0));
+                scores.add(searchScore(cursor.getBlob(1)));
+            }
+        } finally {
+            cursor.close();
+        }
+
+        // Stable sort: equal scores keep the newest-first order from SQL
+        Integer[] order = new Integer[hitIds.size()];
+        for (int i = 0; i < order.length; i++) order[i] = i;
+        Arrays.sort(order, (a, b) -> Double.compare(scores.get(b), scores.get(a)));
+
+        List<Long> pageIds = new ArrayList<>();
+        for (int i = Math.max(0, offset); i < order.length && pageIds.size() < limit; i++) {
+            pageIds.add(hitIds.get(order[i]));
+        }
+        Map<Long, Transaction> rows = new HashMap<>();
+        for (Transaction t : transactionsById(db, pageIds)) rows.put((long) t.getId(), t);
+        List<Transaction> page = new ArrayList<>(pageIds.size());
+        for (Long id : pageIds) {
+            Transaction t = rows.get(id);
+            if (t != null) page.add(t);   // deleted since the MATCH ran
+        }
+
+        // Archived rows are not in the index. Only a search that pages past
+        // every hot hit reads them: matched the way MATCH would, newest
+        // first, after all hot hits.
+        int archivedNeeded = offset + limit - hitIds.size();
+        if (archivedNeeded > 0) {
+            List<String> terms = SearchText.queryTerms(query);
+            for (int i = 0; i < terms.size(); i++) terms.set(i, SearchText.fold(terms.get(i)));
+            // A batch archived since the MATCH ran would be found twice
+            Set<Long> hot = new HashSet<>(hitIds);
+            List<Transaction> archived = archive.newest(db, userId,
+                    Long.MIN_VALUE, Long.MAX_VALUE, Long.MIN_VALUE,
+                    row -> !hot.contains((long) row.getId())
+                            && SearchText.matchesAll(terms, row.getDescription(),
+                                    row.getToFromName(), row.getToFromPhone()),
+                    archivedNeeded);
+            for (int i = Math.max(0, offset - hitIds.size());
+                 i < archived.size() && page.size() < limit; i++) {
+                page.add(archived.get(i));
+            }
+        }
+        return page;
+    }
+
+    // matchinfo 'pcx': [phrases, columns, then per (phrase, column):
+    // hits in this row, hits in all rows, rows with a hit]. Weighted hits
+    // scaled by how rare the word is in that column.
+    private static double searchScore(byte[] blob) {
+        IntBuffer info = ByteBuffer.wrap(blob)
+                .order(ByteOrder.nativeOrder()).asIntBuffer();
+        int phrases = info.get(0), columns = info.get(1);
+        double score = 0;
+        for (int p = 0; p < phrases; p++) {
+            for (int c = 0; c < columns && c < SearchText.COLUMN_WEIGHTS.length; c++) {
+                int base     = 2 + 3 * (p * columns + c);
+                int rowHits  = info.get(base);
+                int docsWith = info.get(base + 2);
+                if (rowHits > 0 && docsWith > 0) {
+                    score += SearchText.COLUMN_WEIGHTS[c] * rowHits / docsWith;
+                }
+            }
+        }
+        return score;
+    }
+
+    // ═════════════════════════════════════════════════════════════════════
+    // ATOMIC MONEY MOVEMENT
+    // Each call is one SQLite transaction (one commit, one fsync). Balances
+    // change with relative UPDATEs, so a concurrent writer can never be
+    // overwritten by a stale read-modify-write. The matching Ledger
+    // posting is written in the same transaction, so the users.balance
+    // cache and the journal can only change together.
+    // ═════════════════════════════════════════════════════════════════════
+
+    /**
+     * Debits the sender, records {@code sent}, and — when {@code received}
+     * is not null — credits {@code received.getUserId()} and records it.
+     *
+     * @return the sender's new balance in paise, {@link #INSUFFICIENT_FUNDS}
+     *         or {@link #WRITE_FAILED}; nothing is written unless it succeeds
+     */
+    @Override
+    public long transfer(int senderId, long amountPaise,
+                         Transaction sent, Transaction received) {
+        SQLiteDatabase db = beginWrite();
+        try {
+            if (!debit(db, senderId, amountPaise)) return debitFailure(db, senderId);
+            long sentId = writeTransactionRow(db, sent);
+            if (sentId == -1) return WRITE_FAILED;
+            int payee = Ledger.ACCOUNT_EXTERNAL;
+            if (received != null) {
+                payee = received.getUserId();
+                if (!credit(db, payee, amountPaise)) return WRITE_FAILED;
+                if (writeTransactionRow(db, received) == -1) return WRITE_FAILED;
+            }
+            ledger.post(db, Ledger.KIND_TRANSFER, sentId, sent.getTimeMillis(),
+                    senderId, payee, amountPaise);
+            long newBalance = getBalance(senderId);
+            db.setTransactionSuccessful();
+            return newBalance;
+        } finally {
+            endWrite(db);
+        }
+    }
+
+    /**
+     * Debits the payer and records the bill plus its BILL_PAYMENT row.
+     *
+     * @return the payer's new balance in paise, {@link #INSUFFICIENT_FUNDS}
+     *         or {@link #WRITE_FAILED}; nothing is written unless it succeeds
+     */
+    @Override
+    public long payBill(int userId, long amountPaise, Transaction txn, Bill bill) {
+        SQLiteDatabase db = beginWrite();
+        try {
+            if (!debit(db, userId, amountPaise)) return debitFailure(db, userId);
+            long txnId = writeTransactionRow(db, txn);
+            if (txnId == -1) return WRITE_FAILED;
+            if (!writeBill(db, bill)) return WRITE_FAILED;
+            ledger.post(db, Ledger.KIND_BILL, txnId, txn.getTimeMillis(),
+                    userId, Ledger.ACCOUNT_EXTERNAL, amountPaise);
+            long newBalance = getBalance(userId);
+            db.setTransactionSuccessful();
+            return newBalance;
+        } finally {
+            endWrite(db);
+        }
+    }
+
+    private boolean debit(SQLiteDatabase db, int userId, long amountPaise) {
+        SQLiteStatement stmt = statements.get(db, SQL_DEBIT_BALANCE);
+        synchronized (stmt) {
+            stmt.bindLong(1, amountPaise);
+            stmt.bindLong(2, userId);
+            stmt.bindLong(3, amountPaise);
+            if (slowLog.executeUpdateDelete(db, SQL_DEBIT_BALANCE, stmt) == 0) return false;
+        }
+        tracker.markDirty(TABLE_USERS, userId);
+        return true;
+    }
+
+    // The guarded UPDATE matches nothing for a short balance and for a
+    // missing account alike; only the first is the user's to fix
+    private long debitFailure(SQLiteDatabase db, int userId) {
+        boolean exists = DatabaseUtils.longForQuery(db,
+                "SELECT COUNT(*) FROM " + TABLE_USERS + " WHERE id=?",
+                new String[]{ String.valueOf(userId) }) > 0;
+        return exists ? INSUFFICIENT_FUNDS : WRITE_FAILED;
+    }
+
+    private boolean credit(SQLiteDatabase db, int userId, long amountPaise) {
+        SQLiteStatement stmt = statements.get(db, SQL_CREDIT_BALANCE);
+        synchronized (stmt) {
+            stmt.bindLong(1, amountPaise);
+            stmt.bindLong(2, userId);
+            if (slowLog.executeUpdateDelete(db, SQL_CREDIT_BALANCE, stmt) == 0) return false;
+        }
+        tracker.markDirty(TABLE_USERS, userId);
+        return true;
     }
 
     // ═════════════════════════════════════════════════════════════════════
@@ -307,16 +876,29 @@ public class DatabaseHelper extends SQLiteOpenHelper
 
     @Override
     public boolean insertBill(Bill bill) {
-        SQLiteDatabase db = this.getWritableDatabase();
-        ContentValues cv  = new ContentValues();
-        cv.put("user_id",   bill.getUserId());
-        cv.put("bill_type", bill.getBillType());
-        cv.put("amount",    bill.getAmount());
-        cv.put("paid_at",   bill.getPaidAt());
-        cv.put("status",    bill.getStatus());
-        long result = db.insert(TABLE_BILLS, null, cv);
-        db.close();
-        return result != -1;
+        SQLiteDatabase db = beginWrite();
+        try {
+            boolean inserted = writeBill(db, bill);
+            db.setTransactionSuccessful();
+            return inserted;
+        } finally {
+            endWrite(db);
+        }
+    }
+
+    @Override
+    public BulkResult insertBills(Collection<Bill> bills, ProgressListener listener) {
+        return bulkInsert(bills, BULK_CHUNK_ROWS, this::writeBill, listener);
+    }
+
+    private boolean writeBill(SQLiteDatabase db, Bill bill) {
+        SQLiteStatement stmt = statements.get(db, SQL_INSERT_BILL);
+        synchronized (stmt) {
+            bindBill(stmt, bill);
+            if (executeInsert(db, SQL_INSERT_BILL, stmt) == -1) return false;
+        }
+        tracker.markDirty(TABLE_BILLS, bill.getUserId());
+        return true;
     }
 
     @Override
@@ -325,9 +907,8 @@ public class DatabaseHelper extends SQLiteOpenHelper
         SQLiteDatabase db = this.getReadableDatabase();
         Cursor cursor = db.query(TABLE_BILLS, null,
                 "user_id=?", new String[]{ String.valueOf(userId) },
-                null, null, "paid_at DESC");
-        while (cursor.moveToNext()) list.add(new Bill(cursor));
-        cursor.close(); db.close();
+                null, null, "paid_at DESC, id DESC");
+        readRows(cursor, new Bill.Columns(cursor)::read, list, Integer.MAX_VALUE);
         return list;
     }
 
@@ -341,12 +922,13 @@ public class DatabaseHelper extends SQLiteOpenHelper
         ContentValues cv  = new ContentValues();
         cv.put("user_id",        goal.getUserId());
         cv.put("goal_name",      goal.getGoalName());
-        cv.put("target_amount",  goal.getTargetAmount());
-        cv.put("current_amount", 0.0);
+        cv.put("target_paise",   goal.getTargetPaise());
+        cv.put("current_paise",  0L);
         cv.put("created_at",     getCurrentDateTime());
-        long result = db.insert(TABLE_GOALS, null, cv);
-        db.close();
-        return result != -1;
+        long result = slowLog.insert(db, TABLE_GOALS, cv);
+        if (result == -1) return false;
+        tracker.notifyChanged(TABLE_GOALS, goal.getUserId());
+        return true;
     }
 
     @Override
@@ -355,20 +937,20 @@ public class DatabaseHelper extends SQLiteOpenHelper
         SQLiteDatabase db = this.getReadableDatabase();
         Cursor cursor = db.query(TABLE_GOALS, null,
                 "user_id=?", new String[]{ String.valueOf(userId) },
-                null, null, "created_at DESC");
-        while (cursor.moveToNext()) list.add(new SavingsGoal(cursor));
-        cursor.close(); db.close();
+                null, null, "created_at DESC, id DESC");
+        readRows(cursor, new SavingsGoal.Columns(cursor)::read, list, Integer.MAX_VALUE);
         return list;
     }
 
     @Override
-    public boolean updateGoalAmount(int goalId, double newAmount) {
+    public boolean updateGoalAmount(int goalId, long newAmountPaise) {
         SQLiteDatabase db = this.getWritableDatabase();
         ContentValues cv  = new ContentValues();
-        cv.put("current_amount", newAmount);
-        int rows = db.update(TABLE_GOALS, cv,
+        cv.put("current_paise", newAmountPaise);
+        int rows = slowLog.update(db, TABLE_GOALS, cv,
                 "id=?", new String[]{ String.valueOf(goalId) });
-        db.close();
+        // Only the goal id is known here, so every goals observer re-reads
+        if (rows > 0) tracker.notifyChanged(TABLE_GOALS, InvalidationTracker.ALL_USERS);
         return rows > 0;
     }
 
@@ -376,59 +958,623 @@ public class DatabaseHelper extends SQLiteOpenHelper
     // INSIGHTS / AGGREGATES
     // ═════════════════════════════════════════════════════════════════════
 
+    // These read the monthly_category_totals rollup, so their cost grows
+    // with the number of categories in a month, not with history size.
+
     @Override
-    public Map<String, Double> getSpendingByCategory(int userId, String month) {
-        Map<String, Double> map = new LinkedHashMap<>();
+    public Map<String, Long> getSpendingByCategory(int userId, String month) {
+        Map<String, Long> map = new LinkedHashMap<>();
         SQLiteDatabase db = this.getReadableDatabase();
         String sql =
-                "SELECT category, SUM(amount) FROM " + TABLE_TRANSACTIONS +
-                        " WHERE user_id=? AND (type='SENT' OR type='BILL_PAYMENT')" +
-                        " AND date_time LIKE ? GROUP BY category";
-        Cursor cursor = db.rawQuery(sql,
-                new String[]{ String.valueOf(userId), month + "%" });
+                "SELECT NULLIF(category, ''), SUM(total) FROM " + TABLE_MONTH_TOTALS +
+                        " WHERE user_id=? AND month=? AND type IN ('SENT','BILL_PAYMENT')" +
+                        " GROUP BY category";
+        Cursor cursor = db.rawQuery(sql, monthArgs(userId, month));
         while (cursor.moveToNext()) {
-            map.put(cursor.getString(0), cursor.getDouble(1));
+            map.put(cursor.getString(0), cursor.getLong(1));
         }
-        cursor.close(); db.close();
+        cursor.close();
         return map;
     }
 
     @Override
-    public double getTotalSpentThisMonth(int userId, String month) {
+    public long getTotalSpentThisMonth(int userId, String month) {
         SQLiteDatabase db = this.getReadableDatabase();
         String sql =
-                "SELECT SUM(amount) FROM " + TABLE_TRANSACTIONS +
-                        " WHERE user_id=? AND (type='SENT' OR type='BILL_PAYMENT')" +
-                        " AND date_time LIKE ?";
-        Cursor cursor = db.rawQuery(sql,
-                new String[]{ String.valueOf(userId), month + "%" });
-        double total = 0;
-        if (cursor.moveToFirst()) total = cursor.getDouble(0);
-        cursor.close(); db.close();
+                "SELECT SUM(total) FROM " + TABLE_MONTH_TOTALS +
+                        " WHERE user_id=? AND month=? AND type IN ('SENT','BILL_PAYMENT')";
+        Cursor cursor = db.rawQuery(sql, monthArgs(userId, month));
+        long total = 0L;   // paise — exact integer SUM
+        if (cursor.moveToFirst()) total = cursor.getLong(0);
+        cursor.close();
         return total;
     }
 
     @Override
-    public double getTotalReceivedThisMonth(int userId, String month) {
+    public long getTotalReceivedThisMonth(int userId, String month) {
         SQLiteDatabase db = this.getReadableDatabase();
         String sql =
-                "SELECT SUM(amount) FROM " + TABLE_TRANSACTIONS +
-                        " WHERE user_id=? AND type='RECEIVED' AND date_time LIKE ?";
-        Cursor cursor = db.rawQuery(sql,
-                new String[]{ String.valueOf(userId), month + "%" });
-        double total = 0;
-        if (cursor.moveToFirst()) total = cursor.getDouble(0);
-        cursor.close(); db.close();
+                "SELECT SUM(total) FROM " + TABLE_MONTH_TOTALS +
+                        " WHERE user_id=? AND month=? AND type='RECEIVED'";
+        Cursor cursor = db.rawQuery(sql, monthArgs(userId, month));
+        long total = 0L;   // paise — exact integer SUM
+        if (cursor.moveToFirst()) total = cursor.getLong(0);
+        cursor.close();
         return total;
     }
 
+    @Override
+    public MonthSummary getMonthSummary(int userId, String month) {
+        SQLiteDatabase db = this.getReadableDatabase();
+        // Conditional aggregation: every figure comes from the same rows
+        String sql =
+                "SELECT NULLIF(category, '')," +
+                        " SUM(CASE WHEN type IN ('SENT','BILL_PAYMENT') THEN total ELSE 0 END)," +
+                        " SUM(CASE WHEN type IN ('SENT','BILL_PAYMENT') THEN count ELSE 0 END)," +
+                        " SUM(CASE WHEN type='RECEIVED' THEN total ELSE 0 END)," +
+                        " SUM(CASE WHEN type='RECEIVED' THEN count ELSE 0 END)" +
+                        " FROM " + TABLE_MONTH_TOTALS +
+                        " WHERE user_id=? AND month=? GROUP BY category";
+        Cursor cursor = db.rawQuery(sql, monthArgs(userId, month));
+        Map<String, Long>    byCategory = new LinkedHashMap<>();
+        Map<String, Integer> counts     = new LinkedHashMap<>();
+        long spent = 0L, received = 0L;
+        int  spentCount = 0, receivedCount = 0;
+        try {
+            while (cursor.moveToNext()) {
+                int n = cursor.getInt(2);
+                if (n > 0) {
+                    byCategory.put(cursor.getString(0), cursor.getLong(1));
+                    counts.put(cursor.getString(0), n);
+                }
+                spent         += cursor.getLong(1);
+                spentCount    += n;
+                received      += cursor.getLong(3);
+                receivedCount += cursor.getInt(4);
+            }
+        } finally {
+            cursor.close();
+        }
+        return new MonthSummary(month, spent, received,
+                spentCount, receivedCount, byCategory, counts);
+    }
+
+    /**
+     * Whole local months inside the range are read from the rollup, which
+     * already counts their archived rows; only the partial months at either
+     * edge are summed row by row, from the hot table plus the archive blocks
+     * that overlap them. The archive gate keeps rows from moving between the
+     * two tables mid-sum.
+     */
+    @Override
+    public RangeTotals getRangeTotals(int userId, long fromMillis, long toMillis, String type) {
+        if (fromMillis >= toMillis) return new RangeTotals(0L, 0L, 0);
+        // Whole months: [firstMonth, endMonth), "" and null for open ends
+        String firstMonth = "";
+        long fullFrom = Long.MIN_VALUE;
+        if (fromMillis != Long.MIN_VALUE) {
+            firstMonth = DateTimeHelper.toMonthKey(fromMillis);
+            fullFrom   = DateTimeHelper.monthStartMillis(firstMonth);
+            if (fullFrom < fromMillis) {
+                fullFrom   = DateTimeHelper.monthEndMillis(firstMonth);
+                firstMonth = DateTimeHelper.toMonthKey(fullFrom);
+            }
+        }
+        String endMonth = null;
+        long fullTo = Long.MAX_VALUE;
+        if (toMillis != Long.MAX_VALUE) {
+            endMonth = DateTimeHelper.toMonthKey(toMillis);
+            fullTo   = DateTimeHelper.monthStartMillis(endMonth);
+        }
+
+        long[] totals = new long[3];   // spent, received, count
+        SQLiteDatabase db = this.getReadableDatabase();
+        archiveGate.readLock().lock();
+        try {
+            if (fullFrom >= fullTo) {
+                addRowTotals(db, userId, fromMillis, toMillis, type, totals);
+            } else {
+                addMonthTotals(db, userId, firstMonth, endMonth, type, totals);
+                addRowTotals(db, userId, fromMillis, fullFrom, type, totals);
+                addRowTotals(db, userId, fullTo, toMillis, type, totals);
+            }
+        } finally {
+            archiveGate.readLock().unlock();
+        }
+        return new RangeTotals(totals[0], totals[1], (int) totals[2]);
+    }
+
+    private void addMonthTotals(SQLiteDatabase db, int userId, String firstMonth,
+                                String endMonth, String type, long[] totals) {
+        StringBuilder sql = new StringBuilder(
+                "SELECT SUM(CASE WHEN type IN ('SENT','BILL_PAYMENT') THEN total ELSE 0 END)," +
+                        " SUM(CASE WHEN type='RECEIVED' THEN total ELSE 0 END)," +
+                        " SUM(count) FROM " + TABLE_MONTH_TOTALS +
+                        " WHERE user_id=? AND month >= ?");
+        List<String> args = new ArrayList<>(4);
+        args.add(String.valueOf(userId));
+        args.add(firstMonth);
+        if (endMonth != null) {
+            sql.append(" AND month < ?");
+            args.add(endMonth);
+        }
+        if (type != null) {
+            sql.append(" AND type=?");
+            args.add(type);
+        }
+        addTotals(db.rawQuery(sql.toString(), args.toArray(new String[0])), totals);
+    }
+
+    private void addRowTotals(SQLiteDatabase db, int userId, long fromMillis,
+                              long toMillis, String type, long[] totals) {
+        if (fromMillis >= toMillis) return;
+        String sql =
+                "SELECT SUM(CASE WHEN type IN ('SENT','BILL_PAYMENT') THEN amount_paise ELSE 0 END)," +
+                        " SUM(CASE WHEN type='RECEIVED' THEN amount_paise ELSE 0 END)," +
+                        " COUNT(*) FROM " + TABLE_TRANSACTIONS +
+                        " WHERE user_id=? AND time_millis >= ? AND time_millis < ?" +
+                        (type != null ? " AND type=?" : "");
+        String[] args = type != null
+                ? new String[]{ String.valueOf(userId), String.valueOf(fromMillis),
+                        String.valueOf(toMillis), type }
+                : new String[]{ String.valueOf(userId), String.valueOf(fromMillis),
+                        String.valueOf(toMillis) };
+        addTotals(db.rawQuery(sql, args), totals);
+        archive.forEachInRange(db, userId, fromMillis, toMillis, t -> {
+            if (type != null && !type.equals(t.getType())) return;
+            if (Transaction.TYPE_RECEIVED.equals(t.getType())) {
+                totals[1] += t.getAmountPaise();
+            } else if (Transaction.TYPE_SENT.equals(t.getType())
+                    || Transaction.TYPE_BILL_PAYMENT.equals(t.getType())) {
+                totals[0] += t.getAmountPaise();
+            }
+            totals[2]++;
+        });
+    }
+
+    // One row of (spent, received, count); SUMs over no rows read as 0
+    private static void addTotals(Cursor cursor, long[] totals) {
+        try {
+            if (cursor.moveToFirst()) {
+                totals[0] += cursor.getLong(0);
+                totals[1] += cursor.getLong(1);
+                totals[2] += cursor.getLong(2);
+            }
+        } finally {
+            cursor.close();
+        }
+    }
+
+    /**
+     * Recomputes monthly_category_totals from the transactions table and
+     * the archive. Use after a bulk repair, a restore, or a time-zone
+     * change that moved month boundaries.
+     */
+    public void rebuildMonthlyTotals() {
+        SQLiteDatabase db = beginWrite();
+        try {
+            slowLog.execSQL(db, "DELETE FROM " + TABLE_MONTH_TOTALS);
+            slowLog.execSQL(db, SQL_REBUILD_MONTH_TOTALS);
+            archive.forEach(db, null, t -> addToMonthTotal(db, t));
+            tracker.markDirty(TABLE_TRANSACTIONS, InvalidationTracker.ALL_USERS);
+            db.setTransactionSuccessful();
+        } finally {
+            endWrite(db);
+        }
+    }
+
+    // Adds one transaction to its (user, month, type, category) bucket
+    private void addToMonthTotal(SQLiteDatabase db, Transaction t) {
+        String month    = DateTimeHelper.toMonthKey(t.getTimeMillis());
+        String category = t.getCategory() != null ? t.getCategory() : "";
+        SQLiteStatement update = statements.get(db, SQL_ADD_TO_MONTH_TOTAL);
+        boolean updated;
+        synchronized (update) {
+            update.bindLong(1, t.getAmountPaise());
+            update.bindLong(2, t.getUserId());
+            update.bindString(3, month);
+            update.bindString(4, t.getType());
+            update.bindString(5, category);
+            updated = slowLog.executeUpdateDelete(db, SQL_ADD_TO_MONTH_TOTAL, update) > 0;
+        }
+        if (updated) return;
+        SQLiteStatement insert = statements.get(db, SQL_INSERT_MONTH_TOTAL);
+        synchronized (insert) {
+            insert.bindLong(1, t.getUserId());
+            insert.bindString(2, month);
+            insert.bindString(3, t.getType());
+            insert.bindString(4, category);
+            insert.bindLong(5, t.getAmountPaise());
+            slowLog.executeInsert(db, SQL_INSERT_MONTH_TOTAL, insert);
+        }
+    }
+
+    // Takes one transaction back out of its bucket; drops the bucket once empty
+    private void removeFromMonthTotal(SQLiteDatabase db, Transaction t) {
+        String month    = DateTimeHelper.toMonthKey(t.getTimeMillis());
+        String category = t.getCategory() != null ? t.getCategory() : "";
+        SQLiteStatement update = statements.get(db, SQL_SUBTRACT_FROM_MONTH_TOTAL);
+        synchronized (update) {
+            update.bindLong(1, t.getAmountPaise());
+            update.bindLong(2, t.getUserId());
+            update.bindString(3, month);
+            update.bindString(4, t.getType());
+            update.bindString(5, category);
+            slowLog.executeUpdateDelete(db, SQL_SUBTRACT_FROM_MONTH_TOTAL, update);
+        }
+        SQLiteStatement drop = statements.get(db, SQL_DROP_EMPTY_MONTH_TOTAL);
+        synchronized (drop) {
+            drop.bindLong(1, t.getUserId());
+            drop.bindString(2, month);
+            drop.bindString(3, t.getType());
+            drop.bindString(4, category);
+            slowLog.executeUpdateDelete(db, SQL_DROP_EMPTY_MONTH_TOTAL, drop);
+        }
+    }
+
+    // ═════════════════════════════════════════════════════════════════════
+    // COLD STORAGE (see TransactionArchive)
+    // ═════════════════════════════════════════════════════════════════════
+
+    /** Polled between units of work; true ends the run early. */
+    public interface StopSignal {
+        boolean shouldStop();
+    }
+
+    public static final class ArchiveResult {
+        public final int     rowsMoved;
+        public final int     blocksWritten;
+        public final boolean complete;   // false: stopped with rows still due
+
+        ArchiveResult(int rowsMoved, int blocksWritten, boolean complete) {
+            this.rowsMoved     = rowsMoved;
+            this.blocksWritten = blocksWritten;
+            this.complete      = complete;
+        }
+    }
+
+    /**
+     * Moves every transaction from before the last {@code horizonMonths}
+     * whole months (plus the current one) into compressed archive blocks.
+     * Each block is one short write transaction of at most
+     * TransactionArchive.BATCH_ROWS rows, so other writers only ever wait
+     * for one batch. Safe to stop and resume at any point.
+     */
+    public ArchiveResult archiveOldMonths(int horizonMonths, StopSignal stop) {
+        if (horizonMonths < 1) {
+            throw new IllegalArgumentException("horizonMonths must be at least 1");
+        }
+        long cutoff = DateTimeHelper.monthStartMillisAgo(horizonMonths);
+        int rows = 0, blocks = 0;
+        for (int userId : userIds()) {
+            while (true) {
+                if (stop != null && stop.shouldStop()) {
+                    return new ArchiveResult(rows, blocks, false);
+                }
+                // An export is streaming: leave the rows where it expects them
+                if (!archiveGate.writeLock().tryLock()) {
+                    return new ArchiveResult(rows, blocks, false);
+                }
+                SQLiteDatabase db = beginWrite();
+                int moved;
+                try {
+                    moved = archive.archiveBatch(db, userId, cutoff);
+                    db.setTransactionSuccessful();
+                } finally {
+                    endWrite(db);
+                    archiveGate.writeLock().unlock();
+                }
+                if (moved == 0) break;
+                rows += moved;
+                blocks++;
+            }
+        }
+        return new ArchiveResult(rows, blocks, true);
+    }
+
+    /**
+     * For TransactionProvider: transactions of {@code userId} (everyone's
+     * when null) with a client's projection, selection and order applied.
+     * When archived blocks overlap the selection's time range the query
+     * runs over a restored copy of hot and archived rows together (see
+     * TransactionArchive.restore), so orders and aggregates span both. A
+     * selection that bounds time_millis restores just the blocks in its
+     * range; one that does not restores the whole archive. The gate keeps
+     * an archive batch from moving rows between the two reads.
+     */
+    public Cursor queryTransactions(Integer userId, String[] projection, String selection,
+                                    String[] selectionArgs, String sortOrder) {
+        SQLiteDatabase db = getReadableDatabase();
+        archiveGate.readLock().lock();
+        try {
+            long[] bounds = TransactionArchive.timeBounds(selection, selectionArgs);
+            if (!archive.hasBlocks(db, userId, bounds[0], bounds[1])) {
+                return db.query(TABLE_TRANSACTIONS, projection, selection,
+                        selectionArgs, null, null, sortOrder);
+            }
+            return archive.restore(db, userId, bounds[0], bounds[1],
+                    projection, selection, selectionArgs, sortOrder);
+        } finally {
+            archiveGate.readLock().unlock();
+        }
+    }
+
+    private List<Integer> userIds() {
+        List<Integer> ids = new ArrayList<>();
+        Cursor cursor = getReadableDatabase().query(TABLE_USERS, new String[]{ "id" },
+                null, null, null, null, "id");
+        readRows(cursor, c -> c.getInt(0), ids, Integer.MAX_VALUE);
+        return ids;
+    }
+
+    // ═════════════════════════════════════════════════════════════════════
+    // EXPORT (see StatementExporter)
+    // ═════════════════════════════════════════════════════════════════════
+
+    /** Receives exported rows one at a time; false stops the stream. */
+    public interface RowSink {
+        boolean accept(Transaction row) throws IOException;
+    }
+
+    /**
+     * Every transaction of {@code userId}, hot and archived, newest first,
+     * handed to {@code sink} one keyset page ({@value #EXPORT_PAGE_ROWS}
+     * rows) at a time — memory stays flat however long the history is.
+     * Archiving waits until the stream ends. Returns the rows accepted.
+     */
+    public long streamTransactions(int userId, RowSink sink) throws IOException {
+        archiveGate.readLock().lock();
+        try {
+            long rows = 0;
+            PageToken after = null;
+            do {
+                TransactionPage page = getTransactionPage(userId, after, EXPORT_PAGE_ROWS);
+                for (Transaction t : page.items) {
+                    if (!sink.accept(t)) return rows;
+                    rows++;
+                }
+                after = page.next;
+            } while (after != null);
+            return rows;
+        } finally {
+            archiveGate.readLock().unlock();
+        }
+    }
+
+    /** Hot plus archived rows of {@code userId}, for progress totals. */
+    public long countTransactions(int userId) {
+        SQLiteDatabase db = getReadableDatabase();
+        long hot = DatabaseUtils.longForQuery(db,
+                "SELECT COUNT(*) FROM " + TABLE_TRANSACTIONS + " WHERE user_id=?",
+                new String[]{ String.valueOf(userId) });
+        return hot + archive.count(db, userId);
+    }
+
+    // ═════════════════════════════════════════════════════════════════════
+    // MAINTENANCE (see DatabaseMaintenance)
+    // ═════════════════════════════════════════════════════════════════════
+
+    public static final class TableUsage {
+        public final String name;
+        public final long   pages;   // the table and its indexes; -1: unknown
+        public final long   rows;    // as of the last ANALYZE; -1: unknown
+
+        TableUsage(String name, long pages, long rows) {
+            this.name  = name;
+            this.pages = pages;
+            this.rows  = rows;
+        }
+    }
+
+    public static final class MaintenanceReport {
+        public final long    runAtMillis;
+        public final long    durationMillis;
+        public final long    fileBytes;
+        public final long    walBytes;
+        public final long    pageSize;
+        public final long    pageCount;
+        public final long    freePages;
+        public final long    pagesReclaimed;
+        public final int     tablesAnalyzed;
+        public final String  integrity;   // "ok", the problems found, or null: not run
+        public final boolean complete;    // false: stopped before the last step
+        public final List<TableUsage> tables;
+
+        MaintenanceReport(long runAtMillis, long durationMillis, long fileBytes,
+                          long walBytes, long pageSize, long pageCount, long freePages,
+                          long pagesReclaimed, int tablesAnalyzed, String integrity,
+                          boolean complete, List<TableUsage> tables) {
+            this.runAtMillis    = runAtMillis;
+            this.durationMillis = durationMillis;
+            this.fileBytes      = fileBytes;
+            this.walBytes       = walBytes;
+            this.pageSize       = pageSize;
+            this.pageCount      = pageCount;
+            this.freePages      = freePages;
+            this.pagesReclaimed = pagesReclaimed;
+            this.tablesAnalyzed = tablesAnalyzed;
+            this.integrity      = integrity;
+            this.complete       = complete;
+            this.tables         = tables;
+        }
+    }
+
+    /**
+     * ANALYZE, incremental vacuum and an integrity check, stopping early
+     * once {@code budgetMillis} is spent or {@code stop} says so, then a
+     * record of the file's size and per-table usage (always written).
+     * Must not be called from inside a write.
+     */
+    public MaintenanceReport runMaintenance(long budgetMillis, StopSignal stop) {
+        if (budgetMillis <= 0) {
+            throw new IllegalArgumentException("budgetMillis must be positive");
+        }
+        long deadline = System.nanoTime() + budgetMillis * 1_000_000;
+        MaintenanceReport report = maintenance.run(getWritableDatabase(),
+                () -> System.nanoTime() >= deadline
+                        || (stop != null && stop.shouldStop()));
+        SQLiteDatabase db = beginWrite();
+        try {
+            maintenance.record(db, report);
+            db.setTransactionSuccessful();
+        } finally {
+            endWrite(db);
+        }
+        return report;
+    }
+
+    /** The last {@code limit} maintenance runs, newest first. */
+    public List<MaintenanceReport> getMaintenanceHistory(int limit) {
+        return maintenance.history(getReadableDatabase(), limit);
+    }
+
     // ═════════════════════════════════════════════════════════════════════
     // HELPER METHODS
     // ═════════════════════════════════════════════════════════════════════
 
+    // ── Statement binding (column order matches the SQL_* constants) ─────
+    private static void bindTransaction(SQLiteStatement stmt, Transaction t) {
+        stmt.bindLong(1, t.getUserId());
+        StatementCache.bindNullable(stmt, 2,  t.getType());
+        StatementCache.bindNullable(stmt, 3,  t.getCategory());
+        stmt.bindLong(4, t.getAmountPaise());
+        StatementCache.bindNullable(stmt, 5,  t.getDescription());
+        StatementCache.bindNullable(stmt, 6,  t.getToFromName());
+        StatementCache.bindNullable(stmt, 7,  t.getToFromPhone());
+        StatementCache.bindNullable(stmt, 8,  t.getDateTime());
+        stmt.bindLong(9, t.getTimeMillis());
+        stmt.bindDouble(10, t.getLatitude());
+        stmt.bindDouble(11, t.getLongitude());
+        StatementCache.bindNullable(stmt, 12, t.getStatus());
+    }
+
+    private static void bindBill(SQLiteStatement stmt, Bill bill) {
+        stmt.bindLong(1, bill.getUserId());
+        StatementCache.bindNullable(stmt, 2, bill.getBillType());
+        stmt.bindLong(3, bill.getAmountPaise());
+        StatementCache.bindNullable(stmt, 4, bill.getPaidAt());
+        StatementCache.bindNullable(stmt, 5, bill.getStatus());
+    }
+
+    // ── Row mapping: column indexes resolved once per cursor ─────────────
+    private interface RowMapper<T> {
+        T map(Cursor cursor);
+    }
+
+    /** Maps up to {@code max} rows into {@code out}, then closes the cursor. */
+    private static <T> void readRows(Cursor cursor, RowMapper<T> mapper,
+                                     List<T> out, int max) {
+        try {
+            while (out.size() < max && cursor.moveToNext()) {
+                out.add(mapper.map(cursor));
+            }
+        } finally {
+            cursor.close();
+        }
+    }
+
+    // ── Bulk insert: one transaction per chunk, cached statements ────────
+    // A writer inserts one row (plus anything derived from it) inside the
+    // open transaction and reports whether the row went in.
+    private interface RowWriter<T> {
+        boolean write(SQLiteDatabase db, T row);
+    }
+
+    private <T> BulkResult bulkInsert(Collection<T> rows, int chunkRows,
+                                      RowWriter<T> writer, ProgressListener listener) {
+        int total = rows.size(), processed = 0, inserted = 0, failed = 0;
+        Iterator<T> it = rows.iterator();
+        while (it.hasNext()) {
+            SQLiteDatabase db = beginWrite();
+            try {
+                for (int n = 0; n < chunkRows && it.hasNext(); n++) {
+                    if (writer.write(db, it.next())) inserted++;
+                    else                             failed++;
+                    processed++;
+                }
+                db.setTransactionSuccessful();
+            } finally {
+                endWrite(db);
+            }
+            if (listener != null) listener.onProgress(processed, total);
+        }
+        return new BulkResult(total, inserted, failed);
+    }
+
+    // Every statement write starts here. Holding the writer connection
+    // before a statement's monitor keeps one lock order on all threads,
+    // so a nested call from transfer()/payBill() cannot deadlock with a
+    // plain insert on another thread.
+    private SQLiteDatabase beginWrite() {
+        SQLiteDatabase db = getWritableDatabase();
+        db.beginTransactionWithListener(tracker.transactionListener());
+        return db;
+    }
+
+    // Ends a beginWrite() transaction; once the outermost one is over,
+    // tells observers what it changed (nothing if it rolled back)
+    private void endWrite(SQLiteDatabase db) {
+        try {
+            db.endTransaction();
+        } finally {
+            if (!db.inTransaction()) tracker.flushPending();
+        }
+    }
+
+    // Same contract as SQLiteDatabase.insert(): -1 on constraint failure
+    private long executeInsert(SQLiteDatabase db, String sql, SQLiteStatement stmt) {
+        try {
+            return slowLog.executeInsert(db, sql, stmt);
+        } catch (SQLException e) {
+            return -1;
+        }
+    }
+
+    /** Change notifications for committed writes (see ObservableQuery). */
+    public InvalidationTracker getInvalidationTracker() {
+        return tracker;
+    }
+
+    /** Sizing and skip/false-positive counters for the signup checks. */
+    public UserKeyFilter getUserKeyFilter() {
+        return userKeys;
+    }
+
+    /** Hit/miss/eviction counters for the user lookups. */
+    public UserCache getUserCache() {
+        return users;
+    }
+
+    // The cache is skipped inside this thread's write transaction: it may
+    // still hold pre-write rows there, and uncommitted rows must not leak
+    // into it if the transaction rolls back
+    private static boolean isCacheable(SQLiteDatabase db) {
+        return !db.inTransaction();
+    }
+
+    /** Slow statements and full scans of transactions (debug builds). */
+    public SlowQueryLog getSlowQueryLog() {
+        return slowLog;
+    }
+
+    /** Compile/reuse counters for the hot write statements. */
+    public StatementCache getStatementCache() {
+        return statements;
+    }
+
+    @Override
+    public synchronized void close() {
+        statements.closeAll();
+        super.close();
+    }
+
     private String getCurrentDateTime() {
-        return new SimpleDateFormat(
-                "yyyy-MM-dd HH:mm:ss", Locale.getDefault()).format(new Date());
+        return DateTimeHelper.nowForDb();
+    }
+
+    // [user_id, month] for a rollup lookup; 'yyyy-MM' is the bucket key
+    private String[] monthArgs(int userId, String month) {
+        return new String[]{ String.valueOf(userId), month };
     }
 
     private String generateAccountNo() {
@@ -437,11 +1583,29 @@ public class DatabaseHelper extends SQLiteOpenHelper
         return "AC" + num;
     }
 
-    // ── ADD this method to DatabaseHelper.java if missing ──────────────────
-    // It reads the balance column directly from the users table.
+    // Ledger balance: nearest snapshot + bounded replay (see Ledger)
+    @Override
+    public long getBalanceAsOf(int userId, long timeMillis) {
+        return ledger.balanceAsOf(getReadableDatabase(), userId, timeMillis);
+    }
+
+    /**
+     * Checks every cached users.balance_paise against the journal and
+     * every posting for a zero sum. Full scan — call off the UI thread.
+     */
+    public Ledger.Report verifyLedger() {
+        return ledger.verify(getReadableDatabase());
+    }
 
-    public double getBalance(int userId) {
+    // Cached users row when possible; inside a write transaction (transfer,
+    // payBill, updateUserBalance) always the balance column itself
+    @Override
+    public long getBalance(int userId) {
         SQLiteDatabase db = this.getReadableDatabase();
+        if (isCacheable(db)) {
+            User user = getUserById(userId);
+            return user != null ? user.getBalancePaise() : 0L;
+        }
         Cursor cursor = db.query(
                 TABLE_USERS,
                 new String[]{ COL_BALANCE },
@@ -449,12 +1613,9 @@ public class DatabaseHelper extends SQLiteOpenHelper
                 new String[]{ String.valueOf(userId) },
                 null, null, null
         );
-        double balance = 0.0;
-        if (cursor != null && cursor.moveToFirst()) {
-            balance = cursor.getDouble(0);
-            cursor.close();
-        }
-        db.close();
+        long balance = 0L;   // paise
+        if (cursor != null && cursor.moveToFirst()) balance = cursor.getLong(0);
+        if (cursor != null) cursor.close();
         return balance;
     }
 
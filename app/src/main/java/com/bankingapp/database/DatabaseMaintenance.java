@@ -0,0 +1,402 @@
+package com.bankingapp.database;
+
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteException;
+import android.database.sqlite.SQLiteStatement;
+import android.util.Log;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DatabaseMaintenance — the periodic upkeep SQLite never does on its
+ * own: planner statistics, returning freed pages to the file system, an
+ * integrity check, and a size record so growth can be followed over time.
+ *
+ * Every step is short and the stop signal is polled between them, so a
+ * run can end whenever its time budget runs out or the app comes back
+ * to the foreground; the next run simply starts over. The few statements
+ * that must read or rewrite the whole file in one go run only while it
+ * is under {@link #WHOLE_FILE_MAX_BYTES}. The steps, in order:
+ *
+ *   1. once per install, switch the file to auto_vacuum=INCREMENTAL
+ *      (one full VACUUM, exclusive — skipped for a larger file);
+ *   2. ANALYZE, one table at a time;
+ *   3. incremental_vacuum, {@link #VACUUM_STEP_PAGES} pages at a time;
+ *   4. PRAGMA quick_check, one table at a time (read-only, so writers are
+ *      never blocked);
+ *   5. a row in maintenance_runs plus one per table in maintenance_tables.
+ *
+ * Step 5 always happens, even after an early stop.
+ */
+final class DatabaseMaintenance {
+
+    private static final String TAG = "DatabaseMaintenance";
+
+    /** Free pages returned per incremental_vacuum statement. */
+    static final int VACUUM_STEP_PAGES = 256;
+
+    /**
+     * Largest file a single uninterruptible statement may cover: the
+     * one-time VACUUM, a whole-file quick_check and the dbstat scan.
+     * A few seconds of I/O on a slow device, well inside a run's budget.
+     */
+    static final long WHOLE_FILE_MAX_BYTES = 32L * 1024 * 1024;
+
+    // quick_check(table) arrived in SQLite 3.33; older builds read the
+    // argument as an error limit and check the whole file every time
+    private static final int[] PER_TABLE_CHECK_SINCE = { 3, 33, 0 };
+
+    // History kept: a daily job fills this in about six months
+    private static final int KEEP_RUNS = 180;
+
+    // Problems a whole-file quick_check reports before giving up
+    private static final int INTEGRITY_MAX_ERRORS = 10;
+
+    private static final int AUTO_VACUUM_INCREMENTAL = 2;
+
+    private static final String SQL_INSERT_RUN =
+            "INSERT INTO maintenance_runs (run_at, duration_ms, file_bytes, wal_bytes, " +
+                    "page_size, page_count, free_pages, pages_reclaimed, " +
+                    "tables_analyzed, integrity, complete) " +
+                    "VALUES (?,?,?,?,?,?,?,?,?,?,?)";
+
+    private static final String SQL_INSERT_TABLE =
+            "INSERT INTO maintenance_tables (run_id, name, pages, row_count) VALUES (?,?,?,?)";
+
+    // Older runs go first; their table rows follow them (ON DELETE is not
+    // enforced without foreign_keys=ON, so both are trimmed explicitly)
+    private static final String SQL_TRIM_TABLES =
+            "DELETE FROM maintenance_tables WHERE run_id <= " +
+                    "(SELECT id FROM maintenance_runs ORDER BY id DESC LIMIT 1 OFFSET " +
+                    KEEP_RUNS + ")";
+
+    private static final String SQL_TRIM_RUNS =
+            "DELETE FROM maintenance_runs WHERE id <= " +
+                    "(SELECT id FROM maintenance_runs ORDER BY id DESC LIMIT 1 OFFSET " +
+                    KEEP_RUNS + ")";
+
+    // Ordinary tables: virtual ones (FTS) have no pages of their own —
+    // their shadow tables are listed instead
+    private static final String SQL_TABLES =
+            "SELECT name FROM sqlite_master WHERE type='table' " +
+                    "AND name NOT LIKE 'sqlite_%' AND sql NOT LIKE 'CREATE VIRTUAL%' " +
+                    "ORDER BY name";
+
+    // Pages per table, its indexes included. dbstat is a compile-time
+    // option: Android builds that leave it out get -1 for every table
+    private static final String SQL_PAGES_PER_TABLE =
+            "SELECT m.tbl_name, COUNT(*) FROM dbstat s " +
+                    "JOIN sqlite_master m ON m.name = s.name GROUP BY m.tbl_name";
+
+    // ANALYZE leaves each table's row count at the front of its stat
+    // string; the CAST keeps that leading number
+    private static final String SQL_ROWS_PER_TABLE =
+            "SELECT tbl, MAX(CAST(stat AS INTEGER)) FROM sqlite_stat1 GROUP BY tbl";
+
+    private final StatementCache statements;
+    private final SlowQueryLog   slowLog;
+
+    DatabaseMaintenance(StatementCache statements, SlowQueryLog slowLog) {
+        this.statements = statements;
+        this.slowLog    = slowLog;
+    }
+
+    /**
+     * Steps 1–4 on {@code db}, which must not be inside a transaction
+     * (VACUUM refuses to run in one). Returns what step 5 should record.
+     */
+    DatabaseHelper.MaintenanceReport run(SQLiteDatabase db, DatabaseHelper.StopSignal stop) {
+        long startNanos = System.nanoTime();
+        long runAt      = System.currentTimeMillis();
+        boolean complete = false;
+        int analyzed = 0;
+        long reclaimed = 0;
+        String integrity = null;
+
+        steps:
+        {
+            if (stop.shouldStop()) break steps;
+            boolean incremental = ensureIncrementalVacuum(db);
+
+            for (String table : tableNames(db)) {
+                if (stop.shouldStop()) break steps;
+                slowLog.execSQL(db, "ANALYZE \"" + table + "\"");
+                analyzed++;
+            }
+
+            long free = incremental ? pragma(db, "freelist_count") : 0;
+            while (free > 0) {
+                if (stop.shouldStop()) break steps;
+                incrementalVacuum(db, Math.min(free, VACUUM_STEP_PAGES));
+                long left = pragma(db, "freelist_count");
+                if (left >= free) break;   // nothing moved; leave it be
+                reclaimed += free - left;
+                free = left;
+            }
+            checkpoint(db);
+
+            if (stop.shouldStop()) break steps;
+            integrity = integrityCheck(db, stop);
+            if (integrity == null && stop.shouldStop()) break steps;
+            complete  = true;
+        }
+
+        File file = new File(db.getPath());
+        File wal  = new File(db.getPath() + "-wal");
+        List<DatabaseHelper.TableUsage> usage = tableUsage(db,
+                !stop.shouldStop() && fitsWholeFilePass(db));
+        return new DatabaseHelper.MaintenanceReport(runAt,
+                (System.nanoTime() - startNanos) / 1_000_000,
+                file.length(), wal.length(),
+                pragma(db, "page_size"), pragma(db, "page_count"),
+                pragma(db, "freelist_count"), reclaimed, analyzed,
+                integrity, complete, usage);
+    }
+
+    /** Step 5, inside the caller's write transaction. Returns the run id. */
+    long record(SQLiteDatabase db, DatabaseHelper.MaintenanceReport report) {
+        SQLiteStatement run = statements.get(db, SQL_INSERT_RUN);
+        long runId;
+        synchronized (run) {
+            run.bindLong(1,  report.runAtMillis);
+            run.bindLong(2,  report.durationMillis);
+            run.bindLong(3,  report.fileBytes);
+            run.bindLong(4,  report.walBytes);
+            run.bindLong(5,  report.pageSize);
+            run.bindLong(6,  report.pageCount);
+            run.bindLong(7,  report.freePages);
+            run.bindLong(8,  report.pagesReclaimed);
+            run.bindLong(9,  report.tablesAnalyzed);
+            StatementCache.bindNullable(run, 10, report.integrity);
+            run.bindLong(11, report.complete ? 1 : 0);
+            runId = slowLog.executeInsert(db, SQL_INSERT_RUN, run);
+        }
+
+        SQLiteStatement table = statements.get(db, SQL_INSERT_TABLE);
+        for (DatabaseHelper.TableUsage t : report.tables) {
+            synchronized (table) {
+                table.bindLong(1, runId);
+                table.bindString(2, t.name);
+                table.bindLong(3, t.pages);
+                table.bindLong(4, t.rows);
+                slowLog.executeInsert(db, SQL_INSERT_TABLE, table);
+            }
+        }
+        slowLog.execSQL(db, SQL_TRIM_TABLES);
+        slowLog.execSQL(db, SQL_TRIM_RUNS);
+        return runId;
+    }
+
+    /** Recorded runs, newest first, each with its per-table rows. */
+    List<DatabaseHelper.MaintenanceReport> history(SQLiteDatabase db, int limit) {
+        List<DatabaseHelper.MaintenanceReport> runs = new ArrayList<>();
+        Cursor cursor = db.rawQuery("SELECT id, run_at, duration_ms, file_bytes, wal_bytes, " +
+                        "page_size, page_count, free_pages, pages_reclaimed, " +
+                        "tables_analyzed, integrity, complete FROM maintenance_runs " +
+                        "ORDER BY id DESC LIMIT ?",
+                new String[]{ String.valueOf(limit) });
+        try {
+            while (cursor.moveToNext()) {
+                runs.add(new DatabaseHelper.MaintenanceReport(cursor.getLong(1),
+                        cursor.getLong(2), cursor.getLong(3), cursor.getLong(4),
+                        cursor.getLong(5), cursor.getLong(6), cursor.getLong(7),
+                        cursor.getLong(8), cursor.getInt(9),
+                        cursor.isNull(10) ? null : cursor.getString(10),
+                        cursor.getInt(11) != 0, tablesOf(db, cursor.getLong(0))));
+            }
+        } finally {
+            cursor.close();
+        }
+        return runs;
+    }
+
+    private static List<DatabaseHelper.TableUsage> tablesOf(SQLiteDatabase db, long runId) {
+        List<DatabaseHelper.TableUsage> tables = new ArrayList<>();
+        Cursor cursor = db.rawQuery("SELECT name, pages, row_count FROM maintenance_tables " +
+                "WHERE run_id=? ORDER BY name", new String[]{ String.valueOf(runId) });
+        try {
+            while (cursor.moveToNext()) {
+                tables.add(new DatabaseHelper.TableUsage(cursor.getString(0),
+                        cursor.getLong(1), cursor.getLong(2)));
+            }
+        } finally {
+            cursor.close();
+        }
+        return tables;
+    }
+
+    // ── Step 1 ────────────────────────────────────────────────────────────
+    // auto_vacuum can only change through a full VACUUM, so files created
+    // before this job existed are rebuilt once. False: the rebuild could
+    // not get the database this time (busy, or short of temp space), so
+    // this run skips step 3 and the next one tries again
+    private boolean ensureIncrementalVacuum(SQLiteDatabase db) {
+        if (pragma(db, "auto_vacuum") == AUTO_VACUUM_INCREMENTAL) return true;
+        // VACUUM holds every writer off until it is done and cannot be
+        // stopped; a larger file keeps its free pages rather than stall the app
+        if (!fitsWholeFilePass(db)) {
+            Log.i(TAG, "Skipping the auto_vacuum switch: file over "
+                    + WHOLE_FILE_MAX_BYTES + " bytes");
+            return false;
+        }
+        try {
+            slowLog.execSQL(db, "PRAGMA auto_vacuum = INCREMENTAL");
+            slowLog.execSQL(db, "VACUUM");
+        } catch (SQLiteException e) {
+            Log.w(TAG, "Could not switch to incremental vacuum", e);
+            return false;
+        }
+        return pragma(db, "auto_vacuum") == AUTO_VACUUM_INCREMENTAL;
+    }
+
+    // ── Step 3 ────────────────────────────────────────────────────────────
+    // incremental_vacuum frees one page per step and returns a row for
+    // each, so it runs as a query drained to the end (execSQL would stop
+    // after the first page, or refuse the statement outright)
+    private static void incrementalVacuum(SQLiteDatabase db, long pages) {
+        Cursor cursor = db.rawQuery("PRAGMA incremental_vacuum(" + pages + ")", null);
+        try {
+            while (cursor.moveToNext()) {
+                // each row is one freed page
+            }
+        } finally {
+            cursor.close();
+        }
+    }
+
+    // The file itself shrinks only once the truncation is checkpointed;
+    // TRUNCATE also empties the -wal file. Busy readers just leave it for
+    // the next run
+    private static void checkpoint(SQLiteDatabase db) {
+        Cursor cursor = db.rawQuery("PRAGMA wal_checkpoint(TRUNCATE)", null);
+        try {
+            cursor.moveToFirst();
+        } finally {
+            cursor.close();
+        }
+    }
+
+    // ── Step 4 ────────────────────────────────────────────────────────────
+    // quick_check skips the index-to-table cross-check of integrity_check
+    // but still verifies every page, record and constraint, in a fraction
+    // of the time. "ok", the problems found one per line, or null when the
+    // check was stopped or the file is too large to check in one pass.
+    private static String integrityCheck(SQLiteDatabase db, DatabaseHelper.StopSignal stop) {
+        if (!perTableCheckSupported(db)) {
+            return fitsWholeFilePass(db) ? quickCheck(db, "") : null;
+        }
+        StringBuilder problems = new StringBuilder();
+        for (String table : tableNames(db)) {
+            if (stop.shouldStop()) return null;
+            String result = quickCheck(db, "\"" + table + "\"");
+            if ("ok".equals(result)) continue;
+            if (problems.length() > 0) problems.append('\n');
+            problems.append(result);
+        }
+        return problems.length() == 0 ? "ok" : problems.toString();
+    }
+
+    // One quick_check statement; target is a quoted table name or "" for all
+    private static String quickCheck(SQLiteDatabase db, String target) {
+        Cursor cursor = db.rawQuery("PRAGMA quick_check("
+                + (target.isEmpty() ? String.valueOf(INTEGRITY_MAX_ERRORS) : target) + ")", null);
+        StringBuilder result = new StringBuilder();
+        try {
+            while (cursor.moveToNext()) {
+                if (result.length() > 0) result.append('\n');
+                result.append(cursor.getString(0));
+            }
+        } finally {
+            cursor.close();
+        }
+        String text = result.toString();
+        if (!"ok".equals(text)) Log.e(TAG, "quick_check failed:\n" + text);
+        return text;
+    }
+
+    private static boolean perTableCheckSupported(SQLiteDatabase db) {
+        Cursor cursor = db.rawQuery("SELECT sqlite_version()", null);
+        String[] parts;
+        try {
+            parts = cursor.moveToFirst() ? cursor.getString(0).split("\\.") : new String[0];
+        } finally {
+            cursor.close();
+        }
+        for (int i = 0; i < PER_TABLE_CHECK_SINCE.length; i++) {
+            int have;
+            try {
+                have = i < parts.length ? Integer.parseInt(parts[i]) : 0;
+            } catch (NumberFormatException e) {
+                return false;
+            }
+            if (have != PER_TABLE_CHECK_SINCE[i]) return have > PER_TABLE_CHECK_SINCE[i];
+        }
+        return true;
+    }
+
+    private static boolean fitsWholeFilePass(SQLiteDatabase db) {
+        return pragma(db, "page_count") * pragma(db, "page_size") <= WHOLE_FILE_MAX_BYTES;
+    }
+
+    // ── Step 5: per-table usage ──────────────────────────────────────────
+    // Row counts come free from ANALYZE's statistics; page counts need a
+    // scan of the whole file through dbstat, skipped once time is up or
+    // for a file too large to scan in one pass
+    private static List<DatabaseHelper.TableUsage> tableUsage(SQLiteDatabase db,
+                                                              boolean countPages) {
+        Map<String, Long> pages = countPages
+                ? perTable(db, SQL_PAGES_PER_TABLE)
+                : new HashMap<>();
+        Map<String, Long> rows = perTable(db, SQL_ROWS_PER_TABLE);
+        List<DatabaseHelper.TableUsage> usage = new ArrayList<>();
+        for (String table : tableNames(db)) {
+            Long p = pages.get(table), r = rows.get(table);
+            usage.add(new DatabaseHelper.TableUsage(table,
+                    p != null ? p : -1, r != null ? r : -1));
+        }
+        return usage;
+    }
+
+    // name → count; empty when the query's source does not exist here
+    // (no dbstat in this build, or no sqlite_stat1 before the first ANALYZE)
+    private static Map<String, Long> perTable(SQLiteDatabase db, String sql) {
+        Map<String, Long> counts = new HashMap<>();
+        Cursor cursor;
+        try {
+            cursor = db.rawQuery(sql, null);
+        } catch (SQLiteException e) {
+            return counts;
+        }
+        try {
+            while (cursor.moveToNext()) counts.put(cursor.getString(0), cursor.getLong(1));
+        } finally {
+            cursor.close();
+        }
+        return counts;
+    }
+
+    private static List<String> tableNames(SQLiteDatabase db) {
+        List<String> names = new ArrayList<>();
+        Cursor cursor = db.rawQuery(SQL_TABLES, null);
+        try {
+            while (cursor.moveToNext()) names.add(cursor.getString(0));
+        } finally {
+            cursor.close();
+        }
+        return names;
+    }
+
+    private static long pragma(SQLiteDatabase db, String name) {
+        Cursor cursor = db.rawQuery("PRAGMA " + name, null);
+        try {
+            return cursor.moveToFirst() ? cursor.getLong(0) : 0;
+        } finally {
+            cursor.close();
+        }
+    }
+}
@@ -0,0 +1,299 @@
+package com.bankingapp.database;
+
+import android.database.sqlite.SQLiteDatabase;
+
+/**
+ * DatabaseMigrations — step-by-step schema upgrades for banking_app.db.
+ *
+ * Each DB_VERSION bump adds exactly one case to {@link #applyStep}.
+ * Steps run in order inside the transaction SQLiteOpenHelper already
+ * opened for onCreate/onUpgrade, and they never drop user data.
+ *
+ * SQL here uses literal table/column names on purpose: a migration must
+ * keep describing the schema as it was when the step was written, even
+ * if constants in DatabaseHelper change later.
+ */
+final class DatabaseMigrations {
+
+    private DatabaseMigrations() {}
+
+    /** Upgrades the schema from {@code fromVersion} to {@code toVersion}. */
+    static void migrate(SQLiteDatabase db, int fromVersion, int toVersion) {
+        for (int version = fromVersion + 1; version <= toVersion; version++) {
+            applyStep(db, version);
+        }
+    }
+
+    private static void applyStep(SQLiteDatabase db, int version) {
+        switch (version) {
+            case 2: addLookupIndexes(db); break;
+            case 3: addTransactionEpochColumn(db); break;
+            case 4: convertAmountsToPaise(db); break;
+            case 5: addMonthlyCategoryTotals(db); break;
+            case 6: addLedger(db); break;
+            case 7: addTransactionSearch(db); break;
+            case 8: addTransactionArchive(db); break;
+            case 9: addMaintenanceLog(db); break;
+            default:
+                throw new IllegalStateException(
+                        "No migration defined for DB version " + version);
+        }
+    }
+
+    // ── v2: secondary indexes for every per-user list query ──────────────
+    private static void addLookupIndexes(SQLiteDatabase db) {
+        db.execSQL("CREATE INDEX IF NOT EXISTS idx_transactions_user_date " +
+                "ON transactions(user_id, date_time DESC)");
+        db.execSQL("CREATE INDEX IF NOT EXISTS idx_bills_user_paid " +
+                "ON bills(user_id, paid_at)");
+        db.execSQL("CREATE INDEX IF NOT EXISTS idx_goals_user_created " +
+                "ON savings_goals(user_id, created_at)");
+    }
+
+    // ── v3: epoch-millisecond timestamp for indexed range scans ──────────
+    // date_time holds local wall-clock text, so the backfill converts it
+    // with the 'utc' modifier. Rows whose text cannot be parsed get 0 and
+    // simply sort last instead of failing the upgrade.
+    private static void addTransactionEpochColumn(SQLiteDatabase db) {
+        db.execSQL("ALTER TABLE transactions " +
+                "ADD COLUMN time_millis INTEGER NOT NULL DEFAULT 0");
+        db.execSQL("UPDATE transactions SET time_millis = COALESCE(" +
+                "CAST(strftime('%s', date_time, 'utc') AS INTEGER) * 1000, 0)");
+        // Ascending on purpose: a backward scan yields (time_millis DESC,
+        // id DESC) straight from the index, since rowid is its last key
+        db.execSQL("CREATE INDEX IF NOT EXISTS idx_transactions_user_time " +
+                "ON transactions(user_id, time_millis)");
+        // Superseded — every history query now sorts on time_millis
+        db.execSQL("DROP INDEX IF EXISTS idx_transactions_user_date");
+    }
+
+    // ── v4: REAL rupee columns → INTEGER paise ────────────────────────────
+    // SQLite cannot change a column's type in place, so each table is
+    // rebuilt (create new → copy → drop old → rename) and its indexes are
+    // recreated. ROUND(x * 100) recovers the intended paise value from
+    // the binary double that was stored before.
+    private static void convertAmountsToPaise(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE users_v4 (" +
+                "id            INTEGER PRIMARY KEY AUTOINCREMENT," +
+                "username      TEXT NOT NULL UNIQUE," +
+                "password      TEXT NOT NULL," +
+                "full_name     TEXT NOT NULL," +
+                "phone         TEXT NOT NULL UNIQUE," +
+                "account_no    TEXT NOT NULL UNIQUE," +
+                "balance_paise INTEGER NOT NULL DEFAULT 0," +
+                "profile_pic   TEXT," +
+                "created_at    TEXT" +
+                ")");
+        db.execSQL("INSERT INTO users_v4 (id, username, password, full_name, " +
+                "phone, account_no, balance_paise, profile_pic, created_at) " +
+                "SELECT id, username, password, full_name, phone, account_no, " +
+                "CAST(ROUND(COALESCE(balance, 0) * 100) AS INTEGER), " +
+                "profile_pic, created_at FROM users");
+        db.execSQL("DROP TABLE users");
+        db.execSQL("ALTER TABLE users_v4 RENAME TO users");
+
+        db.execSQL("CREATE TABLE transactions_v4 (" +
+                "id            INTEGER PRIMARY KEY AUTOINCREMENT," +
+                "user_id       INTEGER NOT NULL," +
+                "type          TEXT NOT NULL," +
+                "category      TEXT," +
+                "amount_paise  INTEGER NOT NULL," +
+                "description   TEXT," +
+                "to_from_name  TEXT," +
+                "to_from_phone TEXT," +
+                "date_time     TEXT NOT NULL," +
+                "time_millis   INTEGER NOT NULL DEFAULT 0," +
+                "latitude      REAL DEFAULT 0.0," +
+                "longitude     REAL DEFAULT 0.0," +
+                "status        TEXT DEFAULT 'SUCCESS'," +
+                "FOREIGN KEY (user_id) REFERENCES users(id)" +
+                ")");
+        db.execSQL("INSERT INTO transactions_v4 (id, user_id, type, category, " +
+                "amount_paise, description, to_from_name, to_from_phone, " +
+                "date_time, time_millis, latitude, longitude, status) " +
+                "SELECT id, user_id, type, category, " +
+                "CAST(ROUND(amount * 100) AS INTEGER), description, " +
+                "to_from_name, to_from_phone, date_time, time_millis, " +
+                "latitude, longitude, status FROM transactions");
+        db.execSQL("DROP TABLE transactions");
+        db.execSQL("ALTER TABLE transactions_v4 RENAME TO transactions");
+        db.execSQL("CREATE INDEX IF NOT EXISTS idx_transactions_user_time " +
+                "ON transactions(user_id, time_millis)");
+
+        db.execSQL("CREATE TABLE bills_v4 (" +
+                "id           INTEGER PRIMARY KEY AUTOINCREMENT," +
+                "user_id      INTEGER NOT NULL," +
+                "bill_type    TEXT NOT NULL," +
+                "amount_paise INTEGER NOT NULL," +
+                "paid_at      TEXT," +
+                "status       TEXT DEFAULT 'PAID'," +
+                "FOREIGN KEY (user_id) REFERENCES users(id)" +
+                ")");
+        db.execSQL("INSERT INTO bills_v4 (id, user_id, bill_type, amount_paise, " +
+                "paid_at, status) " +
+                "SELECT id, user_id, bill_type, CAST(ROUND(amount * 100) AS INTEGER), " +
+                "paid_at, status FROM bills");
+        db.execSQL("DROP TABLE bills");
+        db.execSQL("ALTER TABLE bills_v4 RENAME TO bills");
+        db.execSQL("CREATE INDEX IF NOT EXISTS idx_bills_user_paid " +
+                "ON bills(user_id, paid_at)");
+
+        db.execSQL("CREATE TABLE savings_goals_v4 (" +
+                "id            INTEGER PRIMARY KEY AUTOINCREMENT," +
+                "user_id       INTEGER NOT NULL," +
+                "goal_name     TEXT NOT NULL," +
+                "target_paise  INTEGER NOT NULL," +
+                "current_paise INTEGER NOT NULL DEFAULT 0," +
+                "created_at    TEXT," +
+                "FOREIGN KEY (user_id) REFERENCES users(id)" +
+                ")");
+        db.execSQL("INSERT INTO savings_goals_v4 (id, user_id, goal_name, " +
+                "target_paise, current_paise, created_at) " +
+                "SELECT id, user_id, goal_name, " +
+                "CAST(ROUND(target_amount * 100) AS INTEGER), " +
+                "CAST(ROUND(COALESCE(current_amount, 0) * 100) AS INTEGER), " +
+                "created_at FROM savings_goals");
+        db.execSQL("DROP TABLE savings_goals");
+        db.execSQL("ALTER TABLE savings_goals_v4 RENAME TO savings_goals");
+        db.execSQL("CREATE INDEX IF NOT EXISTS idx_goals_user_created " +
+                "ON savings_goals(user_id, created_at)");
+    }
+
+    // ── v5: per-month, per-category rollup for Insights ──────────────────
+    // Kept current by DatabaseHelper on every transaction insert; this
+    // step seeds it from existing history. '' stands in for a NULL
+    // category so it can be part of the primary key.
+    private static void addMonthlyCategoryTotals(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE monthly_category_totals (" +
+                "user_id  INTEGER NOT NULL," +
+                "month    TEXT NOT NULL," +
+                "type     TEXT NOT NULL," +
+                "category TEXT NOT NULL DEFAULT ''," +
+                "total    INTEGER NOT NULL DEFAULT 0," +
+                "count    INTEGER NOT NULL DEFAULT 0," +
+                "PRIMARY KEY (user_id, month, type, category)" +
+                ") WITHOUT ROWID");
+        db.execSQL("INSERT INTO monthly_category_totals " +
+                "(user_id, month, type, category, total, count) " +
+                "SELECT user_id, " +
+                "strftime('%Y-%m', time_millis / 1000, 'unixepoch', 'localtime'), " +
+                "type, IFNULL(category, ''), SUM(amount_paise), COUNT(*) " +
+                "FROM transactions GROUP BY 1, 2, 3, 4");
+    }
+
+    // ── v6: double-entry journal + balance snapshots ─────────────────────
+    // Earlier history never moved money through a journal, so each user
+    // starts with one OPENING posting (external account 0 → user) for the
+    // balance they hold at upgrade time, snapshotted straight away.
+    // Every opening entry takes the same upgrade time, so entry times never
+    // run backwards in id order from the start; Ledger.post keeps it so.
+    // Posting ids reuse user ids here only because the table is new.
+    private static void addLedger(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE ledger_postings (" +
+                "id          INTEGER PRIMARY KEY AUTOINCREMENT," +
+                "kind        TEXT NOT NULL," +
+                "txn_id      INTEGER," +
+                "time_millis INTEGER NOT NULL" +
+                ")");
+        db.execSQL("CREATE TABLE ledger_entries (" +
+                "id           INTEGER PRIMARY KEY AUTOINCREMENT," +
+                "posting_id   INTEGER NOT NULL," +
+                "account_id   INTEGER NOT NULL," +
+                "amount_paise INTEGER NOT NULL," +
+                "time_millis  INTEGER NOT NULL" +
+                ")");
+        db.execSQL("CREATE INDEX IF NOT EXISTS idx_ledger_account_time " +
+                "ON ledger_entries(account_id, time_millis)");
+        db.execSQL("CREATE INDEX IF NOT EXISTS idx_ledger_posting " +
+                "ON ledger_entries(posting_id)");
+        db.execSQL("CREATE TABLE balance_snapshots (" +
+                "account_id    INTEGER NOT NULL," +
+                "entry_id      INTEGER NOT NULL," +
+                "time_millis   INTEGER NOT NULL," +
+                "balance_paise INTEGER NOT NULL," +
+                "PRIMARY KEY (account_id, entry_id)" +
+                ") WITHOUT ROWID");
+        db.execSQL("CREATE INDEX IF NOT EXISTS idx_snapshots_account_time " +
+                "ON balance_snapshots(account_id, time_millis)");
+
+        db.execSQL("INSERT INTO ledger_postings (id, kind, txn_id, time_millis) " +
+                "SELECT id, 'OPENING', NULL, " +
+                "CAST(strftime('%s', 'now') AS INTEGER) * 1000 FROM users");
+        db.execSQL("INSERT INTO ledger_entries (posting_id, account_id, amount_paise, time_millis) " +
+                "SELECT u.id, 0, -u.balance_paise, p.time_millis " +
+                "FROM users u JOIN ledger_postings p ON p.id = u.id");
+        db.execSQL("INSERT INTO ledger_entries (posting_id, account_id, amount_paise, time_millis) " +
+                "SELECT u.id, u.id, u.balance_paise, p.time_millis " +
+                "FROM users u JOIN ledger_postings p ON p.id = u.id");
+        db.execSQL("INSERT INTO balance_snapshots (account_id, entry_id, time_millis, balance_paise) " +
+                "SELECT account_id, id, time_millis, amount_paise " +
+                "FROM ledger_entries WHERE account_id <> 0");
+    }
+
+    // ── v7: full-text index over description and counterparty ───────────
+    // FTS4 ships with every supported Android release (FTS5 does not).
+    // External content: the index stores no copy of the text, and the
+    // triggers keep it in step with transactions. The delete side has to
+    // run BEFORE the row changes so FTS can still read the old values.
+    private static void addTransactionSearch(SQLiteDatabase db) {
+        db.execSQL("CREATE VIRTUAL TABLE transactions_fts USING fts4(" +
+                "content=\"transactions\", description, to_from_name, to_from_phone)");
+        db.execSQL("CREATE TRIGGER transactions_fts_bu BEFORE UPDATE ON transactions BEGIN " +
+                "DELETE FROM transactions_fts WHERE docid = old.id; END");
+        db.execSQL("CREATE TRIGGER transactions_fts_bd BEFORE DELETE ON transactions BEGIN " +
+                "DELETE FROM transactions_fts WHERE docid = old.id; END");
+        db.execSQL("CREATE TRIGGER transactions_fts_au AFTER UPDATE ON transactions BEGIN " +
+                "INSERT INTO transactions_fts (docid, description, to_from_name, to_from_phone) " +
+                "VALUES (new.id, new.description, new.to_from_name, new.to_from_phone); END");
+        db.execSQL("CREATE TRIGGER transactions_fts_ai AFTER INSERT ON transactions BEGIN " +
+                "INSERT INTO transactions_fts (docid, description, to_from_name, to_from_phone) " +
+                "VALUES (new.id, new.description, new.to_from_name, new.to_from_phone); END");
+        db.execSQL("INSERT INTO transactions_fts (transactions_fts) VALUES ('rebuild')");
+    }
+
+    // ── v8: compressed cold storage for old months ───────────────────────
+    // Filled by the archive job (TransactionArchive), never by a
+    // migration. A rowid table on purpose: blocks run to kilobytes, and
+    // WITHOUT ROWID suits only small rows.
+    private static void addTransactionArchive(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE transaction_archive (" +
+                "id           INTEGER PRIMARY KEY AUTOINCREMENT," +
+                "user_id      INTEGER NOT NULL," +
+                "month        TEXT NOT NULL," +
+                "first_millis INTEGER NOT NULL," +
+                "last_millis  INTEGER NOT NULL," +
+                "row_count    INTEGER NOT NULL," +
+                "block        BLOB NOT NULL" +
+                ")");
+        db.execSQL("CREATE INDEX IF NOT EXISTS idx_archive_user_last " +
+                "ON transaction_archive(user_id, last_millis)");
+    }
+
+    // ── v9: what each maintenance run found (DatabaseMaintenance) ────────
+    // Sizes in bytes and pages; pages is -1 where the platform SQLite has
+    // no dbstat, row_count -1 before a table was first analyzed
+    private static void addMaintenanceLog(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE maintenance_runs (" +
+                "id              INTEGER PRIMARY KEY AUTOINCREMENT," +
+                "run_at          INTEGER NOT NULL," +
+                "duration_ms     INTEGER NOT NULL," +
+                "file_bytes      INTEGER NOT NULL," +
+                "wal_bytes       INTEGER NOT NULL," +
+                "page_size       INTEGER NOT NULL," +
+                "page_count      INTEGER NOT NULL," +
+                "free_pages      INTEGER NOT NULL," +
+                "pages_reclaimed INTEGER NOT NULL," +
+                "tables_analyzed INTEGER NOT NULL," +
+                "integrity       TEXT," +
+                "complete        INTEGER NOT NULL" +
+                ")");
+        db.execSQL("CREATE TABLE maintenance_tables (" +
+                "run_id    INTEGER NOT NULL," +
+                "name      TEXT NOT NULL," +
+                "pages     INTEGER NOT NULL," +
+                "row_count INTEGER NOT NULL," +
+                "PRIMARY KEY (run_id, name)" +
+                ")");
+    }
+
+}
@@ -1,10 +1,12 @@
 package com.bankingapp.database;
 
 import com.bankingapp.models.Bill;
+import com.bankingapp.models.MonthSummary;
 import com.bankingapp.models.SavingsGoal;
 import com.bankingapp.models.Transaction;
 import com.bankingapp.models.User;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
@@ -18,31 +20,125 @@ public interface IDataRepository {
     User    getUserById(int userId);
     User    getUserByPhone(String phone);
 
-    boolean updateUserBalance(int userId, double newBalance);
+    long    getBalance(int userId);   // cached users.balance_paise
+    boolean updateUserBalance(int userId, long newBalancePaise);
+
+    // Balance from the ledger journal, including entries up to timeMillis
+    long    getBalanceAsOf(int userId, long timeMillis);
     boolean updateProfilePic(int userId, String picPath);
     boolean isUsernameExists(String username);
     boolean isPhoneExists(String phone);
 
+    // ── BULK INSERT RESULT / PROGRESS ─────────────────────────────────────
+    // Large inputs are committed in chunks; progress fires after each one.
+    interface ProgressListener {
+        void onProgress(int processed, int total);
+    }
+
+    final class BulkResult {
+        public final int total;
+        public final int inserted;
+        public final int failed;   // rows rejected by a constraint
+
+        public BulkResult(int total, int inserted, int failed) {
+            this.total    = total;
+            this.inserted = inserted;
+            this.failed   = failed;
+        }
+    }
+
     // ── TRANSACTION OPERATIONS ────────────────────────────────────────────
     boolean         insertTransaction(Transaction transaction);
+    BulkResult      insertTransactions(Collection<Transaction> transactions,
+                                       ProgressListener listener);
     List<Transaction> getAllTransactions(int userId);
     List<Transaction> getRecentTransactions(int userId, int limit);
     List<Transaction> getTransactionsByDateRange(int userId,
                                                  String fromDate,
                                                  String toDate);
 
+    // ── PAGED HISTORY (keyset — newest first) ─────────────────────────────
+    // Range is half-open [fromMillis, toMillis); type == null means all.
+    // Pass after == null for the first page, then page.next until null.
+    // projection == null loads every column; otherwise it must include
+    // "id" and "time_millis" (e.g. Transaction.LIST_COLUMNS).
+    TransactionPage getTransactionPage(int userId, long fromMillis,
+                                       long toMillis, String type,
+                                       PageToken after, int pageSize,
+                                       String[] projection);
+
+    default TransactionPage getTransactionPage(int userId, long fromMillis,
+                                               long toMillis, String type,
+                                               PageToken after, int pageSize) {
+        return getTransactionPage(userId, fromMillis, toMillis, type,
+                after, pageSize, null);
+    }
+
+    default TransactionPage getTransactionPage(int userId, PageToken after,
+                                               int pageSize, String[] projection) {
+        return getTransactionPage(userId, Long.MIN_VALUE, Long.MAX_VALUE,
+                null, after, pageSize, projection);
+    }
+
+    default TransactionPage getTransactionPage(int userId, PageToken after,
+                                               int pageSize) {
+        return getTransactionPage(userId, after, pageSize, null);
+    }
+
+    // ── SEARCH (full text: description, counterparty name and phone) ─────
+    // Every word is a prefix match and all must appear. Best matches come
+    // first, newer first among equals; offset/limit page through them.
+    List<Transaction> searchTransactions(int userId, String query,
+                                         int offset, int limit);
+
+    // ── ATOMIC MONEY MOVEMENT ─────────────────────────────────────────────
+    // Each returns the payer's new balance in paise, or one of the codes
+    // below; nothing is written unless it succeeds. A payer or payee with
+    // no account is WRITE_FAILED, never INSUFFICIENT_FUNDS.
+    long INSUFFICIENT_FUNDS = -1L;
+    long WRITE_FAILED       = -2L;
+
+    // Debits the sender and records sent; received (may be null) is
+    // credited to received.getUserId() and recorded
+    long transfer(int senderId, long amountPaise,
+                  Transaction sent, Transaction received);
+    // Debits the payer and records the bill plus its BILL_PAYMENT row
+    long payBill(int userId, long amountPaise, Transaction txn, Bill bill);
+
     // ── BILL OPERATIONS ───────────────────────────────────────────────────
     boolean     insertBill(Bill bill);
+    BulkResult  insertBills(Collection<Bill> bills, ProgressListener listener);
     List<Bill>  getBillsByUser(int userId);
 
     // ── SAVINGS GOAL OPERATIONS ───────────────────────────────────────────
     boolean          insertGoal(SavingsGoal goal);
     List<SavingsGoal> getGoalsByUser(int userId);
-    boolean          updateGoalAmount(int goalId, double newAmount);
+    boolean          updateGoalAmount(int goalId, long newAmountPaise);
 
     // ── INSIGHTS / AGGREGATES ─────────────────────────────────────────────
     // month format: 'yyyy-MM'  e.g. '2026-02'
-    Map<String, Double> getSpendingByCategory(int userId, String month);
-    double getTotalSpentThisMonth(int userId, String month);
-    double getTotalReceivedThisMonth(int userId, String month);
+    // All amounts are exact paise (see models.Money)
+    Map<String, Long> getSpendingByCategory(int userId, String month);
+    long   getTotalSpentThisMonth(int userId, String month);
+    long   getTotalReceivedThisMonth(int userId, String month);
+
+    // Spent, received, per-category totals and counts in one pass —
+    // prefer this over calling the three methods above for one screen
+    MonthSummary getMonthSummary(int userId, String month);
+
+    // Totals over the same half-open range and type filter as
+    // getTransactionPage (type == null means all), archived months included
+    final class RangeTotals {
+        public final long spentPaise;      // SENT + BILL_PAYMENT
+        public final long receivedPaise;   // RECEIVED
+        public final int  count;           // rows of any type
+
+        public RangeTotals(long spentPaise, long receivedPaise, int count) {
+            this.spentPaise    = spentPaise;
+            this.receivedPaise = receivedPaise;
+            this.count         = count;
+        }
+    }
+
+    RangeTotals getRangeTotals(int userId, long fromMillis, long toMillis, String type);
 }
\ No newline at end of file
@@ -0,0 +1,975 @@
+package com.bankingapp.database;
+
+import com.bankingapp.models.Bill;
+import com.bankingapp.models.MonthSummary;
+import com.bankingapp.models.SavingsGoal;
+import com.bankingapp.models.Transaction;
+import com.bankingapp.models.User;
+import com.bankingapp.utils.DateTimeHelper;
+import com.bankingapp.utils.PasswordUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * InMemoryDataRepository — IDataRepository kept entirely in memory, for
+ * JVM unit tests and benchmarks. Plain Java: no Android classes, no disk.
+ *
+ * Every call answers exactly as DatabaseHelper does on the same writes —
+ * ordering and tie-breaks, rollup totals, keyset pages, projections,
+ * search ranking, ledger snapshots, which inserts a constraint would
+ * reject, and all-or-nothing money movement. IDataRepositoryContract runs
+ * the same assertions against both.
+ *
+ * Each user's history is a set of parallel arrays (time, id, row, search
+ * words) sorted by (time_millis, id), so pages, date ranges and "recent"
+ * are a binary search plus a backward walk, like the (user_id,
+ * time_millis) index. Ledger journals are primitive arrays in
+ * (time_millis, entry id) order. Month totals are a rollup kept on write.
+ *
+ * One read-write lock: reads run in parallel, each write is applied
+ * whole under the write lock. Unlike DatabaseHelper there is no demo
+ * user and no change tracking.
+ */
+public final class InMemoryDataRepository implements IDataRepository {
+
+    // Same grant as DatabaseHelper.registerUser: ₹10,000.00
+    private static final long OPENING_BALANCE = 1_000_000L;
+
+    // Same chunking as DatabaseHelper's bulk inserts, so progress matches
+    private static final int BULK_CHUNK_ROWS = 500;
+
+    // SQLite's BINARY collation compares UTF-8 bytes, i.e. code points
+    private static final Comparator<String> BINARY = (a, b) -> {
+        int i = 0, j = 0;
+        while (i < a.length() && j < b.length()) {
+            int ca = a.codePointAt(i), cb = b.codePointAt(j);
+            if (ca != cb) return Integer.compare(ca, cb);
+            i += Character.charCount(ca);
+            j += Character.charCount(cb);
+        }
+        return Boolean.compare(i < a.length(), j < b.length());
+    };
+
+    // Index order read backwards: value DESC with NULLs last, then id DESC
+    private static final Comparator<Bill> BILLS_NEWEST_FIRST = (a, b) -> {
+        int byDate = compareNullsFirst(b.getPaidAt(), a.getPaidAt());
+        return byDate != 0 ? byDate : Integer.compare(b.getId(), a.getId());
+    };
+
+    private static final Comparator<SavingsGoal> GOALS_NEWEST_FIRST = (a, b) -> {
+        int byDate = compareNullsFirst(b.getCreatedAt(), a.getCreatedAt());
+        return byDate != 0 ? byDate : Integer.compare(b.getId(), a.getId());
+    };
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Integer, Account>     accounts     = new HashMap<>();
+    private final Map<String, Integer>      idByUsername = new HashMap<>();
+    private final Map<String, Integer>      idByPhone    = new HashMap<>();
+    private final Set<String>               accountNos   = new HashSet<>();
+    private final Map<Integer, UserRows>    rowsByUser   = new HashMap<>();
+    private final Map<Integer, SavingsGoal> goalsById    = new HashMap<>();
+    private final Map<Integer, Journal>     journals     = new HashMap<>();
+
+    // AUTOINCREMENT: a rejected or rolled-back insert uses no id
+    private int  lastUserId, lastTransactionId, lastBillId, lastGoalId;
+    private long lastEntryId;
+    private long lastEntryTime;   // ledger stamps never run backwards
+
+    // ── Users row: the model plus what the model does not carry ───────────
+    private static final class Account {
+        final User   user;
+        final String passwordHash;
+
+        Account(User user, String passwordHash) {
+            this.user         = user;
+            this.passwordHash = passwordHash;
+        }
+    }
+
+    // ── Everything one user owns ──────────────────────────────────────────
+    private static final class UserRows {
+        final TransactionLog transactions = new TransactionLog();
+        final List<Bill>        bills = new ArrayList<>();   // BILLS_NEWEST_FIRST
+        final List<SavingsGoal> goals = new ArrayList<>();   // GOALS_NEWEST_FIRST
+        // month → category ('' for none) → MonthTotals, categories in BINARY order
+        final Map<String, TreeMap<String, MonthTotals>> months = new HashMap<>();
+    }
+
+    // One (user, month, category) bucket of monthly_category_totals,
+    // folded to the two type groups every query asks for
+    private static final class MonthTotals {
+        long spent, received;
+        int  spentCount, receivedCount;
+    }
+
+    // ═════════════════════════════════════════════════════════════════════
+    // USER OPERATIONS
+    // ═════════════════════════════════════════════════════════════════════
+
+    @Override
+    public boolean registerUser(String username, String password,
+                                String fullName, String phone) {
+        String hash = PasswordUtils.hash(password);
+        lock.writeLock().lock();
+        try {
+            // NOT NULL and UNIQUE, as on the users table
+            if (username == null || fullName == null || phone == null) return false;
+            if (idByUsername.containsKey(username) || idByPhone.containsKey(phone)) return false;
+            String accountNo = generateAccountNo();
+            if (!accountNos.add(accountNo)) return false;
+
+            User user = new User();
+            user.setId(++lastUserId);
+            user.setUsername(username);
+            user.setFullName(fullName);
+            user.setPhone(phone);
+            user.setAccountNo(accountNo);
+            user.setBalancePaise(OPENING_BALANCE);
+            user.setCreatedAt(DateTimeHelper.nowForDb());
+            accounts.put(user.getId(), new Account(user, hash));
+            idByUsername.put(username, user.getId());
+            idByPhone.put(phone, user.getId());
+            post(System.currentTimeMillis(), Ledger.ACCOUNT_EXTERNAL, user.getId(),
+                    OPENING_BALANCE);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public User loginUser(String username, String password) {
+        String hash = PasswordUtils.hash(password);
+        lock.readLock().lock();
+        try {
+            Integer id = idByUsername.get(username);
+            if (id == null) return null;
+            Account account = accounts.get(id);
+            return account.passwordHash.equals(hash) ? copyOf(account.user) : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public User getUserById(int userId) {
+        lock.readLock().lock();
+        try {
+            Account account = accounts.get(userId);
+            return account != null ? copyOf(account.user) : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public User getUserByPhone(String phone) {
+        lock.readLock().lock();
+        try {
+            Integer id = idByPhone.get(phone);
+            return id != null ? copyOf(accounts.get(id).user) : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public long getBalance(int userId) {
+        lock.readLock().lock();
+        try {
+            return balanceOf(userId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean updateUserBalance(int userId, long newBalancePaise) {
+        lock.writeLock().lock();
+        try {
+            Account account = accounts.get(userId);
+            if (account == null) return false;
+            // An overwrite is journaled as an ADJUSTMENT for the difference
+            long delta = newBalancePaise - account.user.getBalancePaise();
+            account.user.setBalancePaise(newBalancePaise);
+            long now = System.currentTimeMillis();
+            if (delta > 0)      post(now, Ledger.ACCOUNT_EXTERNAL, userId, delta);
+            else if (delta < 0) post(now, userId, Ledger.ACCOUNT_EXTERNAL, -delta);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public long getBalanceAsOf(int userId, long timeMillis) {
+        lock.readLock().lock();
+        try {
+            Journal journal = journals.get(userId);
+            return journal != null ? journal.balanceAsOf(timeMillis) : 0L;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean updateProfilePic(int userId, String picPath) {
+        lock.writeLock().lock();
+        try {
+            Account account = accounts.get(userId);
+            if (account == null) return false;
+            account.user.setProfilePicPath(picPath);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean isUsernameExists(String username) {
+        lock.readLock().lock();
+        try {
+            return idByUsername.containsKey(username);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean isPhoneExists(String phone) {
+        lock.readLock().lock();
+        try {
+            return idByPhone.containsKey(phone);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ═════════════════════════════════════════════════════════════════════
+    // TRANSACTION OPERATIONS
+    // ═════════════════════════════════════════════════════════════════════
+
+    @Override
+    public boolean insertTransaction(Transaction t) {
+        lock.writeLock().lock();
+        try {
+            if (!isInsertable(t)) return false;
+            writeTransaction(t);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public BulkResult insertTransactions(Collection<Transaction> transactions,
+                                         ProgressListener listener) {
+        return bulkInsert(transactions, t -> {
+            if (!isInsertable(t)) return false;
+            writeTransaction(t);
+            return true;
+        }, listener);
+    }
+
+    @Override
+    public List<Transaction> getAllTransactions(int userId) {
+        return getRecentTransactions(userId, -1);
+    }
+
+    // A negative limit means no limit, as with SQL LIMIT
+    @Override
+    public List<Transaction> getRecentTransactions(int userId, int limit) {
+        lock.readLock().lock();
+        try {
+            List<Transaction> list = new ArrayList<>();
+            UserRows rows = rowsByUser.get(userId);
+            if (rows == null) return list;
+            TransactionLog log = rows.transactions;
+            int max = limit < 0 ? Integer.MAX_VALUE : limit;
+            for (int i = log.size - 1; i >= 0 && list.size() < max; i--) {
+                list.add(log.rows[i]);
+            }
+            return list;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Transaction> getTransactionsByDateRange(int userId,
+                                                        String fromDate, String toDate) {
+        return getTransactionPage(userId,
+                DateTimeHelper.dayStartMillis(fromDate),
+                DateTimeHelper.dayEndMillis(toDate),
+                null, null, Integer.MAX_VALUE - 1, null).items;
+    }
+
+    @Override
+    public TransactionPage getTransactionPage(int userId, long fromMillis,
+                                              long toMillis, String type,
+                                              PageToken after, int pageSize,
+                                              String[] projection) {
+        lock.readLock().lock();
+        try {
+            List<Transaction> list = new ArrayList<>();
+            UserRows rows = rowsByUser.get(userId);
+            if (rows == null) return new TransactionPage(list, null);
+            TransactionLog log = rows.transactions;
+
+            // Seek: everything at or past end is newer than the range or the token
+            int end = log.firstAtOrAfter(toMillis, Integer.MIN_VALUE);
+            if (after != null) end = Math.min(end, log.firstAtOrAfter(after.timeMillis, after.id));
+
+            // One extra row tells us whether another page exists
+            boolean hasMore = false;
+            for (int i = end - 1; i >= 0 && log.times[i] >= fromMillis; i--) {
+                Transaction t = log.rows[i];
+                if (type != null && !type.equals(t.getType())) continue;
+                if (list.size() == pageSize) {
+                    hasMore = true;
+                    break;
+                }
+                list.add(project(t, projection));
+            }
+            PageToken next = hasMore ? PageToken.after(list.get(list.size() - 1)) : null;
+            return new TransactionPage(list, next);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Transaction> searchTransactions(int userId, String query,
+                                                int offset, int limit) {
+        List<String> terms = SearchText.queryTerms(query);
+        if (terms.isEmpty() || limit <= 0) return new ArrayList<>();
+        for (int i = 0; i < terms.size(); i++) terms.set(i, SearchText.fold(terms.get(i)));
+
+        lock.readLock().lock();
+        try {
+            // One pass over every row: "rows with a hit" counts the whole
+            // table, as matchinfo does; only this user's full matches rank
+            int columns = SearchText.COLUMN_WEIGHTS.length;
+            int[][] docsWith = new int[terms.size()][columns];
+            int[][] hits     = new int[terms.size()][];
+            List<SearchHit> candidates = new ArrayList<>();
+            for (Map.Entry<Integer, UserRows> entry : rowsByUser.entrySet()) {
+                boolean own = entry.getKey() == userId;
+                TransactionLog log = entry.getValue().transactions;
+                for (int i = 0; i < log.size; i++) {
+                    boolean all = true;
+                    for (int p = 0; p < terms.size(); p++) {
+                        hits[p] = countHits(log.words[i], terms.get(p));
+                        boolean any = false;
+                        for (int c = 0; c < columns; c++) {
+                            if (hits[p][c] > 0) {
+                                docsWith[p][c]++;
+                                any = true;
+                            }
+                        }
+                        all &= any;
+                    }
+                    if (own && all) candidates.add(new SearchHit(log.rows[i], hits.clone()));
+                }
+            }
+
+            // Every hit, newest first by id, then a stable sort by score
+            candidates.sort((a, b) -> Integer.compare(b.row.getId(), a.row.getId()));
+            for (SearchHit hit : candidates) hit.score = score(hit.hits, docsWith);
+            candidates.sort((a, b) -> Double.compare(b.score, a.score));
+
+            List<Transaction> page = new ArrayList<>();
+            for (int i = Math.max(0, offset); i < candidates.size() && page.size() < limit; i++) {
+                page.add(candidates.get(i).row);
+            }
+            return page;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static final class SearchHit {
+        final Transaction row;
+        final int[][]     hits;   // [term][column]
+        double            score;
+
+        SearchHit(Transaction row, int[][] hits) {
+            this.row  = row;
+            this.hits = hits;
+        }
+    }
+
+    // Words of each column that start with term
+    private static int[] countHits(String[][] words, String term) {
+        int[] hits = new int[words.length];
+        for (int c = 0; c < words.length; c++) {
+            for (String word : words[c]) {
+                if (word.startsWith(term)) hits[c]++;
+            }
+        }
+        return hits;
+    }
+
+    // DatabaseHelper.searchScore's sum, term by term and column by column
+    // in the same order so the doubles come out bit-for-bit equal
+    private static double score(int[][] hits, int[][] docsWith) {
+        double score = 0;
+        for (int p = 0; p < hits.length; p++) {
+            for (int c = 0; c < hits[p].length; c++) {
+                int rowHits = hits[p][c];
+                if (rowHits > 0 && docsWith[p][c] > 0) {
+                    score += SearchText.COLUMN_WEIGHTS[c] * rowHits / docsWith[p][c];
+                }
+            }
+        }
+        return score;
+    }
+
+    // ═════════════════════════════════════════════════════════════════════
+    // ATOMIC MONEY MOVEMENT
+    // Everything is checked before anything is written, so a call that
+    // fails leaves no trace — the same outcome as DatabaseHelper's
+    // rolled-back transaction, ids included.
+    // ═════════════════════════════════════════════════════════════════════
+
+    @Override
+    public long transfer(int senderId, long amountPaise,
+                         Transaction sent, Transaction received) {
+        lock.writeLock().lock();
+        try {
+            if (!accounts.containsKey(senderId)) return WRITE_FAILED;
+            if (!canDebit(senderId, amountPaise)) return INSUFFICIENT_FUNDS;
+            if (!isInsertable(sent)) return WRITE_FAILED;
+            int payee = Ledger.ACCOUNT_EXTERNAL;
+            if (received != null) {
+                payee = received.getUserId();
+                if (!accounts.containsKey(payee) || !isInsertable(received)) return WRITE_FAILED;
+            }
+            adjustBalance(senderId, -amountPaise);
+            writeTransaction(sent);
+            if (received != null) {
+                adjustBalance(payee, amountPaise);
+                writeTransaction(received);
+            }
+            post(sent.getTimeMillis(), senderId, payee, amountPaise);
+            return balanceOf(senderId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public long payBill(int userId, long amountPaise, Transaction txn, Bill bill) {
+        lock.writeLock().lock();
+        try {
+            if (!accounts.containsKey(userId)) return WRITE_FAILED;
+            if (!canDebit(userId, amountPaise)) return INSUFFICIENT_FUNDS;
+            if (!isInsertable(txn) || !isInsertable(bill)) return WRITE_FAILED;
+            adjustBalance(userId, -amountPaise);
+            writeTransaction(txn);
+            writeBill(bill);
+            post(txn.getTimeMillis(), userId, Ledger.ACCOUNT_EXTERNAL, amountPaise);
+            return balanceOf(userId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Guarded debit: the UPDATE matches no row when funds are insufficient
+    private boolean canDebit(int userId, long amountPaise) {
+        Account account = accounts.get(userId);
+        return account != null && account.user.getBalancePaise() >= amountPaise;
+    }
+
+    private void adjustBalance(int userId, long deltaPaise) {
+        User user = accounts.get(userId).user;
+        user.setBalancePaise(user.getBalancePaise() + deltaPaise);
+    }
+
+    // ═════════════════════════════════════════════════════════════════════
+    // BILL OPERATIONS
+    // ═════════════════════════════════════════════════════════════════════
+
+    @Override
+    public boolean insertBill(Bill bill) {
+        lock.writeLock().lock();
+        try {
+            if (!isInsertable(bill)) return false;
+            writeBill(bill);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public BulkResult insertBills(Collection<Bill> bills, ProgressListener listener) {
+        return bulkInsert(bills, bill -> {
+            if (!isInsertable(bill)) return false;
+            writeBill(bill);
+            return true;
+        }, listener);
+    }
+
+    @Override
+    public List<Bill> getBillsByUser(int userId) {
+        lock.readLock().lock();
+        try {
+            UserRows rows = rowsByUser.get(userId);
+            return rows != null ? new ArrayList<>(rows.bills) : new ArrayList<>();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ═════════════════════════════════════════════════════════════════════
+    // SAVINGS GOALS
+    // ═════════════════════════════════════════════════════════════════════
+
+    @Override
+    public boolean insertGoal(SavingsGoal goal) {
+        lock.writeLock().lock();
+        try {
+            if (goal.getGoalName() == null) return false;   // NOT NULL
+            SavingsGoal row = new SavingsGoal(++lastGoalId, goal.getUserId(),
+                    goal.getGoalName(), goal.getTargetPaise(), 0L,
+                    DateTimeHelper.nowForDb());
+            insertSorted(rowsFor(goal.getUserId()).goals, row, GOALS_NEWEST_FIRST);
+            goalsById.put(row.getId(), row);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<SavingsGoal> getGoalsByUser(int userId) {
+        lock.readLock().lock();
+        try {
+            List<SavingsGoal> list = new ArrayList<>();
+            UserRows rows = rowsByUser.get(userId);
+            if (rows == null) return list;
+            // SavingsGoal is mutable; callers get their own
+            for (SavingsGoal g : rows.goals) list.add(copyOf(g));
+            return list;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean updateGoalAmount(int goalId, long newAmountPaise) {
+        lock.writeLock().lock();
+        try {
+            SavingsGoal goal = goalsById.get(goalId);
+            if (goal == null) return false;
+            goal.setCurrentPaise(newAmountPaise);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ═════════════════════════════════════════════════════════════════════
+    // INSIGHTS / AGGREGATES
+    // ═════════════════════════════════════════════════════════════════════
+
+    @Override
+    public Map<String, Long> getSpendingByCategory(int userId, String month) {
+        return new LinkedHashMap<>(getMonthSummary(userId, month).spendingByCategory);
+    }
+
+    @Override
+    public long getTotalSpentThisMonth(int userId, String month) {
+        return getMonthSummary(userId, month).spentPaise;
+    }
+
+    @Override
+    public long getTotalReceivedThisMonth(int userId, String month) {
+        return getMonthSummary(userId, month).receivedPaise;
+    }
+
+    @Override
+    public MonthSummary getMonthSummary(int userId, String month) {
+        lock.readLock().lock();
+        try {
+            Map<String, Long>    byCategory = new LinkedHashMap<>();
+            Map<String, Integer> counts     = new LinkedHashMap<>();
+            long spent = 0L, received = 0L;
+            int  spentCount = 0, receivedCount = 0;
+            UserRows rows = rowsByUser.get(userId);
+            TreeMap<String, MonthTotals> buckets = rows != null ? rows.months.get(month) : null;
+            if (buckets != null) {
+                for (Map.Entry<String, MonthTotals> e : buckets.entrySet()) {
+                    MonthTotals m = e.getValue();
+                    // '' is how the rollup stores "no category"
+                    String category = e.getKey().isEmpty() ? null : e.getKey();
+                    if (m.spentCount > 0) {
+                        byCategory.put(category, m.spent);
+                        counts.put(category, m.spentCount);
+                    }
+                    spent         += m.spent;
+                    spentCount    += m.spentCount;
+                    received      += m.received;
+                    receivedCount += m.receivedCount;
+                }
+            }
+            return new MonthSummary(month, spent, received,
+                    spentCount, receivedCount, byCategory, counts);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public RangeTotals getRangeTotals(int userId, long fromMillis, long toMillis, String type) {
+        lock.readLock().lock();
+        try {
+            long spent = 0L, received = 0L;
+            int  count = 0;
+            UserRows rows = rowsByUser.get(userId);
+            if (rows != null) {
+                TransactionLog log = rows.transactions;
+                int end = log.firstAtOrAfter(toMillis, Integer.MIN_VALUE);
+                for (int i = end - 1; i >= 0 && log.times[i] >= fromMillis; i--) {
+                    Transaction t = log.rows[i];
+                    if (type != null && !type.equals(t.getType())) continue;
+                    if (Transaction.TYPE_RECEIVED.equals(t.getType())) {
+                        received += t.getAmountPaise();
+                    } else if (Transaction.TYPE_SENT.equals(t.getType())
+                            || Transaction.TYPE_BILL_PAYMENT.equals(t.getType())) {
+                        spent += t.getAmountPaise();
+                    }
+                    count++;
+                }
+            }
+            return new RangeTotals(spent, received, count);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ═════════════════════════════════════════════════════════════════════
+    // HELPER METHODS (callers hold the write lock)
+    // ═════════════════════════════════════════════════════════════════════
+
+    // NOT NULL columns of the transactions table
+    private static boolean isInsertable(Transaction t) {
+        return t.getType() != null && t.getDateTime() != null;
+    }
+
+    private static boolean isInsertable(Bill bill) {
+        return bill.getBillType() != null;
+    }
+
+    // Row + its rollup bucket
+    private void writeTransaction(Transaction t) {
+        Transaction row = new Transaction(++lastTransactionId, t.getUserId(),
+                t.getType(), t.getCategory(), t.getAmountPaise(), t.getDescription(),
+                t.getToFromName(), t.getToFromPhone(), t.getDateTime(),
+                t.getTimeMillis(), t.getLatitude(), t.getLongitude(), t.getStatus());
+        UserRows rows = rowsFor(row.getUserId());
+        rows.transactions.add(row);
+        addToMonthTotal(rows, row);
+    }
+
+    private void addToMonthTotal(UserRows rows, Transaction t) {
+        boolean isSpent = Transaction.TYPE_SENT.equals(t.getType())
+                || Transaction.TYPE_BILL_PAYMENT.equals(t.getType());
+        boolean isReceived = Transaction.TYPE_RECEIVED.equals(t.getType());
+        String month    = DateTimeHelper.toMonthKey(t.getTimeMillis());
+        String category = t.getCategory() != null ? t.getCategory() : "";
+        MonthTotals m = rows.months
+                .computeIfAbsent(month, k -> new TreeMap<>(BINARY))
+                .computeIfAbsent(category, k -> new MonthTotals());
+        if (isSpent) {
+            m.spent += t.getAmountPaise();
+            m.spentCount++;
+        } else if (isReceived) {
+            m.received += t.getAmountPaise();
+            m.receivedCount++;
+        }
+    }
+
+    private void writeBill(Bill bill) {
+        Bill row = new Bill(++lastBillId, bill.getUserId(), bill.getBillType(),
+                bill.getAmountPaise(), bill.getPaidAt(), bill.getStatus());
+        insertSorted(rowsFor(row.getUserId()).bills, row, BILLS_NEWEST_FIRST);
+    }
+
+    // Transactions, bills and goals need no users row: foreign keys are not enforced
+    private UserRows rowsFor(int userId) {
+        return rowsByUser.computeIfAbsent(userId, k -> new UserRows());
+    }
+
+    private long balanceOf(int userId) {
+        Account account = accounts.get(userId);
+        return account != null ? account.user.getBalancePaise() : 0L;
+    }
+
+    // One balanced posting: an entry on each side, in this order, stamped
+    // no earlier than the last one (Ledger.post)
+    private void post(long timeMillis, int fromAccount, int toAccount, long amountPaise) {
+        timeMillis = lastEntryTime = Math.max(timeMillis, lastEntryTime);
+        addEntry(fromAccount, -amountPaise, timeMillis);
+        addEntry(toAccount,    amountPaise, timeMillis);
+    }
+
+    private void addEntry(int account, long amountPaise, long timeMillis) {
+        journals.computeIfAbsent(account, k -> new Journal())
+                .add(++lastEntryId, timeMillis, amountPaise,
+                        account != Ledger.ACCOUNT_EXTERNAL);
+    }
+
+    // ── Bulk insert: one write-lock hold per chunk ────────────────────────
+    private interface RowWriter<T> {
+        boolean write(T row);
+    }
+
+    private <T> BulkResult bulkInsert(Collection<T> rows, RowWriter<T> writer,
+                                      ProgressListener listener) {
+        int total = rows.size(), processed = 0, inserted = 0, failed = 0;
+        Iterator<T> it = rows.iterator();
+        while (it.hasNext()) {
+            lock.writeLock().lock();
+            try {
+                for (int n = 0; n < BULK_CHUNK_ROWS && it.hasNext(); n++) {
+                    if (writer.write(it.next())) inserted++;
+                    else                         failed++;
+                    processed++;
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            if (listener != null) listener.onProgress(processed, total);
+        }
+        return new BulkResult(total, inserted, failed);
+    }
+
+    private static <T> void insertSorted(List<T> list, T row, Comparator<T> order) {
+        int lo = 0, hi = list.size();
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (order.compare(list.get(mid), row) <= 0) lo = mid + 1;
+            else                                        hi = mid;
+        }
+        list.add(lo, row);
+    }
+
+    // NULL sorts before any text, as in an index
+    private static int compareNullsFirst(String a, String b) {
+        if (a == null || b == null) return a == null ? (b == null ? 0 : -1) : 1;
+        return BINARY.compare(a, b);
+    }
+
+    // A projected read leaves the columns it did not select at their defaults
+    private static Transaction project(Transaction t, String[] projection) {
+        if (projection == null) return t;
+        Set<String> cols = new HashSet<>(Arrays.asList(projection));
+        return new Transaction(
+                cols.contains("id")            ? t.getId()          : 0,
+                cols.contains("user_id")       ? t.getUserId()      : 0,
+                cols.contains("type")          ? t.getType()        : null,
+                cols.contains("category")      ? t.getCategory()    : null,
+                cols.contains("amount_paise")  ? t.getAmountPaise() : 0L,
+                cols.contains("description")   ? t.getDescription() : null,
+                cols.contains("to_from_name")  ? t.getToFromName()  : null,
+                cols.contains("to_from_phone") ? t.getToFromPhone() : null,
+                cols.contains("date_time")     ? t.getDateTime()    : null,
+                cols.contains("time_millis")   ? t.getTimeMillis()  : 0L,
+                cols.contains("latitude")      ? t.getLatitude()    : 0.0,
+                cols.contains("longitude")     ? t.getLongitude()   : 0.0,
+                cols.contains("status")        ? t.getStatus()      : null);
+    }
+
+    private static User copyOf(User u) {
+        User c = new User();
+        c.setId(u.getId());
+        c.setUsername(u.getUsername());
+        c.setFullName(u.getFullName());
+        c.setPhone(u.getPhone());
+        c.setAccountNo(u.getAccountNo());
+        c.setBalancePaise(u.getBalancePaise());
+        c.setProfilePicPath(u.getProfilePicPath());
+        c.setCreatedAt(u.getCreatedAt());
+        return c;
+    }
+
+    private static SavingsGoal copyOf(SavingsGoal g) {
+        return new SavingsGoal(g.getId(), g.getUserId(), g.getGoalName(),
+                g.getTargetPaise(), g.getCurrentPaise(), g.getCreatedAt());
+    }
+
+    private static String generateAccountNo() {
+        // Format: AC + 10 random digits
+        long num = (long)(Math.random() * 9_000_000_000L) + 1_000_000_000L;
+        return "AC" + num;
+    }
+
+    // ═════════════════════════════════════════════════════════════════════
+    // SORTED STORES
+    // ═════════════════════════════════════════════════════════════════════
+
+    // One user's transactions as parallel arrays in (time_millis, id)
+    // order. Ids only grow, so a new row goes after every row of its
+    // millisecond; an out-of-order time shifts the tail by one.
+    private static final class TransactionLog {
+        int           size;
+        long[]        times = new long[16];
+        int[]         ids   = new int[16];
+        Transaction[] rows  = new Transaction[16];
+        String[][][]  words = new String[16][][];   // [row][column] search words
+
+        void add(Transaction row) {
+            if (size == times.length) {
+                int capacity = size * 2;
+                times = Arrays.copyOf(times, capacity);
+                ids   = Arrays.copyOf(ids, capacity);
+                rows  = Arrays.copyOf(rows, capacity);
+                words = Arrays.copyOf(words, capacity);
+            }
+            int at = firstAtOrAfter(row.getTimeMillis(), row.getId());
+            int tail = size - at;
+            System.arraycopy(times, at, times, at + 1, tail);
+            System.arraycopy(ids,   at, ids,   at + 1, tail);
+            System.arraycopy(rows,  at, rows,  at + 1, tail);
+            System.arraycopy(words, at, words, at + 1, tail);
+            times[at] = row.getTimeMillis();
+            ids[at]   = row.getId();
+            rows[at]  = row;
+            words[at] = new String[][]{
+                    wordsOf(row.getDescription()),
+                    wordsOf(row.getToFromName()),
+                    wordsOf(row.getToFromPhone()) };
+            size++;
+        }
+
+        /** Index of the first row at or after (timeMillis, id); size if none. */
+        int firstAtOrAfter(long timeMillis, int id) {
+            int lo = 0, hi = size;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                boolean before = times[mid] < timeMillis
+                        || (times[mid] == timeMillis && ids[mid] < id);
+                if (before) lo = mid + 1;
+                else        hi = mid;
+            }
+            return lo;
+        }
+
+        private static String[] wordsOf(String text) {
+            return SearchText.tokenize(text).toArray(new String[0]);
+        }
+    }
+
+    // One account's ledger_entries and balance_snapshots, each in
+    // (time_millis, entry id) order like their indexes, replayed by the
+    // same rule as Ledger.replayFrom.
+    private static final class Journal {
+        int    size;
+        long[] times   = new long[8];
+        long[] entries = new long[8];
+        long[] amounts = new long[8];
+
+        int    snapshots;
+        long[] snapTimes    = new long[2];
+        long[] snapEntries  = new long[2];
+        long[] snapBalances = new long[2];
+
+        void add(long entryId, long timeMillis, long amountPaise, boolean snapshot) {
+            if (size == times.length) {
+                times   = Arrays.copyOf(times,   size * 2);
+                entries = Arrays.copyOf(entries, size * 2);
+                amounts = Arrays.copyOf(amounts, size * 2);
+            }
+            int at = upperBound(times, size, timeMillis);
+            int tail = size - at;
+            System.arraycopy(times,   at, times,   at + 1, tail);
+            System.arraycopy(entries, at, entries, at + 1, tail);
+            System.arraycopy(amounts, at, amounts, at + 1, tail);
+            times[at]   = timeMillis;
+            entries[at] = entryId;
+            amounts[at] = amountPaise;
+            size++;
+            if (snapshot) maybeSnapshot(entryId, timeMillis);
+        }
+
+        long balanceAsOf(long timeMillis) {
+            return replay(timeMillis)[0];
+        }
+
+        // Snapshot once Ledger.SNAPSHOT_EVERY entries have piled up since the last one
+        private void maybeSnapshot(long entryId, long timeMillis) {
+            long[] since = replay(Long.MAX_VALUE);
+            if (since[1] < Ledger.SNAPSHOT_EVERY) return;
+            if (snapshots == snapTimes.length) {
+                snapTimes    = Arrays.copyOf(snapTimes,    snapshots * 2);
+                snapEntries  = Arrays.copyOf(snapEntries,  snapshots * 2);
+                snapBalances = Arrays.copyOf(snapBalances, snapshots * 2);
+            }
+            int at = upperBound(snapTimes, snapshots, timeMillis);
+            int tail = snapshots - at;
+            System.arraycopy(snapTimes,    at, snapTimes,    at + 1, tail);
+            System.arraycopy(snapEntries,  at, snapEntries,  at + 1, tail);
+            System.arraycopy(snapBalances, at, snapBalances, at + 1, tail);
+            snapTimes[at]    = timeMillis;
+            snapEntries[at]  = entryId;
+            snapBalances[at] = since[0];
+            snapshots++;
+        }
+
+        // {balance, entries replayed}: the latest snapshot at or before
+        // timeMillis, plus later entries in [snapshot time, timeMillis]
+        private long[] replay(long timeMillis) {
+            long snapEntry = 0L, snapTime = Long.MIN_VALUE, balance = 0L;
+            int s = upperBound(snapTimes, snapshots, timeMillis) - 1;
+            if (s >= 0) {
+                snapEntry = snapEntries[s];
+                snapTime  = snapTimes[s];
+                balance   = snapBalances[s];
+            }
+            long replayed = 0;
+            int end = upperBound(times, size, timeMillis);
+            for (int i = lowerBound(times, size, snapTime); i < end; i++) {
+                if (entries[i] > snapEntry) {
+                    balance += amounts[i];
+                    replayed++;
+                }
+            }
+            return new long[]{ balance, replayed };
+        }
+
+        private static int lowerBound(long[] a, int n, long key) {
+            int lo = 0, hi = n;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (a[mid] < key) lo = mid + 1;
+                else              hi = mid;
+            }
+            return lo;
+        }
+
+        private static int upperBound(long[] a, int n, long key) {
+            int lo = 0, hi = n;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (a[mid] <= key) lo = mid + 1;
+                else               hi = mid;
+            }
+            return lo;
+        }
+    }
+}
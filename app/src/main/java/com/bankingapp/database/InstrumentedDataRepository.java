@@ -0,0 +1,598 @@
+package com.bankingapp.database;
+
+import com.bankingapp.models.Bill;
+import com.bankingapp.models.MonthSummary;
+import com.bankingapp.models.SavingsGoal;
+import com.bankingapp.models.Transaction;
+import com.bankingapp.models.User;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * InstrumentedDataRepository — wraps any IDataRepository and times every
+ * call to it.
+ *
+ * Per method it keeps the call count, a latency histogram (p50 / p95 /
+ * p99 / max), the rows handed back and the calls that threw. "Rows" is
+ * the size of a returned list, page or map, the inserted count of a bulk
+ * insert, and 1 for a user or month summary found; calls returning a
+ * flag or an amount add none. An error is a RuntimeException escaping
+ * the delegate — it is counted and rethrown unchanged. Failure codes
+ * such as INSUFFICIENT_FUNDS are ordinary results.
+ *
+ * Cost per call is two System.nanoTime() reads and a few atomic adds;
+ * nothing is allocated. DatabaseHelper.getRepository() installs it when
+ * BuildConfig.REPOSITORY_METRICS is on (debug and beta builds).
+ */
+public final class InstrumentedDataRepository implements IDataRepository {
+
+    private final IDataRepository delegate;
+    private final List<CallStats> all = new ArrayList<>();
+    private volatile long sinceMillis = System.currentTimeMillis();
+
+    // ── One per interface method (the default overloads funnel into these)
+    private final CallStats registerUser               = stats("registerUser");
+    private final CallStats loginUser                  = stats("loginUser");
+    private final CallStats getUserById                = stats("getUserById");
+    private final CallStats getUserByPhone             = stats("getUserByPhone");
+    private final CallStats getBalance                 = stats("getBalance");
+    private final CallStats updateUserBalance          = stats("updateUserBalance");
+    private final CallStats getBalanceAsOf             = stats("getBalanceAsOf");
+    private final CallStats updateProfilePic           = stats("updateProfilePic");
+    private final CallStats isUsernameExists           = stats("isUsernameExists");
+    private final CallStats isPhoneExists              = stats("isPhoneExists");
+    private final CallStats insertTransaction          = stats("insertTransaction");
+    private final CallStats insertTransactions         = stats("insertTransactions");
+    private final CallStats getAllTransactions         = stats("getAllTransactions");
+    private final CallStats getRecentTransactions      = stats("getRecentTransactions");
+    private final CallStats getTransactionsByDateRange = stats("getTransactionsByDateRange");
+    private final CallStats getTransactionPage         = stats("getTransactionPage");
+    private final CallStats searchTransactions         = stats("searchTransactions");
+    private final CallStats transfer                   = stats("transfer");
+    private final CallStats payBill                    = stats("payBill");
+    private final CallStats insertBill                 = stats("insertBill");
+    private final CallStats insertBills                = stats("insertBills");
+    private final CallStats getBillsByUser             = stats("getBillsByUser");
+    private final CallStats insertGoal                 = stats("insertGoal");
+    private final CallStats getGoalsByUser             = stats("getGoalsByUser");
+    private final CallStats updateGoalAmount           = stats("updateGoalAmount");
+    private final CallStats getSpendingByCategory      = stats("getSpendingByCategory");
+    private final CallStats getTotalSpentThisMonth     = stats("getTotalSpentThisMonth");
+    private final CallStats getTotalReceivedThisMonth  = stats("getTotalReceivedThisMonth");
+    private final CallStats getMonthSummary            = stats("getMonthSummary");
+    private final CallStats getRangeTotals             = stats("getRangeTotals");
+
+    public InstrumentedDataRepository(IDataRepository delegate) {
+        this.delegate = delegate;
+    }
+
+    public IDataRepository getDelegate() {
+        return delegate;
+    }
+
+    private CallStats stats(String method) {
+        CallStats s = new CallStats(method);
+        all.add(s);
+        return s;
+    }
+
+    // ═════════════════════════════════════════════════════════════════════
+    // SNAPSHOT / EXPORT
+    // ═════════════════════════════════════════════════════════════════════
+
+    /** Methods called since construction or the last reset(), in interface order. */
+    public Snapshot snapshot() {
+        List<MethodSnapshot> methods = new ArrayList<>();
+        for (CallStats s : all) {
+            MethodSnapshot m = s.snapshot();
+            if (m.calls > 0) methods.add(m);
+        }
+        return new Snapshot(sinceMillis, System.currentTimeMillis(), methods);
+    }
+
+    /**
+     * Starts a new window. Calls in flight while this runs may be counted
+     * in either window, or have their latency and counts split across both.
+     */
+    public void reset() {
+        for (CallStats s : all) s.reset();
+        sinceMillis = System.currentTimeMillis();
+    }
+
+    public static final class MethodSnapshot {
+        public final String method;
+        public final long   calls;
+        public final long   errors;
+        public final long   rows;
+        public final long   meanNanos;
+        public final long   p50Nanos;
+        public final long   p95Nanos;
+        public final long   p99Nanos;
+        public final long   maxNanos;
+
+        MethodSnapshot(String method, long errors, long rows,
+                       LatencyHistogram.Snapshot latency) {
+            this.method    = method;
+            this.calls     = latency.count;
+            this.errors    = errors;
+            this.rows      = rows;
+            this.meanNanos = latency.meanNanos();
+            this.p50Nanos  = latency.percentile(0.50);
+            this.p95Nanos  = latency.percentile(0.95);
+            this.p99Nanos  = latency.percentile(0.99);
+            this.maxNanos  = latency.maxNanos;
+        }
+    }
+
+    public static final class Snapshot {
+        public final long                 sinceMillis;
+        public final long                 takenAtMillis;
+        public final List<MethodSnapshot> methods;
+
+        Snapshot(long sinceMillis, long takenAtMillis, List<MethodSnapshot> methods) {
+            this.sinceMillis   = sinceMillis;
+            this.takenAtMillis = takenAtMillis;
+            this.methods       = Collections.unmodifiableList(methods);
+        }
+
+        /** One object per method; latencies in microseconds. */
+        public String toJson() {
+            StringBuilder json = new StringBuilder(128 + methods.size() * 160);
+            json.append("{\"sinceMillis\":").append(sinceMillis)
+                .append(",\"takenAtMillis\":").append(takenAtMillis)
+                .append(",\"methods\":[");
+            for (int i = 0; i < methods.size(); i++) {
+                MethodSnapshot m = methods.get(i);
+                if (i > 0) json.append(',');
+                // Method names are Java identifiers: nothing to escape
+                json.append("{\"method\":\"").append(m.method).append('"')
+                    .append(",\"calls\":").append(m.calls)
+                    .append(",\"errors\":").append(m.errors)
+                    .append(",\"rows\":").append(m.rows)
+                    .append(",\"meanMicros\":").append(m.meanNanos / 1_000)
+                    .append(",\"p50Micros\":").append(m.p50Nanos / 1_000)
+                    .append(",\"p95Micros\":").append(m.p95Nanos / 1_000)
+                    .append(",\"p99Micros\":").append(m.p99Nanos / 1_000)
+                    .append(",\"maxMicros\":").append(m.maxNanos / 1_000)
+                    .append('}');
+            }
+            return json.append("]}").toString();
+        }
+
+        /** A fixed-width table for logcat; latencies in milliseconds. */
+        @Override
+        public String toString() {
+            StringBuilder table = new StringBuilder(String.format(Locale.US,
+                    "%-27s %7s %6s %8s %8s %8s %8s %8s%n",
+                    "method", "calls", "errors", "rows", "p50 ms", "p95 ms", "p99 ms", "max ms"));
+            for (MethodSnapshot m : methods) {
+                table.append(String.format(Locale.US,
+                        "%-27s %7d %6d %8d %8.2f %8.2f %8.2f %8.2f%n",
+                        m.method, m.calls, m.errors, m.rows,
+                        m.p50Nanos / 1e6, m.p95Nanos / 1e6,
+                        m.p99Nanos / 1e6, m.maxNanos / 1e6));
+            }
+            return table.toString();
+        }
+    }
+
+    // ── Per-method counters ───────────────────────────────────────────────
+    // Latency is recorded for failed calls too; a slow failure is still slow
+    private static final class CallStats {
+        final String method;
+        volatile LatencyHistogram latency = new LatencyHistogram();
+        volatile LongAdder        rows    = new LongAdder();
+        volatile LongAdder        errors  = new LongAdder();
+
+        CallStats(String method) {
+            this.method = method;
+        }
+
+        void done(long start, int rowCount) {
+            latency.record(System.nanoTime() - start);
+            if (rowCount > 0) rows.add(rowCount);
+        }
+
+        RuntimeException failed(long start, RuntimeException e) {
+            latency.record(System.nanoTime() - start);
+            errors.increment();
+            return e;
+        }
+
+        boolean flag(long start, boolean result) {
+            done(start, 0);
+            return result;
+        }
+
+        long amount(long start, long result) {
+            done(start, 0);
+            return result;
+        }
+
+        <T> T one(long start, T row) {
+            done(start, row != null ? 1 : 0);
+            return row;
+        }
+
+        <T extends Collection<?>> T list(long start, T rows) {
+            done(start, rows != null ? rows.size() : 0);
+            return rows;
+        }
+
+        <M extends Map<?, ?>> M map(long start, M rows) {
+            done(start, rows != null ? rows.size() : 0);
+            return rows;
+        }
+
+        TransactionPage page(long start, TransactionPage page) {
+            done(start, page != null ? page.items.size() : 0);
+            return page;
+        }
+
+        BulkResult bulk(long start, BulkResult result) {
+            done(start, result != null ? result.inserted : 0);
+            return result;
+        }
+
+        MethodSnapshot snapshot() {
+            return new MethodSnapshot(method, errors.sum(), rows.sum(), latency.snapshot());
+        }
+
+        void reset() {
+            latency = new LatencyHistogram();
+            rows    = new LongAdder();
+            errors  = new LongAdder();
+        }
+    }
+
+    // ═════════════════════════════════════════════════════════════════════
+    // USER OPERATIONS
+    // ═════════════════════════════════════════════════════════════════════
+
+    @Override
+    public boolean registerUser(String username, String password,
+                                String fullName, String phone) {
+        long start = System.nanoTime();
+        try {
+            return registerUser.flag(start,
+                    delegate.registerUser(username, password, fullName, phone));
+        } catch (RuntimeException e) {
+            throw registerUser.failed(start, e);
+        }
+    }
+
+    @Override
+    public User loginUser(String username, String password) {
+        long start = System.nanoTime();
+        try {
+            return loginUser.one(start, delegate.loginUser(username, password));
+        } catch (RuntimeException e) {
+            throw loginUser.failed(start, e);
+        }
+    }
+
+    @Override
+    public User getUserById(int userId) {
+        long start = System.nanoTime();
+        try {
+            return getUserById.one(start, delegate.getUserById(userId));
+        } catch (RuntimeException e) {
+            throw getUserById.failed(start, e);
+        }
+    }
+
+    @Override
+    public User getUserByPhone(String phone) {
+        long start = System.nanoTime();
+        try {
+            return getUserByPhone.one(start, delegate.getUserByPhone(phone));
+        } catch (RuntimeException e) {
+            throw getUserByPhone.failed(start, e);
+        }
+    }
+
+    @Override
+    public long getBalance(int userId) {
+        long start = System.nanoTime();
+        try {
+            return getBalance.amount(start, delegate.getBalance(userId));
+        } catch (RuntimeException e) {
+            throw getBalance.failed(start, e);
+        }
+    }
+
+    @Override
+    public boolean updateUserBalance(int userId, long newBalancePaise) {
+        long start = System.nanoTime();
+        try {
+            return updateUserBalance.flag(start,
+                    delegate.updateUserBalance(userId, newBalancePaise));
+        } catch (RuntimeException e) {
+            throw updateUserBalance.failed(start, e);
+        }
+    }
+
+    @Override
+    public long getBalanceAsOf(int userId, long timeMillis) {
+        long start = System.nanoTime();
+        try {
+            return getBalanceAsOf.amount(start, delegate.getBalanceAsOf(userId, timeMillis));
+        } catch (RuntimeException e) {
+            throw getBalanceAsOf.failed(start, e);
+        }
+    }
+
+    @Override
+    public boolean updateProfilePic(int userId, String picPath) {
+        long start = System.nanoTime();
+        try {
+            return updateProfilePic.flag(start, delegate.updateProfilePic(userId, picPath));
+        } catch (RuntimeException e) {
+            throw updateProfilePic.failed(start, e);
+        }
+    }
+
+    @Override
+    public boolean isUsernameExists(String username) {
+        long start = System.nanoTime();
+        try {
+            return isUsernameExists.flag(start, delegate.isUsernameExists(username));
+        } catch (RuntimeException e) {
+            throw isUsernameExists.failed(start, e);
+        }
+    }
+
+    @Override
+    public boolean isPhoneExists(String phone) {
+        long start = System.nanoTime();
+        try {
+            return isPhoneExists.flag(start, delegate.isPhoneExists(phone));
+        } catch (RuntimeException e) {
+            throw isPhoneExists.failed(start, e);
+        }
+    }
+
+    // ═════════════════════════════════════════════════════════════════════
+    // TRANSACTION OPERATIONS
+    // ═════════════════════════════════════════════════════════════════════
+
+    @Override
+    public boolean insertTransaction(Transaction transaction) {
+        long start = System.nanoTime();
+        try {
+            return insertTransaction.flag(start, delegate.insertTransaction(transaction));
+        } catch (RuntimeException e) {
+            throw insertTransaction.failed(start, e);
+        }
+    }
+
+    @Override
+    public BulkResult insertTransactions(Collection<Transaction> transactions,
+                                         ProgressListener listener) {
+        long start = System.nanoTime();
+        try {
+            return insertTransactions.bulk(start,
+                    delegate.insertTransactions(transactions, listener));
+        } catch (RuntimeException e) {
+            throw insertTransactions.failed(start, e);
+        }
+    }
+
+    @Override
+    public List<Transaction> getAllTransactions(int userId) {
+        long start = System.nanoTime();
+        try {
+            return getAllTransactions.list(start, delegate.getAllTransactions(userId));
+        } catch (RuntimeException e) {
+            throw getAllTransactions.failed(start, e);
+        }
+    }
+
+    @Override
+    public List<Transaction> getRecentTransactions(int userId, int limit) {
+        long start = System.nanoTime();
+        try {
+            return getRecentTransactions.list(start,
+                    delegate.getRecentTransactions(userId, limit));
+        } catch (RuntimeException e) {
+            throw getRecentTransactions.failed(start, e);
+        }
+    }
+
+    @Override
+    public List<Transaction> getTransactionsByDateRange(int userId, String fromDate,
+                                                        String toDate) {
+        long start = System.nanoTime();
+        try {
+            return getTransactionsByDateRange.list(start,
+                    delegate.getTransactionsByDateRange(userId, fromDate, toDate));
+        } catch (RuntimeException e) {
+            throw getTransactionsByDateRange.failed(start, e);
+        }
+    }
+
+    @Override
+    public TransactionPage getTransactionPage(int userId, long fromMillis,
+                                              long toMillis, String type,
+                                              PageToken after, int pageSize,
+                                              String[] projection) {
+        long start = System.nanoTime();
+        try {
+            return getTransactionPage.page(start, delegate.getTransactionPage(userId,
+                    fromMillis, toMillis, type, after, pageSize, projection));
+        } catch (RuntimeException e) {
+            throw getTransactionPage.failed(start, e);
+        }
+    }
+
+    @Override
+    public List<Transaction> searchTransactions(int userId, String query,
+                                                int offset, int limit) {
+        long start = System.nanoTime();
+        try {
+            return searchTransactions.list(start,
+                    delegate.searchTransactions(userId, query, offset, limit));
+        } catch (RuntimeException e) {
+            throw searchTransactions.failed(start, e);
+        }
+    }
+
+    // ═════════════════════════════════════════════════════════════════════
+    // ATOMIC MONEY MOVEMENT
+    // ═════════════════════════════════════════════════════════════════════
+
+    @Override
+    public long transfer(int senderId, long amountPaise,
+                         Transaction sent, Transaction received) {
+        long start = System.nanoTime();
+        try {
+            return transfer.amount(start,
+                    delegate.transfer(senderId, amountPaise, sent, received));
+        } catch (RuntimeException e) {
+            throw transfer.failed(start, e);
+        }
+    }
+
+    @Override
+    public long payBill(int userId, long amountPaise, Transaction txn, Bill bill) {
+        long start = System.nanoTime();
+        try {
+            return payBill.amount(start, delegate.payBill(userId, amountPaise, txn, bill));
+        } catch (RuntimeException e) {
+            throw payBill.failed(start, e);
+        }
+    }
+
+    // ═════════════════════════════════════════════════════════════════════
+    // BILL OPERATIONS
+    // ═════════════════════════════════════════════════════════════════════
+
+    @Override
+    public boolean insertBill(Bill bill) {
+        long start = System.nanoTime();
+        try {
+            return insertBill.flag(start, delegate.insertBill(bill));
+        } catch (RuntimeException e) {
+            throw insertBill.failed(start, e);
+        }
+    }
+
+    @Override
+    public BulkResult insertBills(Collection<Bill> bills, ProgressListener listener) {
+        long start = System.nanoTime();
+        try {
+            return insertBills.bulk(start, delegate.insertBills(bills, listener));
+        } catch (RuntimeException e) {
+            throw insertBills.failed(start, e);
+        }
+    }
+
+    @Override
+    public List<Bill> getBillsByUser(int userId) {
+        long start = System.nanoTime();
+        try {
+            return getBillsByUser.list(start, delegate.getBillsByUser(userId));
+        } catch (RuntimeException e) {
+            throw getBillsByUser.failed(start, e);
+        }
+    }
+
+    // ═════════════════════════════════════════════════════════════════════
+    // SAVINGS GOAL OPERATIONS
+    // ═════════════════════════════════════════════════════════════════════
+
+    @Override
+    public boolean insertGoal(SavingsGoal goal) {
+        long start = System.nanoTime();
+        try {
+            return insertGoal.flag(start, delegate.insertGoal(goal));
+        } catch (RuntimeException e) {
+            throw insertGoal.failed(start, e);
+        }
+    }
+
+    @Override
+    public List<SavingsGoal> getGoalsByUser(int userId) {
+        long start = System.nanoTime();
+        try {
+            return getGoalsByUser.list(start, delegate.getGoalsByUser(userId));
+        } catch (RuntimeException e) {
+            throw getGoalsByUser.failed(start, e);
+        }
+    }
+
+    @Override
+    public boolean updateGoalAmount(int goalId, long newAmountPaise) {
+        long start = System.nanoTime();
+        try {
+            return updateGoalAmount.flag(start,
+                    delegate.updateGoalAmount(goalId, newAmountPaise));
+        } catch (RuntimeException e) {
+            throw updateGoalAmount.failed(start, e);
+        }
+    }
+
+    // ═════════════════════════════════════════════════════════════════════
+    // INSIGHTS / AGGREGATES
+    // ═════════════════════════════════════════════════════════════════════
+
+    @Override
+    public Map<String, Long> getSpendingByCategory(int userId, String month) {
+        long start = System.nanoTime();
+        try {
+            return getSpendingByCategory.map(start,
+                    delegate.getSpendingByCategory(userId, month));
+        } catch (RuntimeException e) {
+            throw getSpendingByCategory.failed(start, e);
+        }
+    }
+
+    @Override
+    public long getTotalSpentThisMonth(int userId, String month) {
+        long start = System.nanoTime();
+        try {
+            return getTotalSpentThisMonth.amount(start,
+                    delegate.getTotalSpentThisMonth(userId, month));
+        } catch (RuntimeException e) {
+            throw getTotalSpentThisMonth.failed(start, e);
+        }
+    }
+
+    @Override
+    public long getTotalReceivedThisMonth(int userId, String month) {
+        long start = System.nanoTime();
+        try {
+            return getTotalReceivedThisMonth.amount(start,
+                    delegate.getTotalReceivedThisMonth(userId, month));
+        } catch (RuntimeException e) {
+            throw getTotalReceivedThisMonth.failed(start, e);
+        }
+    }
+
+    @Override
+    public MonthSummary getMonthSummary(int userId, String month) {
+        long start = System.nanoTime();
+        try {
+            return getMonthSummary.one(start, delegate.getMonthSummary(userId, month));
+        } catch (RuntimeException e) {
+            throw getMonthSummary.failed(start, e);
+        }
+    }
+
+    @Override
+    public RangeTotals getRangeTotals(int userId, long fromMillis, long toMillis, String type) {
+        long start = System.nanoTime();
+        try {
+            return getRangeTotals.one(start,
+                    delegate.getRangeTotals(userId, fromMillis, toMillis, type));
+        } catch (RuntimeException e) {
+            throw getRangeTotals.failed(start, e);
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.bankingapp.database;
+
+import android.database.sqlite.SQLiteTransactionListener;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * InvalidationTracker — tells interested readers which data a committed
+ * write changed.
+ *
+ * A change is named by a key: a table name ("transactions") for the
+ * whole table, or a user-scoped key ("transactions/42", see
+ * {@link #forUser}) for one user's rows. An observer of a table hears
+ * about every change to it; an observer of a user-scoped key hears about
+ * that user's changes and whole-table ones.
+ *
+ * DatabaseHelper marks keys while a write transaction is open. They are
+ * published once, after the outermost transaction commits, so observers
+ * never see a change that was rolled back or re-read before the commit
+ * is visible. One commit is one notification, however many rows it
+ * touched.
+ */
+public final class InvalidationTracker {
+
+    // ── Observable tables (same names as the SQL tables) ──────────────────
+    public static final String USERS        = "users";
+    public static final String TRANSACTIONS = "transactions";   // + rollup, search
+    public static final String BILLS        = "bills";
+    public static final String GOALS        = "savings_goals";
+
+    /** Marks a change to every user's rows of a table. */
+    static final int ALL_USERS = -1;
+
+    public interface Observer {
+        /** Called on the committing thread; keep it short (post or submit). */
+        void onInvalidated(Set<String> changedKeys);
+    }
+
+    public static String forUser(String table, int userId) {
+        return table + "/" + userId;
+    }
+
+    private static final class Registration {
+        final Observer    observer;
+        final Set<String> keys;
+
+        Registration(Observer observer, Set<String> keys) {
+            this.observer = observer;
+            this.keys     = keys;
+        }
+    }
+
+    // Keys marked by the write transaction open on this thread
+    private static final class Pending {
+        final Set<String> keys = new HashSet<>();
+        boolean committed;
+    }
+
+    private final CopyOnWriteArrayList<Registration> registrations =
+            new CopyOnWriteArrayList<>();
+    private final ThreadLocal<Pending> pending = new ThreadLocal<Pending>() {
+        @Override
+        protected Pending initialValue() {
+            return new Pending();
+        }
+    };
+
+    // Records the outcome of each write transaction on its own thread
+    private final SQLiteTransactionListener listener = new SQLiteTransactionListener() {
+        @Override public void onBegin() {}
+
+        @Override
+        public void onCommit() {
+            pending.get().committed = true;
+        }
+
+        @Override
+        public void onRollback() {
+            Pending p = pending.get();
+            p.keys.clear();
+            p.committed = false;
+        }
+    };
+
+    InvalidationTracker() {}
+
+    // ═════════════════════════════════════════════════════════════════════
+    // OBSERVERS
+    // ═════════════════════════════════════════════════════════════════════
+
+    public void addObserver(Observer observer, String... keys) {
+        Set<String> set = new HashSet<>();
+        Collections.addAll(set, keys);
+        registrations.add(new Registration(observer, set));
+    }
+
+    public void removeObserver(Observer observer) {
+        for (Registration r : registrations) {
+            if (r.observer == observer) registrations.remove(r);
+        }
+    }
+
+    // ═════════════════════════════════════════════════════════════════════
+    // CHANGES (called by DatabaseHelper)
+    // ═════════════════════════════════════════════════════════════════════
+
+    SQLiteTransactionListener transactionListener() {
+        return listener;
+    }
+
+    /** Marks a change inside the write transaction open on this thread. */
+    void markDirty(String table, int userId) {
+        pending.get().keys.add(userId == ALL_USERS ? table : forUser(table, userId));
+    }
+
+    /**
+     * Publishes what the thread's last write transaction marked. Call
+     * after endTransaction() once no transaction is open on the thread.
+     */
+    void flushPending() {
+        Pending p = pending.get();
+        if (p.committed && !p.keys.isEmpty()) {
+            Set<String> changed = Collections.unmodifiableSet(new HashSet<>(p.keys));
+            dispatch(changed);
+        }
+        p.keys.clear();
+        p.committed = false;
+    }
+
+    /**
+     * Publishes a whole-table change written outside DatabaseHelper (e.g.
+     * through TransactionProvider). Call after the write has committed.
+     */
+    public void notifyChanged(String table) {
+        notifyChanged(table, ALL_USERS);
+    }
+
+    /** Publishes a change made outside a write transaction (already committed). */
+    void notifyChanged(String table, int userId) {
+        dispatch(Collections.singleton(
+                userId == ALL_USERS ? table : forUser(table, userId)));
+    }
+
+    private void dispatch(Set<String> changed) {
+        for (Registration r : registrations) {
+            if (matches(r.keys, changed)) r.observer.onInvalidated(changed);
+        }
+    }
+
+    private static boolean matches(Set<String> observed, Set<String> changed) {
+        for (String key : changed) {
+            if (observed.contains(key)) return true;
+            int slash = key.indexOf('/');
+            String table = slash < 0 ? key : key.substring(0, slash);
+            // Table observers see user-scoped changes; user observers see whole-table ones
+            if (observed.contains(table)) return true;
+            if (slash < 0) {
+                for (String o : observed) {
+                    if (o.startsWith(table + "/")) return true;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,95 @@
+package com.bankingapp.database;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * LatencyHistogram — a lock-free distribution of durations in nanoseconds.
+ *
+ * Buckets are log-linear: one per nanosecond below 16 ns, then every
+ * power of two split into 8 equal steps. A percentile is reported as
+ * the upper edge of its bucket, so it is never low and at most 12.5%
+ * high. 496 counters (about 4 KB) cover any long; recording is a couple
+ * of atomic adds and never allocates. Max and mean are exact.
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BITS = 3;
+    private static final int SUB      = 1 << SUB_BITS;   // steps per power of two
+    private static final int LINEAR   = 2 * SUB;         // exact buckets 0..15
+    private static final int BUCKETS  = LINEAR + (64 - 4) * SUB;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder       total  = new LongAdder();
+    private final AtomicLong      max    = new AtomicLong();
+
+    public void record(long nanos) {
+        if (nanos < 0) nanos = 0;   // nanoTime is monotonic, but be safe
+        counts.incrementAndGet(indexOf(nanos));
+        total.add(nanos);
+        long m;
+        while (nanos > (m = max.get()) && !max.compareAndSet(m, nanos)) {
+            // lost a race with a larger value; retry
+        }
+    }
+
+    /** A consistent-enough copy: concurrent records may land on either side. */
+    public Snapshot snapshot() {
+        long[] copy = new long[BUCKETS];
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            copy[i] = counts.get(i);
+            count  += copy[i];
+        }
+        return new Snapshot(copy, count, total.sum(), max.get());
+    }
+
+    // ── Bucket arithmetic ─────────────────────────────────────────────────
+    static int indexOf(long nanos) {
+        if (nanos < LINEAR) return (int) nanos;
+        int exponent = 63 - Long.numberOfLeadingZeros(nanos);   // >= 4
+        int step     = (int) (nanos >>> (exponent - SUB_BITS)) & (SUB - 1);
+        return LINEAR + (exponent - 4) * SUB + step;
+    }
+
+    static long upperEdge(int index) {
+        if (index < LINEAR) return index;
+        int exponent = (index - LINEAR) / SUB + 4;
+        int step     = (index - LINEAR) % SUB;
+        if (exponent == 63 && step == SUB - 1) return Long.MAX_VALUE;
+        long width = 1L << (exponent - SUB_BITS);
+        return (1L << exponent) + (step + 1) * width - 1;
+    }
+
+    // ── Read side ─────────────────────────────────────────────────────────
+    public static final class Snapshot {
+        private final long[] counts;
+        public final long    count;
+        public final long    totalNanos;
+        public final long    maxNanos;
+
+        Snapshot(long[] counts, long count, long totalNanos, long maxNanos) {
+            this.counts     = counts;
+            this.count      = count;
+            this.totalNanos = totalNanos;
+            this.maxNanos   = maxNanos;
+        }
+
+        /** Smallest bucket edge at or above {@code quantile} (0.0 – 1.0) of samples; 0 if empty. */
+        public long percentile(double quantile) {
+            if (count == 0) return 0;
+            long rank = Math.max(1, (long) Math.ceil(quantile * count));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) return Math.min(upperEdge(i), maxNanos);
+            }
+            return maxNanos;
+        }
+
+        public long meanNanos() {
+            return count == 0 ? 0 : totalNanos / count;
+        }
+    }
+}
@@ -0,0 +1,264 @@
+package com.bankingapp.database;
+
+import android.database.Cursor;
+import android.database.DatabaseUtils;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Ledger — append-only double-entry journal behind users.balance_paise.
+ *
+ * Every balance change is one posting made of two entries that sum to
+ * zero: the account that pays gets a negative entry, the account that
+ * receives a positive one. Money entering or leaving the app (opening
+ * grants, billers, recipients without an account) uses
+ * {@link #ACCOUNT_EXTERNAL}. Entries are never updated or deleted.
+ *
+ * After every {@link #SNAPSHOT_EVERY} entries on a user account, a
+ * balance_snapshots row records the running balance. A balance as of
+ * any instant is then the nearest snapshot at or before it plus a
+ * bounded replay of the entries since. users.balance_paise stays the
+ * O(1) cache for "now"; {@link #verify} checks it against the journal.
+ *
+ * Entry times never run backwards: a posting is stamped with the
+ * caller's time or the newest entry's, whichever is later, so id order
+ * and time order agree. A snapshot at entry E then covers exactly the
+ * entries up to its time, and a clock set back or a backdated transfer
+ * lands "now" in the journal instead of behind a snapshot.
+ *
+ * All methods run inside the caller's write transaction (see
+ * DatabaseHelper.beginWrite) and follow the same lock order.
+ */
+public final class Ledger {
+
+    /** Counter-party for money that comes from or goes outside the app. */
+    static final int ACCOUNT_EXTERNAL = 0;
+
+    /** Entries per user account between two balance snapshots. */
+    static final int SNAPSHOT_EVERY = 50;
+
+    // ── Posting kinds ─────────────────────────────────────────────────────
+    static final String KIND_OPENING  = "OPENING";
+    static final String KIND_TRANSFER = "TRANSFER";
+    static final String KIND_BILL     = "BILL_PAYMENT";
+    static final String KIND_ADJUST   = "ADJUSTMENT";
+
+    private static final String SQL_INSERT_POSTING =
+            "INSERT INTO ledger_postings (kind, txn_id, time_millis) VALUES (?,?,?)";
+
+    private static final String SQL_INSERT_ENTRY =
+            "INSERT INTO ledger_entries (posting_id, account_id, amount_paise, time_millis) " +
+                    "VALUES (?,?,?,?)";
+
+    private static final String SQL_INSERT_SNAPSHOT =
+            "INSERT INTO balance_snapshots (account_id, entry_id, time_millis, balance_paise) " +
+                    "VALUES (?,?,?,?)";
+
+    // Rowid seek: the newest entry is also the latest in time
+    private static final String SQL_LAST_ENTRY_TIME =
+            "SELECT IFNULL((SELECT time_millis FROM ledger_entries " +
+                    "ORDER BY id DESC LIMIT 1), 0)";
+
+    // Latest snapshot at or before an instant
+    private static final String SQL_SNAPSHOT_AT =
+            "SELECT entry_id, time_millis, balance_paise FROM balance_snapshots " +
+                    "WHERE account_id=? AND time_millis <= ? " +
+                    "ORDER BY time_millis DESC, entry_id DESC LIMIT 1";
+
+    // Replay after a snapshot; the time lower bound keeps it an index range
+    // and drops nothing, since later entries are never stamped earlier
+    private static final String SQL_REPLAY =
+            "SELECT COUNT(*), IFNULL(SUM(amount_paise), 0) " +
+                    "FROM ledger_entries WHERE account_id=? " +
+                    "AND time_millis >= ? AND time_millis <= ? AND id > ?";
+
+    private final StatementCache statements;
+    private final SlowQueryLog   slowLog;
+
+    Ledger(StatementCache statements, SlowQueryLog slowLog) {
+        this.statements = statements;
+        this.slowLog    = slowLog;
+    }
+
+    // ═════════════════════════════════════════════════════════════════════
+    // WRITING
+    // ═════════════════════════════════════════════════════════════════════
+
+    /**
+     * Moves {@code amountPaise} from one account to another as a single
+     * balanced posting, stamped no earlier than the newest entry.
+     *
+     * @param txnId the transactions row this posting belongs to, or -1
+     * @return the posting id
+     */
+    long post(SQLiteDatabase db, String kind, long txnId, long timeMillis,
+              int fromAccount, int toAccount, long amountPaise) {
+        timeMillis = Math.max(timeMillis,
+                DatabaseUtils.longForQuery(db, SQL_LAST_ENTRY_TIME, null));
+        long postingId;
+        SQLiteStatement posting = statements.get(db, SQL_INSERT_POSTING);
+        synchronized (posting) {
+            posting.bindString(1, kind);
+            if (txnId > 0) posting.bindLong(2, txnId);
+            else           posting.bindNull(2);
+            posting.bindLong(3, timeMillis);
+            postingId = slowLog.executeInsert(db, SQL_INSERT_POSTING, posting);
+        }
+        addEntry(db, postingId, fromAccount, -amountPaise, timeMillis);
+        addEntry(db, postingId, toAccount,    amountPaise, timeMillis);
+        return postingId;
+    }
+
+    private void addEntry(SQLiteDatabase db, long postingId, int account,
+                          long amountPaise, long timeMillis) {
+        long entryId;
+        SQLiteStatement entry = statements.get(db, SQL_INSERT_ENTRY);
+        synchronized (entry) {
+            entry.bindLong(1, postingId);
+            entry.bindLong(2, account);
+            entry.bindLong(3, amountPaise);
+            entry.bindLong(4, timeMillis);
+            entryId = slowLog.executeInsert(db, SQL_INSERT_ENTRY, entry);
+        }
+        if (account != ACCOUNT_EXTERNAL) maybeSnapshot(db, account, entryId, timeMillis);
+    }
+
+    // Snapshot once SNAPSHOT_EVERY entries have piled up since the last one
+    private void maybeSnapshot(SQLiteDatabase db, int account,
+                               long entryId, long timeMillis) {
+        Replay since = replayFrom(db, account, Long.MAX_VALUE);
+        if (since.entries < SNAPSHOT_EVERY) return;
+        SQLiteStatement snap = statements.get(db, SQL_INSERT_SNAPSHOT);
+        synchronized (snap) {
+            snap.bindLong(1, account);
+            snap.bindLong(2, entryId);
+            snap.bindLong(3, timeMillis);
+            snap.bindLong(4, since.balancePaise);
+            slowLog.executeInsert(db, SQL_INSERT_SNAPSHOT, snap);
+        }
+    }
+
+    // ═════════════════════════════════════════════════════════════════════
+    // READING
+    // ═════════════════════════════════════════════════════════════════════
+
+    /** Journal balance of {@code account} including every entry up to {@code timeMillis}. */
+    long balanceAsOf(SQLiteDatabase db, int account, long timeMillis) {
+        return replayFrom(db, account, timeMillis).balancePaise;
+    }
+
+    private static final class Replay {
+        final long balancePaise;
+        final int  entries;   // entries replayed after the snapshot
+
+        Replay(long balancePaise, int entries) {
+            this.balancePaise = balancePaise;
+            this.entries      = entries;
+        }
+    }
+
+    private Replay replayFrom(SQLiteDatabase db, int account, long timeMillis) {
+        long snapEntry = 0L, snapTime = Long.MIN_VALUE, snapBalance = 0L;
+        String accountArg = String.valueOf(account);
+        Cursor c = db.rawQuery(SQL_SNAPSHOT_AT,
+                new String[]{ accountArg, String.valueOf(timeMillis) });
+        try {
+            if (c.moveToFirst()) {
+                snapEntry   = c.getLong(0);
+                snapTime    = c.getLong(1);
+                snapBalance = c.getLong(2);
+            }
+        } finally {
+            c.close();
+        }
+        c = db.rawQuery(SQL_REPLAY, new String[]{ accountArg,
+                String.valueOf(snapTime), String.valueOf(timeMillis),
+                String.valueOf(snapEntry) });
+        try {
+            c.moveToFirst();
+            return new Replay(snapBalance + c.getLong(1), c.getInt(0));
+        } finally {
+            c.close();
+        }
+    }
+
+    // ═════════════════════════════════════════════════════════════════════
+    // VERIFICATION
+    // ═════════════════════════════════════════════════════════════════════
+
+    /** A user whose cached balance disagrees with the journal. */
+    public static final class Mismatch {
+        public final int  accountId;
+        public final long cachedPaise;
+        public final long journalPaise;
+
+        Mismatch(int accountId, long cachedPaise, long journalPaise) {
+            this.accountId    = accountId;
+            this.cachedPaise  = cachedPaise;
+            this.journalPaise = journalPaise;
+        }
+
+        @Override
+        public String toString() {
+            return "account " + accountId + ": cached=" + cachedPaise +
+                    " journal=" + journalPaise;
+        }
+    }
+
+    /** Outcome of {@link #verify}. */
+    public static final class Report {
+        public final int            accountsChecked;
+        public final List<Mismatch> mismatches;
+        public final List<Long>     unbalancedPostings;   // entries do not sum to 0
+
+        Report(int accountsChecked, List<Mismatch> mismatches,
+               List<Long> unbalancedPostings) {
+            this.accountsChecked    = accountsChecked;
+            this.mismatches         = Collections.unmodifiableList(mismatches);
+            this.unbalancedPostings = Collections.unmodifiableList(unbalancedPostings);
+        }
+
+        public boolean isConsistent() {
+            return mismatches.isEmpty() && unbalancedPostings.isEmpty();
+        }
+    }
+
+    /**
+     * Checks every users.balance_paise against a full journal replay and
+     * every posting for a zero sum. Read-only; full scan — run it from a
+     * background/maintenance path, never on the UI thread.
+     */
+    Report verify(SQLiteDatabase db) {
+        List<Mismatch> mismatches = new ArrayList<>();
+        int checked = 0;
+        // Full SUM, not snapshots: a bad snapshot must not hide a bad cache
+        Cursor c = db.rawQuery(
+                "SELECT u.id, u.balance_paise, IFNULL(SUM(e.amount_paise), 0) " +
+                        "FROM users u LEFT JOIN ledger_entries e ON e.account_id = u.id " +
+                        "GROUP BY u.id", null);
+        try {
+            while (c.moveToNext()) {
+                checked++;
+                if (c.getLong(1) != c.getLong(2)) {
+                    mismatches.add(new Mismatch(c.getInt(0), c.getLong(1), c.getLong(2)));
+                }
+            }
+        } finally {
+            c.close();
+        }
+
+        List<Long> unbalanced = new ArrayList<>();
+        c = db.rawQuery("SELECT posting_id FROM ledger_entries " +
+                "GROUP BY posting_id HAVING SUM(amount_paise) <> 0", null);
+        try {
+            while (c.moveToNext()) unbalanced.add(c.getLong(0));
+        } finally {
+            c.close();
+        }
+        return new Report(checked, mismatches, unbalanced);
+    }
+}
@@ -0,0 +1,137 @@
+package com.bankingapp.database;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleEventObserver;
+import androidx.lifecycle.LifecycleOwner;
+
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * ObservableQuery — a read that re-runs by itself when the data behind it
+ * changes. Create one with {@link AsyncDataRepository#observe}.
+ *
+ * The query listens to the InvalidationTracker for its keys. A change
+ * only marks it stale; it re-runs on the read pool, at most once at a
+ * time, while its screen is at least STARTED. Any number of commits that
+ * land while a run is queued or in flight, or while the screen is in the
+ * background, cost one more run, not one each. Results arrive on the main
+ * thread. ON_DESTROY closes the query. A run that fails is logged and
+ * retried on the next change.
+ *
+ * Everything except {@link #onInvalidated} runs on the main thread.
+ */
+public final class ObservableQuery<T> implements InvalidationTracker.Observer {
+
+    private static final String TAG = "ObservableQuery";
+
+    private final AsyncDataRepository             async;
+    private final InvalidationTracker             tracker;
+    private final AsyncDataRepository.Call<T>     call;
+    private final AsyncDataRepository.Callback<T> onResult;
+    private final Handler       mainHandler        = new Handler(Looper.getMainLooper());
+    private final AtomicBoolean invalidationPosted = new AtomicBoolean();
+
+    private Lifecycle                   lifecycle;
+    private LifecycleEventObserver      lifecycleObserver;
+    private AsyncDataRepository.Request running;   // null when idle
+    private boolean active;                        // owner at least STARTED
+    private boolean stale = true;                  // first start always runs
+    private boolean closed;
+
+    ObservableQuery(AsyncDataRepository async, InvalidationTracker tracker,
+                    AsyncDataRepository.Call<T> call,
+                    AsyncDataRepository.Callback<T> onResult) {
+        this.async    = async;
+        this.tracker  = tracker;
+        this.call     = call;
+        this.onResult = onResult;
+    }
+
+    // Registers with the tracker and follows the owner's lifecycle
+    void start(LifecycleOwner owner, String... keys) {
+        tracker.addObserver(this, keys);
+        if (owner == null) {
+            active = true;
+            runIfStale();
+            return;
+        }
+        if (owner.getLifecycle().getCurrentState() == Lifecycle.State.DESTROYED) {
+            close();
+            return;
+        }
+        lifecycle         = owner.getLifecycle();
+        lifecycleObserver = (source, event) -> {
+            if (event == Lifecycle.Event.ON_START) {
+                active = true;
+                runIfStale();
+            } else if (event == Lifecycle.Event.ON_STOP) {
+                active = false;
+            } else if (event == Lifecycle.Event.ON_DESTROY) {
+                close();
+            }
+        };
+        lifecycle.addObserver(lifecycleObserver);   // replays up to the current state
+    }
+
+    /**
+     * Re-runs the query even though nothing was invalidated — for when
+     * its input (a selected month, a filter) changed. A result from the
+     * previous input that has not been delivered yet is dropped.
+     */
+    public void refresh() {
+        if (closed) return;
+        if (running != null) {
+            running.cancel();
+            running = null;
+        }
+        stale = true;
+        runIfStale();
+    }
+
+    /** Stops listening; no further results are delivered. */
+    public void close() {
+        if (closed) return;
+        closed = true;
+        tracker.removeObserver(this);
+        if (running != null) running.cancel();
+        if (lifecycle != null) lifecycle.removeObserver(lifecycleObserver);
+    }
+
+    // ── Tracker callback (committing thread) ──────────────────────────────
+    @Override
+    public void onInvalidated(Set<String> changedKeys) {
+        // Collapse a burst of commits into a single main-thread hop
+        if (invalidationPosted.compareAndSet(false, true)) {
+            mainHandler.post(() -> {
+                invalidationPosted.set(false);
+                stale = true;
+                runIfStale();
+            });
+        }
+    }
+
+    // A change during a run leaves stale set, so one more run follows it
+    private void runIfStale() {
+        if (closed || !active || !stale || running != null) return;
+        stale = false;
+        running = async.read(null, call, result -> {
+            running = null;
+            if (closed) return;
+            onResult.onResult(result);
+            runIfStale();
+        }, this::onFailed);
+    }
+
+    // A failed or rejected run keeps the last result on screen; the next
+    // invalidation (or refresh) tries again
+    private void onFailed(Throwable error) {
+        running = null;
+        Log.w(TAG, "Observed query failed", error);
+        runIfStale();
+    }
+}
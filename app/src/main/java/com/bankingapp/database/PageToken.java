@@ -0,0 +1,26 @@
+package com.bankingapp.database;
+
+import com.bankingapp.models.Transaction;
+
+/**
+ * PageToken — keyset continuation for transaction history.
+ *
+ * History is ordered by (time_millis DESC, id DESC). A token remembers the
+ * last row of the previous page; the next page seeks straight past it in
+ * the (user_id, time_millis) index instead of counting rows with OFFSET.
+ */
+public final class PageToken {
+
+    public final long timeMillis;
+    public final int  id;
+
+    public PageToken(long timeMillis, int id) {
+        this.timeMillis = timeMillis;
+        this.id         = id;
+    }
+
+    /** Token that continues after {@code last}. */
+    public static PageToken after(Transaction last) {
+        return new PageToken(last.getTimeMillis(), last.getId());
+    }
+}
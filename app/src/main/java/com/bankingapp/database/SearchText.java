@@ -0,0 +1,105 @@
+package com.bankingapp.database;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * SearchText — how transaction search splits text into words and ranks
+ * the matches.
+ *
+ * DatabaseHelper hands {@link #toMatchQuery} to the transactions_fts
+ * index; InMemoryDataRepository matches with {@link #queryTerms} and
+ * {@link #tokenize}, which follow the FTS4 "simple" tokenizer the index
+ * was created with: ASCII letters and digits, plus any non-ASCII
+ * character, form words; everything else separates them; only ASCII is
+ * case-folded. Keeping both here is what makes the two rank alike.
+ */
+final class SearchText {
+
+    // Weights for description, to_from_name, to_from_phone (index column order)
+    static final double[] COLUMN_WEIGHTS = { 1.0, 2.0, 2.0 };
+
+    private static final String NOT_A_WORD = "[^\\p{L}\\p{N}]+";
+
+    private SearchText() {}
+
+    // "ravi 98765" → "ravi* 98765*": every word, prefix-matched, all required.
+    // Only letters and digits survive, so user input can never form FTS
+    // operators or an unbalanced quote.
+    static String toMatchQuery(String query) {
+        StringBuilder match = new StringBuilder();
+        for (String term : queryTerms(query)) {
+            if (match.length() > 0) match.append(' ');
+            match.append(term).append('*');
+        }
+        return match.toString();
+    }
+
+    /** The words of {@code query} in order, repeats kept, not yet folded. */
+    static List<String> queryTerms(String query) {
+        List<String> terms = new ArrayList<>();
+        if (query == null) return terms;
+        for (String word : query.split(NOT_A_WORD)) {
+            if (!word.isEmpty()) terms.add(word);
+        }
+        return terms;
+    }
+
+    /** The indexed words of {@code text}, ASCII lower-cased; empty for null. */
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) return tokens;
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean inWord = i < text.length() && isWordChar(text.charAt(i));
+            if (inWord && start < 0) {
+                start = i;
+            } else if (!inWord && start >= 0) {
+                tokens.add(fold(text.substring(start, i)));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * True when every folded term starts some word of one of the texts
+     * — what a MATCH of toMatchQuery() accepts, for rows outside the index.
+     */
+    static boolean matchesAll(List<String> foldedTerms, String... texts) {
+        List<String> words = new ArrayList<>();
+        for (String text : texts) words.addAll(tokenize(text));
+        for (String term : foldedTerms) {
+            boolean found = false;
+            for (String word : words) {
+                if (word.startsWith(term)) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) return false;
+        }
+        return true;
+    }
+
+    private static boolean isWordChar(char c) {
+        return c >= 0x80 || (c >= '0' && c <= '9')
+                || (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    /**
+     * ASCII lower case — the only folding the index does. A query term
+     * matches every word that starts with it once both are folded.
+     */
+    static String fold(String s) {
+        StringBuilder out = null;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c >= 'A' && c <= 'Z') {
+                if (out == null) out = new StringBuilder(s);
+                out.setCharAt(i, (char) (c + ('a' - 'A')));
+            }
+        }
+        return out == null ? s : out.toString();
+    }
+}
@@ -0,0 +1,438 @@
+package com.bankingapp.database;
+
+import android.content.ContentValues;
+import android.database.Cursor;
+import android.database.SQLException;
+import android.database.sqlite.SQLiteCursor;
+import android.database.sqlite.SQLiteCursorDriver;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteQuery;
+import android.database.sqlite.SQLiteStatement;
+import android.util.Log;
+
+import com.bankingapp.BuildConfig;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * SlowQueryLog — times every query and write DatabaseHelper, Ledger and
+ * TransactionProvider make, and keeps the slow ones (debug builds only).
+ *
+ * Reads are caught by the CursorFactory the helper opens its database
+ * with: the first getCount() of a cursor is where SQLite actually runs
+ * the query, so that call is timed. Writes go through the execute /
+ * insert / update / delete wrappers below. A statement slower than the
+ * threshold is kept with its SQL, the shape of its bound arguments (type
+ * and length, never the values), the row count and EXPLAIN QUERY PLAN.
+ * Any statement whose plan scans the whole transactions table is kept
+ * and logged the first time it runs, however fast it was.
+ *
+ * Entries live in a ring buffer of {@link #CAPACITY}; the oldest drop
+ * out. dumpTo() writes them to a file. In release builds every wrapper
+ * is a plain call and no factory is installed.
+ */
+public final class SlowQueryLog {
+
+    private static final String TAG = "SlowQueryLog";
+
+    public  static final int  CAPACITY             = 200;
+    private static final long DEFAULT_THRESHOLD_MS = 50;
+    private static final int  PLAN_CACHE_SIZE      = 128;
+
+    // "transactions" as a word — transactions_fts does not match
+    private static final Pattern TRANSACTIONS =
+            Pattern.compile("\\btransactions\\b(?:\\s+(?:AS\\s+)?([A-Za-z_]\\w*))?",
+                    Pattern.CASE_INSENSITIVE);
+    private static final Set<String> NOT_AN_ALIAS = new HashSet<>(Arrays.asList(
+            "WHERE", "JOIN", "LEFT", "INNER", "CROSS", "ON", "USING", "ORDER", "GROUP",
+            "LIMIT", "SET", "VALUES", "DEFAULT", "SELECT", "UNION", "INDEXED", "NOT"));
+
+    private static SlowQueryLog instance;
+
+    public static synchronized SlowQueryLog getInstance() {
+        if (instance == null) instance = new SlowQueryLog(BuildConfig.DEBUG);
+        return instance;
+    }
+
+    private final boolean enabled;
+    private volatile long thresholdNanos = DEFAULT_THRESHOLD_MS * 1_000_000L;
+
+    // ── Ring buffer ───────────────────────────────────────────────────────
+    private final Entry[] ring = new Entry[CAPACITY];
+    private int  next;
+    private long recorded;
+
+    // ── Plans by SQL text (provider SQL can embed ids, so it is bounded) ─
+    private final Map<String, Plan> plans =
+            new LinkedHashMap<String, Plan>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Plan> eldest) {
+                    return size() > PLAN_CACHE_SIZE;
+                }
+            };
+
+    private SlowQueryLog(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setThresholdMillis(long millis) {
+        thresholdNanos = millis * 1_000_000L;
+    }
+
+    public long getThresholdMillis() {
+        return thresholdNanos / 1_000_000L;
+    }
+
+    // ═════════════════════════════════════════════════════════════════════
+    // INTERCEPTION
+    // ═════════════════════════════════════════════════════════════════════
+
+    /** For SQLiteOpenHelper's constructor; null (SQLite's default) when off. */
+    public SQLiteDatabase.CursorFactory cursorFactory() {
+        return enabled ? this::newCursor : null;
+    }
+
+    private Cursor newCursor(SQLiteDatabase db, SQLiteCursorDriver driver,
+                             String editTable, SQLiteQuery query) {
+        // "SQLiteQuery: <sql>" — the only public way to the text
+        String sql = query.toString();
+        int colon = sql.indexOf(": ");
+        if (colon >= 0) sql = sql.substring(colon + 2);
+        // Our own EXPLAIN reads must not be timed (or explained) again
+        if (sql.regionMatches(true, 0, "EXPLAIN", 0, 7)) {
+            return new SQLiteCursor(driver, editTable, query);
+        }
+        return new TimedCursor(driver, editTable, query, db, sql);
+    }
+
+    // query() and rawQuery() bind every argument as text; the cursor only
+    // sees the statement, so the shape is the placeholder count
+    private final class TimedCursor extends SQLiteCursor {
+        private final SQLiteDatabase db;
+        private final String         sql;
+        private boolean              timed;
+
+        TimedCursor(SQLiteCursorDriver driver, String editTable, SQLiteQuery query,
+                    SQLiteDatabase db, String sql) {
+            super(driver, editTable, query);
+            this.db  = db;
+            this.sql = sql;
+        }
+
+        @Override
+        public int getCount() {
+            if (timed) return super.getCount();
+            timed = true;
+            long start = System.nanoTime();
+            int count = super.getCount();
+            record(db, sql, "[text × " + placeholders(sql) + "]", count,
+                    System.nanoTime() - start);
+            return count;
+        }
+    }
+
+    // ── Compiled statements (values are bound by position and not kept) ──
+    public long executeInsert(SQLiteDatabase db, String sql, SQLiteStatement stmt) {
+        if (!enabled) return stmt.executeInsert();
+        long start = System.nanoTime();
+        long id = stmt.executeInsert();
+        record(db, sql, "[? × " + placeholders(sql) + "]", id != -1 ? 1 : 0,
+                System.nanoTime() - start);
+        return id;
+    }
+
+    public int executeUpdateDelete(SQLiteDatabase db, String sql, SQLiteStatement stmt) {
+        if (!enabled) return stmt.executeUpdateDelete();
+        long start = System.nanoTime();
+        int rows = stmt.executeUpdateDelete();
+        record(db, sql, "[? × " + placeholders(sql) + "]", rows, System.nanoTime() - start);
+        return rows;
+    }
+
+    public void execSQL(SQLiteDatabase db, String sql) {
+        if (!enabled) {
+            db.execSQL(sql);
+            return;
+        }
+        long start = System.nanoTime();
+        db.execSQL(sql);
+        record(db, sql, "[]", -1, System.nanoTime() - start);
+    }
+
+    // ── ContentValues writes: SQL is rebuilt the way SQLiteDatabase does ─
+    public long insert(SQLiteDatabase db, String table, ContentValues values) {
+        if (!enabled) return db.insert(table, null, values);
+        long start = System.nanoTime();
+        long id = db.insert(table, null, values);
+        long elapsed = System.nanoTime() - start;
+        StringBuilder sql = new StringBuilder("INSERT INTO ").append(table).append(" (");
+        StringBuilder marks = new StringBuilder();
+        for (String column : values.keySet()) {
+            if (marks.length() > 0) {
+                sql.append(',');
+                marks.append(',');
+            }
+            sql.append(column);
+            marks.append('?');
+        }
+        sql.append(") VALUES (").append(marks).append(')');
+        record(db, sql.toString(), shape(values, null), id != -1 ? 1 : 0, elapsed);
+        return id;
+    }
+
+    public int update(SQLiteDatabase db, String table, ContentValues values,
+                      String where, String[] whereArgs) {
+        if (!enabled) return db.update(table, values, where, whereArgs);
+        long start = System.nanoTime();
+        int rows = db.update(table, values, where, whereArgs);
+        long elapsed = System.nanoTime() - start;
+        StringBuilder sql = new StringBuilder("UPDATE ").append(table).append(" SET ");
+        boolean first = true;
+        for (String column : values.keySet()) {
+            if (!first) sql.append(',');
+            sql.append(column).append("=?");
+            first = false;
+        }
+        if (where != null && !where.isEmpty()) sql.append(" WHERE ").append(where);
+        record(db, sql.toString(), shape(values, whereArgs), rows, elapsed);
+        return rows;
+    }
+
+    public int delete(SQLiteDatabase db, String table, String where, String[] whereArgs) {
+        if (!enabled) return db.delete(table, where, whereArgs);
+        long start = System.nanoTime();
+        int rows = db.delete(table, where, whereArgs);
+        long elapsed = System.nanoTime() - start;
+        String sql = "DELETE FROM " + table
+                + (where != null && !where.isEmpty() ? " WHERE " + where : "");
+        record(db, sql, shape(null, whereArgs), rows, elapsed);
+        return rows;
+    }
+
+    // ═════════════════════════════════════════════════════════════════════
+    // RECORDING
+    // ═════════════════════════════════════════════════════════════════════
+
+    private static final class Plan {
+        final String  text;
+        final boolean scansTransactions;
+        boolean       flagged;   // guarded by SlowQueryLog.this
+
+        Plan(String text, boolean scansTransactions) {
+            this.text              = text;
+            this.scansTransactions = scansTransactions;
+        }
+    }
+
+    // rows is -1 when the statement does not report a count
+    private void record(SQLiteDatabase db, String sql, String shape, long rows, long nanos) {
+        boolean slow = nanos >= thresholdNanos;
+        // Statements on transactions are explained up front (once per SQL
+        // text) so a full scan is caught before it is ever slow
+        Plan plan = slow || TRANSACTIONS.matcher(sql).find() ? planFor(db, sql) : null;
+        boolean firstScan = false;
+        if (plan != null && plan.scansTransactions) {
+            synchronized (this) {
+                firstScan = !plan.flagged;
+                plan.flagged = true;
+            }
+        }
+        if (!slow && !firstScan) return;
+        Entry entry = new Entry(System.currentTimeMillis(), nanos, sql, shape, rows,
+                plan.text, plan.scansTransactions);
+        synchronized (this) {
+            ring[next] = entry;
+            next = (next + 1) % CAPACITY;
+            recorded++;
+        }
+        Log.w(TAG, entry.toString());
+    }
+
+    private Plan planFor(SQLiteDatabase db, String sql) {
+        synchronized (this) {
+            Plan cached = plans.get(sql);
+            if (cached != null) return cached;
+        }
+        // Explained outside the monitor: it is a query on db like any other
+        StringBuilder text = new StringBuilder();
+        boolean scan = false;
+        Set<String> names = transactionsNames(sql);
+        try (Cursor c = db.rawQuery("EXPLAIN QUERY PLAN " + sql, null)) {
+            int detail = c.getColumnIndex("detail");
+            if (detail < 0) detail = c.getColumnCount() - 1;
+            while (c.moveToNext()) {
+                String step = c.getString(detail);
+                text.append(step).append('\n');
+                scan |= isTableScan(step, names);
+            }
+        } catch (SQLException e) {
+            text.append("(no plan: ").append(e.getMessage()).append(")\n");
+        }
+        Plan plan = new Plan(text.toString().trim(), scan);
+        synchronized (this) {
+            Plan raced = plans.get(sql);
+            if (raced != null) return raced;
+            plans.put(sql, plan);
+        }
+        return plan;
+    }
+
+    // "transactions" plus any alias it is given in this statement
+    private static Set<String> transactionsNames(String sql) {
+        Set<String> names = new HashSet<>();
+        Matcher m = TRANSACTIONS.matcher(sql);
+        while (m.find()) {
+            names.add("transactions");
+            String alias = m.group(1);
+            if (alias != null && !NOT_AN_ALIAS.contains(alias.toUpperCase(Locale.US))) {
+                names.add(alias);
+            }
+        }
+        return names;
+    }
+
+    // "SCAN transactions" / "SCAN t" (3.36+) or "SCAN TABLE transactions AS t"
+    // (older) — but not "... USING [COVERING] INDEX", which walks an index
+    static boolean isTableScan(String step, Set<String> names) {
+        if (names.isEmpty() || !step.startsWith("SCAN ")) return false;
+        if (step.contains(" USING ")) return false;
+        String[] words = step.substring(5).split("\\s+");
+        int i = words[0].equals("TABLE") ? 1 : 0;
+        if (i >= words.length) return false;
+        if (names.contains(words[i])) return true;
+        return i + 2 < words.length && words[i + 1].equals("AS") && names.contains(words[i + 2]);
+    }
+
+    // '?' outside quoted literals
+    static int placeholders(String sql) {
+        int count = 0;
+        char quote = 0;
+        for (int i = 0; i < sql.length(); i++) {
+            char c = sql.charAt(i);
+            if (quote != 0) {
+                if (c == quote) quote = 0;
+            } else if (c == '\'' || c == '"') {
+                quote = c;
+            } else if (c == '?') {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    // Types and lengths of the values; the values themselves stay out of the log
+    private static String shape(ContentValues values, String[] whereArgs) {
+        List<String> parts = new ArrayList<>();
+        if (values != null) {
+            for (String column : values.keySet()) {
+                parts.add(column + ":" + typeOf(values.get(column)));
+            }
+        }
+        if (whereArgs != null) {
+            for (String arg : whereArgs) parts.add(typeOf(arg));
+        }
+        return parts.toString();
+    }
+
+    private static String typeOf(Object value) {
+        if (value == null)             return "null";
+        if (value instanceof String)   return "text(" + ((String) value).length() + ")";
+        if (value instanceof byte[])   return "blob(" + ((byte[]) value).length + ")";
+        if (value instanceof Double || value instanceof Float) return "real";
+        if (value instanceof Boolean)  return "int";
+        if (value instanceof Number)   return "int";
+        return value.getClass().getSimpleName();
+    }
+
+    // ═════════════════════════════════════════════════════════════════════
+    // READING / EXPORT
+    // ═════════════════════════════════════════════════════════════════════
+
+    public static final class Entry {
+        public final long    atMillis;
+        public final long    elapsedNanos;
+        public final String  sql;
+        public final String  argShape;
+        public final long    rows;        // -1: not reported (execSQL)
+        public final String  plan;
+        public final boolean scansTransactions;
+
+        Entry(long atMillis, long elapsedNanos, String sql, String argShape,
+              long rows, String plan, boolean scansTransactions) {
+            this.atMillis          = atMillis;
+            this.elapsedNanos      = elapsedNanos;
+            this.sql               = sql;
+            this.argShape          = argShape;
+            this.rows              = rows;
+            this.plan              = plan;
+            this.scansTransactions = scansTransactions;
+        }
+
+        @Override
+        public String toString() {
+            String at = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS", Locale.US)
+                    .format(new Date(atMillis));
+            return String.format(Locale.US, "%s  %.2f ms  rows=%s%s%n  %s%n  args %s%n  plan:%n    %s",
+                    at, elapsedNanos / 1e6, rows < 0 ? "?" : String.valueOf(rows),
+                    scansTransactions ? "  FULL SCAN OF transactions" : "",
+                    sql, argShape, plan.replace("\n", "\n    "));
+        }
+    }
+
+    /** Kept entries, oldest first. */
+    public synchronized List<Entry> entries() {
+        int kept = (int) Math.min(recorded, CAPACITY);
+        List<Entry> out = new ArrayList<>(kept);
+        for (int i = 0; i < kept; i++) {
+            out.add(ring[(next - kept + i + CAPACITY) % CAPACITY]);
+        }
+        return out;
+    }
+
+    /** Entries ever recorded, including those the ring has dropped. */
+    public synchronized long getRecordedCount() {
+        return recorded;
+    }
+
+    public synchronized void clear() {
+        Arrays.fill(ring, null);
+        next     = 0;
+        recorded = 0;
+    }
+
+    /** Writes every kept entry to {@code file} (UTF-8, overwritten). */
+    public void dumpTo(File file) throws IOException {
+        List<Entry> entries = entries();
+        try (Writer out = new OutputStreamWriter(new FileOutputStream(file),
+                StandardCharsets.UTF_8)) {
+            out.write(String.format(Locale.US,
+                    "# %d slow or scanning statement(s), threshold %d ms%n%n",
+                    entries.size(), getThresholdMillis()));
+            for (Entry e : entries) {
+                out.write(e.toString());
+                out.write("\n\n");
+            }
+        }
+    }
+}
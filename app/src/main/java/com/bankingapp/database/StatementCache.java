@@ -0,0 +1,80 @@
+package com.bankingapp.database;
+
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * StatementCache — compiled SQLiteStatements for the fixed write shapes.
+ *
+ * DatabaseHelper's hot writes (insertTransaction, insertBill,
+ * updateUserBalance) always use the same SQL, so each one is compiled
+ * once and then re-bound on every call instead of building a
+ * ContentValues map and letting SQLite parse the statement again.
+ *
+ * A SQLiteStatement is not safe for concurrent use: callers open a
+ * database transaction first (which pins the writer connection) and then
+ * hold the statement's monitor from the first bind until execute
+ * returns. Keeping that order everywhere rules out lock inversion.
+ * Statements belong to one SQLiteDatabase object; if the helper ever
+ * hands back a different one, the cache is dropped and rebuilt.
+ */
+public final class StatementCache {
+
+    private final Map<String, SQLiteStatement> statements = new HashMap<>();
+    private SQLiteDatabase boundTo;
+
+    // ── Counters ──────────────────────────────────────────────────────────
+    private long compiled;
+    private long reused;
+
+    StatementCache() {}
+
+    /** Returns the compiled statement for {@code sql}, compiling it once. */
+    synchronized SQLiteStatement get(SQLiteDatabase db, String sql) {
+        if (db != boundTo) {
+            closeAll();
+            boundTo = db;
+        }
+        SQLiteStatement stmt = statements.get(sql);
+        if (stmt == null) {
+            stmt = db.compileStatement(sql);
+            statements.put(sql, stmt);
+            compiled++;
+        } else {
+            reused++;
+        }
+        return stmt;
+    }
+
+    /** Closes every cached statement; the next get() recompiles. */
+    synchronized void closeAll() {
+        for (SQLiteStatement stmt : statements.values()) stmt.close();
+        statements.clear();
+        boundTo = null;
+    }
+
+    // ── Stats ─────────────────────────────────────────────────────────────
+    public synchronized long getCompileCount() { return compiled; }
+    public synchronized long getReuseCount()   { return reused; }
+
+    /** Fraction of lookups served from the cache (0.0 – 1.0). */
+    public synchronized double getReuseRatio() {
+        long total = compiled + reused;
+        return total == 0 ? 0.0 : reused / (double) total;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "StatementCache{cached=" + statements.size() +
+                ", compiled=" + compiled + ", reused=" + reused + "}";
+    }
+
+    // ── Binding helper: bindString() rejects null, SQL wants NULL ────────
+    static void bindNullable(SQLiteStatement stmt, int index, String value) {
+        if (value == null) stmt.bindNull(index);
+        else               stmt.bindString(index, value);
+    }
+}
@@ -0,0 +1,494 @@
+package com.bankingapp.database;
+
+import android.database.Cursor;
+import android.database.CursorWrapper;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+
+import com.bankingapp.models.Transaction;
+import com.bankingapp.utils.DateTimeHelper;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * TransactionArchive — cold storage for transactions older than the
+ * archive horizon.
+ *
+ * Old rows leave the transactions table (and its indexes and FTS index)
+ * for transaction_archive: compressed blocks of at most
+ * {@link #BATCH_ROWS} rows, each from one user and one month (see
+ * ArchiveBlock). A block is written and its rows deleted in the same
+ * small transaction, so a row is always in exactly one of the two
+ * places and the writer is never held for long. monthly_category_totals
+ * is left alone: archived months keep their Insights totals.
+ *
+ * Reads come through DatabaseHelper, which asks for archived rows only
+ * when the hot table runs out before a page, range or search is full:
+ * {@link #withArchived} decodes just the blocks that could still
+ * contribute. TransactionProvider's arbitrary SQL selections go through
+ * {@link #restore} instead. Archived rows are read-only.
+ */
+final class TransactionArchive {
+
+    /** Rows per block, and per delete transaction. */
+    static final int BATCH_ROWS = 200;
+
+    // Recently decoded blocks: paging back through an old month decodes
+    // each of its blocks once rather than once per page
+    private static final int DECODED_BLOCKS = 16;
+
+    private static final String SQL_INSERT_BLOCK =
+            "INSERT INTO transaction_archive " +
+                    "(user_id, month, first_millis, last_millis, row_count, block) " +
+                    "VALUES (?,?,?,?,?,?)";
+
+    private static final String SQL_DELETE_HOT =
+            "DELETE FROM transactions WHERE id=?";
+
+    // Blocks that can hold a row in [floor, to), newest first; the index
+    // on (user_id, last_millis) serves the range and the order
+    private static final String SQL_BLOCKS =
+            "SELECT id, first_millis, last_millis, user_id FROM transaction_archive " +
+                    "WHERE user_id=? AND last_millis >= ? AND first_millis < ? " +
+                    "ORDER BY last_millis DESC";
+
+    // The same across users, for the provider's all-transactions URI;
+    // no index serves it, but block headers are few and small
+    private static final String SQL_BLOCKS_ALL_USERS =
+            "SELECT id, first_millis, last_millis, user_id FROM transaction_archive " +
+                    "WHERE last_millis >= ? AND first_millis < ? " +
+                    "ORDER BY last_millis DESC";
+
+    /** Newest first, the order of every history list. */
+    static final Comparator<Transaction> NEWEST_FIRST = (a, b) -> {
+        int byTime = Long.compare(b.getTimeMillis(), a.getTimeMillis());
+        return byTime != 0 ? byTime : Integer.compare(b.getId(), a.getId());
+    };
+
+    interface RowFilter {
+        boolean accept(Transaction row);
+    }
+
+    interface RowVisitor {
+        void visit(Transaction row);
+    }
+
+    private final StatementCache statements;
+    private final SlowQueryLog   slowLog;
+    private final Map<Long, List<Transaction>> decoded =
+            new LinkedHashMap<Long, List<Transaction>>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, List<Transaction>> eldest) {
+                    return size() > DECODED_BLOCKS;
+                }
+            };
+
+    TransactionArchive(StatementCache statements, SlowQueryLog slowLog) {
+        this.statements = statements;
+        this.slowLog    = slowLog;
+    }
+
+    // ═════════════════════════════════════════════════════════════════════
+    // ARCHIVING (inside the caller's write transaction)
+    // ═════════════════════════════════════════════════════════════════════
+
+    /**
+     * Moves the oldest rows of {@code userId} before {@code cutoffMillis}
+     * — up to BATCH_ROWS, all from that user's oldest such month — into
+     * one block.
+     *
+     * @return rows moved; 0 once the user has nothing left to archive
+     */
+    int archiveBatch(SQLiteDatabase db, int userId, long cutoffMillis) {
+        List<Transaction> rows = new ArrayList<>(BATCH_ROWS);
+        String month = null;
+        try (Cursor c = db.query("transactions", null,
+                "user_id=? AND time_millis < ?",
+                new String[]{ String.valueOf(userId), String.valueOf(cutoffMillis) },
+                null, null, "time_millis, id", String.valueOf(BATCH_ROWS))) {
+            Transaction.Columns columns = new Transaction.Columns(c);
+            while (c.moveToNext()) {
+                Transaction t = columns.read(c);
+                String rowMonth = DateTimeHelper.toMonthKey(t.getTimeMillis());
+                if (month == null) month = rowMonth;
+                else if (!month.equals(rowMonth)) break;
+                rows.add(t);
+            }
+        }
+        if (rows.isEmpty()) return 0;
+
+        byte[] block = ArchiveBlock.encode(rows);
+        SQLiteStatement insert = statements.get(db, SQL_INSERT_BLOCK);
+        synchronized (insert) {
+            insert.bindLong(1, userId);
+            insert.bindString(2, month);
+            insert.bindLong(3, rows.get(0).getTimeMillis());
+            insert.bindLong(4, rows.get(rows.size() - 1).getTimeMillis());
+            insert.bindLong(5, rows.size());
+            insert.bindBlob(6, block);
+            slowLog.executeInsert(db, SQL_INSERT_BLOCK, insert);
+        }
+        SQLiteStatement delete = statements.get(db, SQL_DELETE_HOT);
+        synchronized (delete) {
+            for (Transaction t : rows) {
+                delete.bindLong(1, t.getId());
+                slowLog.executeUpdateDelete(db, SQL_DELETE_HOT, delete);
+            }
+        }
+        return rows.size();
+    }
+
+    // ═════════════════════════════════════════════════════════════════════
+    // READING
+    // ═════════════════════════════════════════════════════════════════════
+
+    /**
+     * {@code hot}: at most {@code limit} rows from the transactions table,
+     * newest first. Returns the first {@code limit} of those together with
+     * the archived rows in [fromMillis, toMillis) that pass {@code filter}.
+     * When hot is already full, only blocks reaching its oldest row are read.
+     */
+    List<Transaction> withArchived(SQLiteDatabase db, int userId, List<Transaction> hot,
+                                   long fromMillis, long toMillis,
+                                   RowFilter filter, int limit) {
+        long floor = hot.size() >= limit
+                ? hot.get(hot.size() - 1).getTimeMillis()
+                : Long.MIN_VALUE;
+        List<Transaction> archived = newest(db, userId, fromMillis, toMillis, floor,
+                new NotIn(hot, filter), limit);
+        return merge(hot, archived, limit);
+    }
+
+    // A batch archived between the hot read and this one would show up in
+    // both. The id set is built on the first archived row, so a user with
+    // nothing archived never pays for it.
+    private static final class NotIn implements RowFilter {
+        private final List<Transaction> hot;
+        private final RowFilter         filter;
+        private Set<Integer>            ids;
+
+        NotIn(List<Transaction> hot, RowFilter filter) {
+            this.hot    = hot;
+            this.filter = filter;
+        }
+
+        @Override
+        public boolean accept(Transaction row) {
+            if (ids == null) {
+                ids = new HashSet<>();
+                for (Transaction t : hot) ids.add(t.getId());
+            }
+            return !ids.contains(row.getId()) && (filter == null || filter.accept(row));
+        }
+    }
+
+    /**
+     * Up to {@code limit} archived rows of {@code userId} in
+     * [fromMillis, toMillis) that pass {@code filter}, newest first.
+     * Blocks that end before {@code floorMillis} are not opened: the
+     * caller already holds {@code limit} newer rows from the hot table.
+     */
+    List<Transaction> newest(SQLiteDatabase db, int userId, long fromMillis,
+                             long toMillis, long floorMillis,
+                             RowFilter filter, int limit) {
+        List<Transaction> found = new ArrayList<>();
+        if (limit <= 0) return found;
+        long floor = Math.max(fromMillis, floorMillis);
+        try (Cursor blocks = db.rawQuery(SQL_BLOCKS, new String[]{
+                String.valueOf(userId), String.valueOf(floor), String.valueOf(toMillis) })) {
+            while (blocks.moveToNext()) {
+                // Blocks come newest-ending first: once `limit` rows are
+                // newer than everything this block holds, none can follow
+                if (found.size() >= limit
+                        && found.get(limit - 1).getTimeMillis() > blocks.getLong(2)) {
+                    break;
+                }
+                for (Transaction t : block(db, userId, blocks.getLong(0))) {
+                    long time = t.getTimeMillis();
+                    if (time >= fromMillis && time < toMillis
+                            && (filter == null || filter.accept(t))) {
+                        found.add(t);
+                    }
+                }
+                if (found.size() >= limit) {
+                    Collections.sort(found, NEWEST_FIRST);
+                    found.subList(limit, found.size()).clear();
+                }
+            }
+        }
+        Collections.sort(found, NEWEST_FIRST);
+        return found;
+    }
+
+    /** Every archived row of {@code userId} (everyone's when null), block by block. */
+    void forEach(SQLiteDatabase db, Integer userId, RowVisitor visitor) {
+        try (Cursor c = userId == null
+                ? db.rawQuery("SELECT user_id, block FROM transaction_archive", null)
+                : db.rawQuery("SELECT user_id, block FROM transaction_archive WHERE user_id=?",
+                        new String[]{ String.valueOf(userId) })) {
+            while (c.moveToNext()) {
+                for (Transaction t : ArchiveBlock.decode(c.getInt(0), c.getBlob(1))) {
+                    visitor.visit(t);
+                }
+            }
+        }
+    }
+
+    /**
+     * Archived rows of {@code userId} (everyone's when null) in
+     * [fromMillis, toMillis), from just the blocks that overlap it.
+     */
+    void forEachInRange(SQLiteDatabase db, Integer userId, long fromMillis, long toMillis,
+                        RowVisitor visitor) {
+        if (fromMillis >= toMillis) return;
+        try (Cursor blocks = blocksInRange(db, userId, fromMillis, toMillis)) {
+            while (blocks.moveToNext()) {
+                for (Transaction t : block(db, blocks.getInt(3), blocks.getLong(0))) {
+                    long time = t.getTimeMillis();
+                    if (time >= fromMillis && time < toMillis) visitor.visit(t);
+                }
+            }
+        }
+    }
+
+    /** Whether any block of {@code userId} (anyone's when null) overlaps [fromMillis, toMillis). */
+    boolean hasBlocks(SQLiteDatabase db, Integer userId, long fromMillis, long toMillis) {
+        if (fromMillis >= toMillis) return false;
+        try (Cursor blocks = blocksInRange(db, userId, fromMillis, toMillis)) {
+            return blocks.moveToFirst();
+        }
+    }
+
+    private static Cursor blocksInRange(SQLiteDatabase db, Integer userId,
+                                        long fromMillis, long toMillis) {
+        return userId == null
+                ? db.rawQuery(SQL_BLOCKS_ALL_USERS, new String[]{
+                        String.valueOf(fromMillis), String.valueOf(toMillis) })
+                : db.rawQuery(SQL_BLOCKS, new String[]{ String.valueOf(userId),
+                        String.valueOf(fromMillis), String.valueOf(toMillis) });
+    }
+
+    /** Archived rows of {@code userId}, from the block headers alone. */
+    long count(SQLiteDatabase db, int userId) {
+        try (Cursor c = db.rawQuery(
+                "SELECT COALESCE(SUM(row_count), 0) FROM transaction_archive WHERE user_id=?",
+                new String[]{ String.valueOf(userId) })) {
+            return c.moveToFirst() ? c.getLong(0) : 0;
+        }
+    }
+
+    // ── Restore for SQL-level queries ─────────────────────────────────────
+    // Same columns, in the same order, as the live transactions table
+    private static final String CREATE_RESTORED =
+            "CREATE TABLE transactions (" +
+                    "id            INTEGER PRIMARY KEY," +
+                    "user_id       INTEGER NOT NULL," +
+                    "type          TEXT NOT NULL," +
+                    "category      TEXT," +
+                    "amount_paise  INTEGER NOT NULL," +
+                    "description   TEXT," +
+                    "to_from_name  TEXT," +
+                    "to_from_phone TEXT," +
+                    "date_time     TEXT NOT NULL," +
+                    "time_millis   INTEGER NOT NULL DEFAULT 0," +
+                    "latitude      REAL DEFAULT 0.0," +
+                    "longitude     REAL DEFAULT 0.0," +
+                    "status        TEXT DEFAULT 'SUCCESS'" +
+                    ")";
+
+    private static final String SQL_INSERT_RESTORED =
+            "INSERT INTO transactions (id, user_id, type, category, amount_paise, " +
+                    "description, to_from_name, to_from_phone, date_time, time_millis, " +
+                    "latitude, longitude, status) VALUES (?,?,?,?,?,?,?,?,?,?,?,?,?)";
+
+    // The live table's idx_transactions_user_time, built once the rows are
+    // in rather than maintained row by row
+    private static final String CREATE_RESTORED_INDEX =
+            "CREATE INDEX idx_transactions_user_time ON transactions(user_id, time_millis)";
+
+    // Quoted literals and identifiers, blanked before the selection is read
+    private static final Pattern QUOTED =
+            Pattern.compile("'(?:[^']|'')*'|\"(?:[^\"]|\"\")*\"");
+
+    // Anything that could stop an AND-ed term from binding every row:
+    // other boolean operators, subqueries, commas, a parenthesis that is
+    // more than grouping (function calls included), and named or numbered
+    // parameters, which break counting '?' to find an argument
+    private static final Pattern NOT_A_CONJUNCTION = Pattern.compile(
+            "(?i)\\b(?:OR|NOT|IS|IN|BETWEEN|CASE|SELECT|EXISTS)\\b|," +
+                    "|(?<!^)(?<!\\()(?<!\\bAND)\\(|\\)(?!$|\\)|AND\\b)" +
+                    "|\\?\\d|[:@$]\\w");
+
+    private static final Pattern AND = Pattern.compile("(?i)\\bAND\\b");
+
+    private static final Pattern TIME_TERM = Pattern.compile(
+            "(?i)(?:\\w+\\.)?time_millis ?(>=|<=|==|=|>|<) ?(\\?|-?\\d+)");
+
+    /**
+     * [from, to) holding every row {@code selection} can match, read from
+     * its {@code time_millis} comparisons with a '?' or a literal. Only a
+     * plain AND of terms is read; for anything else, or when no term
+     * bounds a side, that side is open (Long.MIN_VALUE / MAX_VALUE).
+     */
+    static long[] timeBounds(String selection, String[] selectionArgs) {
+        long[] bounds = { Long.MIN_VALUE, Long.MAX_VALUE };
+        if (selection == null) return bounds;
+        String text = QUOTED.matcher(selection).replaceAll("''")
+                .replaceAll("\\s+", " ")
+                .replaceAll(" ?([()]) ?", "$1")
+                .trim();
+        if (NOT_A_CONJUNCTION.matcher(text).find()) return bounds;
+
+        int placeholder = 0;
+        for (String term : AND.split(text)) {
+            String bare = term.replaceAll("^[( ]+|[) ]+$", "");
+            Matcher m = TIME_TERM.matcher(bare);
+            Long value = null;
+            if (m.matches()) {
+                String operand = m.group(2);
+                if (!operand.equals("?")) {
+                    value = parseLong(operand);
+                } else if (selectionArgs != null && placeholder < selectionArgs.length) {
+                    value = parseLong(selectionArgs[placeholder]);
+                }
+            }
+            placeholder += SlowQueryLog.placeholders(term);
+            if (value == null) continue;
+
+            long v = value;
+            // An inclusive bound is made exclusive with v + 1; at
+            // MAX_VALUE that would overflow, so the side stays open
+            switch (m.group(1)) {
+                case ">":
+                    if (v < Long.MAX_VALUE) bounds[0] = Math.max(bounds[0], v + 1);
+                    break;
+                case ">=":
+                    bounds[0] = Math.max(bounds[0], v);
+                    break;
+                case "<":
+                    bounds[1] = Math.min(bounds[1], v);
+                    break;
+                case "<=":
+                    if (v < Long.MAX_VALUE) bounds[1] = Math.min(bounds[1], v + 1);
+                    break;
+                default:    // = and ==
+                    bounds[0] = Math.max(bounds[0], v);
+                    if (v < Long.MAX_VALUE) bounds[1] = Math.min(bounds[1], v + 1);
+            }
+        }
+        return bounds;
+    }
+
+    private static Long parseLong(String s) {
+        if (s == null) return null;
+        try {
+            return Long.parseLong(s);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Archived rows of {@code userId} (everyone's when null) in
+     * [fromMillis, toMillis), plus the hot rows that match
+     * {@code selection}, copied into a private in-memory "transactions"
+     * table and queried once with the caller's projection, selection and
+     * order — so any SQL a provider client may send, sorts and aggregates
+     * included, sees one table. The range must hold every row the
+     * selection can match (see {@link #timeBounds}); only blocks that
+     * overlap it are decoded. The caller keeps rows from being archived
+     * meanwhile. Closing the cursor drops the copy.
+     */
+    Cursor restore(SQLiteDatabase db, Integer userId, long fromMillis, long toMillis,
+                   String[] projection, String selection, String[] selectionArgs,
+                   String sortOrder) {
+        SQLiteDatabase memory = SQLiteDatabase.create(null);
+        try {
+            memory.execSQL(CREATE_RESTORED);
+            SQLiteStatement insert = memory.compileStatement(SQL_INSERT_RESTORED);
+            memory.beginTransaction();
+            try {
+                forEachInRange(db, userId, fromMillis, toMillis,
+                        t -> insertRestored(insert, t));
+                try (Cursor hot = db.query("transactions", null, selection, selectionArgs,
+                        null, null, null)) {
+                    Transaction.Columns columns = new Transaction.Columns(hot);
+                    while (hot.moveToNext()) insertRestored(insert, columns.read(hot));
+                }
+                memory.setTransactionSuccessful();
+            } finally {
+                memory.endTransaction();
+                insert.close();
+            }
+            memory.execSQL(CREATE_RESTORED_INDEX);
+            Cursor rows = memory.query("transactions", projection, selection,
+                    selectionArgs, null, null, sortOrder);
+            return new CursorWrapper(rows) {
+                @Override
+                public void close() {
+                    super.close();
+                    memory.close();
+                }
+            };
+        } catch (RuntimeException e) {
+            memory.close();
+            throw e;
+        }
+    }
+
+    private static void insertRestored(SQLiteStatement insert, Transaction t) {
+        insert.clearBindings();
+        insert.bindLong(1, t.getId());
+        insert.bindLong(2, t.getUserId());
+        StatementCache.bindNullable(insert, 3,  t.getType());
+        StatementCache.bindNullable(insert, 4,  t.getCategory());
+        insert.bindLong(5, t.getAmountPaise());
+        StatementCache.bindNullable(insert, 6,  t.getDescription());
+        StatementCache.bindNullable(insert, 7,  t.getToFromName());
+        StatementCache.bindNullable(insert, 8,  t.getToFromPhone());
+        StatementCache.bindNullable(insert, 9,  t.getDateTime());
+        insert.bindLong(10, t.getTimeMillis());
+        insert.bindDouble(11, t.getLatitude());
+        insert.bindDouble(12, t.getLongitude());
+        StatementCache.bindNullable(insert, 13, t.getStatus());
+        insert.executeInsert();
+    }
+
+    /** Both lists newest first; the first {@code limit} rows of the two together. */
+    static List<Transaction> merge(List<Transaction> hot, List<Transaction> archived,
+                                   int limit) {
+        if (archived.isEmpty()) return hot;
+        List<Transaction> all = new ArrayList<>(hot.size() + archived.size());
+        all.addAll(hot);
+        all.addAll(archived);
+        Collections.sort(all, NEWEST_FIRST);
+        return all.size() > limit ? new ArrayList<>(all.subList(0, limit)) : all;
+    }
+
+    // Blocks are never rewritten, so a decoded one stays valid by id
+    private List<Transaction> block(SQLiteDatabase db, int userId, long blockId) {
+        synchronized (decoded) {
+            List<Transaction> rows = decoded.get(blockId);
+            if (rows != null) return rows;
+        }
+        List<Transaction> rows;
+        try (Cursor c = db.rawQuery("SELECT block FROM transaction_archive WHERE id=?",
+                new String[]{ String.valueOf(blockId) })) {
+            if (!c.moveToFirst()) return Collections.emptyList();
+            rows = Collections.unmodifiableList(ArchiveBlock.decode(userId, c.getBlob(0)));
+        }
+        synchronized (decoded) {
+            decoded.put(blockId, rows);
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,23 @@
+package com.bankingapp.database;
+
+import com.bankingapp.models.Transaction;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * TransactionPage — one slice of a user's history plus the token for the
+ * next slice. {@link #next} is null once the history is exhausted.
+ */
+public final class TransactionPage {
+
+    public final List<Transaction> items;
+    public final PageToken         next;
+
+    public TransactionPage(List<Transaction> items, PageToken next) {
+        this.items = Collections.unmodifiableList(items);
+        this.next  = next;
+    }
+
+    public boolean hasMore() { return next != null; }
+}
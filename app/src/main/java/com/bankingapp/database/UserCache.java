@@ -0,0 +1,176 @@
+package com.bankingapp.database;
+
+import android.util.LruCache;
+
+import com.bankingapp.models.User;
+
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * UserCache — recently used users rows, by id and by phone number.
+ *
+ * Sits in front of getUserById, getUserByPhone and getBalance, so a
+ * repeat payee or a counterparty shown in a list is served without a
+ * query. A phone that has no account is remembered too (as
+ * {@link #ABSENT}), which covers repeat payments to outside numbers.
+ *
+ * Entries are dropped exactly when their row changes: the cache observes
+ * the users table through the InvalidationTracker (balance updates,
+ * debits and credits, profile pictures, new users) and registerUser
+ * forgets the "no account" entry for the phone it claims. Invalidation
+ * happens after commit. A read that started before an invalidation is
+ * not cached (see {@link #generation}), so a late put cannot bring an
+ * old row back. Puts and invalidations hold the cache's monitor, so the
+ * generation check and the write it guards cannot straddle an eviction.
+ *
+ * Callers get copies; User is mutable and the cached value must not be.
+ */
+public final class UserCache implements InvalidationTracker.Observer {
+
+    /** Users kept by id; each costs one small row. */
+    static final int MAX_USERS  = 64;
+    /** Phone → id entries, including phones with no account. */
+    static final int MAX_PHONES = 256;
+
+    /** getByPhone() result for a phone known to have no account. */
+    static final User ABSENT = new User();
+
+    private static final int NO_USER = 0;   // ids start at 1
+
+    private final LruCache<Integer, User>   byId;
+    private final LruCache<String, Integer> idByPhone;
+    private final AtomicLong generation = new AtomicLong();
+
+    // ── Counters ──────────────────────────────────────────────────────────
+    private final AtomicLong hits      = new AtomicLong();
+    private final AtomicLong misses    = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    UserCache() {
+        byId = new LruCache<Integer, User>(MAX_USERS) {
+            @Override
+            protected void entryRemoved(boolean evicted, Integer key,
+                                        User oldValue, User newValue) {
+                if (evicted) evictions.incrementAndGet();
+            }
+        };
+        idByPhone = new LruCache<String, Integer>(MAX_PHONES) {
+            @Override
+            protected void entryRemoved(boolean evicted, String key,
+                                        Integer oldValue, Integer newValue) {
+                if (evicted) evictions.incrementAndGet();
+            }
+        };
+    }
+
+    // ═════════════════════════════════════════════════════════════════════
+    // LOOKUPS
+    // ═════════════════════════════════════════════════════════════════════
+
+    /** A copy of the cached user, or null on a miss. */
+    synchronized User getById(int userId) {
+        User user = byId.get(userId);
+        count(user != null);
+        return user != null ? copyOf(user) : null;
+    }
+
+    /** A copy of the cached user, {@link #ABSENT}, or null on a miss. */
+    synchronized User getByPhone(String phone) {
+        Integer id = idByPhone.get(phone);
+        User user = null;
+        if (id != null) user = id == NO_USER ? ABSENT : byId.get(id);
+        count(user != null);
+        if (user == null || user == ABSENT) return user;
+        return copyOf(user);
+    }
+
+    /**
+     * Token for a read about to go to SQLite; pass it to the put that
+     * stores the result. Any invalidation in between voids the put.
+     */
+    long generation() {
+        return generation.get();
+    }
+
+    synchronized void put(User user, long readGeneration) {
+        if (readGeneration != generation.get()) return;
+        byId.put(user.getId(), copyOf(user));
+        if (user.getPhone() != null) idByPhone.put(user.getPhone(), user.getId());
+    }
+
+    synchronized void putAbsent(String phone, long readGeneration) {
+        if (readGeneration != generation.get()) return;
+        idByPhone.put(phone, NO_USER);
+    }
+
+    // ═════════════════════════════════════════════════════════════════════
+    // INVALIDATION
+    // ═════════════════════════════════════════════════════════════════════
+
+    /** The row for {@code userId} changed. Phones never change, so the index stays. */
+    synchronized void evict(int userId) {
+        generation.incrementAndGet();
+        byId.remove(userId);
+    }
+
+    /** {@code phone} now belongs to an account. */
+    synchronized void forgetPhone(String phone) {
+        generation.incrementAndGet();
+        idByPhone.remove(phone);
+    }
+
+    synchronized void clear() {
+        generation.incrementAndGet();
+        byId.evictAll();
+        idByPhone.evictAll();
+    }
+
+    // Keys are "users" (every row) or "users/<id>" (see InvalidationTracker)
+    @Override
+    public void onInvalidated(Set<String> changedKeys) {
+        for (String key : changedKeys) {
+            if (key.equals(InvalidationTracker.USERS)) {
+                clear();
+                return;
+            }
+            String prefix = InvalidationTracker.USERS + "/";
+            if (key.startsWith(prefix)) evict(Integer.parseInt(key.substring(prefix.length())));
+        }
+    }
+
+    // ── Stats ─────────────────────────────────────────────────────────────
+    public long getHitCount()      { return hits.get(); }
+    public long getMissCount()     { return misses.get(); }
+    public long getEvictionCount() { return evictions.get(); }
+
+    /** Fraction of lookups served from the cache (0.0 – 1.0). */
+    public double getHitRatio() {
+        long h = hits.get(), total = h + misses.get();
+        return total == 0 ? 0.0 : h / (double) total;
+    }
+
+    @Override
+    public String toString() {
+        return "UserCache{users=" + byId.size() + ", phones=" + idByPhone.size() +
+                ", hits=" + hits.get() + ", misses=" + misses.get() +
+                ", evictions=" + evictions.get() + "}";
+    }
+
+    private void count(boolean hit) {
+        (hit ? hits : misses).incrementAndGet();
+    }
+
+    private static User copyOf(User u) {
+        User c = new User();
+        c.setId(u.getId());
+        c.setUsername(u.getUsername());
+        c.setFullName(u.getFullName());
+        c.setPhone(u.getPhone());
+        c.setAccountNo(u.getAccountNo());
+        c.setBalancePaise(u.getBalancePaise());
+        c.setProfilePicPath(u.getProfilePicPath());
+        c.setCreatedAt(u.getCreatedAt());
+        return c;
+    }
+}
@@ -0,0 +1,147 @@
+package com.bankingapp.database;
+
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+
+import com.bankingapp.utils.BloomFilter;
+
+import java.util.Locale;
+
+/**
+ * UserKeyFilter — Bloom filters over users.username and users.phone, so
+ * an availability check for a name nobody has taken never queries.
+ *
+ * "Not in the filter" is a definite answer and isUsernameExists /
+ * isPhoneExists return false straight away; "maybe" falls through to the
+ * indexed lookup. The UNIQUE constraints still guard the insert, so a
+ * wrong filter could only cost a failed registration, never a duplicate.
+ *
+ * Built lazily by the first check with one scan of the users table, and
+ * kept current by registerUser after its commit. If more users arrive
+ * than it was sized for, it is rebuilt at twice the row count on the
+ * next check. Size and target false positive rate are set with
+ * {@link #configure}; the actual rate is measured and reported.
+ */
+public final class UserKeyFilter {
+
+    static final int    DEFAULT_EXPECTED_USERS      = 10_000;
+    static final double DEFAULT_FALSE_POSITIVE_RATE = 0.01;
+
+    private int    expectedUsers     = DEFAULT_EXPECTED_USERS;
+    private double falsePositiveRate = DEFAULT_FALSE_POSITIVE_RATE;
+
+    private BloomFilter usernames;   // both null until the first check
+    private BloomFilter phones;
+
+    // ── Counters ──────────────────────────────────────────────────────────
+    private long skipped;          // definite negatives: no query
+    private long queried;          // "maybe": fell through to SQLite
+    private long falsePositives;   // ...and SQLite said no
+    private long builds;
+
+    UserKeyFilter() {}
+
+    /**
+     * Resizes the filters; they are rebuilt on the next check. At ~10 bits
+     * per user for 1%, the default 10,000 users cost about 12 KB each.
+     */
+    public synchronized void configure(int expectedUsers, double falsePositiveRate) {
+        new BloomFilter(expectedUsers, falsePositiveRate);   // validates the arguments
+        this.expectedUsers     = expectedUsers;
+        this.falsePositiveRate = falsePositiveRate;
+        usernames = null;
+        phones    = null;
+    }
+
+    // ═════════════════════════════════════════════════════════════════════
+    // CHECKS (called by DatabaseHelper)
+    // ═════════════════════════════════════════════════════════════════════
+
+    /** False means no user has {@code username}; true means look it up. */
+    synchronized boolean mightHaveUsername(SQLiteDatabase db, String username) {
+        ensureBuilt(db);
+        return count(usernames.mightContain(username));
+    }
+
+    /** False means no user has {@code phone}; true means look it up. */
+    synchronized boolean mightHavePhone(SQLiteDatabase db, String phone) {
+        ensureBuilt(db);
+        return count(phones.mightContain(phone));
+    }
+
+    /** The lookup after a "maybe" found nothing. */
+    synchronized void recordFalsePositive() {
+        falsePositives++;
+    }
+
+    /** A user was committed; call after the transaction ends. */
+    synchronized void add(String username, String phone) {
+        if (usernames == null) return;   // the next build's scan sees the row
+        usernames.put(username);
+        phones.put(phone);
+        if (usernames.isOverCapacity()) {
+            usernames = null;            // rebuild bigger on the next check
+            phones    = null;
+        }
+    }
+
+    // One scan of the users table; holding the lock means a registration
+    // committed during the scan is added after it, not lost
+    private void ensureBuilt(SQLiteDatabase db) {
+        if (usernames != null) return;
+        Cursor cursor = db.rawQuery("SELECT username, phone FROM users", null);
+        try {
+            int capacity = Math.max(expectedUsers, cursor.getCount() * 2);
+            usernames = new BloomFilter(capacity, falsePositiveRate);
+            phones    = new BloomFilter(capacity, falsePositiveRate);
+            while (cursor.moveToNext()) {
+                usernames.put(cursor.getString(0));
+                phones.put(cursor.getString(1));
+            }
+        } finally {
+            cursor.close();
+        }
+        builds++;
+    }
+
+    private boolean count(boolean maybe) {
+        if (maybe) queried++;
+        else       skipped++;
+        return maybe;
+    }
+
+    // ── Stats ─────────────────────────────────────────────────────────────
+    public synchronized long getSkippedCount()       { return skipped; }
+    public synchronized long getQueriedCount()       { return queried; }
+    public synchronized long getFalsePositiveCount() { return falsePositives; }
+    public synchronized long getBuildCount()         { return builds; }
+
+    /** Bytes held by both filters; 0 before the first check. */
+    public synchronized long getMemoryBytes() {
+        return usernames == null ? 0 : usernames.getMemoryBytes() + phones.getMemoryBytes();
+    }
+
+    /** Theoretical rate at the current fill (see BloomFilter). */
+    public synchronized double getEstimatedFalsePositiveRate() {
+        return usernames == null ? 0.0 : usernames.getEstimatedFalsePositiveRate();
+    }
+
+    /**
+     * Measured rate: "maybe" answers SQLite turned down, over all checks
+     * for keys that were not taken.
+     */
+    public synchronized double getObservedFalsePositiveRate() {
+        long negatives = skipped + falsePositives;
+        return negatives == 0 ? 0.0 : falsePositives / (double) negatives;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format(Locale.US,
+                "UserKeyFilter{bytes=%d, skipped=%d, queried=%d, falsePositives=%d, " +
+                        "fpp=%.4f est / %.4f observed (target %.4f), builds=%d}",
+                getMemoryBytes(), skipped, queried, falsePositives,
+                getEstimatedFalsePositiveRate(), getObservedFalsePositiveRate(),
+                falsePositiveRate, builds);
+    }
+}
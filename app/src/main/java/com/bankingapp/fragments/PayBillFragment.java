@@ -23,8 +23,9 @@ import androidx.fragment.app.Fragment;
 import com.bankingapp.R;
 import com.bankingapp.activities.DashboardActivity;
 import com.bankingapp.activities.SettingsActivity;
-import com.bankingapp.database.DatabaseHelper;
+import com.bankingapp.database.AsyncDataRepository;
 import com.bankingapp.models.Bill;
+import com.bankingapp.models.Money;
 import com.bankingapp.utils.NotificationHelper;
 import com.bankingapp.utils.SessionManager;
 import com.bankingapp.utils.TransactionManager;
@@ -41,7 +42,7 @@ public class PayBillFragment extends Fragment {
     // ── Helpers ───────────────────────────────────────────────────────────
     private TransactionManager txnManager;
     private SessionManager     session;
-    private DatabaseHelper     db;
+    private AsyncDataRepository db;
 
     // Bill types shown in Spinner
     private final String[] BILL_TYPES = {
@@ -64,7 +65,7 @@ public class PayBillFragment extends Fragment {
 
         txnManager = new TransactionManager(requireContext());
         session    = new SessionManager(requireContext());
-        db         = new DatabaseHelper(requireContext());
+        db         = AsyncDataRepository.getInstance(requireContext());
 
         // Bind views
         spinnerBillType        = view.findViewById(R.id.spinnerBillType);
@@ -84,9 +85,10 @@ public class PayBillFragment extends Fragment {
         spinnerBillType.setAdapter(spinnerAdapter);
 
         // Show available balance
-        double balance = db.getBalance(session.getUserId());
-        tvBillAvailableBalance.setText(String.format(
-                "Available Balance: ₹ %,.2f", balance));
+        int userId = session.getUserId();
+        db.read(getViewLifecycleOwner(), repo -> repo.getBalance(userId),
+                balance -> tvBillAvailableBalance.setText(
+                        "Available Balance: " + Money.format(balance)));
 
         // Button listeners
         btnPayNow.setOnClickListener(v -> handlePay());
@@ -121,9 +123,9 @@ public class PayBillFragment extends Fragment {
             return;
         }
 
-        double amount;
+        long amount;   // paise
         try {
-            amount = Double.parseDouble(amtStr);
+            amount = Money.parse(amtStr);
         } catch (NumberFormatException e) {
             etBillAmount.setError("Invalid amount");
             return;
@@ -131,8 +133,8 @@ public class PayBillFragment extends Fragment {
 
         // Confirm dialog
         String message = String.format(
-                "Pay ₹%,.2f for %s?\nPayment via: %s",
-                amount, billType, paymentMethod);
+                "Pay %s for %s?\nPayment via: %s",
+                Money.format(amount), billType, paymentMethod);
 
         new AlertDialog.Builder(requireContext())
                 .setTitle("Confirm Bill Payment")
@@ -145,9 +147,21 @@ public class PayBillFragment extends Fragment {
                 .show();
     }
 
-    private void processBillPayment(String billType, double amount) {
-        TransactionManager.Result result = txnManager.payBill(billType, amount);
+    private void processBillPayment(String billType, long amount) {
+        btnPayNow.setEnabled(false);
+        db.write(getViewLifecycleOwner(), repo -> txnManager.payBill(billType, amount),
+                result -> {
+                    btnPayNow.setEnabled(true);
+                    onBillPaid(billType, amount, result);
+                }, error -> {
+                    // Nothing was committed: the payment is one transaction
+                    btnPayNow.setEnabled(true);
+                    Toast.makeText(requireContext(), "Payment failed. Please try again.",
+                            Toast.LENGTH_LONG).show();
+                });
+    }
 
+    private void onBillPaid(String billType, long amount, TransactionManager.Result result) {
         if (result.success) {
             // ── Fire bill-paid notification if user enabled it ────────────
             SharedPreferences prefs = requireContext()
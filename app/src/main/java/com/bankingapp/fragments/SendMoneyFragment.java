@@ -28,7 +28,8 @@ import androidx.fragment.app.Fragment;
 import com.bankingapp.R;
 import com.bankingapp.activities.DashboardActivity;
 import com.bankingapp.activities.SettingsActivity;
-import com.bankingapp.database.DatabaseHelper;
+import com.bankingapp.database.AsyncDataRepository;
+import com.bankingapp.models.Money;
 import com.bankingapp.services.TransactionService;
 import com.bankingapp.utils.LocationHelper;
 import com.bankingapp.utils.NotificationHelper;
@@ -61,7 +62,7 @@ public class SendMoneyFragment extends Fragment {
     // ── Helpers ───────────────────────────────────────────────────────────
     private TransactionManager txnManager;
     private SessionManager     session;
-    private DatabaseHelper     db;
+    private AsyncDataRepository db;
     private LocationHelper     locationHelper;
 
     @Nullable
@@ -74,7 +75,7 @@ public class SendMoneyFragment extends Fragment {
 
         txnManager     = new TransactionManager(requireContext());
         session        = new SessionManager(requireContext());
-        db             = new DatabaseHelper(requireContext());
+        db             = AsyncDataRepository.getInstance(requireContext());
         locationHelper = new LocationHelper(requireContext());
         locationHelper.startUpdates();
 
@@ -96,9 +97,10 @@ public class SendMoneyFragment extends Fragment {
             btnMicRecipient.setOnClickListener(v -> startSpeechForRecipient());
         }
 
-        double balance = db.getBalance(session.getUserId());
-        tvAvailableBalance.setText(String.format(
-                "Available Balance: ₹ %,.2f", balance));
+        int userId = session.getUserId();
+        db.read(getViewLifecycleOwner(), repo -> repo.getBalance(userId),
+                balance -> tvAvailableBalance.setText(
+                        "Available Balance: " + Money.format(balance)));
 
         btnSend.setOnClickListener(v -> handleSend());
 
@@ -137,9 +139,9 @@ public class SendMoneyFragment extends Fragment {
             etAmount.requestFocus();
             return;
         }
-        double amount;
+        long amount;   // paise
         try {
-            amount = Double.parseDouble(amtStr);
+            amount = Money.parse(amtStr);
         } catch (NumberFormatException e) {
             etAmount.setError("Invalid amount");
             return;
@@ -147,11 +149,12 @@ public class SendMoneyFragment extends Fragment {
         showConfirmDialog(phone, amount);
     }
 
-    private void showConfirmDialog(String phone, double amount) {
+    private void showConfirmDialog(String phone, long amount) {
         new AlertDialog.Builder(requireContext())
                 .setTitle(getString(R.string.dlg_confirm_title))
                 .setMessage(String.format(
-                        "Send ₹%,.2f to %s?\n\nThis cannot be undone.", amount, phone))
+                        "Send %s to %s?\n\nThis cannot be undone.",
+                        Money.format(amount), phone))
                 .setIcon(android.R.drawable.ic_dialog_info)
                 .setPositiveButton("Confirm", (d, w) -> processSend(phone, amount))
                 .setNegativeButton(getString(R.string.dlg_cancel),
@@ -159,12 +162,25 @@ public class SendMoneyFragment extends Fragment {
                 .show();
     }
 
-    private void processSend(String phone, double amount) {
+    private void processSend(String phone, long amount) {
         double lat = locationHelper.getLatitude();
         double lng = locationHelper.getLongitude();
 
-        TransactionManager.Result result = txnManager.sendMoney(phone, amount, lat, lng);
+        btnSend.setEnabled(false);
+        db.write(getViewLifecycleOwner(),
+                repo -> txnManager.sendMoney(phone, amount, lat, lng),
+                result -> {
+                    btnSend.setEnabled(true);
+                    onSendResult(phone, amount, result);
+                }, error -> {
+                    // Nothing was committed: the transfer is one transaction
+                    btnSend.setEnabled(true);
+                    Toast.makeText(requireContext(), "Transfer failed. Please try again.",
+                            Toast.LENGTH_LONG).show();
+                });
+    }
 
+    private void onSendResult(String phone, long amount, TransactionManager.Result result) {
         if (result.success) {
 
             // ── Notifications (respect user preferences) ──────────────────
@@ -181,7 +197,7 @@ public class SendMoneyFragment extends Fragment {
             // ── Background service for async processing ───────────────────
             Intent serviceIntent = new Intent(getContext(), TransactionService.class);
             serviceIntent.setAction(TransactionService.ACTION_PROCESS_TRANSACTION);
-            serviceIntent.putExtra(TransactionService.EXTRA_AMOUNT, amount);
+            serviceIntent.putExtra(TransactionService.EXTRA_AMOUNT, Money.toRupees(amount));
             serviceIntent.putExtra(TransactionService.EXTRA_TYPE, "SENT");
             serviceIntent.putExtra(TransactionService.EXTRA_USER_ID, session.getUserId());
             requireContext().startService(serviceIntent);
@@ -2,9 +2,7 @@ package com.bankingapp.models;
 
 import android.database.Cursor;
 
-import java.text.SimpleDateFormat;
-import java.util.Date;
-import java.util.Locale;
+import com.bankingapp.utils.DateTimeHelper;
 
 public class Bill {
 
@@ -18,35 +16,67 @@ public class Bill {
     private int    id;
     private int    userId;
     private String billType;
-    private double amount;
+    private long   amountPaise;
     private String paidAt;
     private String status;
 
     // Constructor for new bill payment
-    public Bill(int userId, String billType, double amount) {
+    public Bill(int userId, String billType, long amountPaise) {
         this.userId   = userId;
         this.billType = billType;
-        this.amount   = amount;
-        this.paidAt   = new SimpleDateFormat(
-                "yyyy-MM-dd HH:mm:ss", Locale.getDefault()).format(new Date());
+        this.amountPaise = amountPaise;
+        this.paidAt   = DateTimeHelper.nowForDb();
         this.status   = STATUS_PAID;
     }
 
+    // Full-row constructor (a stored row rebuilt outside a Cursor)
+    public Bill(int id, int userId, String billType, long amountPaise,
+                String paidAt, String status) {
+        this.id          = id;
+        this.userId      = userId;
+        this.billType    = billType;
+        this.amountPaise = amountPaise;
+        this.paidAt      = paidAt;
+        this.status      = status;
+    }
+
     // Cursor constructor
     public Bill(Cursor cursor) {
-        this.id       = cursor.getInt(cursor.getColumnIndexOrThrow("id"));
-        this.userId   = cursor.getInt(cursor.getColumnIndexOrThrow("user_id"));
-        this.billType = cursor.getString(cursor.getColumnIndexOrThrow("bill_type"));
-        this.amount   = cursor.getDouble(cursor.getColumnIndexOrThrow("amount"));
-        this.paidAt   = cursor.getString(cursor.getColumnIndexOrThrow("paid_at"));
-        this.status   = cursor.getString(cursor.getColumnIndexOrThrow("status"));
+        this(cursor, new Columns(cursor));
+    }
+
+    private Bill(Cursor cursor, Columns col) {
+        this.id          = CursorColumns.getInt(cursor, col.id);
+        this.userId      = CursorColumns.getInt(cursor, col.userId);
+        this.billType    = CursorColumns.getString(cursor, col.billType);
+        this.amountPaise = CursorColumns.getLong(cursor, col.amountPaise);
+        this.paidAt      = CursorColumns.getString(cursor, col.paidAt);
+        this.status      = CursorColumns.getString(cursor, col.status);
+    }
+
+    // Column indexes, resolved once per cursor
+    public static final class Columns {
+        final int id, userId, billType, amountPaise, paidAt, status;
+
+        public Columns(Cursor cursor) {
+            id          = cursor.getColumnIndex("id");
+            userId      = cursor.getColumnIndex("user_id");
+            billType    = cursor.getColumnIndex("bill_type");
+            amountPaise = cursor.getColumnIndex("amount_paise");
+            paidAt      = cursor.getColumnIndex("paid_at");
+            status      = cursor.getColumnIndex("status");
+        }
+
+        public Bill read(Cursor cursor) {
+            return new Bill(cursor, this);
+        }
     }
 
     // Getters
     public int    getId()       { return id; }
     public int    getUserId()   { return userId; }
     public String getBillType() { return billType; }
-    public double getAmount()   { return amount; }
+    public long   getAmountPaise() { return amountPaise; }
     public String getPaidAt()   { return paidAt; }
     public String getStatus()   { return status; }
 }
@@ -0,0 +1,33 @@
+package com.bankingapp.models;
+
+import android.database.Cursor;
+
+/**
+ * CursorColumns — null-safe reads for projection-aware row mapping.
+ *
+ * Each model's Columns class resolves its column indexes once per cursor
+ * with getColumnIndex(); a column left out of the projection comes back
+ * as -1 and the matching field keeps its default instead of throwing.
+ */
+final class CursorColumns {
+
+    static final int ABSENT = -1;
+
+    private CursorColumns() {}
+
+    static int getInt(Cursor c, int index) {
+        return index == ABSENT ? 0 : c.getInt(index);
+    }
+
+    static long getLong(Cursor c, int index) {
+        return index == ABSENT ? 0L : c.getLong(index);
+    }
+
+    static double getDouble(Cursor c, int index) {
+        return index == ABSENT ? 0.0 : c.getDouble(index);
+    }
+
+    static String getString(Cursor c, int index) {
+        return index == ABSENT ? null : c.getString(index);
+    }
+}
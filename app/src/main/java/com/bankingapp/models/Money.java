@@ -0,0 +1,129 @@
+package com.bankingapp.models;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Money — exact fixed-point rupee amounts held as a long count of paise.
+ *
+ * Every amount in the app (balances, transactions, bills, goals) is
+ * stored, summed and compared in paise so aggregates never pick up
+ * floating-point rounding error. Doubles only appear at the edges:
+ * when parsing user input and when drawing charts.
+ *
+ * The static long helpers are allocation-free and are what hot paths
+ * (TransactionManager, DatabaseHelper) use. The Money instance wrapper
+ * is for code that wants a typed value to pass around.
+ */
+public final class Money implements Comparable<Money> {
+
+    public static final long PAISE_PER_RUPEE = 100L;
+
+    public static final Money ZERO = new Money(0L);
+
+    private final long paise;
+
+    private Money(long paise) {
+        this.paise = paise;
+    }
+
+    // ── Factories ─────────────────────────────────────────────────────────
+    public static Money ofPaise(long paise) {
+        return paise == 0L ? ZERO : new Money(paise);
+    }
+
+    public static Money ofRupees(long rupees) {
+        return ofPaise(Math.multiplyExact(rupees, PAISE_PER_RUPEE));
+    }
+
+    // ── Instance API ──────────────────────────────────────────────────────
+    public long    paise()               { return paise; }
+    public Money   plus(Money other)     { return ofPaise(add(paise, other.paise)); }
+    public Money   minus(Money other)    { return ofPaise(subtract(paise, other.paise)); }
+    public boolean isNegative()          { return paise < 0L; }
+    public boolean isZero()              { return paise == 0L; }
+    public double  toRupees()            { return toRupees(paise); }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(paise, other.paise);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Money && ((Money) o).paise == paise;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(paise);
+    }
+
+    /** "₹ 1,234.50" — same shape the UI already shows. */
+    @Override
+    public String toString() {
+        return format(paise);
+    }
+
+    // ═════════════════════════════════════════════════════════════════════
+    // ALLOCATION-FREE HELPERS (operate on raw paise)
+    // ═════════════════════════════════════════════════════════════════════
+
+    /** Overflow-checked addition. */
+    public static long add(long a, long b) {
+        return Math.addExact(a, b);
+    }
+
+    /** Overflow-checked subtraction. */
+    public static long subtract(long a, long b) {
+        return Math.subtractExact(a, b);
+    }
+
+    /** {@code paise * numerator / denominator}, rounded half-up. */
+    public static long percentOf(long paise, long numerator, long denominator) {
+        long product = Math.multiplyExact(paise, numerator);
+        long half    = denominator / 2;
+        return product >= 0 ? (product + half) / denominator
+                            : (product - half) / denominator;
+    }
+
+    /** Rupees (possibly fractional) for display-only code such as charts. */
+    public static double toRupees(long paise) {
+        return paise / (double) PAISE_PER_RUPEE;
+    }
+
+    /** Nearest paise for a rupee amount held in a double. */
+    public static long fromRupees(double rupees) {
+        return Math.round(rupees * PAISE_PER_RUPEE);
+    }
+
+    /**
+     * Parses user input such as "1500", "99.5" or "1,200.75" into paise.
+     *
+     * @throws NumberFormatException if the text is not a number or has
+     *                               more than two decimal places
+     */
+    public static long parse(String text) {
+        if (text == null) throw new NumberFormatException("null amount");
+        BigDecimal rupees = new BigDecimal(text.trim().replace(",", ""));
+        try {
+            return rupees.setScale(2, RoundingMode.UNNECESSARY)
+                    .movePointRight(2)
+                    .longValueExact();
+        } catch (ArithmeticException e) {
+            throw new NumberFormatException("Invalid amount: " + text);
+        }
+    }
+
+    /** "1,234.50" — grouped rupees with exactly two paise digits. */
+    public static String formatPlain(long paise) {
+        long abs = Math.abs(paise);
+        return String.format("%s%,d.%02d", paise < 0 ? "-" : "",
+                abs / PAISE_PER_RUPEE, abs % PAISE_PER_RUPEE);
+    }
+
+    /** "₹ 1,234.50" */
+    public static String format(long paise) {
+        return "₹ " + formatPlain(paise);
+    }
+}
@@ -0,0 +1,45 @@
+package com.bankingapp.models;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * MonthSummary — one user's totals for one "yyyy-MM" month.
+ *
+ * Immutable: built once by IDataRepository.getMonthSummary() and handed
+ * straight to InsightsActivity and SpendingChartView. All amounts are
+ * exact paise (see Money). "Spent" means SENT + BILL_PAYMENT.
+ */
+public final class MonthSummary {
+
+    public final String month;
+    public final long   spentPaise;
+    public final long   receivedPaise;
+    public final int    spentCount;
+    public final int    receivedCount;
+
+    /** Spent paise per category, in category order. */
+    public final Map<String, Long>    spendingByCategory;
+    /** Spent transaction count per category, same keys as above. */
+    public final Map<String, Integer> countByCategory;
+
+    public MonthSummary(String month, long spentPaise, long receivedPaise,
+                        int spentCount, int receivedCount,
+                        Map<String, Long> spendingByCategory,
+                        Map<String, Integer> countByCategory) {
+        this.month              = month;
+        this.spentPaise         = spentPaise;
+        this.receivedPaise      = receivedPaise;
+        this.spentCount         = spentCount;
+        this.receivedCount      = receivedCount;
+        this.spendingByCategory = Collections.unmodifiableMap(
+                new LinkedHashMap<>(spendingByCategory));
+        this.countByCategory    = Collections.unmodifiableMap(
+                new LinkedHashMap<>(countByCategory));
+    }
+
+    public int     getTransactionCount() { return spentCount + receivedCount; }
+    public long    getNetPaise()         { return receivedPaise - spentPaise; }
+    public boolean isEmpty()             { return getTransactionCount() == 0; }
+}
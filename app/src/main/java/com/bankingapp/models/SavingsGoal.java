@@ -7,44 +7,77 @@ public class SavingsGoal {
     private int    id;
     private int    userId;
     private String goalName;
-    private double targetAmount;
-    private double currentAmount;
+    private long   targetPaise;
+    private long   currentPaise;
     private String createdAt;
 
     // Constructor for new goal
-    public SavingsGoal(int userId, String goalName, double targetAmount) {
+    public SavingsGoal(int userId, String goalName, long targetPaise) {
         this.userId        = userId;
         this.goalName      = goalName;
-        this.targetAmount  = targetAmount;
-        this.currentAmount = 0.0;
+        this.targetPaise   = targetPaise;
+        this.currentPaise  = 0L;
+    }
+
+    // Full-row constructor (a stored row rebuilt outside a Cursor)
+    public SavingsGoal(int id, int userId, String goalName, long targetPaise,
+                       long currentPaise, String createdAt) {
+        this.id           = id;
+        this.userId       = userId;
+        this.goalName     = goalName;
+        this.targetPaise  = targetPaise;
+        this.currentPaise = currentPaise;
+        this.createdAt    = createdAt;
     }
 
     // Cursor constructor
     public SavingsGoal(Cursor cursor) {
-        this.id            = cursor.getInt(cursor.getColumnIndexOrThrow("id"));
-        this.userId        = cursor.getInt(cursor.getColumnIndexOrThrow("user_id"));
-        this.goalName      = cursor.getString(cursor.getColumnIndexOrThrow("goal_name"));
-        this.targetAmount  = cursor.getDouble(cursor.getColumnIndexOrThrow("target_amount"));
-        this.currentAmount = cursor.getDouble(cursor.getColumnIndexOrThrow("current_amount"));
-        this.createdAt     = cursor.getString(cursor.getColumnIndexOrThrow("created_at"));
+        this(cursor, new Columns(cursor));
+    }
+
+    private SavingsGoal(Cursor cursor, Columns col) {
+        this.id            = CursorColumns.getInt(cursor, col.id);
+        this.userId        = CursorColumns.getInt(cursor, col.userId);
+        this.goalName      = CursorColumns.getString(cursor, col.goalName);
+        this.targetPaise   = CursorColumns.getLong(cursor, col.targetPaise);
+        this.currentPaise  = CursorColumns.getLong(cursor, col.currentPaise);
+        this.createdAt     = CursorColumns.getString(cursor, col.createdAt);
+    }
+
+    // Column indexes, resolved once per cursor
+    public static final class Columns {
+        final int id, userId, goalName, targetPaise, currentPaise, createdAt;
+
+        public Columns(Cursor cursor) {
+            id           = cursor.getColumnIndex("id");
+            userId       = cursor.getColumnIndex("user_id");
+            goalName     = cursor.getColumnIndex("goal_name");
+            targetPaise  = cursor.getColumnIndex("target_paise");
+            currentPaise = cursor.getColumnIndex("current_paise");
+            createdAt    = cursor.getColumnIndex("created_at");
+        }
+
+        public SavingsGoal read(Cursor cursor) {
+            return new SavingsGoal(cursor, this);
+        }
     }
 
     // Getters
     public int    getId()            { return id; }
     public int    getUserId()        { return userId; }
     public String getGoalName()      { return goalName; }
-    public double getTargetAmount()  { return targetAmount; }
-    public double getCurrentAmount() { return currentAmount; }
+    public long   getTargetPaise()   { return targetPaise; }
+    public long   getCurrentPaise()  { return currentPaise; }
     public String getCreatedAt()     { return createdAt; }
 
     // Setters
-    public void setCurrentAmount(double currentAmount) {
-        this.currentAmount = currentAmount;
+    public void setCurrentPaise(long currentPaise) {
+        this.currentPaise = currentPaise;
     }
 
     // Progress percentage (0–100)
     public int getProgressPercent() {
-        if (targetAmount <= 0) return 0;
-        return (int) Math.min(100, (currentAmount / targetAmount) * 100);
+        if (targetPaise <= 0) return 0;
+        return (int) Math.min(100, currentPaise * 100 / targetPaise);
     }
 }
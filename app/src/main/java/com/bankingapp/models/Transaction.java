@@ -24,59 +24,123 @@ public class Transaction {
     public static final String STATUS_SUCCESS = "SUCCESS";
     public static final String STATUS_FAILED  = "FAILED";
 
+    // ── Projections ───────────────────────────────────────────────────────
+    // Just what a list row draws, plus the (time_millis, id) paging key.
+    // Fields outside the projection stay null / 0.
+    public static final String[] LIST_COLUMNS = {
+            "id", "type", "description", "amount_paise", "date_time", "time_millis"
+    };
+
     // ── Fields ────────────────────────────────────────────────────────────
     private int    id;
     private int    userId;
     private String type;
     private String category;
-    private double amount;
+    private long   amountPaise;  // exact — see Money
     private String description;
     private String toFromName;   // recipient name (SENT) or sender name (RECEIVED)
     private String toFromPhone;  // recipient/sender phone
     private String dateTime;     // 'yyyy-MM-dd HH:mm:ss'
+    private long   timeMillis;   // epoch millis — what queries filter/sort on
     private double latitude;
     private double longitude;
     private String status;
 
     // ── Constructor for NEW transactions (auto-sets dateTime + status) ─────
     public Transaction(int userId, String type, String category,
-                       double amount, String description,
+                       long amountPaise, String description,
                        String toFromName, double lat, double lng) {
         this.userId      = userId;
         this.type        = type;
         this.category    = category;
-        this.amount      = amount;
+        this.amountPaise = amountPaise;
         this.description = description;
         this.toFromName  = toFromName;
         this.latitude    = lat;
         this.longitude   = lng;
         this.status      = "SUCCESS";
 
-        // Use DateTimeHelper for consistent formatting across the app
-        this.dateTime = DateTimeHelper.nowForDb();  // "yyyy-MM-dd HH:mm:ss"
+        // Both columns come from the same instant
+        this.timeMillis = System.currentTimeMillis();
+        this.dateTime   = DateTimeHelper.toDbFormat(timeMillis);  // "yyyy-MM-dd HH:mm:ss"
+    }
+
+    // ── Full-row constructor (a stored row rebuilt outside a Cursor) ──────
+    public Transaction(int id, int userId, String type, String category,
+                       long amountPaise, String description,
+                       String toFromName, String toFromPhone,
+                       String dateTime, long timeMillis,
+                       double latitude, double longitude, String status) {
+        this.id          = id;
+        this.userId      = userId;
+        this.type        = type;
+        this.category    = category;
+        this.amountPaise = amountPaise;
+        this.description = description;
+        this.toFromName  = toFromName;
+        this.toFromPhone = toFromPhone;
+        this.dateTime    = dateTime;
+        this.timeMillis  = timeMillis;
+        this.latitude    = latitude;
+        this.longitude   = longitude;
+        this.status      = status;
     }
 
     // In getFormattedDateTime() — convert to display format for UI:
     public String getFormattedDateTime() {
-        return DateTimeHelper.toDisplayFormat(this.dateTime);
+        return DateTimeHelper.toDisplayFormat(this.timeMillis);
         // e.g. "19 Feb 2026, 10:30 AM"
     }
 
 
     // ── Cursor Constructor (maps SQLite row → Transaction object) ─────────
+    // One-off reads only; loops should resolve a Columns once and reuse it.
     public Transaction(Cursor cursor) {
-        this.id          = cursor.getInt(cursor.getColumnIndexOrThrow("id"));
-        this.userId      = cursor.getInt(cursor.getColumnIndexOrThrow("user_id"));
-        this.type        = cursor.getString(cursor.getColumnIndexOrThrow("type"));
-        this.category    = cursor.getString(cursor.getColumnIndexOrThrow("category"));
-        this.amount      = cursor.getDouble(cursor.getColumnIndexOrThrow("amount"));
-        this.description = cursor.getString(cursor.getColumnIndexOrThrow("description"));
-        this.toFromName  = cursor.getString(cursor.getColumnIndexOrThrow("to_from_name"));
-        this.toFromPhone = cursor.getString(cursor.getColumnIndexOrThrow("to_from_phone"));
-        this.dateTime    = cursor.getString(cursor.getColumnIndexOrThrow("date_time"));
-        this.latitude    = cursor.getDouble(cursor.getColumnIndexOrThrow("latitude"));
-        this.longitude   = cursor.getDouble(cursor.getColumnIndexOrThrow("longitude"));
-        this.status      = cursor.getString(cursor.getColumnIndexOrThrow("status"));
+        this(cursor, new Columns(cursor));
+    }
+
+    private Transaction(Cursor cursor, Columns col) {
+        this.id          = CursorColumns.getInt(cursor, col.id);
+        this.userId      = CursorColumns.getInt(cursor, col.userId);
+        this.type        = CursorColumns.getString(cursor, col.type);
+        this.category    = CursorColumns.getString(cursor, col.category);
+        this.amountPaise = CursorColumns.getLong(cursor, col.amountPaise);
+        this.description = CursorColumns.getString(cursor, col.description);
+        this.toFromName  = CursorColumns.getString(cursor, col.toFromName);
+        this.toFromPhone = CursorColumns.getString(cursor, col.toFromPhone);
+        this.dateTime    = CursorColumns.getString(cursor, col.dateTime);
+        this.timeMillis  = CursorColumns.getLong(cursor, col.timeMillis);
+        this.latitude    = CursorColumns.getDouble(cursor, col.latitude);
+        this.longitude   = CursorColumns.getDouble(cursor, col.longitude);
+        this.status      = CursorColumns.getString(cursor, col.status);
+    }
+
+    // ── Column indexes, resolved once per cursor ──────────────────────────
+    public static final class Columns {
+        final int id, userId, type, category, amountPaise, description,
+                  toFromName, toFromPhone, dateTime, timeMillis,
+                  latitude, longitude, status;
+
+        public Columns(Cursor cursor) {
+            id          = cursor.getColumnIndex("id");
+            userId      = cursor.getColumnIndex("user_id");
+            type        = cursor.getColumnIndex("type");
+            category    = cursor.getColumnIndex("category");
+            amountPaise = cursor.getColumnIndex("amount_paise");
+            description = cursor.getColumnIndex("description");
+            toFromName  = cursor.getColumnIndex("to_from_name");
+            toFromPhone = cursor.getColumnIndex("to_from_phone");
+            dateTime    = cursor.getColumnIndex("date_time");
+            timeMillis  = cursor.getColumnIndex("time_millis");
+            latitude    = cursor.getColumnIndex("latitude");
+            longitude   = cursor.getColumnIndex("longitude");
+            status      = cursor.getColumnIndex("status");
+        }
+
+        /** Maps the cursor's current row. */
+        public Transaction read(Cursor cursor) {
+            return new Transaction(cursor, this);
+        }
     }
 
     // ── Getters ───────────────────────────────────────────────────────────
@@ -84,21 +148,22 @@ public class Transaction {
     public int    getUserId()      { return userId; }
     public String getType()        { return type; }
     public String getCategory()    { return category; }
-    public double getAmount()      { return amount; }
+    public long   getAmountPaise() { return amountPaise; }
     public String getDescription() { return description; }
     public String getToFromName()  { return toFromName; }
     public String getToFromPhone() { return toFromPhone; }
     public String getDateTime()    { return dateTime; }
+    public long   getTimeMillis()  { return timeMillis; }
     public double getLatitude()    { return latitude; }
     public double getLongitude()   { return longitude; }
     public String getStatus()      { return status; }
 
     // ── Helper: display-ready amount string ───────────────────────────────
     public String getFormattedAmount() {
-        if (type.equals(TYPE_SENT) || type.equals(TYPE_BILL_PAYMENT)) {
-            return String.format("- ₹ %,.2f", amount);
+        if (TYPE_SENT.equals(type) || TYPE_BILL_PAYMENT.equals(type)) {
+            return "- " + Money.format(amountPaise);
         } else {
-            return String.format("+ ₹ %,.2f", amount);
+            return "+ " + Money.format(amountPaise);
         }
     }
 
@@ -10,7 +10,7 @@ public class User {
     private String fullName;
     private String phone;
     private String accountNo;
-    private double balance;
+    private long   balancePaise;     // exact — see Money
     private String profilePicPath;   // local file path or null
     private String createdAt;
 
@@ -19,24 +19,49 @@ public class User {
 
     // ── Full Constructor (for registering new users) ──────────────────────
     public User(String username, String fullName, String phone,
-                String accountNo, double balance) {
+                String accountNo, long balancePaise) {
         this.username   = username;
         this.fullName   = fullName;
         this.phone      = phone;
         this.accountNo  = accountNo;
-        this.balance    = balance;
+        this.balancePaise = balancePaise;
     }
 
     // ── Cursor Constructor (maps SQLite row → User object) ────────────────
     public User(Cursor cursor) {
-        this.id             = cursor.getInt(cursor.getColumnIndexOrThrow("id"));
-        this.username       = cursor.getString(cursor.getColumnIndexOrThrow("username"));
-        this.fullName       = cursor.getString(cursor.getColumnIndexOrThrow("full_name"));
-        this.phone          = cursor.getString(cursor.getColumnIndexOrThrow("phone"));
-        this.accountNo      = cursor.getString(cursor.getColumnIndexOrThrow("account_no"));
-        this.balance        = cursor.getDouble(cursor.getColumnIndexOrThrow("balance"));
-        this.profilePicPath = cursor.getString(cursor.getColumnIndexOrThrow("profile_pic"));
-        this.createdAt      = cursor.getString(cursor.getColumnIndexOrThrow("created_at"));
+        this(cursor, new Columns(cursor));
+    }
+
+    private User(Cursor cursor, Columns col) {
+        this.id             = CursorColumns.getInt(cursor, col.id);
+        this.username       = CursorColumns.getString(cursor, col.username);
+        this.fullName       = CursorColumns.getString(cursor, col.fullName);
+        this.phone          = CursorColumns.getString(cursor, col.phone);
+        this.accountNo      = CursorColumns.getString(cursor, col.accountNo);
+        this.balancePaise   = CursorColumns.getLong(cursor, col.balancePaise);
+        this.profilePicPath = CursorColumns.getString(cursor, col.profilePicPath);
+        this.createdAt      = CursorColumns.getString(cursor, col.createdAt);
+    }
+
+    // ── Column indexes, resolved once per cursor ──────────────────────────
+    public static final class Columns {
+        final int id, username, fullName, phone, accountNo,
+                  balancePaise, profilePicPath, createdAt;
+
+        public Columns(Cursor cursor) {
+            id             = cursor.getColumnIndex("id");
+            username       = cursor.getColumnIndex("username");
+            fullName       = cursor.getColumnIndex("full_name");
+            phone          = cursor.getColumnIndex("phone");
+            accountNo      = cursor.getColumnIndex("account_no");
+            balancePaise   = cursor.getColumnIndex("balance_paise");
+            profilePicPath = cursor.getColumnIndex("profile_pic");
+            createdAt      = cursor.getColumnIndex("created_at");
+        }
+
+        public User read(Cursor cursor) {
+            return new User(cursor, this);
+        }
     }
 
     // ── Getters ───────────────────────────────────────────────────────────
@@ -45,7 +70,7 @@ public class User {
     public String getFullName()       { return fullName; }
     public String getPhone()          { return phone; }
     public String getAccountNo()      { return accountNo; }
-    public double getBalance()        { return balance; }
+    public long   getBalancePaise()   { return balancePaise; }
     public String getProfilePicPath() { return profilePicPath; }
     public String getCreatedAt()      { return createdAt; }
 
@@ -55,12 +80,12 @@ public class User {
     public void setFullName(String fullName)         { this.fullName = fullName; }
     public void setPhone(String phone)               { this.phone = phone; }
     public void setAccountNo(String accountNo)       { this.accountNo = accountNo; }
-    public void setBalance(double balance)           { this.balance = balance; }
+    public void setBalancePaise(long balancePaise)   { this.balancePaise = balancePaise; }
     public void setProfilePicPath(String path)       { this.profilePicPath = path; }
     public void setCreatedAt(String createdAt)       { this.createdAt = createdAt; }
 
     // ── Helper: display-ready balance string ──────────────────────────────
     public String getFormattedBalance() {
-        return String.format("₹ %,.2f", balance);
+        return Money.format(balancePaise);
     }
 }
@@ -4,7 +4,6 @@ import android.content.ContentProvider;
 import android.content.ContentValues;
 import android.content.UriMatcher;
 import android.database.Cursor;
-import android.database.sqlite.SQLiteDatabase;
 import android.net.Uri;
 
 import androidx.annotation.NonNull;
@@ -41,7 +40,7 @@ public class TransactionProvider extends ContentProvider {
     // ── onCreate: initialize the database helper ──────────────────────────
     @Override
     public boolean onCreate() {
-        dbHelper = new DatabaseHelper(getContext());
+        dbHelper = DatabaseHelper.getInstance(getContext());
         return true;
     }
 
@@ -54,7 +53,10 @@ public class TransactionProvider extends ContentProvider {
                         @Nullable String selection, @Nullable String[] selectionArgs,
                         @Nullable String sortOrder) {
 
-        SQLiteDatabase db = dbHelper.getReadableDatabase();
+        // Archived months are included (DatabaseHelper.queryTransactions);
+        // a time_millis range in the selection limits that to the months it
+        // covers. update()/delete() below see hot rows only
+        String order = sortOrder != null ? sortOrder : "time_millis DESC, id DESC";
         Cursor cursor;
 
         switch (uriMatcher.match(uri)) {
@@ -62,10 +64,8 @@ public class TransactionProvider extends ContentProvider {
             case ALL_TRANSACTIONS:
                 // content://com.bankingapp.provider/transactions
                 // Returns ALL transactions (used for admin/debug only)
-                cursor = db.query("transactions",
-                        projection, selection, selectionArgs,
-                        null, null,
-                        sortOrder != null ? sortOrder : "date_time DESC");
+                cursor = dbHelper.queryTransactions(null,
+                        projection, selection, selectionArgs, order);
                 break;
 
             case USER_TRANSACTIONS:
@@ -77,10 +77,8 @@ public class TransactionProvider extends ContentProvider {
                 if (selection != null && !selection.isEmpty()) {
                     sel = sel + " AND " + selection;
                 }
-                cursor = db.query("transactions",
-                        projection, sel, selectionArgs,
-                        null, null,
-                        sortOrder != null ? sortOrder : "date_time DESC");
+                cursor = dbHelper.queryTransactions(Integer.valueOf(userId),
+                        projection, sel, selectionArgs, order);
                 break;
 
             default:
@@ -101,8 +99,8 @@ public class TransactionProvider extends ContentProvider {
     @Nullable
     @Override
     public Uri insert(@NonNull Uri uri, @Nullable ContentValues values) {
-        SQLiteDatabase db = dbHelper.getWritableDatabase();
-        long id = db.insert("transactions", null, values);
+        // Through the helper so the monthly rollup moves with the row
+        long id = dbHelper.insertTransactionValues(values);
         if (getContext() != null) {
             getContext().getContentResolver().notifyChange(uri, null);
         }
@@ -115,8 +113,7 @@ public class TransactionProvider extends ContentProvider {
     @Override
     public int update(@NonNull Uri uri, @Nullable ContentValues values,
                       @Nullable String selection, @Nullable String[] selectionArgs) {
-        SQLiteDatabase db = dbHelper.getWritableDatabase();
-        int rows = db.update("transactions", values, selection, selectionArgs);
+        int rows = dbHelper.updateTransactionValues(values, selection, selectionArgs);
         if (getContext() != null) {
             getContext().getContentResolver().notifyChange(uri, null);
         }
@@ -129,8 +126,7 @@ public class TransactionProvider extends ContentProvider {
     @Override
     public int delete(@NonNull Uri uri, @Nullable String selection,
                       @Nullable String[] selectionArgs) {
-        SQLiteDatabase db = dbHelper.getWritableDatabase();
-        int rows = db.delete("transactions", selection, selectionArgs);
+        int rows = dbHelper.deleteTransactionValues(selection, selectionArgs);
         if (getContext() != null) {
             getContext().getContentResolver().notifyChange(uri, null);
         }
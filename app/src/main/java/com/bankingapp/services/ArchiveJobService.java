@@ -0,0 +1,91 @@
+package com.bankingapp.services;
+
+import android.app.job.JobInfo;
+import android.app.job.JobParameters;
+import android.app.job.JobScheduler;
+import android.app.job.JobService;
+import android.content.ComponentName;
+import android.content.Context;
+import android.os.PersistableBundle;
+import android.util.Log;
+
+import com.bankingapp.database.DatabaseHelper;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ArchiveJobService — moves old months of history into cold storage
+ * (DatabaseHelper.archiveOldMonths) once a day while the phone charges.
+ *
+ * The work runs in small batches and checks for onStopJob between them,
+ * so the system can end it at any moment; whatever is left is picked up
+ * on the next run.
+ */
+public class ArchiveJobService extends JobService {
+
+    private static final String TAG = "ArchiveJobService";
+
+    public static final int    JOB_ID                 = 2201;
+    public static final String EXTRA_HORIZON_MONTHS   = "horizon_months";
+    public static final int    DEFAULT_HORIZON_MONTHS = 12;
+
+    private static final long PERIOD_MS = TimeUnit.DAYS.toMillis(1);
+
+    private volatile boolean stopped;
+
+    // ── Scheduling ────────────────────────────────────────────────────────
+    // Re-scheduling an identical periodic job would restart its period, so
+    // this is a no-op while one with the same horizon is pending
+    public static void schedule(Context context, int horizonMonths) {
+        JobScheduler scheduler =
+                (JobScheduler) context.getSystemService(Context.JOB_SCHEDULER_SERVICE);
+        if (scheduler == null) return;
+        for (JobInfo pending : scheduler.getAllPendingJobs()) {
+            if (pending.getId() == JOB_ID && pending.getExtras()
+                    .getInt(EXTRA_HORIZON_MONTHS) == horizonMonths) {
+                return;
+            }
+        }
+        PersistableBundle extras = new PersistableBundle();
+        extras.putInt(EXTRA_HORIZON_MONTHS, horizonMonths);
+        scheduler.schedule(new JobInfo.Builder(JOB_ID,
+                new ComponentName(context, ArchiveJobService.class))
+                .setPeriodic(PERIOD_MS)
+                .setRequiresCharging(true)
+                .setExtras(extras)
+                .build());
+    }
+
+    @Override
+    public boolean onStartJob(JobParameters params) {
+        stopped = false;
+        int horizon = params.getExtras()
+                .getInt(EXTRA_HORIZON_MONTHS, DEFAULT_HORIZON_MONTHS);
+
+        // Run work on a background thread — never block the main thread
+        new Thread(() -> {
+            boolean retry = false;
+            try {
+                DatabaseHelper.ArchiveResult result = DatabaseHelper
+                        .getInstance(getApplicationContext())
+                        .archiveOldMonths(horizon, () -> stopped);
+                Log.d(TAG, "Archived " + result.rowsMoved + " rows in "
+                        + result.blocksWritten + " blocks"
+                        + (result.complete ? "" : " (stopped early)"));
+            } catch (RuntimeException e) {
+                Log.e(TAG, "Archive run failed", e);
+                retry = true;
+            }
+            if (!stopped) jobFinished(params, retry);
+        }, TAG).start();
+
+        return true;   // still working on the background thread
+    }
+
+    // The system wants the job gone: finish the current batch and leave
+    @Override
+    public boolean onStopJob(JobParameters params) {
+        stopped = true;
+        return true;   // reschedule; the next run resumes where this one stopped
+    }
+}
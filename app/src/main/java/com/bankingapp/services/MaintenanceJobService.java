@@ -0,0 +1,99 @@
+package com.bankingapp.services;
+
+import android.app.ActivityManager;
+import android.app.job.JobInfo;
+import android.app.job.JobParameters;
+import android.app.job.JobScheduler;
+import android.app.job.JobService;
+import android.content.ComponentName;
+import android.content.Context;
+import android.os.PersistableBundle;
+import android.util.Log;
+
+import com.bankingapp.database.DatabaseHelper;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MaintenanceJobService — daily database upkeep
+ * (DatabaseHelper.runMaintenance) while the phone is idle and charging.
+ *
+ * Each run gets a time budget and gives way as soon as the app comes to
+ * the foreground, so the user never waits behind ANALYZE or a vacuum;
+ * the next run starts over.
+ */
+public class MaintenanceJobService extends JobService {
+
+    private static final String TAG = "MaintenanceJobService";
+
+    public static final int    JOB_ID            = 2301;
+    public static final String EXTRA_BUDGET_MS   = "budget_ms";
+    public static final long   DEFAULT_BUDGET_MS = TimeUnit.MINUTES.toMillis(1);
+
+    private static final long PERIOD_MS = TimeUnit.DAYS.toMillis(1);
+
+    private volatile boolean stopped;
+
+    // ── Scheduling ────────────────────────────────────────────────────────
+    // Same rule as ArchiveJobService: leave a matching pending job alone
+    public static void schedule(Context context, long budgetMillis) {
+        JobScheduler scheduler =
+                (JobScheduler) context.getSystemService(Context.JOB_SCHEDULER_SERVICE);
+        if (scheduler == null) return;
+        for (JobInfo pending : scheduler.getAllPendingJobs()) {
+            if (pending.getId() == JOB_ID && pending.getExtras()
+                    .getLong(EXTRA_BUDGET_MS) == budgetMillis) {
+                return;
+            }
+        }
+        PersistableBundle extras = new PersistableBundle();
+        extras.putLong(EXTRA_BUDGET_MS, budgetMillis);
+        scheduler.schedule(new JobInfo.Builder(JOB_ID,
+                new ComponentName(context, MaintenanceJobService.class))
+                .setPeriodic(PERIOD_MS)
+                .setRequiresDeviceIdle(true)
+                .setRequiresCharging(true)
+                .setExtras(extras)
+                .build());
+    }
+
+    @Override
+    public boolean onStartJob(JobParameters params) {
+        stopped = false;
+        long budget = params.getExtras().getLong(EXTRA_BUDGET_MS, DEFAULT_BUDGET_MS);
+
+        // Run work on a background thread — never block the main thread
+        new Thread(() -> {
+            try {
+                DatabaseHelper.MaintenanceReport report = DatabaseHelper
+                        .getInstance(getApplicationContext())
+                        .runMaintenance(budget, () -> stopped || appInForeground());
+                Log.d(TAG, "Maintenance: " + report.fileBytes + " bytes, "
+                        + report.freePages + " free pages, "
+                        + report.pagesReclaimed + " reclaimed, integrity "
+                        + report.integrity + (report.complete ? "" : " (stopped early)"));
+            } catch (RuntimeException e) {
+                Log.e(TAG, "Maintenance run failed", e);
+            }
+            // Periodic: an unfinished run is simply redone tomorrow
+            if (!stopped) jobFinished(params, false);
+        }, TAG).start();
+
+        return true;   // still working on the background thread
+    }
+
+    // The device left idle or charging: finish the current step and leave.
+    // No reschedule — the next periodic run redoes whatever was skipped
+    @Override
+    public boolean onStopJob(JobParameters params) {
+        stopped = true;
+        return false;
+    }
+
+    // An activity of ours is on screen: the user comes first
+    private static boolean appInForeground() {
+        ActivityManager.RunningAppProcessInfo info = new ActivityManager.RunningAppProcessInfo();
+        ActivityManager.getMyMemoryState(info);
+        return info.importance <= ActivityManager.RunningAppProcessInfo.IMPORTANCE_VISIBLE;
+    }
+}
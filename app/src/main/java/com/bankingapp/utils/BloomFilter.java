@@ -0,0 +1,98 @@
+package com.bankingapp.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+/**
+ * BloomFilter — compact "definitely not present / maybe present" set of
+ * strings.
+ *
+ * Sized from the number of items it is expected to hold and the false
+ * positive rate wanted at that size: m = -n·ln(p) / ln(2)² bits and
+ * k = m/n · ln(2) hash functions. mightContain() never answers false for
+ * a string that was put(); it answers true for an absent string with
+ * roughly the configured probability. Items cannot be removed.
+ *
+ * The k bit positions come from one 64-bit FNV-1a hash split into two
+ * halves (h1 + i·h2), which behaves like k independent hashes for this
+ * purpose. Thread-safe.
+ */
+public final class BloomFilter {
+
+    private final long[] bits;
+    private final int    bitCount;
+    private final int    hashCount;
+    private final int    expectedItems;
+    private final double targetFalsePositiveRate;
+    private int          items;
+
+    public BloomFilter(int expectedItems, double falsePositiveRate) {
+        if (expectedItems <= 0)
+            throw new IllegalArgumentException("expectedItems must be > 0");
+        if (falsePositiveRate <= 0.0 || falsePositiveRate >= 1.0)
+            throw new IllegalArgumentException("falsePositiveRate must be in (0, 1)");
+
+        double m = -expectedItems * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2));
+        this.bitCount  = (int) Math.max(64, Math.ceil(m));
+        this.hashCount = Math.max(1, (int) Math.round(bitCount / (double) expectedItems * Math.log(2)));
+        this.bits      = new long[(bitCount + 63) / 64];
+        this.expectedItems           = expectedItems;
+        this.targetFalsePositiveRate = falsePositiveRate;
+    }
+
+    public synchronized void put(String value) {
+        long hash = fnv1a64(value);
+        int  h1   = (int) hash, h2 = (int) (hash >>> 32);
+        for (int i = 0; i < hashCount; i++) {
+            int bit = ((h1 + i * h2) & Integer.MAX_VALUE) % bitCount;
+            bits[bit >>> 6] |= 1L << bit;
+        }
+        items++;
+    }
+
+    /** False means {@code value} was never put(); true means it may have been. */
+    public synchronized boolean mightContain(String value) {
+        long hash = fnv1a64(value);
+        int  h1   = (int) hash, h2 = (int) (hash >>> 32);
+        for (int i = 0; i < hashCount; i++) {
+            int bit = ((h1 + i * h2) & Integer.MAX_VALUE) % bitCount;
+            if ((bits[bit >>> 6] & (1L << bit)) == 0) return false;
+        }
+        return true;
+    }
+
+    // ── Size and accuracy ─────────────────────────────────────────────────
+    public int    getBitCount()      { return bitCount; }
+    public int    getHashCount()     { return hashCount; }
+    public int    getExpectedItems() { return expectedItems; }
+    public long   getMemoryBytes()   { return bits.length * 8L; }
+    public double getTargetFalsePositiveRate() { return targetFalsePositiveRate; }
+
+    public synchronized int getItemCount() { return items; }
+
+    /** True once more items went in than the filter was sized for. */
+    public synchronized boolean isOverCapacity() { return items > expectedItems; }
+
+    /** False positive rate at the current fill: (1 - e^(-k·n/m))^k. */
+    public synchronized double getEstimatedFalsePositiveRate() {
+        return Math.pow(1 - Math.exp(-hashCount * (double) items / bitCount), hashCount);
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format(Locale.US,
+                "BloomFilter{items=%d/%d, bits=%d, k=%d, bytes=%d, fpp=%.4f (target %.4f)}",
+                items, expectedItems, bitCount, hashCount, getMemoryBytes(),
+                getEstimatedFalsePositiveRate(), targetFalsePositiveRate);
+    }
+
+    // FNV-1a over the UTF-8 bytes; cheap, and spreads short keys well
+    private static long fnv1a64(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= (b & 0xff);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+}
@@ -11,7 +11,9 @@ import java.util.Locale;
  *
  * Syllabus: Date/Time API, SimpleDateFormat, Calendar
  *
- * All timestamps in the database are stored as:  "yyyy-MM-dd HH:mm:ss"
+ * Transactions are stored with an epoch-millisecond column (time_millis)
+ * that every range/month query filters on; the legacy text column keeps
+ * "yyyy-MM-dd HH:mm:ss" (always Locale.US digits) for older readers.
  * Display format shown to the user:               "dd MMM yyyy, hh:mm a"
  */
 public class DateTimeHelper {
@@ -33,8 +35,13 @@ public class DateTimeHelper {
 
     /** Returns the current date+time formatted for DB storage. */
     public static String nowForDb() {
-        return new SimpleDateFormat(DB_FORMAT, Locale.getDefault())
-                .format(new Date());
+        return toDbFormat(System.currentTimeMillis());
+    }
+
+    /** Formats epoch millis as the DB text format (locale-independent). */
+    public static String toDbFormat(long epochMillis) {
+        return new SimpleDateFormat(DB_FORMAT, Locale.US)
+                .format(new Date(epochMillis));
     }
 
     /** Returns current date+time in a human-readable display format. */
@@ -45,13 +52,13 @@ public class DateTimeHelper {
 
     /** Returns the current month in "yyyy-MM" for Insights filter. */
     public static String currentMonth() {
-        return new SimpleDateFormat(MONTH_FORMAT, Locale.getDefault())
+        return new SimpleDateFormat(MONTH_FORMAT, Locale.US)
                 .format(new Date());
     }
 
     /** Returns today's date as "yyyy-MM-dd". */
     public static String today() {
-        return new SimpleDateFormat(DATE_ONLY, Locale.getDefault())
+        return new SimpleDateFormat(DATE_ONLY, Locale.US)
                 .format(new Date());
     }
 
@@ -63,7 +70,7 @@ public class DateTimeHelper {
      */
     public static String toDisplayFormat(String dbTimestamp) {
         try {
-            SimpleDateFormat dbFmt   = new SimpleDateFormat(DB_FORMAT,      Locale.getDefault());
+            SimpleDateFormat dbFmt   = new SimpleDateFormat(DB_FORMAT,      Locale.US);
             SimpleDateFormat dispFmt = new SimpleDateFormat(DISPLAY_FORMAT,  Locale.getDefault());
             Date parsed = dbFmt.parse(dbTimestamp);
             return parsed != null ? dispFmt.format(parsed) : dbTimestamp;
@@ -72,6 +79,72 @@ public class DateTimeHelper {
         }
     }
 
+    /** Formats epoch millis for the UI, e.g. "19 Feb 2026, 10:30 AM". */
+    public static String toDisplayFormat(long epochMillis) {
+        return new SimpleDateFormat(DISPLAY_FORMAT, Locale.getDefault())
+                .format(new Date(epochMillis));
+    }
+
+    /** Epoch millis of a DB-format timestamp, read as local time (inverse of toDbFormat). */
+    public static long fromDbFormat(String dbTimestamp) {
+        return parseLocal(DB_FORMAT, dbTimestamp).getTimeInMillis();
+    }
+
+    /** Local "yyyy-MM" month that an epoch-millis instant falls in. */
+    public static String toMonthKey(long epochMillis) {
+        return new SimpleDateFormat(MONTH_FORMAT, Locale.US)
+                .format(new Date(epochMillis));
+    }
+
+    // ── Half-open [start, end) ranges in epoch millis ─────────────────
+
+    /**
+     * Start of a "yyyy-MM" month in local time, as epoch millis.
+     * Pair with {@link #monthEndMillis} for a half-open range scan.
+     */
+    public static long monthStartMillis(String month) {
+        return parseLocal(MONTH_FORMAT, month).getTimeInMillis();
+    }
+
+    /** Start of the month after a "yyyy-MM" month (exclusive upper bound). */
+    public static long monthEndMillis(String month) {
+        Calendar cal = parseLocal(MONTH_FORMAT, month);
+        cal.add(Calendar.MONTH, 1);
+        return cal.getTimeInMillis();
+    }
+
+    /** Start of the local month {@code monthsAgo} before this one (0 = this month). */
+    public static long monthStartMillisAgo(int monthsAgo) {
+        Calendar cal = parseLocal(MONTH_FORMAT, currentMonth());
+        cal.add(Calendar.MONTH, -monthsAgo);
+        return cal.getTimeInMillis();
+    }
+
+    /** Start of a "yyyy-MM-dd" day in local time, as epoch millis. */
+    public static long dayStartMillis(String date) {
+        return parseLocal(DATE_ONLY, date).getTimeInMillis();
+    }
+
+    /** Start of the day after a "yyyy-MM-dd" day (exclusive upper bound). */
+    public static long dayEndMillis(String date) {
+        Calendar cal = parseLocal(DATE_ONLY, date);
+        cal.add(Calendar.DAY_OF_MONTH, 1);
+        return cal.getTimeInMillis();
+    }
+
+    private static Calendar parseLocal(String pattern, String value) {
+        SimpleDateFormat fmt = new SimpleDateFormat(pattern, Locale.US);
+        fmt.setLenient(false);
+        try {
+            Calendar cal = Calendar.getInstance();
+            cal.setTime(fmt.parse(value));
+            return cal;
+        } catch (ParseException e) {
+            throw new IllegalArgumentException(
+                    "Expected " + pattern + " but got: " + value, e);
+        }
+    }
+
     /**
      * Returns a Calendar set to the start of today (00:00:00).
      * Useful for date-range filter comparisons.
@@ -14,6 +14,7 @@ import androidx.core.app.NotificationCompat;
 import androidx.core.app.NotificationManagerCompat;
 
 import com.bankingapp.activities.DashboardActivity;
+import com.bankingapp.models.Money;
 
 public class NotificationHelper {
 
@@ -75,28 +76,28 @@ public class NotificationHelper {
         return PendingIntent.getActivity(context, 0, intent, flags);
     }
 
-    public void notifyDebit(String recipient, double amount) {
+    public void notifyDebit(String recipient, long amountPaise) {
         showNotification(CHANNEL_TRANSACTIONS, NOTIF_ID_SEND,
                 "Money Sent",
-                String.format("₹%.2f sent to %s", amount, recipient));
+                Money.format(amountPaise) + " sent to " + recipient);
     }
 
-    public void notifyCredit(String sender, double amount) {
+    public void notifyCredit(String sender, long amountPaise) {
         showNotification(CHANNEL_TRANSACTIONS, NOTIF_ID_RECEIVE,
                 "Money Received",
-                String.format("₹%.2f received from %s", amount, sender));
+                Money.format(amountPaise) + " received from " + sender);
     }
 
-    public void notifyBillPaid(String category, double amount) {
+    public void notifyBillPaid(String category, long amountPaise) {
         showNotification(CHANNEL_TRANSACTIONS, NOTIF_ID_BILL,
                 "Bill Paid",
-                String.format("%s bill of ₹%.2f paid successfully.", category, amount));
+                category + " bill of " + Money.format(amountPaise) + " paid successfully.");
     }
 
-    public void notifySuspicious(double amount) {
+    public void notifySuspicious(long amountPaise) {
         showNotification(CHANNEL_ALERTS, NOTIF_ID_ALERT,
                 "⚠ Suspicious Activity Detected",
-                String.format("Large transfer of ₹%.2f flagged. Tap to review.", amount));
+                "Large transfer of " + Money.format(amountPaise) + " flagged. Tap to review.");
     }
 
     private void showNotification(String channel, int id,
@@ -0,0 +1,114 @@
+package com.bankingapp.utils;
+
+import android.content.Context;
+import android.net.Uri;
+import android.os.CancellationSignal;
+
+import com.bankingapp.database.DatabaseHelper;
+import com.bankingapp.database.IDataRepository;
+import com.bankingapp.models.Transaction;
+
+import java.io.BufferedWriter;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * StatementExporter — writes a user's whole history (archived months
+ * included) as a CSV or JSON statement to any Uri the ContentResolver can
+ * open for writing, e.g. one picked with ACTION_CREATE_DOCUMENT.
+ *
+ * Rows stream from DatabaseHelper.streamTransactions one keyset page at a
+ * time through StatementWriter into a buffered (optionally gzipped)
+ * stream: however many rows are exported, the heap holds one page plus
+ * the buffers. Blocking: call it from a background thread.
+ */
+public final class StatementExporter {
+
+    private static final int BUFFER_BYTES        = 64 * 1024;
+    private static final int PROGRESS_EVERY_ROWS = 1_000;
+
+    private StatementExporter() {}
+
+    public static final class Result {
+        public final long    rows;
+        public final boolean cancelled;   // true: the file holds only the first rows
+
+        Result(long rows, boolean cancelled) {
+            this.rows      = rows;
+            this.cancelled = cancelled;
+        }
+    }
+
+    /**
+     * Exports {@code userId}'s transactions, newest first, to
+     * {@code destination} (replacing its contents). {@code cancel} is
+     * checked before every row; a cancelled export still ends well-formed
+     * but incomplete, and the caller decides whether to delete it.
+     * {@code listener} runs on this thread every {@value #PROGRESS_EVERY_ROWS}
+     * rows and once at the end; either may be null.
+     *
+     * @throws IOException if the destination cannot be opened or written
+     */
+    public static Result export(Context context, Uri destination, int userId,
+                                StatementWriter.Format format, boolean gzip,
+                                CancellationSignal cancel,
+                                IDataRepository.ProgressListener listener)
+            throws IOException {
+        DatabaseHelper db = DatabaseHelper.getInstance(context);
+        int total = (int) Math.min(Integer.MAX_VALUE, db.countTransactions(userId));
+
+        OutputStream stream = context.getContentResolver().openOutputStream(destination, "wt");
+        if (stream == null) throw new FileNotFoundException("Cannot write to " + destination);
+        try (OutputStream raw = stream;
+             Writer out = new BufferedWriter(new OutputStreamWriter(
+                     gzip ? new GZIPOutputStream(raw, BUFFER_BYTES) : raw,
+                     StandardCharsets.UTF_8), BUFFER_BYTES)) {
+            StatementWriter writer = StatementWriter.create(format, out);
+            writer.begin();
+            ProgressSink sink = new ProgressSink(writer, cancel, listener, total);
+            long rows = db.streamTransactions(userId, sink);
+            writer.end();
+            if (listener != null) listener.onProgress(sink.written, Math.max(total, sink.written));
+            return new Result(rows, sink.cancelled);
+        }
+    }
+
+    // ── Row sink: write, count, report, honour cancellation ──────────────
+    private static final class ProgressSink implements DatabaseHelper.RowSink {
+
+        private final StatementWriter                  writer;
+        private final CancellationSignal               cancel;
+        private final IDataRepository.ProgressListener listener;
+        private final int                              total;
+        private int     written;
+        private boolean cancelled;
+
+        ProgressSink(StatementWriter writer, CancellationSignal cancel,
+                     IDataRepository.ProgressListener listener, int total) {
+            this.writer   = writer;
+            this.cancel   = cancel;
+            this.listener = listener;
+            this.total    = total;
+        }
+
+        @Override
+        public boolean accept(Transaction row) throws IOException {
+            if (cancel != null && cancel.isCanceled()) {
+                cancelled = true;
+                return false;
+            }
+            writer.write(row);
+            written++;
+            if (listener != null && written % PROGRESS_EVERY_ROWS == 0) {
+                // Rows added since the count can push past the total
+                listener.onProgress(written, Math.max(total, written));
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,315 @@
+package com.bankingapp.utils;
+
+import android.content.Context;
+import android.net.Uri;
+import android.os.CancellationSignal;
+import android.util.Log;
+
+import com.bankingapp.database.DatabaseHelper;
+import com.bankingapp.models.Transaction;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * StatementImporter — loads a CSV or OFX statement from another bank
+ * (optionally gzipped) into the transactions table.
+ *
+ * The calling thread reads the file and cuts it into chunks of
+ * {@link #CHUNK_RECORDS} records (StatementParser.Splitter); a small
+ * worker pool parses chunks in parallel; the calling thread then commits
+ * each parsed chunk, in file order, as one write transaction. At most
+ * two chunks per worker are in flight, so memory stays flat for any file
+ * size. Malformed rows are skipped and reported by line number.
+ *
+ * Imported rows are history only: balances and the ledger are not
+ * touched. Blocking: call it from a background thread.
+ */
+public final class StatementImporter {
+
+    private static final String TAG = "StatementImporter";
+
+    /** Records per parse task and per write transaction. */
+    static final int CHUNK_RECORDS = 2_000;
+
+    // Problems kept in the result; beyond this they are only counted
+    static final int MAX_PROBLEMS = 1_000;
+
+    private static final int BUFFER_BYTES = 64 * 1024;
+
+    private StatementImporter() {}
+
+    /** Commits one chunk in a single transaction; returns rows inserted. */
+    public interface ChunkWriter {
+        int write(List<Transaction> rows);
+    }
+
+    /** Polled between chunks; importFrom adapts a CancellationSignal to it. */
+    interface Cancellation {
+        boolean isCancelled();
+    }
+
+    /** Called on the importing thread after every committed chunk. */
+    public interface ProgressListener {
+        void onProgress(long rowsRead, long rowsImported, double rowsPerSecond);
+    }
+
+    public static final class Problem {
+        public final int    line;
+        public final String message;
+
+        Problem(int line, String message) {
+            this.line    = line;
+            this.message = message;
+        }
+
+        @Override
+        public String toString() {
+            return "line " + line + ": " + message;
+        }
+    }
+
+    public static final class Result {
+        public final StatementParser.Format format;
+        public final long          rowsRead;
+        public final long          imported;
+        public final long          malformed;       // skipped: see problems
+        public final long          rejected;        // parsed, but refused by the database
+        public final List<Problem> problems;        // the first MAX_PROBLEMS, in line order
+        public final long          elapsedMillis;
+        public final boolean       cancelled;       // chunks committed before it stay
+
+        Result(StatementParser.Format format, long rowsRead, long imported, long malformed,
+               long rejected, List<Problem> problems, long elapsedMillis, boolean cancelled) {
+            this.format        = format;
+            this.rowsRead      = rowsRead;
+            this.imported      = imported;
+            this.malformed     = malformed;
+            this.rejected      = rejected;
+            this.problems      = Collections.unmodifiableList(problems);
+            this.elapsedMillis = elapsedMillis;
+            this.cancelled     = cancelled;
+        }
+
+        /** Records read, parsed and committed per second of the whole run. */
+        public double rowsPerSecond() {
+            return rate(rowsRead, elapsedMillis);
+        }
+    }
+
+    /**
+     * Imports the statement at {@code source} for {@code userId}.
+     * {@code cancel} is checked between chunks; either it or
+     * {@code listener} may be null.
+     *
+     * @throws IOException if the source cannot be opened or read
+     */
+    public static Result importFrom(Context context, Uri source, int userId,
+                                    CancellationSignal cancel, ProgressListener listener)
+            throws IOException {
+        InputStream stream = context.getContentResolver().openInputStream(source);
+        if (stream == null) throw new FileNotFoundException("Cannot read " + source);
+        DatabaseHelper db = DatabaseHelper.getInstance(context);
+        try (InputStream raw = stream;
+             InputStream in = maybeGunzip(new BufferedInputStream(raw, BUFFER_BYTES));
+             Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+            Result result = run(reader, userId,
+                    rows -> db.insertTransactionChunk(rows).inserted,
+                    cancel == null ? null : cancel::isCanceled,
+                    listener, defaultThreads());
+            Log.i(TAG, "Imported " + result.imported + " of " + result.rowsRead + " rows ("
+                    + result.malformed + " malformed) in " + result.elapsedMillis + " ms, "
+                    + Math.round(result.rowsPerSecond()) + " rows/s");
+            return result;
+        }
+    }
+
+    // ── The pipeline: read → parse (pool) → commit (in order) ────────────
+    static Result run(Reader reader, int userId, ChunkWriter writer,
+                      Cancellation cancel, ProgressListener listener,
+                      int threads) throws IOException {
+        long start = System.nanoTime();
+        BufferedReader in = reader instanceof BufferedReader
+                ? (BufferedReader) reader : new BufferedReader(reader, BUFFER_BYTES / 2);
+        StatementParser.Splitter splitter = new StatementParser.Splitter(in);
+        StatementParser.Format format = splitter.format();
+        Progress progress = new Progress(start, listener);
+
+        StatementParser.CsvLayout layout = null;
+        if (format == StatementParser.Format.CSV) {
+            StatementParser.Record header = splitter.next();
+            if (header == null) return progress.result(format, false);
+            try {
+                layout = StatementParser.CsvLayout.of(header.text);
+            } catch (StatementParser.MalformedRowException e) {
+                progress.problem(header.line, e.getMessage());
+                return progress.result(format, false);
+            }
+        }
+        StatementParser.CsvLayout csv = layout;
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads, workerThreads());
+        ArrayDeque<Future<ParsedChunk>> inFlight = new ArrayDeque<>();
+        boolean cancelled = false;
+        try {
+            List<StatementParser.Record> chunk = new ArrayList<>(CHUNK_RECORDS);
+            StatementParser.Record record;
+            while (!cancelled && (record = splitter.next()) != null) {
+                chunk.add(record);
+                if (chunk.size() < CHUNK_RECORDS) continue;
+                inFlight.add(pool.submit(parseTask(format, csv, userId, chunk)));
+                chunk = new ArrayList<>(CHUNK_RECORDS);
+                // Commit the oldest chunk once the pool is two deep
+                if (inFlight.size() >= threads * 2) {
+                    cancelled = !commit(inFlight.poll(), writer, progress, cancel);
+                }
+            }
+            if (!cancelled && !chunk.isEmpty()) {
+                inFlight.add(pool.submit(parseTask(format, csv, userId, chunk)));
+            }
+            while (!cancelled && !inFlight.isEmpty()) {
+                cancelled = !commit(inFlight.poll(), writer, progress, cancel);
+            }
+        } finally {
+            for (Future<ParsedChunk> f : inFlight) f.cancel(true);
+            pool.shutdownNow();
+        }
+        return progress.result(format, cancelled);
+    }
+
+    // Waits for one parsed chunk and writes it; false once cancelled
+    private static boolean commit(Future<ParsedChunk> future, ChunkWriter writer,
+                                  Progress progress, Cancellation cancel) {
+        if (cancel != null && cancel.isCancelled()) return false;
+        ParsedChunk chunk;
+        try {
+            chunk = future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException e) {
+            // Parsing reports bad rows as problems; anything else is a bug
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            throw new IllegalStateException(cause);
+        }
+        for (Problem p : chunk.problems) progress.problem(p.line, p.message);
+        int inserted = chunk.rows.isEmpty() ? 0 : writer.write(chunk.rows);
+        progress.committed(chunk.records, inserted, chunk.rows.size() - inserted);
+        return true;
+    }
+
+    // ── Parse task (runs on a worker) ─────────────────────────────────────
+    private static final class ParsedChunk {
+        final int               records;
+        final List<Transaction> rows;
+        final List<Problem>     problems;
+
+        ParsedChunk(int records, List<Transaction> rows, List<Problem> problems) {
+            this.records  = records;
+            this.rows     = rows;
+            this.problems = problems;
+        }
+    }
+
+    private static Callable<ParsedChunk> parseTask(
+            StatementParser.Format format, StatementParser.CsvLayout layout,
+            int userId, List<StatementParser.Record> records) {
+        return () -> {
+            StatementParser parser = new StatementParser(format, layout, userId);
+            List<Transaction> rows = new ArrayList<>(records.size());
+            List<Problem> problems = new ArrayList<>();
+            for (StatementParser.Record r : records) {
+                try {
+                    rows.add(parser.parse(r));
+                } catch (StatementParser.MalformedRowException e) {
+                    problems.add(new Problem(r.line, e.getMessage()));
+                }
+            }
+            return new ParsedChunk(records.size(), rows, problems);
+        };
+    }
+
+    // ── Counters (importing thread only) ──────────────────────────────────
+    private static final class Progress {
+        private final long             startNanos;
+        private final ProgressListener listener;
+        private final List<Problem>    problems = new ArrayList<>();
+        private long rowsRead, imported, malformed, rejected;
+
+        Progress(long startNanos, ProgressListener listener) {
+            this.startNanos = startNanos;
+            this.listener   = listener;
+        }
+
+        void problem(int line, String message) {
+            malformed++;
+            if (problems.size() < MAX_PROBLEMS) problems.add(new Problem(line, message));
+        }
+
+        void committed(int records, int inserted, int refused) {
+            rowsRead += records;
+            imported += inserted;
+            rejected += refused;
+            if (listener != null) {
+                listener.onProgress(rowsRead, imported, rate(rowsRead, elapsedMillis()));
+            }
+        }
+
+        Result result(StatementParser.Format format, boolean cancelled) {
+            return new Result(format, rowsRead, imported, malformed, rejected,
+                    problems, elapsedMillis(), cancelled);
+        }
+
+        private long elapsedMillis() {
+            return (System.nanoTime() - startNanos) / 1_000_000;
+        }
+    }
+
+    // ── Helpers ───────────────────────────────────────────────────────────
+    private static double rate(long rows, long millis) {
+        return rows * 1000.0 / Math.max(1, millis);
+    }
+
+    // Leaves a core for the reader / writer thread; at least one worker
+    private static int defaultThreads() {
+        return Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() - 1));
+    }
+
+    private static ThreadFactory workerThreads() {
+        AtomicInteger count = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, TAG + "-" + count.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+
+    // .gz statements are recognised by their magic number, not their name
+    private static InputStream maybeGunzip(BufferedInputStream in) throws IOException {
+        in.mark(2);
+        int b0 = in.read(), b1 = in.read();
+        in.reset();
+        boolean gzip = b0 == (GZIPInputStream.GZIP_MAGIC & 0xff)
+                && b1 == (GZIPInputStream.GZIP_MAGIC >>> 8);
+        return gzip ? new GZIPInputStream(in, BUFFER_BYTES) : in;
+    }
+}
@@ -0,0 +1,637 @@
+package com.bankingapp.utils;
+
+import com.bankingapp.models.Bill;
+import com.bankingapp.models.Money;
+import com.bankingapp.models.Transaction;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+import java.util.Locale;
+import java.util.TimeZone;
+
+/**
+ * StatementParser — reads other banks' statements (CSV or OFX) into
+ * Transactions for StatementImporter.
+ *
+ * Work is split in two. {@link Splitter} runs on one thread and only
+ * finds where each record starts and ends (a CSV row, which may span
+ * lines inside quotes, or an OFX &lt;STMTTRN&gt; block). A
+ * StatementParser then turns records into rows; it is cheap to create
+ * and not thread-safe, so every worker chunk gets its own.
+ *
+ * CSV columns are found by header name, so our own export and the usual
+ * bank layouts (Narration / Withdrawal / Deposit, signed Amount, Dr/Cr)
+ * all load. Dates are read day-first, as Indian banks write them. A row
+ * without a category is given one from its text (see {@link #categorize}).
+ */
+public final class StatementParser {
+
+    public enum Format { CSV, OFX }
+
+    /** Rows this long without a closing quote / tag are cut off as malformed. */
+    static final int MAX_RECORD_CHARS = 64 * 1024;
+
+    /** One record and the 1-based line it starts on. */
+    static final class Record {
+        final int     line;
+        final String  text;
+        final boolean truncated;   // hit end of file or MAX_RECORD_CHARS first
+
+        Record(int line, String text, boolean truncated) {
+            this.line      = line;
+            this.text      = text;
+            this.truncated = truncated;
+        }
+    }
+
+    /** Thrown for a record that cannot become a Transaction. */
+    static final class MalformedRowException extends Exception {
+        MalformedRowException(String message) {
+            super(message);
+        }
+    }
+
+    // ═════════════════════════════════════════════════════════════════════
+    // SPLITTING (sequential)
+    // ═════════════════════════════════════════════════════════════════════
+
+    /** Cuts a statement into records; detects CSV or OFX from its first line. */
+    static final class Splitter {
+
+        private final BufferedReader in;
+        private final Format         format;
+        private final StringBuilder  buf = new StringBuilder();
+        private int    linesRead;     // physical lines taken from the reader
+        private int    lineNo;        // line of the text takeLine() last returned
+        private String pending;       // text handed back, still to be read...
+        private int    pendingLine;   // ...and the line it came from
+
+        Splitter(BufferedReader in) throws IOException {
+            this.in = in;
+            String first;
+            do {
+                first = in.readLine();
+                linesRead++;
+            } while (first != null && first.trim().isEmpty());
+            if (first != null && first.startsWith("\uFEFF")) first = first.substring(1);
+            pending     = first;
+            pendingLine = linesRead;
+            String head = first == null ? "" : first.trim().toUpperCase(Locale.ROOT);
+            format = head.startsWith("OFXHEADER") || head.startsWith("<?XML")
+                    || head.startsWith("<OFX") ? Format.OFX : Format.CSV;
+        }
+
+        Format format() { return format; }
+
+        /** The next record, or null at end of input. */
+        Record next() throws IOException {
+            return format == Format.OFX ? nextTransaction() : nextRow();
+        }
+
+        // ── CSV: a row continues while a quote is open ───────────────────
+        private Record nextRow() throws IOException {
+            String line = takeLine();
+            while (line != null && line.trim().isEmpty()) line = takeLine();
+            if (line == null) return null;
+            int start = lineNo;
+            int quotes = countQuotes(line);
+            if (quotes % 2 == 0) return new Record(start, line, false);
+
+            buf.setLength(0);
+            buf.append(line);
+            while (true) {
+                String more = takeLine();
+                if (more == null || buf.length() > MAX_RECORD_CHARS) {
+                    if (more != null) pushBack(more);
+                    return new Record(start, buf.toString(), true);
+                }
+                buf.append('\n').append(more);
+                quotes += countQuotes(more);
+                if (quotes % 2 == 0) return new Record(start, buf.toString(), false);
+            }
+        }
+
+        // ── OFX: everything between <STMTTRN> and </STMTTRN> ─────────────
+        // SGML (OFX 1.x) puts one tag per line, XML may put the whole
+        // file on one line, so tags are looked for anywhere in a line
+        private Record nextTransaction() throws IOException {
+            int start;
+            while (true) {
+                String line = takeLine();
+                if (line == null) return null;
+                int at = indexOfTag(line, "<STMTTRN>");
+                if (at >= 0) {
+                    start = lineNo;
+                    pushBack(line.substring(at + "<STMTTRN>".length()));
+                    break;
+                }
+            }
+            buf.setLength(0);
+            while (true) {
+                String line = takeLine();
+                if (line == null || buf.length() > MAX_RECORD_CHARS) {
+                    if (line != null) pushBack(line);
+                    return new Record(start, buf.toString(), true);
+                }
+                int end = indexOfTag(line, "</STMTTRN>");
+                if (end < 0) {
+                    buf.append(line).append('\n');
+                    continue;
+                }
+                buf.append(line, 0, end);
+                String rest = line.substring(end + "</STMTTRN>".length());
+                if (!rest.trim().isEmpty()) pushBack(rest);
+                return new Record(start, buf.toString(), false);
+            }
+        }
+
+        private String takeLine() throws IOException {
+            if (pending != null) {
+                String line = pending;
+                pending = null;
+                lineNo  = pendingLine;
+                return line;
+            }
+            String line = in.readLine();
+            if (line != null) lineNo = ++linesRead;
+            return line;
+        }
+
+        // The unread rest of the line takeLine() just returned
+        private void pushBack(String rest) {
+            pending     = rest;
+            pendingLine = lineNo;
+        }
+
+        private static int countQuotes(String s) {
+            int n = 0;
+            for (int i = 0; i < s.length(); i++) if (s.charAt(i) == '"') n++;
+            return n;
+        }
+    }
+
+    // ═════════════════════════════════════════════════════════════════════
+    // CSV LAYOUT (from the header row)
+    // ═════════════════════════════════════════════════════════════════════
+
+    /** Which column holds what; -1 when the statement has no such column. */
+    static final class CsvLayout {
+        final char delimiter;
+        final int  date, millis, type, category, amount, debit, credit;
+        final int  description, name, phone, status, latitude, longitude;
+
+        private CsvLayout(char delimiter, List<String> names) {
+            this.delimiter = delimiter;
+            date        = find(names, "datetime", "date", "txndate", "transactiondate",
+                                "trandate", "valuedate", "postingdate", "posteddate");
+            millis      = find(names, "timemillis");
+            type        = find(names, "type", "drcr", "crdr", "transactiontype", "txntype");
+            category    = find(names, "category");
+            amount      = find(names, "amount", "amt", "transactionamount", "txnamount",
+                                "amountinr", "amountrs");
+            debit       = find(names, "debit", "debitamount", "debitamt", "withdrawal",
+                                "withdrawals", "withdrawalamt", "withdrawalamount", "dr");
+            credit      = find(names, "credit", "creditamount", "creditamt", "deposit",
+                                "deposits", "depositamt", "depositamount", "cr");
+            description = find(names, "description", "narration", "particulars", "remarks",
+                                "details", "memo", "transactiondetails", "transactionremarks");
+            name        = find(names, "counterparty", "name", "payee", "beneficiary", "party");
+            phone       = find(names, "counterpartyphone", "phone", "mobile");
+            status      = find(names, "status");
+            latitude    = find(names, "latitude", "lat");
+            longitude   = find(names, "longitude", "lng", "lon");
+        }
+
+        /**
+         * Layout of a header row; the delimiter is whichever of , ; or tab
+         * the header uses most.
+         *
+         * @throws MalformedRowException without a date column, or without
+         *                               an amount or debit/credit column
+         */
+        static CsvLayout of(String header) throws MalformedRowException {
+            char delimiter = ',';
+            int best = count(header, ',');
+            if (count(header, ';')  > best) { delimiter = ';';  best = count(header, ';'); }
+            if (count(header, '\t') > best) { delimiter = '\t'; }
+            List<String> names = new ArrayList<>();
+            for (String cell : splitCsv(header, delimiter)) {
+                names.add(cell.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]", ""));
+            }
+            CsvLayout layout = new CsvLayout(delimiter, names);
+            if (layout.date < 0) {
+                throw new MalformedRowException("No date column in header");
+            }
+            if (layout.amount < 0 && layout.debit < 0 && layout.credit < 0) {
+                throw new MalformedRowException("No amount, debit or credit column in header");
+            }
+            return layout;
+        }
+
+        private static int find(List<String> names, String... aliases) {
+            for (String alias : aliases) {
+                int i = names.indexOf(alias);
+                if (i >= 0) return i;
+            }
+            return -1;
+        }
+
+        private static int count(String s, char c) {
+            int n = 0;
+            for (int i = 0; i < s.length(); i++) if (s.charAt(i) == c) n++;
+            return n;
+        }
+    }
+
+    // ═════════════════════════════════════════════════════════════════════
+    // PARSING (one instance per worker chunk)
+    // ═════════════════════════════════════════════════════════════════════
+
+    private static final String[] MONTHS = {
+            "jan", "feb", "mar", "apr", "may", "jun",
+            "jul", "aug", "sep", "oct", "nov", "dec"
+    };
+
+    private final Format    format;
+    private final CsvLayout layout;   // null for OFX
+    private final int       userId;
+    private final Calendar  local = Calendar.getInstance();
+    private final Calendar  utc   = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+    private final StringBuilder dateTime = new StringBuilder(19);
+
+    StatementParser(Format format, CsvLayout layout, int userId) {
+        this.format = format;
+        this.layout = layout;
+        this.userId = userId;
+        local.setLenient(false);
+        utc.setLenient(false);
+    }
+
+    /** The row a record describes, owned by this parser's user. */
+    Transaction parse(Record record) throws MalformedRowException {
+        if (record.truncated) {
+            throw new MalformedRowException(format == Format.OFX
+                    ? "Unterminated <STMTTRN>" : "Unterminated quoted field");
+        }
+        return format == Format.OFX ? parseOfx(record.text) : parseCsv(record.text);
+    }
+
+    // ── CSV row ───────────────────────────────────────────────────────────
+    private Transaction parseCsv(String text) throws MalformedRowException {
+        List<String> cells = splitCsv(text, layout.delimiter);
+
+        long millis;
+        String millisText = cell(cells, layout.millis);
+        if (millisText != null) {
+            try {
+                millis = Long.parseLong(millisText);
+            } catch (NumberFormatException e) {
+                throw new MalformedRowException("Bad time_millis: " + millisText);
+            }
+        } else {
+            String date = cell(cells, layout.date);
+            if (date == null) throw new MalformedRowException("Missing date");
+            millis = parseDate(date);
+        }
+
+        long signed;
+        String amount = cell(cells, layout.amount);
+        String debit  = cell(cells, layout.debit);
+        String credit = cell(cells, layout.credit);
+        if (amount != null) {
+            signed = parseAmount(amount);
+        } else if (debit == null && credit == null) {
+            throw new MalformedRowException("Missing amount");
+        } else {
+            long out = debit  != null ? parseAmount(debit)  : 0;
+            long in  = credit != null ? parseAmount(credit) : 0;
+            signed = Math.abs(in) - Math.abs(out);
+        }
+
+        String direction   = directionOf(cell(cells, layout.type));
+        String description = cell(cells, layout.description);
+        String name        = cell(cells, layout.name);
+        return toTransaction(millis, signed, direction, cell(cells, layout.category),
+                description, name, cell(cells, layout.phone), cell(cells, layout.status),
+                parseCoordinate(cell(cells, layout.latitude)),
+                parseCoordinate(cell(cells, layout.longitude)));
+    }
+
+    private static String cell(List<String> cells, int column) {
+        if (column < 0 || column >= cells.size()) return null;
+        String s = cells.get(column).trim();
+        return s.isEmpty() ? null : s;
+    }
+
+    private static double parseCoordinate(String s) throws MalformedRowException {
+        if (s == null) return 0.0;
+        try {
+            return Double.parseDouble(s);
+        } catch (NumberFormatException e) {
+            throw new MalformedRowException("Bad coordinate: " + s);
+        }
+    }
+
+    // Our own types pass through; bank Dr/Cr columns become SENT/RECEIVED;
+    // null: decide by the amount's sign
+    private static String directionOf(String type) {
+        if (type == null) return null;
+        switch (type.toUpperCase(Locale.ROOT)) {
+            case Transaction.TYPE_SENT:
+            case Transaction.TYPE_RECEIVED:
+            case Transaction.TYPE_BILL_PAYMENT:
+                return type.toUpperCase(Locale.ROOT);
+            case "DR": case "D": case "DEBIT": case "WITHDRAWAL":
+                return Transaction.TYPE_SENT;
+            case "CR": case "C": case "CREDIT": case "DEPOSIT":
+                return Transaction.TYPE_RECEIVED;
+            default:
+                return null;
+        }
+    }
+
+    // ── OFX <STMTTRN> block ───────────────────────────────────────────────
+    private Transaction parseOfx(String block) throws MalformedRowException {
+        String posted = ofxValue(block, "DTPOSTED");
+        String amount = ofxValue(block, "TRNAMT");
+        if (posted == null) throw new MalformedRowException("Missing <DTPOSTED>");
+        if (amount == null) throw new MalformedRowException("Missing <TRNAMT>");
+        String name = ofxValue(block, "NAME");
+        String memo = ofxValue(block, "MEMO");
+        return toTransaction(parseDate(posted), parseAmount(amount), null, null,
+                memo != null ? memo : name, name, null, null, 0.0, 0.0);
+    }
+
+    // Text after <TAG> up to the next tag: SGML leaves elements unclosed
+    private static String ofxValue(String block, String tag) {
+        int at = indexOfTag(block, "<" + tag + ">");
+        if (at < 0) return null;
+        int from = at + tag.length() + 2;
+        int to = block.indexOf('<', from);
+        String value = (to < 0 ? block.substring(from) : block.substring(from, to)).trim();
+        if (value.isEmpty()) return null;
+        return value.indexOf('&') < 0 ? value : value
+                .replace("&lt;", "<").replace("&gt;", ">")
+                .replace("&quot;", "\"").replace("&apos;", "'")
+                .replace("&amp;", "&");
+    }
+
+    // ── Row assembly ──────────────────────────────────────────────────────
+    private Transaction toTransaction(long millis, long signedPaise, String type,
+                                      String category, String description, String name,
+                                      String phone, String status,
+                                      double latitude, double longitude)
+            throws MalformedRowException {
+        if (signedPaise == 0) throw new MalformedRowException("Amount is zero");
+        if (type == null) {
+            type = signedPaise < 0 ? Transaction.TYPE_SENT : Transaction.TYPE_RECEIVED;
+        }
+        if (category == null) {
+            String bill = categorize(description, name);
+            if (bill != null && Transaction.TYPE_SENT.equals(type)) {
+                // Money out to a utility is a bill payment, as payBill writes it
+                type     = Transaction.TYPE_BILL_PAYMENT;
+                category = bill;
+            } else {
+                category = Transaction.CAT_TRANSFER;
+            }
+        }
+        if (description == null) description = name != null ? name : "Imported transaction";
+        return new Transaction(0, userId, type, category, Math.abs(signedPaise),
+                description, name, phone, formatLocal(millis), millis, latitude, longitude,
+                status != null ? status : Transaction.STATUS_SUCCESS);
+    }
+
+    // ── Category assignment ───────────────────────────────────────────────
+    // The bill types PayBillFragment offers, recognised by biller names
+    // and keywords; anything else is a plain transfer
+    private static final String[][] BILL_KEYWORDS = {
+            { Bill.TYPE_ELECTRICITY, "electricity", "electric", "bescom", "msedcl", "mseb",
+                    "tneb", "tangedco", "bses", "tata power", "adani elec", "kseb" },
+            { Bill.TYPE_WATER, "water", "jal board", "bwssb", "hmwssb" },
+            { Bill.TYPE_RECHARGE, "recharge", "prepaid", "airtel", "jio", "vodafone",
+                    "vi prepaid", "bsnl" },
+    };
+
+    /** The bill type {@code texts} mention, or null. */
+    static String categorize(String... texts) {
+        StringBuilder all = new StringBuilder();
+        for (String t : texts) if (t != null) all.append(t).append(' ');
+        String haystack = all.toString().toLowerCase(Locale.ROOT);
+        for (String[] bill : BILL_KEYWORDS) {
+            for (int i = 1; i < bill.length; i++) {
+                if (haystack.contains(bill[i])) return bill[0];
+            }
+        }
+        return null;
+    }
+
+    // ═════════════════════════════════════════════════════════════════════
+    // FIELD PARSERS
+    // ═════════════════════════════════════════════════════════════════════
+
+    /**
+     * Signed paise of a bank amount: "1,234.50", "-99", "(12.00)",
+     * "₹ 500", "Rs.500", "INR 10", "250.00 Dr", "250.00 CR".
+     */
+    static long parseAmount(String raw) throws MalformedRowException {
+        String s = raw.trim();
+        boolean negative = false;
+        if (s.startsWith("(") && s.endsWith(")")) {
+            negative = true;
+            s = s.substring(1, s.length() - 1).trim();
+        }
+        String upper = s.toUpperCase(Locale.ROOT);
+        if (upper.endsWith("DR")) {
+            negative = true;
+            s = s.substring(0, s.length() - 2);
+        } else if (upper.endsWith("CR")) {
+            s = s.substring(0, s.length() - 2);
+        }
+        s = s.replace("₹", "").replace(" ", "");
+        upper = s.toUpperCase(Locale.ROOT);
+        if (upper.startsWith("INR"))      s = s.substring(3);
+        else if (upper.startsWith("RS.")) s = s.substring(3);
+        else if (upper.startsWith("RS"))  s = s.substring(2);
+        if (s.startsWith("-")) {
+            negative = !negative;
+            s = s.substring(1);
+        } else if (s.startsWith("+")) {
+            s = s.substring(1);
+        }
+        if (s.isEmpty() || s.startsWith("-") || s.startsWith("+")) {
+            throw new MalformedRowException("Bad amount: " + raw);
+        }
+        try {
+            long paise = Money.parse(s);
+            return negative ? -paise : paise;
+        } catch (NumberFormatException e) {
+            throw new MalformedRowException("Bad amount: " + raw);
+        }
+    }
+
+    /**
+     * Epoch millis of a statement date, local time unless it says
+     * otherwise. Accepts "yyyy-MM-dd[ HH:mm[:ss]]" (also with 'T'),
+     * "dd/MM/yyyy", "dd-MM-yy", "dd.MM.yyyy", "dd MMM yyyy" / "dd-MMM-yy"
+     * (each optionally followed by a time and AM/PM) and OFX's
+     * "yyyyMMdd[HHmmss[.SSS]][[±h:TZ]]".
+     */
+    long parseDate(String raw) throws MalformedRowException {
+        String text = raw.trim();
+        Double offsetHours = null;
+        int bracket = text.indexOf('[');
+        if (bracket >= 0) {
+            offsetHours = ofxOffset(text.substring(bracket + 1));
+            if (offsetHours == null) throw new MalformedRowException("Bad date: " + raw);
+            text = text.substring(0, bracket);
+        }
+
+        List<String> numbers = new ArrayList<>(7);
+        int month = 0, pm = 0;   // pm: 0 none, 1 AM, 2 PM
+        int i = 0, n = text.length();
+        while (i < n) {
+            char c = text.charAt(i);
+            int j = i;
+            if (Character.isDigit(c)) {
+                while (j < n && Character.isDigit(text.charAt(j))) j++;
+                numbers.add(text.substring(i, j));
+            } else if (Character.isLetter(c)) {
+                while (j < n && Character.isLetter(text.charAt(j))) j++;
+                String word = text.substring(i, j).toLowerCase(Locale.ROOT);
+                if (word.equals("am"))      pm = 1;
+                else if (word.equals("pm")) pm = 2;
+                else if (word.length() >= 3) {
+                    for (int m = 0; m < MONTHS.length; m++) {
+                        if (word.startsWith(MONTHS[m])) month = m + 1;
+                    }
+                }
+            } else {
+                j++;
+            }
+            i = j;
+        }
+        if (numbers.isEmpty()) throw new MalformedRowException("Bad date: " + raw);
+
+        int[] f = new int[6];   // year, month, day, hour, minute, second
+        String first = numbers.get(0);
+        try {
+            if (first.length() >= 8) {
+                // OFX / compact: yyyyMMdd[HHmm[ss]]; anything after is ms
+                f[0] = Integer.parseInt(first.substring(0, 4));
+                f[1] = Integer.parseInt(first.substring(4, 6));
+                f[2] = Integer.parseInt(first.substring(6, 8));
+                if (first.length() >= 12) {
+                    f[3] = Integer.parseInt(first.substring(8, 10));
+                    f[4] = Integer.parseInt(first.substring(10, 12));
+                }
+                if (first.length() >= 14) f[5] = Integer.parseInt(first.substring(12, 14));
+            } else {
+                int k = 0;
+                if (first.length() == 4) {                 // yyyy-MM-dd
+                    f[0] = Integer.parseInt(numbers.get(k++));
+                    f[1] = Integer.parseInt(numbers.get(k++));
+                    f[2] = Integer.parseInt(numbers.get(k++));
+                } else if (month > 0) {                    // dd MMM yyyy
+                    f[2] = Integer.parseInt(numbers.get(k++));
+                    f[1] = month;
+                    f[0] = Integer.parseInt(numbers.get(k++));
+                } else {                                   // dd/MM/yyyy
+                    f[2] = Integer.parseInt(numbers.get(k++));
+                    f[1] = Integer.parseInt(numbers.get(k++));
+                    f[0] = Integer.parseInt(numbers.get(k++));
+                }
+                if (f[0] < 100) f[0] += f[0] < 70 ? 2000 : 1900;
+                for (int t = 3; t < 6 && k < numbers.size(); t++) {
+                    f[t] = Integer.parseInt(numbers.get(k++));
+                }
+            }
+        } catch (IndexOutOfBoundsException | NumberFormatException e) {
+            throw new MalformedRowException("Bad date: " + raw);
+        }
+        if (pm == 2 && f[3] < 12)  f[3] += 12;
+        if (pm == 1 && f[3] == 12) f[3] = 0;
+
+        Calendar cal = offsetHours != null ? utc : local;
+        cal.clear();
+        cal.set(f[0], f[1] - 1, f[2], f[3], f[4], f[5]);
+        try {
+            long millis = cal.getTimeInMillis();   // non-lenient: 31/02 throws
+            return offsetHours == null ? millis
+                    : millis - Math.round(offsetHours * 3_600_000);
+        } catch (IllegalArgumentException e) {
+            throw new MalformedRowException("Bad date: " + raw);
+        }
+    }
+
+    // "-5:EST]" / "+5.30:IST]" / "0]" → hours east of UTC
+    private static Double ofxOffset(String tz) {
+        int end = 0;
+        while (end < tz.length() && tz.charAt(end) != ':' && tz.charAt(end) != ']') end++;
+        try {
+            return Double.parseDouble(tz.substring(0, end).trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    // "yyyy-MM-dd HH:mm:ss" in local time (DateTimeHelper.DB_FORMAT)
+    private String formatLocal(long millis) {
+        local.setTimeInMillis(millis);
+        dateTime.setLength(0);
+        pad(local.get(Calendar.YEAR), 4).append('-');
+        pad(local.get(Calendar.MONTH) + 1, 2).append('-');
+        pad(local.get(Calendar.DAY_OF_MONTH), 2).append(' ');
+        pad(local.get(Calendar.HOUR_OF_DAY), 2).append(':');
+        pad(local.get(Calendar.MINUTE), 2).append(':');
+        pad(local.get(Calendar.SECOND), 2);
+        return dateTime.toString();
+    }
+
+    private StringBuilder pad(int value, int width) {
+        String digits = Integer.toString(value);
+        for (int i = digits.length(); i < width; i++) dateTime.append('0');
+        return dateTime.append(digits);
+    }
+
+    // ── Shared text helpers ───────────────────────────────────────────────
+    // RFC 4180 fields: "" is a quote inside quotes
+    static List<String> splitCsv(String text, char delimiter) {
+        List<String> cells = new ArrayList<>();
+        StringBuilder cell = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    cell.append(c);
+                } else if (i + 1 < text.length() && text.charAt(i + 1) == '"') {
+                    cell.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == delimiter) {
+                cells.add(cell.toString());
+                cell.setLength(0);
+            } else {
+                cell.append(c);
+            }
+        }
+        cells.add(cell.toString());
+        return cells;
+    }
+
+    static int indexOfTag(String s, String tag) {
+        int last = s.length() - tag.length();
+        for (int i = 0; i <= last; i++) {
+            if (s.regionMatches(true, i, tag, 0, tag.length())) return i;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,217 @@
+package com.bankingapp.utils;
+
+import com.bankingapp.models.Money;
+import com.bankingapp.models.Transaction;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Locale;
+
+/**
+ * StatementWriter — turns transactions into statement text, one row at a
+ * time, straight onto a Writer. Nothing is held between rows, so an
+ * export of any length runs in the same memory.
+ *
+ * Amounts are written as exact rupees ("-1234.50"); NULL text becomes an
+ * empty CSV field or a JSON null.
+ */
+public abstract class StatementWriter {
+
+    public enum Format {
+        CSV("text/csv", "csv"),
+        JSON("application/json", "json");
+
+        public final String mimeType;
+        public final String extension;
+
+        Format(String mimeType, String extension) {
+            this.mimeType  = mimeType;
+            this.extension = extension;
+        }
+    }
+
+    // Column / field names, in output order
+    static final String[] FIELDS = {
+            "id", "date_time", "time_millis", "type", "category", "amount",
+            "description", "counterparty", "counterparty_phone", "status",
+            "latitude", "longitude"
+    };
+
+    protected final Writer out;
+
+    private StatementWriter(Writer out) {
+        this.out = out;
+    }
+
+    public static StatementWriter create(Format format, Writer out) {
+        return format == Format.JSON ? new Json(out) : new Csv(out);
+    }
+
+    /** Header (CSV) or opening bracket (JSON). */
+    public abstract void begin() throws IOException;
+
+    public abstract void write(Transaction t) throws IOException;
+
+    /** Closing bracket (JSON), then a flush. Does not close the Writer. */
+    public abstract void end() throws IOException;
+
+    // ── CSV (RFC 4180: CRLF rows, quotes only where needed) ──────────────
+    private static final class Csv extends StatementWriter {
+
+        Csv(Writer out) { super(out); }
+
+        @Override
+        public void begin() throws IOException {
+            for (int i = 0; i < FIELDS.length; i++) {
+                if (i > 0) out.write(',');
+                out.write(FIELDS[i]);
+            }
+            out.write("\r\n");
+        }
+
+        @Override
+        public void write(Transaction t) throws IOException {
+            out.write(Integer.toString(t.getId()));
+            out.write(',');
+            text(t.getDateTime());
+            out.write(',');
+            out.write(Long.toString(t.getTimeMillis()));
+            out.write(',');
+            text(t.getType());
+            out.write(',');
+            text(t.getCategory());
+            out.write(',');
+            writeRupees(out, t.getAmountPaise());
+            out.write(',');
+            text(t.getDescription());
+            out.write(',');
+            text(t.getToFromName());
+            out.write(',');
+            text(t.getToFromPhone());
+            out.write(',');
+            text(t.getStatus());
+            out.write(',');
+            out.write(Double.toString(t.getLatitude()));
+            out.write(',');
+            out.write(Double.toString(t.getLongitude()));
+            out.write("\r\n");
+        }
+
+        @Override
+        public void end() throws IOException {
+            out.flush();
+        }
+
+        private void text(String s) throws IOException {
+            if (s == null || s.isEmpty()) return;
+            if (!needsQuotes(s)) {
+                out.write(s);
+                return;
+            }
+            out.write('"');
+            for (int i = 0; i < s.length(); i++) {
+                char c = s.charAt(i);
+                if (c == '"') out.write('"');   // "" inside quotes
+                out.write(c);
+            }
+            out.write('"');
+        }
+
+        private static boolean needsQuotes(String s) {
+            for (int i = 0; i < s.length(); i++) {
+                char c = s.charAt(i);
+                if (c == ',' || c == '"' || c == '\n' || c == '\r') return true;
+            }
+            return false;
+        }
+    }
+
+    // ── JSON (an array, one object per line) ─────────────────────────────
+    private static final class Json extends StatementWriter {
+
+        private boolean first = true;
+
+        Json(Writer out) { super(out); }
+
+        @Override
+        public void begin() throws IOException {
+            out.write('[');
+        }
+
+        @Override
+        public void write(Transaction t) throws IOException {
+            out.write(first ? "\n{" : ",\n{");
+            first = false;
+            name(0);  out.write(Integer.toString(t.getId()));
+            name(1);  text(t.getDateTime());
+            name(2);  out.write(Long.toString(t.getTimeMillis()));
+            name(3);  text(t.getType());
+            name(4);  text(t.getCategory());
+            name(5);  writeRupees(out, t.getAmountPaise());
+            name(6);  text(t.getDescription());
+            name(7);  text(t.getToFromName());
+            name(8);  text(t.getToFromPhone());
+            name(9);  text(t.getStatus());
+            name(10); number(t.getLatitude());
+            name(11); number(t.getLongitude());
+            out.write('}');
+        }
+
+        @Override
+        public void end() throws IOException {
+            out.write(first ? "]\n" : "\n]\n");
+            out.flush();
+        }
+
+        private void name(int field) throws IOException {
+            if (field > 0) out.write(',');
+            out.write('"');
+            out.write(FIELDS[field]);
+            out.write("\":");
+        }
+
+        // JSON has no NaN or Infinity
+        private void number(double d) throws IOException {
+            out.write(Double.isNaN(d) || Double.isInfinite(d) ? "null" : Double.toString(d));
+        }
+
+        private void text(String s) throws IOException {
+            if (s == null) {
+                out.write("null");
+                return;
+            }
+            out.write('"');
+            for (int i = 0; i < s.length(); i++) {
+                char c = s.charAt(i);
+                switch (c) {
+                    case '"':  out.write("\\\""); break;
+                    case '\\': out.write("\\\\"); break;
+                    case '\n': out.write("\\n");  break;
+                    case '\r': out.write("\\r");  break;
+                    case '\t': out.write("\\t");  break;
+                    default:
+                        // Control characters, plus the two line separators
+                        // JavaScript does not accept inside a string
+                        if (c < 0x20 || c == '\u2028' || c == '\u2029') {
+                            out.write(String.format(Locale.ROOT, "\\u%04x", (int) c));
+                        } else {
+                            out.write(c);
+                        }
+                }
+            }
+            out.write('"');
+        }
+    }
+
+    // ── Shared ────────────────────────────────────────────────────────────
+    // "1234.50": no grouping, so spreadsheets and parsers read it as a number
+    static void writeRupees(Writer out, long paise) throws IOException {
+        long abs = Math.abs(paise);
+        if (paise < 0) out.write('-');
+        out.write(Long.toString(abs / Money.PAISE_PER_RUPEE));
+        out.write('.');
+        long rest = abs % Money.PAISE_PER_RUPEE;
+        if (rest < 10) out.write('0');
+        out.write(Long.toString(rest));
+    }
+}
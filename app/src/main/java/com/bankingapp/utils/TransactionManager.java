@@ -5,24 +5,23 @@ import android.location.Location;
 import android.location.LocationManager;
 
 import com.bankingapp.database.DatabaseHelper;
+import com.bankingapp.database.IDataRepository;
 import com.bankingapp.models.Bill;
+import com.bankingapp.models.Money;
 import com.bankingapp.models.Transaction;
 import com.bankingapp.models.User;
 
 public class TransactionManager {
 
-    public static final double SUSPICIOUS_FLAT_AMOUNT = 5000.0;
-    public static final double SUSPICIOUS_BALANCE_PCT = 0.50;
-
     // ── Result wrapper returned to Fragments ──────────────────────────────
     public static class Result {
         public final boolean success;
         public final boolean suspicious;
         public final String  message;
-        public final double  newBalance;
+        public final long    newBalance;   // paise
 
         public Result(boolean success, boolean suspicious,
-                      String message, double newBalance) {
+                      String message, long newBalance) {
             this.success    = success;
             this.suspicious = suspicious;
             this.message    = message;
@@ -30,53 +29,45 @@ public class TransactionManager {
         }
     }
 
-    // ── Use DatabaseHelper directly (not IDataRepository) so getBalance()
-    //    and other DB-specific methods are accessible ──────────────────────
-    private final DatabaseHelper db;
-    private final SessionManager session;
-    private final Context        context;
+    private final IDataRepository db;
+    private final SessionManager  session;
+    private final Context         context;
 
     public TransactionManager(Context context) {
+        this(context, DatabaseHelper.getRepository(context));
+    }
+
+    // Any repository will do, e.g. InMemoryDataRepository in tests
+    public TransactionManager(Context context, IDataRepository db) {
         this.context = context;
-        this.db      = new DatabaseHelper(context);
+        this.db      = db;
         this.session = new SessionManager(context);
     }
 
     // ─────────────────────────────────────────────────────────────────────
-    // SEND MONEY
+    // SEND MONEY  (amount in paise)
     // ─────────────────────────────────────────────────────────────────────
-    public Result sendMoney(String recipientPhone, double amount,
+    public Result sendMoney(String recipientPhone, long amount,
                             double lat, double lng) {
 
-        if (amount <= 0)
-            return new Result(false, false, "Amount must be greater than 0", 0);
+        String invalid = TransactionRules.checkSend(recipientPhone, amount);
+        if (invalid != null)
+            return new Result(false, false, invalid, 0);
 
-        if (amount > 100000)
-            return new Result(false, false,
-                    "Amount exceeds daily limit of ₹1,00,000", 0);
+        int  userId  = session.getUserId();
+        long balance = db.getBalance(userId);
 
-        if (recipientPhone == null || !recipientPhone.matches("[0-9]{10}"))
-            return new Result(false, false,
-                    "Enter a valid 10-digit phone number", 0);
+        String shortfall = TransactionRules.checkBalance(amount, balance);
+        if (shortfall != null)
+            return new Result(false, false, shortfall, balance);
 
-        int    userId  = session.getUserId();
-        double balance = db.getBalance(userId);
-
-        if (balance < amount)
-            return new Result(false, false,
-                    "Insufficient balance. Available: ₹" +
-                            String.format("%.2f", balance), balance);
-
-        boolean suspicious = isSuspicious(amount, balance);
+        boolean suspicious = TransactionRules.isSuspicious(amount, balance);
 
         User   recipient     = db.getUserByPhone(recipientPhone);
         String recipientName = (recipient != null) ?
                 recipient.getFullName() : recipientPhone;
 
-        double newBalance = balance - amount;
-        db.updateUserBalance(userId, newBalance);
-
-        // ── Record SENT transaction (8-param constructor) ─────────────────
+        // ── SENT row (8-param constructor) ────────────────────────────────
         Transaction sentTxn = new Transaction(
                 userId,
                 Transaction.TYPE_SENT,
@@ -86,15 +77,12 @@ public class TransactionManager {
                 recipientName,
                 lat, lng
         );
-        db.insertTransaction(sentTxn);
 
-        // ── Credit recipient if they are in our app ───────────────────────
+        // ── RECEIVED row + credit if recipient is in our app ──────────────
+        Transaction receivedTxn = null;
         if (recipient != null) {
-            double recipientBalance = db.getBalance(recipient.getId());
-            db.updateUserBalance(recipient.getId(), recipientBalance + amount);
-
             String senderName = session.getFullName();
-            Transaction receivedTxn = new Transaction(
+            receivedTxn = new Transaction(
                     recipient.getId(),
                     Transaction.TYPE_RECEIVED,
                     Transaction.CAT_TRANSFER,
@@ -103,32 +91,32 @@ public class TransactionManager {
                     senderName,
                     lat, lng
             );
-            db.insertTransaction(receivedTxn);
         }
 
+        // ── Debit, credit and both rows commit together or not at all ────
+        long newBalance = db.transfer(userId, amount, sentTxn, receivedTxn);
+        if (newBalance < 0) return failure(newBalance, userId);
+
         return new Result(true, suspicious,
-                "₹" + String.format("%.2f", amount) + " sent to " + recipientName,
+                Money.format(amount) + " sent to " + recipientName,
                 newBalance);
     }
 
     // ─────────────────────────────────────────────────────────────────────
-    // PAY BILL
+    // PAY BILL  (amount in paise)
     // ─────────────────────────────────────────────────────────────────────
-    public Result payBill(String billType, double amount) {
+    public Result payBill(String billType, long amount) {
 
-        if (amount <= 0)
-            return new Result(false, false, "Amount must be greater than 0", 0);
+        String invalid = TransactionRules.checkAmount(amount);
+        if (invalid != null)
+            return new Result(false, false, invalid, 0);
 
-        int    userId  = session.getUserId();
-        double balance = db.getBalance(userId);
-
-        if (balance < amount)
-            return new Result(false, false,
-                    "Insufficient balance. Available: ₹" +
-                            String.format("%.2f", balance), balance);
+        int  userId  = session.getUserId();
+        long balance = db.getBalance(userId);
 
-        double newBalance = balance - amount;
-        db.updateUserBalance(userId, newBalance);
+        String shortfall = TransactionRules.checkBalance(amount, balance);
+        if (shortfall != null)
+            return new Result(false, false, shortfall, balance);
 
         double[] latLng = getLastKnownLocation();
 
@@ -141,22 +129,27 @@ public class TransactionManager {
                 billType + " Provider",
                 latLng[0], latLng[1]
         );
-        db.insertTransaction(txn);
-
         Bill bill = new Bill(userId, billType, amount);
-        db.insertBill(bill);
+
+        long newBalance = db.payBill(userId, amount, txn, bill);
+        if (newBalance < 0) return failure(newBalance, userId);
 
         return new Result(true, false,
-                billType + " bill of ₹" +
-                        String.format("%.2f", amount) + " paid!", newBalance);
+                billType + " bill of " + Money.format(amount) + " paid!",
+                newBalance);
     }
 
     // ─────────────────────────────────────────────────────────────────────
     // HELPERS
     // ─────────────────────────────────────────────────────────────────────
-    private boolean isSuspicious(double amount, double balance) {
-        return amount >= SUSPICIOUS_FLAT_AMOUNT ||
-                amount >= (balance * SUSPICIOUS_BALANCE_PCT);
+    // Maps the repository's atomic-write error codes to a Result
+    private Result failure(long code, int userId) {
+        long balance = db.getBalance(userId);
+        if (code == IDataRepository.INSUFFICIENT_FUNDS)
+            return new Result(false, false,
+                    TransactionRules.insufficientBalance(balance), balance);
+        return new Result(false, false,
+                "Transaction failed. Please try again.", balance);
     }
 
     private double[] getLastKnownLocation() {
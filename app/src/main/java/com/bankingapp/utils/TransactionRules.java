@@ -0,0 +1,61 @@
+package com.bankingapp.utils;
+
+import com.bankingapp.models.Money;
+
+/**
+ * TransactionRules — the checks TransactionManager makes before it goes
+ * to the database: input validation and the suspicious-amount rule.
+ *
+ * Each check returns null when the input is fine, otherwise the message
+ * shown to the user. All amounts are exact paise (see Money).
+ */
+public final class TransactionRules {
+
+    public static final long SUSPICIOUS_FLAT_AMOUNT = 500_000L;      // ₹5,000
+    public static final int  SUSPICIOUS_BALANCE_PCT = 50;            // % of balance
+    public static final long DAILY_LIMIT            = 10_000_000L;   // ₹1,00,000
+
+    private static final int PHONE_DIGITS = 10;
+
+    private TransactionRules() {}
+
+    /** Amount and recipient of a transfer; the balance is checked separately. */
+    public static String checkSend(String recipientPhone, long amount) {
+        String invalid = checkAmount(amount);
+        if (invalid != null) return invalid;
+        if (amount > DAILY_LIMIT)
+            return "Amount exceeds daily limit of ₹1,00,000";
+        if (!isValidPhone(recipientPhone))
+            return "Enter a valid 10-digit phone number";
+        return null;
+    }
+
+    public static String checkAmount(long amount) {
+        return amount <= 0 ? "Amount must be greater than 0" : null;
+    }
+
+    public static String checkBalance(long amount, long balance) {
+        return balance < amount ? insufficientBalance(balance) : null;
+    }
+
+    public static String insufficientBalance(long balance) {
+        return "Insufficient balance. Available: " + Money.format(balance);
+    }
+
+    /** At least ₹5,000, or at least half of what the account holds. */
+    public static boolean isSuspicious(long amount, long balance) {
+        return amount >= SUSPICIOUS_FLAT_AMOUNT ||
+                amount >= Money.percentOf(balance, SUSPICIOUS_BALANCE_PCT, 100);
+    }
+
+    // Exactly ten ASCII digits — same as matches("[0-9]{10}") without
+    // compiling a Pattern on every send
+    static boolean isValidPhone(String phone) {
+        if (phone == null || phone.length() != PHONE_DIGITS) return false;
+        for (int i = 0; i < PHONE_DIGITS; i++) {
+            char c = phone.charAt(i);
+            if (c < '0' || c > '9') return false;
+        }
+        return true;
+    }
+}
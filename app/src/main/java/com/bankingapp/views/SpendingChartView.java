@@ -9,6 +9,9 @@ import android.graphics.Typeface;
 import android.util.AttributeSet;
 import android.view.View;
 
+import com.bankingapp.models.Money;
+import com.bankingapp.models.MonthSummary;
+
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -98,17 +101,19 @@ public class SpendingChartView extends View {
     }
 
     // ── Public API: set data and trigger redraw ───────────────────────────
-    public void setData(Map<String, Double> spendingMap) {
+    // Values are exact paise; converted to rupees only for drawing
+    public void setData(Map<String, Long> spendingMap) {
         labels.clear();
         values.clear();
         maxValue = 1.0;
 
         if (spendingMap != null) {
-            for (Map.Entry<String, Double> entry : spendingMap.entrySet()) {
+            for (Map.Entry<String, Long> entry : spendingMap.entrySet()) {
+                double rupees = Money.toRupees(entry.getValue());
                 labels.add(entry.getKey());
-                values.add(entry.getValue());
-                if (entry.getValue() > maxValue) {
-                    maxValue = entry.getValue();
+                values.add(rupees);
+                if (rupees > maxValue) {
+                    maxValue = rupees;
                 }
             }
         }
@@ -116,6 +121,11 @@ public class SpendingChartView extends View {
         invalidate(); // triggers onDraw()
     }
 
+    /** Draws the per-category spending of a month summary. */
+    public void setData(MonthSummary summary) {
+        setData(summary != null ? summary.spendingByCategory : null);
+    }
+
     // ── Calculate chart area on size change ──────────────────────────────
     @Override
     protected void onSizeChanged(int w, int h, int oldW, int oldH) {
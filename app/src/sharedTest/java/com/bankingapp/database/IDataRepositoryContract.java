@@ -0,0 +1,534 @@
+package com.bankingapp.database;
+
+import com.bankingapp.models.Bill;
+import com.bankingapp.models.MonthSummary;
+import com.bankingapp.models.SavingsGoal;
+import com.bankingapp.models.Transaction;
+import com.bankingapp.models.User;
+import com.bankingapp.utils.DateTimeHelper;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * What every IDataRepository must do, run against each implementation:
+ * InMemoryDataRepositoryTest on the JVM, DatabaseHelperContractTest on a
+ * device. A behaviour pinned here is one callers may rely on.
+ *
+ * The SQLite database starts with a demo user, and a suite may be run
+ * against a shared one, so each test makes its own users with fresh
+ * names and phones, never assumes ids, and searches for words no other
+ * run used.
+ */
+public abstract class IDataRepositoryContract {
+
+    private static final long DAY = 24L * 60 * 60 * 1000;
+
+    protected IDataRepository repo;
+
+    private final Random random = new Random();
+    private String tag;   // unique per test: prefixes usernames and search words
+
+    /** A repository to test; the SQLite one may already hold data. */
+    protected abstract IDataRepository createRepository();
+
+    @Before
+    public void setUp() {
+        repo = createRepository();
+        tag  = "q" + Long.toString(System.nanoTime(), 36) + random.nextInt(1000);
+    }
+
+    // ═════════════════════════════════════════════════════════════════════
+    // USERS
+    // ═════════════════════════════════════════════════════════════════════
+
+    @Test
+    public void registerUser_opensWithTenThousandRupees() {
+        User user = newUser("pass123");
+
+        assertEquals(1_000_000L, user.getBalancePaise());
+        assertEquals(1_000_000L, repo.getBalance(user.getId()));
+        assertEquals(1_000_000L, repo.getBalanceAsOf(user.getId(), Long.MAX_VALUE));
+        assertEquals(0L, repo.getBalanceAsOf(user.getId(),
+                System.currentTimeMillis() - DAY));
+        assertNotNull(user.getAccountNo());
+        assertEquals(user.getId(), repo.getUserById(user.getId()).getId());
+    }
+
+    @Test
+    public void registerUser_rejectsTakenUsernameOrPhone() {
+        User user = newUser("pass123");
+
+        assertFalse(repo.registerUser(user.getUsername(), "x", "Other", freePhone()));
+        assertFalse(repo.registerUser(tag + "other", "x", "Other", user.getPhone()));
+        assertTrue(repo.isUsernameExists(user.getUsername()));
+        assertTrue(repo.isPhoneExists(user.getPhone()));
+        assertFalse(repo.isUsernameExists(tag + "nobody"));
+    }
+
+    @Test
+    public void loginUser_needsTheRightPassword() {
+        User user = newUser("pass123");
+
+        assertEquals(user.getId(), repo.loginUser(user.getUsername(), "pass123").getId());
+        assertNull(repo.loginUser(user.getUsername(), "wrong"));
+        assertNull(repo.loginUser(tag + "nobody", "pass123"));
+    }
+
+    @Test
+    public void updateUserBalance_isJournaledAsAnAdjustment() {
+        User user = newUser("pass123");
+
+        assertTrue(repo.updateUserBalance(user.getId(), 250_000L));
+        assertEquals(250_000L, repo.getBalance(user.getId()));
+        assertEquals(250_000L, repo.getBalanceAsOf(user.getId(), Long.MAX_VALUE));
+        assertTrue(repo.updateProfilePic(user.getId(), "/pics/" + tag + ".jpg"));
+        assertEquals("/pics/" + tag + ".jpg",
+                repo.getUserById(user.getId()).getProfilePicPath());
+    }
+
+    @Test
+    public void returnedUsers_areCopies() {
+        User user = newUser("pass123");
+
+        repo.getUserById(user.getId()).setBalancePaise(1L);
+        assertEquals(1_000_000L, repo.getUserById(user.getId()).getBalancePaise());
+    }
+
+    // ═════════════════════════════════════════════════════════════════════
+    // HISTORY
+    // ═════════════════════════════════════════════════════════════════════
+
+    @Test
+    public void history_isNewestFirst_idBreaksTies() {
+        int userId = newUser("pass123").getId();
+        long t = DateTimeHelper.dayStartMillis("2025-03-10") + 10 * 3_600_000L;
+
+        insert(userId, Transaction.TYPE_SENT, "Food", 100, "first", t);
+        insert(userId, Transaction.TYPE_SENT, "Food", 200, "same ms, later", t);
+        insert(userId, Transaction.TYPE_SENT, "Food", 300, "older", t - 60_000);
+        insert(userId, Transaction.TYPE_SENT, "Food", 400, "newest", t + DAY);
+
+        assertEquals(Arrays.asList("newest", "same ms, later", "first", "older"),
+                descriptions(repo.getAllTransactions(userId)));
+        assertEquals(Arrays.asList("newest", "same ms, later"),
+                descriptions(repo.getRecentTransactions(userId, 2)));
+        assertEquals(Arrays.asList("same ms, later", "first", "older"),
+                descriptions(repo.getTransactionsByDateRange(userId,
+                        "2025-03-10", "2025-03-10")));
+        assertEquals(Collections.singletonList("newest"),
+                descriptions(repo.getTransactionsByDateRange(userId,
+                        "2025-03-11", "2025-03-12")));
+    }
+
+    @Test
+    public void insertTransaction_rejectsMissingRequiredColumns() {
+        int userId = newUser("pass123").getId();
+        Transaction noType = new Transaction(0, userId, null, "Food", 100, "x", null,
+                null, DateTimeHelper.toDbFormat(1_000L), 1_000L, 0, 0, "SUCCESS");
+        Transaction noDate = new Transaction(0, userId, Transaction.TYPE_SENT, "Food",
+                100, "x", null, null, null, 1_000L, 0, 0, "SUCCESS");
+
+        assertFalse(repo.insertTransaction(noType));
+        assertFalse(repo.insertTransaction(noDate));
+
+        List<Transaction> batch = new ArrayList<>();
+        for (int i = 0; i < 1_200; i++) {
+            batch.add(row(userId, Transaction.TYPE_SENT, "Food", i, "bulk " + i, 1_000L + i));
+        }
+        batch.add(noType);
+        List<Integer> progress = new ArrayList<>();
+        IDataRepository.BulkResult result = repo.insertTransactions(batch,
+                (processed, total) -> progress.add(processed));
+
+        assertEquals(1_201, result.total);
+        assertEquals(1_200, result.inserted);
+        assertEquals(1, result.failed);
+        assertEquals(Arrays.asList(500, 1_000, 1_201), progress);
+        assertEquals(1_200, repo.getAllTransactions(userId).size());
+        assertEquals("bulk 1199", repo.getRecentTransactions(userId, 1).get(0).getDescription());
+    }
+
+    @Test
+    public void pages_visitEveryRowOnceInHistoryOrder() {
+        int userId = newUser("pass123").getId();
+        long base = DateTimeHelper.dayStartMillis("2025-05-01");
+        for (int i = 0; i < 40; i++) {
+            // Every third row shares a millisecond with the one before it
+            long time = base + (i - i / 3) * 1_000L;
+            String type = i % 4 == 0 ? Transaction.TYPE_RECEIVED : Transaction.TYPE_SENT;
+            insert(userId, type, "Food", 100 + i, "row " + i, time);
+        }
+
+        List<Integer> paged = new ArrayList<>();
+        PageToken after = null;
+        int pages = 0;
+        do {
+            TransactionPage page = repo.getTransactionPage(userId, after, 7);
+            for (Transaction t : page.items) paged.add(t.getId());
+            after = page.next;
+            pages++;
+        } while (after != null);
+
+        assertEquals(ids(repo.getAllTransactions(userId)), paged);
+        assertEquals(6, pages);
+
+        // Filtered and bounded: RECEIVED rows of the first 20 seconds only
+        List<String> received = new ArrayList<>();
+        after = null;
+        do {
+            TransactionPage page = repo.getTransactionPage(userId, base, base + 20_000,
+                    Transaction.TYPE_RECEIVED, after, 2);
+            for (Transaction t : page.items) received.add(t.getDescription());
+            after = page.next;
+        } while (after != null);
+        assertEquals(Arrays.asList("row 28", "row 24", "row 20", "row 16",
+                "row 12", "row 8", "row 4", "row 0"), received);
+    }
+
+    @Test
+    public void projectedPages_leaveOtherColumnsEmpty() {
+        int userId = newUser("pass123").getId();
+        insert(userId, Transaction.TYPE_SENT, "Food", 4_200, "lunch", 5_000L);
+
+        Transaction t = repo.getTransactionPage(userId, null, 10,
+                Transaction.LIST_COLUMNS).items.get(0);
+
+        assertEquals("lunch", t.getDescription());
+        assertEquals(4_200L, t.getAmountPaise());
+        assertEquals(5_000L, t.getTimeMillis());
+        assertEquals(Transaction.TYPE_SENT, t.getType());
+        assertNull(t.getCategory());
+        assertNull(t.getToFromName());
+        assertEquals(0, t.getUserId());
+    }
+
+    // ═════════════════════════════════════════════════════════════════════
+    // SEARCH
+    // ═════════════════════════════════════════════════════════════════════
+
+    @Test
+    public void search_ranksCounterpartyAboveDescription_newerFirstOnTies() {
+        int userId = newUser("pass123").getId();
+        String ravi = tag + "ravi";
+        Transaction inDescription = row(userId, Transaction.TYPE_SENT, "Transfer", 100,
+                "dinner with " + ravi, 1_000L);
+        Transaction byName = new Transaction(0, userId, Transaction.TYPE_SENT,
+                "Transfer", 200, "rent", ravi + " Kumar", "9876543210",
+                DateTimeHelper.toDbFormat(2_000L), 2_000L, 0, 0, "SUCCESS");
+        repo.insertTransaction(byName);
+        repo.insertTransaction(inDescription);
+        insert(userId, Transaction.TYPE_SENT, "Transfer", 300, "unrelated", 3_000L);
+
+        // Prefix and case do not matter; the name column weighs double
+        String prefix = ravi.substring(0, ravi.length() - 1).toUpperCase();
+        assertEquals(Arrays.asList("rent", "dinner with " + ravi),
+                descriptions(repo.searchTransactions(userId, prefix, 0, 10)));
+        // Every word must match somewhere
+        assertEquals(Collections.singletonList("rent"),
+                descriptions(repo.searchTransactions(userId, ravi + " kumar", 0, 10)));
+        assertEquals(Collections.singletonList("rent"),
+                descriptions(repo.searchTransactions(userId, "98765 " + ravi, 0, 10)));
+        assertTrue(repo.searchTransactions(userId, ravi + " nowhere", 0, 10).isEmpty());
+        assertTrue(repo.searchTransactions(userId, " -*\" ", 0, 10).isEmpty());
+
+        // Equal scores: the newer insert comes first
+        insert(userId, Transaction.TYPE_SENT, "Food", 400, tag + "tea one", 4_000L);
+        insert(userId, Transaction.TYPE_SENT, "Food", 500, tag + "tea two", 5_000L);
+        assertEquals(Arrays.asList(tag + "tea two", tag + "tea one"),
+                descriptions(repo.searchTransactions(userId, tag + "tea", 0, 10)));
+        assertEquals(Collections.singletonList(tag + "tea one"),
+                descriptions(repo.searchTransactions(userId, tag + "tea", 1, 10)));
+    }
+
+    @Test
+    public void search_findsAnOldMatch_behindManyNewerOnes() {
+        int userId = newUser("pass123").getId();
+        String ravi = tag + "ravi";
+        // "that payment to Ravi last year", then a lot of newer mentions
+        repo.insertTransaction(new Transaction(0, userId, Transaction.TYPE_SENT,
+                "Transfer", 900, "last year", ravi, "9876500000",
+                DateTimeHelper.toDbFormat(1_000L), 1_000L, 0, 0, "SUCCESS"));
+        List<Transaction> newer = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            newer.add(row(userId, Transaction.TYPE_SENT, "Food", 10,
+                    "chai with " + ravi, 10_000L + i));
+        }
+        assertEquals(1_000, repo.insertTransactions(newer, null).inserted);
+
+        // The name match outranks every description match, however old
+        assertEquals(Collections.singletonList("last year"),
+                descriptions(repo.searchTransactions(userId, ravi, 0, 1)));
+        assertEquals(1_001, repo.searchTransactions(userId, ravi, 0, 2_000).size());
+        assertEquals(1, repo.searchTransactions(userId, ravi, 1_000, 50).size());
+    }
+
+    @Test
+    public void search_onlyReturnsTheUsersOwnRows() {
+        int mine   = newUser("pass123").getId();
+        int theirs = newUser("pass123").getId();
+        insert(theirs, Transaction.TYPE_SENT, "Food", 100, tag + "shared", 1_000L);
+
+        assertTrue(repo.searchTransactions(mine, tag + "shared", 0, 10).isEmpty());
+        assertEquals(1, repo.searchTransactions(theirs, tag + "shared", 0, 10).size());
+    }
+
+    // ═════════════════════════════════════════════════════════════════════
+    // MONEY MOVEMENT
+    // ═════════════════════════════════════════════════════════════════════
+
+    @Test
+    public void transfer_movesMoneyAndRecordsBothSides() {
+        User sender = newUser("pass123"), payee = newUser("pass123");
+        long now = System.currentTimeMillis();
+        Transaction sent = row(sender.getId(), Transaction.TYPE_SENT, "Transfer",
+                30_000, "to payee", now);
+        Transaction received = row(payee.getId(), Transaction.TYPE_RECEIVED, "Transfer",
+                30_000, "from sender", now);
+
+        assertEquals(970_000L, repo.transfer(sender.getId(), 30_000, sent, received));
+        assertEquals(970_000L, repo.getBalance(sender.getId()));
+        assertEquals(1_030_000L, repo.getBalance(payee.getId()));
+        assertEquals(970_000L, repo.getBalanceAsOf(sender.getId(), Long.MAX_VALUE));
+        assertEquals(1_030_000L, repo.getBalanceAsOf(payee.getId(), Long.MAX_VALUE));
+        assertEquals(Collections.singletonList("to payee"),
+                descriptions(repo.getAllTransactions(sender.getId())));
+        assertEquals(Collections.singletonList("from sender"),
+                descriptions(repo.getAllTransactions(payee.getId())));
+    }
+
+    @Test
+    public void transfer_thatFails_writesNothing() {
+        User sender = newUser("pass123");
+        long now = System.currentTimeMillis();
+        Transaction sent = row(sender.getId(), Transaction.TYPE_SENT, "Transfer",
+                2_000_000, "too much", now);
+
+        assertEquals(IDataRepository.INSUFFICIENT_FUNDS,
+                repo.transfer(sender.getId(), 2_000_000, sent, null));
+
+        Transaction nowhere = row(Integer.MAX_VALUE, Transaction.TYPE_RECEIVED,
+                "Transfer", 1_000, "lost", now);
+        sent = row(sender.getId(), Transaction.TYPE_SENT, "Transfer", 1_000, "to nobody", now);
+        assertEquals(IDataRepository.WRITE_FAILED,
+                repo.transfer(sender.getId(), 1_000, sent, nowhere));
+
+        assertEquals(1_000_000L, repo.getBalance(sender.getId()));
+        assertEquals(1_000_000L, repo.getBalanceAsOf(sender.getId(), Long.MAX_VALUE));
+        assertTrue(repo.getAllTransactions(sender.getId()).isEmpty());
+    }
+
+    @Test
+    public void missingPayer_isAWriteFailure_notInsufficientFunds() {
+        int nobody = Integer.MAX_VALUE;
+        long now = System.currentTimeMillis();
+        Transaction sent = row(nobody, Transaction.TYPE_SENT, "Transfer", 1_000, "ghost", now);
+        Transaction txn = row(nobody, Transaction.TYPE_BILL_PAYMENT,
+                Transaction.CAT_WATER, 1_000, "ghost bill", now);
+
+        assertEquals(IDataRepository.WRITE_FAILED, repo.transfer(nobody, 1_000, sent, null));
+        assertEquals(IDataRepository.WRITE_FAILED,
+                repo.payBill(nobody, 1_000, txn, new Bill(nobody, Bill.TYPE_WATER, 1_000)));
+        assertTrue(repo.getAllTransactions(nobody).isEmpty());
+        assertTrue(repo.getBillsByUser(nobody).isEmpty());
+    }
+
+    @Test
+    public void balanceAsOf_survivesAPostingDatedBeforeTheLastSnapshot() {
+        User sender = newUser("pass123"), payee = newUser("pass123");
+        long now = System.currentTimeMillis();
+        // Past a snapshot, then one transfer dated a day back (a clock set
+        // back), then past another snapshot
+        for (int i = 0; i < Ledger.SNAPSHOT_EVERY + 5; i++) send(sender, payee, 100, now);
+        send(sender, payee, 1_000, now - DAY);
+        for (int i = 0; i < Ledger.SNAPSHOT_EVERY; i++) send(sender, payee, 100, now);
+
+        long expected = 1_000_000L - (2 * Ledger.SNAPSHOT_EVERY + 5) * 100L - 1_000L;
+        assertEquals(expected, repo.getBalance(sender.getId()));
+        assertEquals(expected, repo.getBalanceAsOf(sender.getId(), Long.MAX_VALUE));
+        assertEquals(expected, repo.getBalanceAsOf(sender.getId(), System.currentTimeMillis()));
+        // Journaled when it was posted, not before the account opened
+        assertEquals(0L, repo.getBalanceAsOf(sender.getId(), now - DAY));
+        assertEquals(2_000_000L - expected,
+                repo.getBalanceAsOf(payee.getId(), Long.MAX_VALUE));
+    }
+
+    @Test
+    public void payBill_debitsAndRecordsBillAndSpending() {
+        User user = newUser("pass123");
+        long now = System.currentTimeMillis();
+        Transaction txn = row(user.getId(), Transaction.TYPE_BILL_PAYMENT,
+                Transaction.CAT_WATER, 45_000, "Water bill payment", now);
+        Bill bill = new Bill(user.getId(), Bill.TYPE_WATER, 45_000);
+
+        assertEquals(955_000L, repo.payBill(user.getId(), 45_000, txn, bill));
+        assertEquals(955_000L, repo.getBalanceAsOf(user.getId(), Long.MAX_VALUE));
+        assertEquals(Bill.TYPE_WATER, repo.getBillsByUser(user.getId()).get(0).getBillType());
+        assertEquals(45_000L, repo.getTotalSpentThisMonth(user.getId(),
+                DateTimeHelper.toMonthKey(now)));
+
+        assertEquals(IDataRepository.INSUFFICIENT_FUNDS, repo.payBill(user.getId(),
+                5_000_000, txn, bill));
+        assertEquals(1, repo.getBillsByUser(user.getId()).size());
+    }
+
+    // ═════════════════════════════════════════════════════════════════════
+    // BILLS, GOALS, INSIGHTS
+    // ═════════════════════════════════════════════════════════════════════
+
+    @Test
+    public void bills_newestPaidFirst_unpaidLast() {
+        int userId = newUser("pass123").getId();
+        repo.insertBill(new Bill(0, userId, "A", 1, "2025-01-02 10:00:00", Bill.STATUS_PAID));
+        repo.insertBill(new Bill(0, userId, "B", 1, null, Bill.STATUS_PENDING));
+        repo.insertBill(new Bill(0, userId, "C", 1, "2025-01-03 10:00:00", Bill.STATUS_PAID));
+        repo.insertBill(new Bill(0, userId, "D", 1, "2025-01-02 10:00:00", Bill.STATUS_PAID));
+        assertFalse(repo.insertBill(new Bill(0, userId, null, 1, null, null)));
+
+        List<String> types = new ArrayList<>();
+        for (Bill b : repo.getBillsByUser(userId)) types.add(b.getBillType());
+        assertEquals(Arrays.asList("C", "D", "A", "B"), types);
+    }
+
+    @Test
+    public void goals_newestFirst_andAmountUpdates() {
+        int userId = newUser("pass123").getId();
+        assertTrue(repo.insertGoal(new SavingsGoal(userId, "Bike", 5_000_000)));
+        assertTrue(repo.insertGoal(new SavingsGoal(userId, "Phone", 2_000_000)));
+
+        List<SavingsGoal> goals = repo.getGoalsByUser(userId);
+        assertEquals("Phone", goals.get(0).getGoalName());
+        assertEquals("Bike", goals.get(1).getGoalName());
+        assertEquals(0L, goals.get(0).getCurrentPaise());
+
+        assertTrue(repo.updateGoalAmount(goals.get(1).getId(), 750_000));
+        assertEquals(750_000L, repo.getGoalsByUser(userId).get(1).getCurrentPaise());
+    }
+
+    @Test
+    public void monthSummary_agreesWithTheSingleFigureQueries() {
+        int userId = newUser("pass123").getId();
+        String month = "2025-02";
+        long t = DateTimeHelper.monthStartMillis(month) + DAY;
+        insert(userId, Transaction.TYPE_SENT, "Food", 10_000, "a", t);
+        insert(userId, Transaction.TYPE_SENT, "Food", 5_000, "b", t + 1);
+        insert(userId, Transaction.TYPE_BILL_PAYMENT, null, 7_000, "c", t + 2);
+        insert(userId, Transaction.TYPE_RECEIVED, "Transfer", 50_000, "d", t + 3);
+        insert(userId, Transaction.TYPE_SENT, "Food", 99_999, "next month",
+                DateTimeHelper.monthEndMillis(month));
+
+        MonthSummary summary = repo.getMonthSummary(userId, month);
+        Map<String, Long> spending = new HashMap<>();
+        spending.put("Food", 15_000L);
+        spending.put(null, 7_000L);
+
+        assertEquals(22_000L, summary.spentPaise);
+        assertEquals(3, summary.spentCount);
+        assertEquals(50_000L, summary.receivedPaise);
+        assertEquals(1, summary.receivedCount);
+        assertEquals(spending, summary.spendingByCategory);
+        assertEquals(Integer.valueOf(2), summary.countByCategory.get("Food"));
+        assertEquals(spending, repo.getSpendingByCategory(userId, month));
+        assertEquals(22_000L, repo.getTotalSpentThisMonth(userId, month));
+        assertEquals(50_000L, repo.getTotalReceivedThisMonth(userId, month));
+        assertTrue(repo.getMonthSummary(userId, "1999-01").isEmpty());
+    }
+
+    @Test
+    public void rangeTotals_matchTheRowsInTheRange_acrossPartialAndWholeMonths() {
+        int userId = newUser("pass123").getId();
+        long march = DateTimeHelper.monthStartMillis("2025-03");
+        long april = DateTimeHelper.monthStartMillis("2025-04");
+        long may   = DateTimeHelper.monthStartMillis("2025-05");
+        insert(userId, Transaction.TYPE_SENT, "Food", 1_000, "before", march + DAY);
+        insert(userId, Transaction.TYPE_SENT, "Food", 2_000, "march", march + 10 * DAY);
+        insert(userId, Transaction.TYPE_RECEIVED, "Transfer", 40_000, "april", april + DAY);
+        insert(userId, Transaction.TYPE_BILL_PAYMENT, null, 3_000, "april bill", april + 2 * DAY);
+        insert(userId, Transaction.TYPE_SENT, "Food", 5_000, "may", may + DAY);
+        insert(userId, Transaction.TYPE_SENT, "Food", 7_000, "after", may + 10 * DAY);
+
+        // Mid-March to mid-May: a partial month, a whole one and a partial one
+        IDataRepository.RangeTotals totals = repo.getRangeTotals(userId,
+                march + 5 * DAY, may + 5 * DAY, null);
+        assertEquals(10_000L, totals.spentPaise);
+        assertEquals(40_000L, totals.receivedPaise);
+        assertEquals(4, totals.count);
+
+        IDataRepository.RangeTotals sent = repo.getRangeTotals(userId,
+                march + 5 * DAY, may + 5 * DAY, Transaction.TYPE_SENT);
+        assertEquals(7_000L, sent.spentPaise);
+        assertEquals(0L, sent.receivedPaise);
+        assertEquals(2, sent.count);
+
+        IDataRepository.RangeTotals all = repo.getRangeTotals(userId,
+                Long.MIN_VALUE, Long.MAX_VALUE, null);
+        assertEquals(18_000L, all.spentPaise);
+        assertEquals(6, all.count);
+
+        // Whole months only, and a range inside one day
+        assertEquals(1, repo.getRangeTotals(userId, april, may, Transaction.TYPE_RECEIVED).count);
+        assertEquals(0, repo.getRangeTotals(userId, april + 3 * DAY, april + 4 * DAY, null).count);
+    }
+
+    // ── Helpers ───────────────────────────────────────────────────────────
+    private User newUser(String password) {
+        String username = tag + "u" + random.nextInt(1_000_000);
+        assertTrue(repo.registerUser(username, password, "Test User", freePhone()));
+        return repo.loginUser(username, password);
+    }
+
+    private String freePhone() {
+        String phone;
+        do {
+            phone = String.valueOf(6_000_000_000L + (long) (random.nextDouble() * 3_999_999_999L));
+        } while (repo.isPhoneExists(phone));
+        return phone;
+    }
+
+    private static Transaction row(int userId, String type, String category,
+                                   long amountPaise, String description, long timeMillis) {
+        return new Transaction(0, userId, type, category, amountPaise, description,
+                null, null, DateTimeHelper.toDbFormat(timeMillis), timeMillis,
+                0, 0, Transaction.STATUS_SUCCESS);
+    }
+
+    private void insert(int userId, String type, String category,
+                        long amountPaise, String description, long timeMillis) {
+        assertTrue(repo.insertTransaction(
+                row(userId, type, category, amountPaise, description, timeMillis)));
+    }
+
+    private void send(User sender, User payee, long amountPaise, long timeMillis) {
+        Transaction sent = row(sender.getId(), Transaction.TYPE_SENT, "Transfer",
+                amountPaise, "to payee", timeMillis);
+        Transaction received = row(payee.getId(), Transaction.TYPE_RECEIVED, "Transfer",
+                amountPaise, "from sender", timeMillis);
+        assertTrue(repo.transfer(sender.getId(), amountPaise, sent, received) >= 0);
+    }
+
+    private static List<String> descriptions(List<Transaction> list) {
+        List<String> out = new ArrayList<>();
+        for (Transaction t : list) out.add(t.getDescription());
+        return out;
+    }
+
+    private static List<Integer> ids(List<Transaction> list) {
+        List<Integer> out = new ArrayList<>();
+        for (Transaction t : list) out.add(t.getId());
+        return out;
+    }
+}
@@ -0,0 +1,99 @@
+package com.bankingapp.database;
+
+import com.bankingapp.models.Transaction;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * The archive block format: whatever goes in comes back field for field,
+ * NULLs, odd text and out-of-order ids included.
+ */
+public class ArchiveBlockTest {
+
+    private static final long MONTH_START = 1_700_000_000_000L;
+
+    @Test
+    public void roundTrip_keepsEveryField() {
+        List<Transaction> rows = new ArrayList<>();
+        rows.add(row(41, MONTH_START, "SENT", "Food", 12_345L, "Lunch at Café ☕",
+                "Ravi Kumar", "9876543210", "2023-11-14 22:13:20", 12.97, 77.59, "SUCCESS"));
+        rows.add(row(40, MONTH_START + 1_000, "RECEIVED", null, 1L, null,
+                null, null, "2023-11-14 22:13:21", 0.0, 0.0, null));
+        rows.add(row(99, MONTH_START - 5_000, "BILL_PAYMENT", "", -7L, "",
+                "", "", "", -33.86, 151.21, "FAILED"));
+
+        List<Transaction> back = ArchiveBlock.decode(7, ArchiveBlock.encode(rows));
+
+        assertEquals(rows.size(), back.size());
+        for (int i = 0; i < rows.size(); i++) assertSame(rows.get(i), back.get(i));
+    }
+
+    @Test
+    public void roundTrip_emptyBlock() {
+        assertTrue(ArchiveBlock.decode(7, ArchiveBlock.encode(Collections.emptyList())).isEmpty());
+    }
+
+    @Test
+    public void roundTrip_textOverSixtyFourKilobytes() {
+        StringBuilder note = new StringBuilder();
+        while (note.length() < 70_000) note.append("₹ split between flatmates; ");
+        List<Transaction> rows = Collections.singletonList(row(1, MONTH_START, "SENT",
+                "Rent", 2_500_000L, note.toString(), "Landlord", "9000000000",
+                "2023-11-14 22:13:20", 0.0, 0.0, "SUCCESS"));
+
+        assertSame(rows.get(0), ArchiveBlock.decode(7, ArchiveBlock.encode(rows)).get(0));
+    }
+
+    @Test
+    public void typicalMonth_compressesWellBelowItsText() {
+        List<Transaction> rows = new ArrayList<>();
+        int textBytes = 0;
+        for (int i = 0; i < 200; i++) {
+            Transaction t = row(1_000 + i, MONTH_START + i * 3_600_000L,
+                    i % 3 == 0 ? "RECEIVED" : "SENT", i % 2 == 0 ? "Food" : "Travel",
+                    100L * i, "UPI payment " + (i % 7), "Merchant " + (i % 5),
+                    "98765432" + (10 + i % 5), "2023-11-14 22:13:20", 12.97, 77.59,
+                    "SUCCESS");
+            rows.add(t);
+            textBytes += t.getDescription().length() + t.getToFromName().length()
+                    + t.getToFromPhone().length() + t.getDateTime().length();
+        }
+
+        byte[] block = ArchiveBlock.encode(rows);
+
+        assertTrue("block of " + block.length + " bytes", block.length < textBytes / 4);
+        assertEquals(rows.size(), ArchiveBlock.decode(7, block).size());
+    }
+
+    // ── Helpers ───────────────────────────────────────────────────────────
+    private static Transaction row(int id, long timeMillis, String type, String category,
+                                   long amountPaise, String description, String name,
+                                   String phone, String dateTime, double latitude,
+                                   double longitude, String status) {
+        return new Transaction(id, 7, type, category, amountPaise, description, name,
+                phone, dateTime, timeMillis, latitude, longitude, status);
+    }
+
+    private static void assertSame(Transaction expected, Transaction actual) {
+        assertEquals(expected.getId(),          actual.getId());
+        assertEquals(expected.getUserId(),      actual.getUserId());
+        assertEquals(expected.getType(),        actual.getType());
+        assertEquals(expected.getCategory(),    actual.getCategory());
+        assertEquals(expected.getAmountPaise(), actual.getAmountPaise());
+        assertEquals(expected.getDescription(), actual.getDescription());
+        assertEquals(expected.getToFromName(),  actual.getToFromName());
+        assertEquals(expected.getToFromPhone(), actual.getToFromPhone());
+        assertEquals(expected.getDateTime(),    actual.getDateTime());
+        assertEquals(expected.getTimeMillis(),  actual.getTimeMillis());
+        assertEquals(expected.getLatitude(),    actual.getLatitude(),  0.0);
+        assertEquals(expected.getLongitude(),   actual.getLongitude(), 0.0);
+        assertEquals(expected.getStatus(),      actual.getStatus());
+    }
+}
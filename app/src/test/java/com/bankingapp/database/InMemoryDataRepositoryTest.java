@@ -0,0 +1,13 @@
+package com.bankingapp.database;
+
+/**
+ * The repository contract against InMemoryDataRepository, on the host JVM.
+ * DatabaseHelperContractTest runs the same suite on a device.
+ */
+public class InMemoryDataRepositoryTest extends IDataRepositoryContract {
+
+    @Override
+    protected IDataRepository createRepository() {
+        return new InMemoryDataRepository();
+    }
+}
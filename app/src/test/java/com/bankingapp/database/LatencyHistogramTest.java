@@ -0,0 +1,68 @@
+package com.bankingapp.database;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * The bucket arithmetic behind every reported percentile: edges meet
+ * without gaps, an edge is never low and at most 12.5% high, and the
+ * recorded max caps what a percentile can report.
+ */
+public class LatencyHistogramTest {
+
+    @Test
+    public void bucketEdges_tileEveryLongWithoutGaps() {
+        assertEquals(0, LatencyHistogram.indexOf(0));
+        assertEquals(15, LatencyHistogram.indexOf(15));
+        assertEquals(15L, LatencyHistogram.upperEdge(15));
+        // 16 and 17 share the first log-linear bucket, 18 starts the next
+        assertEquals(16, LatencyHistogram.indexOf(16));
+        assertEquals(16, LatencyHistogram.indexOf(17));
+        assertEquals(17, LatencyHistogram.indexOf(18));
+        assertEquals(17L, LatencyHistogram.upperEdge(16));
+
+        int last = LatencyHistogram.indexOf(Long.MAX_VALUE);
+        assertEquals(Long.MAX_VALUE, LatencyHistogram.upperEdge(last));
+        for (int i = 0; i < last; i++) {
+            long edge = LatencyHistogram.upperEdge(i);
+            assertEquals("edge of " + i, i, LatencyHistogram.indexOf(edge));
+            assertEquals("past edge of " + i, i + 1, LatencyHistogram.indexOf(edge + 1));
+        }
+    }
+
+    @Test
+    public void upperEdge_isNeverLow_andAtMostAnEighthHigh() {
+        for (long v : new long[]{ 0, 1, 15, 16, 17, 31, 32, 1_000, 1_023, 1_024, 999_999,
+                123_456_789L, 1L << 40, (1L << 40) + 1, Long.MAX_VALUE / 3 }) {
+            long edge = LatencyHistogram.upperEdge(LatencyHistogram.indexOf(v));
+            assertTrue(v + " -> " + edge, edge >= v);
+            assertTrue(v + " -> " + edge, edge - v <= v / 8);
+        }
+    }
+
+    @Test
+    public void percentile_isBoundedAboveAndClampedToMax() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0L, histogram.snapshot().percentile(0.5));
+
+        for (long v = 1; v <= 1_000; v++) histogram.record(v);
+        LatencyHistogram.Snapshot s = histogram.snapshot();
+
+        assertEquals(1_000, s.count);
+        assertEquals(1_000L, s.maxNanos);
+        assertEquals(500L, s.meanNanos());
+        long p50 = s.percentile(0.5), p99 = s.percentile(0.99);
+        assertTrue("p50 " + p50, p50 >= 500 && p50 <= 500 + 500 / 8);
+        assertTrue("p99 " + p99, p99 >= 990 && p99 <= 1_000);
+        // 1,000 falls in the 960–1023 bucket; its edge is capped at the max
+        assertEquals(1_000L, s.percentile(1.0));
+
+        LatencyHistogram one = new LatencyHistogram();
+        one.record(3_000);
+        assertEquals(3_000L, one.snapshot().percentile(0.5));
+        one.record(-5);   // clamped to 0, not a negative bucket
+        assertEquals(0L, one.snapshot().percentile(0.5));
+    }
+}
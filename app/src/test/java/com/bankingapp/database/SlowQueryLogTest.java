@@ -0,0 +1,66 @@
+package com.bankingapp.database;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * The text parsing behind the slow-query log: EXPLAIN QUERY PLAN steps
+ * in both the pre-3.36 and current wording, and '?' counting around
+ * quoted literals.
+ */
+public class SlowQueryLogTest {
+
+    private static final Set<String> TRANSACTIONS_AS_T =
+            new HashSet<>(Arrays.asList("transactions", "t"));
+
+    @Test
+    public void tableScan_currentPlanWording() {
+        assertTrue(SlowQueryLog.isTableScan("SCAN transactions", TRANSACTIONS_AS_T));
+        assertTrue(SlowQueryLog.isTableScan("SCAN t", TRANSACTIONS_AS_T));
+        assertFalse(SlowQueryLog.isTableScan("SCAN users", TRANSACTIONS_AS_T));
+        assertFalse(SlowQueryLog.isTableScan("SEARCH t USING INDEX idx_txn_user_time "
+                + "(user_id=? AND time_millis>?)", TRANSACTIONS_AS_T));
+    }
+
+    @Test
+    public void tableScan_olderPlanWording() {
+        assertTrue(SlowQueryLog.isTableScan("SCAN TABLE transactions", TRANSACTIONS_AS_T));
+        assertTrue(SlowQueryLog.isTableScan("SCAN TABLE transactions AS t", TRANSACTIONS_AS_T));
+        assertTrue(SlowQueryLog.isTableScan("SCAN TABLE transactions AS t",
+                Collections.singleton("t")));
+        assertFalse(SlowQueryLog.isTableScan("SCAN TABLE users AS u", TRANSACTIONS_AS_T));
+        assertFalse(SlowQueryLog.isTableScan("SCAN TABLE", TRANSACTIONS_AS_T));
+    }
+
+    @Test
+    public void indexWalks_areNotTableScans() {
+        assertFalse(SlowQueryLog.isTableScan(
+                "SCAN t USING COVERING INDEX idx_txn_user_time", TRANSACTIONS_AS_T));
+        assertFalse(SlowQueryLog.isTableScan(
+                "SCAN TABLE transactions AS t USING INDEX idx_txn_user_time",
+                TRANSACTIONS_AS_T));
+        assertFalse(SlowQueryLog.isTableScan("SCAN transactions",
+                Collections.<String>emptySet()));
+    }
+
+    @Test
+    public void placeholders_skipQuotedLiterals() {
+        assertEquals(0, SlowQueryLog.placeholders("SELECT 1"));
+        assertEquals(2, SlowQueryLog.placeholders(
+                "SELECT * FROM transactions WHERE user_id=? AND type=?"));
+        assertEquals(1, SlowQueryLog.placeholders(
+                "SELECT * FROM transactions WHERE description = 'why?' AND id=?"));
+        assertEquals(1, SlowQueryLog.placeholders("SELECT \"odd?column\" FROM t WHERE id=?"));
+        // A doubled quote inside a literal is still inside it
+        assertEquals(1, SlowQueryLog.placeholders("SELECT 'it''s ?' WHERE id=?"));
+        assertEquals(1, SlowQueryLog.placeholders("SELECT '\"?' WHERE id=?"));
+    }
+}
@@ -0,0 +1,58 @@
+package com.bankingapp.database;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+
+/**
+ * The time range a provider selection pins rows to, which decides the
+ * archive blocks TransactionArchive.restore decodes: read from plain
+ * AND-ed time_millis terms, and left open whenever a term might not bind
+ * every row.
+ */
+public class TransactionArchiveTest {
+
+    private static final long MIN = Long.MIN_VALUE, MAX = Long.MAX_VALUE;
+
+    @Test
+    public void timeBounds_fromPlaceholdersAndLiterals() {
+        assertBounds(1_000, 2_000, "user_id = 7 AND time_millis >= ? AND time_millis < ?",
+                "1000", "2000");
+        assertBounds(1_001, 2_001, "time_millis > 1000 AND time_millis <= 2000");
+        assertBounds(1_500, 1_501, "t.time_millis = ?", "1500");
+        // The tighter of two bounds on a side wins
+        assertBounds(1_200, MAX, "time_millis >= 1000 AND (type = ? AND time_millis >= ?)",
+                "DEBIT", "1200");
+    }
+
+    @Test
+    public void timeBounds_countPlaceholdersPastQuotedLiterals() {
+        assertBounds(5_000, MAX, "description = 'why? and' AND type = ? AND time_millis >= ?",
+                "CREDIT", "5000");
+        assertBounds(MIN, 9_000, "\"odd?col\" = 1 AND time_millis < ?", "9000");
+    }
+
+    @Test
+    public void timeBounds_stayOpenUnlessEveryTermMustHold() {
+        assertBounds(MIN, MAX, null);
+        assertBounds(MIN, MAX, "type = ?", "DEBIT");
+        assertBounds(MIN, MAX, "time_millis >= ? OR type = 'CREDIT'", "1000");
+        assertBounds(MIN, MAX, "NOT time_millis >= ?", "1000");
+        assertBounds(MIN, MAX, "(time_millis < ?) = 0", "1000");
+        assertBounds(MIN, MAX, "ifnull(1, time_millis < ?)", "1000");
+        assertBounds(MIN, MAX, "id IN (SELECT id FROM transactions WHERE time_millis < ?)",
+                "1000");
+        assertBounds(MIN, MAX, "time_millis BETWEEN ? AND ?", "1000", "2000");
+        assertBounds(MIN, MAX, "time_millis >= ?1", "1000");
+        // Not a bare column compared with a whole number
+        assertBounds(MIN, MAX, "time_millis / 1000 >= ?", "1000");
+        assertBounds(MIN, MAX, "time_millis >= ?", "1e3");
+        assertBounds(MIN, MAX, "time_millis >= ?");
+        assertBounds(MIN, MAX, "time_millis <= ?", String.valueOf(MAX));
+    }
+
+    private static void assertBounds(long from, long to, String selection, String... args) {
+        assertArrayEquals(selection, new long[]{ from, to },
+                TransactionArchive.timeBounds(selection, args.length == 0 ? null : args));
+    }
+}
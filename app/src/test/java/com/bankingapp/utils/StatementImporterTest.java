@@ -0,0 +1,218 @@
+package com.bankingapp.utils;
+
+import com.bankingapp.models.Bill;
+import com.bankingapp.models.Transaction;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.List;
+import java.util.TimeZone;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * The import pipeline end to end, minus the database: splitting, parallel
+ * parsing, in-order chunk commits and line-numbered problems.
+ */
+public class StatementImporterTest {
+
+    private static final int USER = 5;
+
+    @Test
+    public void ourOwnCsvExport_importsFieldForField() throws IOException {
+        List<Transaction> exported = Arrays.asList(
+                new Transaction(9, 1, Transaction.TYPE_BILL_PAYMENT, Bill.TYPE_WATER, 45_000L,
+                        "Water bill payment", "Water Provider", null,
+                        "2024-02-10 08:00:00", 1_707_552_000_000L, 12.97, 77.59, "SUCCESS"),
+                new Transaction(8, 1, Transaction.TYPE_RECEIVED, Transaction.CAT_TRANSFER, 5L,
+                        "Rent, \"March\"\nsplit", "Asha", "9876543210",
+                        "2024-02-09 20:15:00", 1_707_489_900_000L, 0.0, 0.0, "SUCCESS"));
+        StringWriter csv = new StringWriter();
+        StatementWriter writer = StatementWriter.create(StatementWriter.Format.CSV, csv);
+        writer.begin();
+        for (Transaction t : exported) writer.write(t);
+        writer.end();
+
+        Recorder db = new Recorder();
+        StatementImporter.Result result = run(csv.toString(), db, null);
+
+        assertEquals(2, result.imported);
+        assertEquals(0, result.malformed);
+        for (int i = 0; i < exported.size(); i++) {
+            Transaction in = exported.get(i), out = db.rows().get(i);
+            assertEquals(USER,                out.getUserId());
+            assertEquals(in.getType(),        out.getType());
+            assertEquals(in.getCategory(),    out.getCategory());
+            assertEquals(in.getAmountPaise(), out.getAmountPaise());
+            assertEquals(in.getDescription(), out.getDescription());
+            assertEquals(in.getToFromName(),  out.getToFromName());
+            assertEquals(in.getToFromPhone(), out.getToFromPhone());
+            assertEquals(in.getTimeMillis(),  out.getTimeMillis());
+            assertEquals(in.getLatitude(),    out.getLatitude(),  0.0);
+            assertEquals(in.getLongitude(),   out.getLongitude(), 0.0);
+        }
+    }
+
+    @Test
+    public void bankCsv_withdrawalsAndDeposits_getTypesAndCategories() throws IOException {
+        Recorder db = new Recorder();
+        run("Date;Narration;Withdrawal Amt.;Deposit Amt.;Closing Balance\n"
+                + "01/03/24;BESCOM ELECTRICITY BILL;1,234.00;;9000\n"
+                + "02/03/24;UPI-ASHA;;500;9500\n"
+                + "03/03/24;AIRTEL PREPAID RECHARGE;299;;9201\n", db, null);
+
+        List<Transaction> rows = db.rows();
+        assertEquals(3, rows.size());
+        assertEquals(Transaction.TYPE_BILL_PAYMENT, rows.get(0).getType());
+        assertEquals(Bill.TYPE_ELECTRICITY,         rows.get(0).getCategory());
+        assertEquals(Transaction.TYPE_RECEIVED,     rows.get(1).getType());
+        assertEquals(Transaction.CAT_TRANSFER,      rows.get(1).getCategory());
+        assertEquals(50_000L,                       rows.get(1).getAmountPaise());
+        assertEquals(Bill.TYPE_RECHARGE,            rows.get(2).getCategory());
+        assertEquals("2024-03-02 00:00:00",         rows.get(1).getDateTime());
+    }
+
+    @Test
+    public void malformedRows_areSkippedAndReportedByLine() throws IOException {
+        Recorder db = new Recorder();
+        StatementImporter.Result result = run("Txn Date,Description,Amount\n"     // 1
+                + "2024-03-01,\"two\nline note\",-10.00\n"                         // 2-3
+                + "2024-02-31,Impossible day,5\n"                                  // 4
+                + "\n"                                                             // 5
+                + "2024-03-02,Too precise,1.005\n"                                 // 6
+                + "2024-03-03,Zero,0\n"                                            // 7
+                + "2024-03-04,Fine,(20.00)\n"                                      // 8
+                + "2024-03-05,\"never closed,1\n", db, null);                      // 9
+
+        assertEquals(2, result.imported);
+        assertEquals(4, result.malformed);
+        assertEquals(6, result.rowsRead);
+        assertEquals("[line 4: Bad date: 2024-02-31, line 6: Bad amount: 1.005, "
+                + "line 7: Amount is zero, line 9: Unterminated quoted field]",
+                result.problems.toString());
+        assertEquals(2_000L, db.rows().get(1).getAmountPaise());
+        assertEquals(Transaction.TYPE_SENT, db.rows().get(1).getType());
+    }
+
+    @Test
+    public void unrecognisedHeader_importsNothing() throws IOException {
+        Recorder db = new Recorder();
+        StatementImporter.Result result = run("Reference,Remarks\nA1,hello\n", db, null);
+
+        assertEquals(0, db.writes);
+        assertEquals("[line 1: No date column in header]", result.problems.toString());
+    }
+
+    @Test
+    public void ofx_sgmlAndXml() throws IOException {
+        Recorder db = new Recorder();
+        run("OFXHEADER:100\nDATA:OFXSGML\n\n<OFX><BANKMSGSRSV1><STMTTRNRS><STMTRS>\n"
+                + "<BANKTRANLIST>\n"
+                + "<STMTTRN>\n<TRNTYPE>DEBIT\n<DTPOSTED>20240301103000.000[+5.5:IST]\n"
+                + "<TRNAMT>-450.00\n<FITID>1\n<NAME>Delhi Jal Board\n</STMTTRN>\n"
+                + "<STMTTRN><TRNTYPE>CREDIT<DTPOSTED>20240302<TRNAMT>1200.5"
+                + "<NAME>Salary &amp; bonus</STMTTRN>"
+                + "<STMTTRN><DTPOSTED>20240303</STMTTRN>\n"
+                + "</BANKTRANLIST></STMTRS></STMTTRNRS></BANKMSGSRSV1></OFX>\n", db, null);
+
+        List<Transaction> rows = db.rows();
+        assertEquals(2, rows.size());
+        assertEquals(Transaction.TYPE_BILL_PAYMENT, rows.get(0).getType());
+        assertEquals(Bill.TYPE_WATER,               rows.get(0).getCategory());
+        assertEquals(45_000L,                       rows.get(0).getAmountPaise());
+        assertEquals(utc(2024, 3, 1, 5, 0),         rows.get(0).getTimeMillis());
+        assertEquals(Transaction.TYPE_RECEIVED,     rows.get(1).getType());
+        assertEquals("Salary & bonus",              rows.get(1).getToFromName());
+        assertEquals(120_050L,                      rows.get(1).getAmountPaise());
+    }
+
+    @Test
+    public void largeFile_commitsOneChunkPerWrite_inFileOrder() throws IOException {
+        int n = StatementImporter.CHUNK_RECORDS * 5 + 7;
+        StringBuilder csv = new StringBuilder("date,amount,description\n");
+        for (int i = 0; i < n; i++) csv.append("2024-01-01,1,row ").append(i).append('\n');
+        Recorder db = new Recorder();
+
+        StatementImporter.Result result = run(csv.toString(), db, null);
+
+        assertEquals(n, result.imported);
+        assertEquals(6, db.writes);
+        for (int i = 0; i < n; i++) assertEquals("row " + i, db.rows().get(i).getDescription());
+        assertTrue(result.rowsPerSecond() > 0);
+    }
+
+    @Test
+    public void cancelled_commitsNothingFurther() throws IOException {
+        StringBuilder csv = new StringBuilder("date,amount\n");
+        for (int i = 0; i < StatementImporter.CHUNK_RECORDS * 3; i++) csv.append("2024-01-01,1\n");
+        Recorder db = new Recorder();
+
+        StatementImporter.Result result = run(csv.toString(), db, () -> true);
+
+        assertTrue(result.cancelled);
+        assertEquals(0, db.writes);
+    }
+
+    @Test
+    public void amounts_inBankNotations() throws Exception {
+        assertEquals(123_450L,  StatementParser.parseAmount("1,234.50"));
+        assertEquals(-9_900L,   StatementParser.parseAmount("-99"));
+        assertEquals(-1_200L,   StatementParser.parseAmount("(12.00)"));
+        assertEquals(50_000L,   StatementParser.parseAmount("₹ 500"));
+        assertEquals(50_000L,   StatementParser.parseAmount("Rs.500"));
+        assertEquals(-25_000L,  StatementParser.parseAmount("250.00 Dr"));
+        assertEquals(25_000L,   StatementParser.parseAmount("250.00 CR"));
+        assertFalse(parses("12.3.4"));
+        assertFalse(parses("--5"));
+    }
+
+    // ── Helpers ───────────────────────────────────────────────────────────
+    /** Stands in for DatabaseHelper.insertTransactionChunk. */
+    private static final class Recorder implements StatementImporter.ChunkWriter {
+        final List<List<Transaction>> chunks = new ArrayList<>();
+        int writes;
+
+        @Override
+        public int write(List<Transaction> rows) {
+            writes++;
+            chunks.add(new ArrayList<>(rows));
+            return rows.size();
+        }
+
+        List<Transaction> rows() {
+            List<Transaction> all = new ArrayList<>();
+            for (List<Transaction> c : chunks) all.addAll(c);
+            return all;
+        }
+    }
+
+    private static StatementImporter.Result run(String text, Recorder db,
+                                                StatementImporter.Cancellation cancel)
+            throws IOException {
+        return StatementImporter.run(new StringReader(text), USER, db, cancel, null, 3);
+    }
+
+    private static boolean parses(String amount) {
+        try {
+            StatementParser.parseAmount(amount);
+            return true;
+        } catch (StatementParser.MalformedRowException e) {
+            return false;
+        }
+    }
+
+    private static long utc(int year, int month, int day, int hour, int minute) {
+        Calendar cal = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+        cal.clear();
+        cal.set(year, month - 1, day, hour, minute);
+        return cal.getTimeInMillis();
+    }
+}
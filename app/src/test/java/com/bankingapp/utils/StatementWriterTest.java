@@ -0,0 +1,88 @@
+package com.bankingapp.utils;
+
+import com.bankingapp.models.Transaction;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Statement formats, byte for byte: quoting, escaping, NULLs and amounts.
+ */
+public class StatementWriterTest {
+
+    private static final String CSV_HEADER = "id,date_time,time_millis,type,category,amount,"
+            + "description,counterparty,counterparty_phone,status,latitude,longitude\r\n";
+
+    @Test
+    public void csv_plainRow() throws IOException {
+        String csv = write(StatementWriter.Format.CSV, row(7, "Lunch", "Ravi", 12_345L));
+
+        assertEquals(CSV_HEADER + "7,2024-03-01 12:30:00,1709276400000,SENT,Food,123.45,"
+                + "Lunch,Ravi,9876543210,SUCCESS,12.97,77.59\r\n", csv);
+    }
+
+    @Test
+    public void csv_quotesOnlyWhereNeeded() throws IOException {
+        String csv = write(StatementWriter.Format.CSV,
+                row(1, "Rent, March", "\"Big\" Landlord", 5L),
+                row(2, "two\nlines", null, -250_000L));
+
+        assertEquals(CSV_HEADER
+                + "1,2024-03-01 12:30:00,1709276400000,SENT,Food,0.05,"
+                + "\"Rent, March\",\"\"\"Big\"\" Landlord\",9876543210,SUCCESS,12.97,77.59\r\n"
+                + "2,2024-03-01 12:30:00,1709276400000,SENT,Food,-2500.00,"
+                + "\"two\nlines\",,9876543210,SUCCESS,12.97,77.59\r\n", csv);
+    }
+
+    @Test
+    public void json_escapesAndNulls() throws IOException {
+        String json = write(StatementWriter.Format.JSON,
+                row(1, "say \"hi\"\t\\ \u0001\u2028", null, 100L));
+
+        assertEquals("[\n{\"id\":1,\"date_time\":\"2024-03-01 12:30:00\","
+                + "\"time_millis\":1709276400000,\"type\":\"SENT\",\"category\":\"Food\","
+                + "\"amount\":1.00,\"description\":\"say \\\"hi\\\"\\t\\\\ \\u0001\\u2028\","
+                + "\"counterparty\":null,\"counterparty_phone\":\"9876543210\","
+                + "\"status\":\"SUCCESS\",\"latitude\":12.97,\"longitude\":77.59}\n]\n", json);
+    }
+
+    @Test
+    public void json_emptyStatementIsAnEmptyArray() throws IOException {
+        assertEquals("[]\n", write(StatementWriter.Format.JSON));
+    }
+
+    @Test
+    public void rupees_exactToThePaisa() throws IOException {
+        assertEquals("0.00",     rupees(0));
+        assertEquals("0.09",     rupees(9));
+        assertEquals("-0.10",    rupees(-10));
+        assertEquals("12345.67", rupees(1_234_567));
+    }
+
+    // ── Helpers ───────────────────────────────────────────────────────────
+    private static String write(StatementWriter.Format format, Transaction... rows)
+            throws IOException {
+        StringWriter out = new StringWriter();
+        StatementWriter writer = StatementWriter.create(format, out);
+        writer.begin();
+        for (Transaction t : rows) writer.write(t);
+        writer.end();
+        return out.toString();
+    }
+
+    private static String rupees(long paise) throws IOException {
+        StringWriter out = new StringWriter();
+        StatementWriter.writeRupees(out, paise);
+        return out.toString();
+    }
+
+    private static Transaction row(int id, String description, String name, long amountPaise) {
+        return new Transaction(id, 3, "SENT", "Food", amountPaise, description, name,
+                "9876543210", "2024-03-01 12:30:00", 1_709_276_400_000L, 12.97, 77.59,
+                "SUCCESS");
+    }
+}
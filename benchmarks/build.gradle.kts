@@ -0,0 +1,69 @@
+// JMH benchmarks for the app's plain-Java hot paths, run on the host JVM.
+//
+//   ./gradlew :benchmarks:jmh -PjmhTag=1.0          → results/1.0.csv
+//   ./gradlew :benchmarks:jmh -PjmhInclude=Password  (one class only)
+//   ./gradlew :benchmarks:jmhCompare -Pbaseline=results/1.0.csv \
+//                                    -Pcandidate=results/1.1.csv
+//
+// Every run adds JMH's gc profiler, so each benchmark also reports
+// gc.alloc.rate.norm (bytes allocated per operation).
+plugins {
+    `java-library`
+    alias(libs.plugins.jmh)
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_11
+    targetCompatibility = JavaVersion.VERSION_11
+}
+
+// An Android application module cannot be a dependency, so the code
+// under test is compiled straight from app's sources — only classes
+// that need no Android runtime.
+sourceSets {
+    main {
+        java {
+            srcDir("../app/src/main/java")
+            include(
+                "com/bankingapp/models/**",
+                "com/bankingapp/utils/DateTimeHelper.java",
+                "com/bankingapp/utils/PasswordUtils.java",
+                "com/bankingapp/utils/TransactionRules.java",
+            )
+        }
+    }
+}
+
+dependencies {
+    // android.database.Cursor appears in model constructors the
+    // benchmarks never call; it is needed to compile, not to run
+    compileOnly(libs.android.stubs)
+}
+
+val resultsTag = providers.gradleProperty("jmhTag").orElse("local")
+
+jmh {
+    jmhVersion.set(libs.versions.jmh)
+    warmupIterations.set(3)
+    iterations.set(5)
+    fork.set(2)
+    profilers.add("gc")
+    resultFormat.set("CSV")
+    resultsFile.set(layout.projectDirectory.file(resultsTag.map { "results/$it.csv" }))
+    providers.gradleProperty("jmhInclude").orNull?.let { includes.add(it) }
+}
+
+// Side-by-side scores of two result files; fails when a benchmark got
+// slower (or allocates more) by more than -Pthreshold percent (default 10)
+tasks.register<JavaExec>("jmhCompare") {
+    group = "benchmark"
+    description = "Compares two JMH CSV result files."
+    classpath = sourceSets["jmh"].runtimeClasspath
+    mainClass.set("com.bankingapp.benchmarks.CompareResults")
+    args(
+        providers.gradleProperty("baseline").orElse("results/baseline.csv").get(),
+        providers.gradleProperty("candidate").orElse("results/local.csv").get(),
+        providers.gradleProperty("threshold").orElse("10").get(),
+    )
+    workingDir = projectDir
+}
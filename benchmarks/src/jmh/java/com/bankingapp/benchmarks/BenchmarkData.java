@@ -0,0 +1,89 @@
+package com.bankingapp.benchmarks;
+
+import com.bankingapp.models.Transaction;
+import com.bankingapp.utils.DateTimeHelper;
+
+import java.util.Random;
+
+/**
+ * BenchmarkData — inputs for the benchmarks, generated from a fixed seed
+ * so every run and every release measures the same values.
+ */
+final class BenchmarkData {
+
+    // 2026-01-01T00:00:00Z; a year of history from here
+    private static final long START_MILLIS = 1_767_225_600_000L;
+    private static final long YEAR_MILLIS  = 365L * 24 * 60 * 60 * 1000;
+
+    private static final String[] TYPES = {
+            Transaction.TYPE_SENT, Transaction.TYPE_RECEIVED, Transaction.TYPE_BILL_PAYMENT };
+
+    private BenchmarkData() {}
+
+    static Random random() {
+        return new Random(42);
+    }
+
+    static long[] timestamps(int count) {
+        Random random = random();
+        long[] millis = new long[count];
+        for (int i = 0; i < count; i++) {
+            millis[i] = START_MILLIS + (long) (random.nextDouble() * YEAR_MILLIS);
+        }
+        return millis;
+    }
+
+    static String[] dbTimestamps(int count) {
+        long[] millis = timestamps(count);
+        String[] out = new String[count];
+        for (int i = 0; i < count; i++) out[i] = DateTimeHelper.toDbFormat(millis[i]);
+        return out;
+    }
+
+    /** Paise from ₹1 to ₹1,00,000, skewed towards small amounts like real spending. */
+    static long[] amounts(int count) {
+        Random random = random();
+        long[] paise = new long[count];
+        for (int i = 0; i < count; i++) {
+            double r = random.nextDouble();
+            paise[i] = 100L + (long) (r * r * r * 10_000_000L);
+        }
+        return paise;
+    }
+
+    static Transaction[] transactions(int count) {
+        Random random = random();
+        long[] millis = timestamps(count);
+        long[] paise  = amounts(count);
+        Transaction[] out = new Transaction[count];
+        for (int i = 0; i < count; i++) {
+            out[i] = new Transaction(i + 1, 1, TYPES[random.nextInt(TYPES.length)],
+                    Transaction.CAT_TRANSFER, paise[i], "Payment " + i, "Ravi Kumar",
+                    "9876543210", DateTimeHelper.toDbFormat(millis[i]), millis[i],
+                    0.0, 0.0, Transaction.STATUS_SUCCESS);
+        }
+        return out;
+    }
+
+    /** Mostly valid 10-digit numbers, with the typos a send screen sees. */
+    static String[] phones(int count) {
+        Random random = random();
+        String[] out = new String[count];
+        for (int i = 0; i < count; i++) {
+            String phone = String.valueOf(6_000_000_000L + (long) (random.nextDouble() * 3_999_999_999L));
+            switch (random.nextInt(10)) {
+                case 0:  out[i] = phone.substring(1);          break;   // too short
+                case 1:  out[i] = phone.substring(0, 9) + "x"; break;   // not a digit
+                default: out[i] = phone;
+            }
+        }
+        return out;
+    }
+
+    static String password(int length) {
+        Random random = random();
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) sb.append((char) ('!' + random.nextInt(94)));
+        return sb.toString();
+    }
+}
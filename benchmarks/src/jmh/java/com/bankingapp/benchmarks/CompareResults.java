@@ -0,0 +1,134 @@
+package com.bankingapp.benchmarks;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * CompareResults — lines up two JMH CSV result files (e.g. the last
+ * release and this build) and prints the change of every score, timing
+ * and gc.alloc.rate.norm alike.
+ *
+ * A change counts as a regression when it is worse by more than the
+ * threshold percent and by more than both runs' error bars together.
+ * Exits with status 1 if there is one, so CI can gate on it.
+ *
+ * Usage: CompareResults baseline.csv candidate.csv [thresholdPercent]
+ */
+public final class CompareResults {
+
+    private static final class Score {
+        final double value, error;
+        final String unit;
+
+        Score(double value, double error, String unit) {
+            this.value = value;
+            this.error = error;
+            this.unit  = unit;
+        }
+    }
+
+    private CompareResults() {}
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("usage: CompareResults baseline.csv candidate.csv [thresholdPercent]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 10.0;
+        Map<String, Score> baseline  = read(args[0]);
+        Map<String, Score> candidate = read(args[1]);
+
+        int regressions = 0;
+        System.out.printf(Locale.US, "%-90s %14s %14s %9s  %s%n",
+                "benchmark", "baseline", "candidate", "change", "unit");
+        for (Map.Entry<String, Score> e : candidate.entrySet()) {
+            Score now = e.getValue(), before = baseline.get(e.getKey());
+            if (before == null || !before.unit.equals(now.unit)) {
+                System.out.printf(Locale.US, "%-90s %14s %14.3f %9s  %s%n",
+                        e.getKey(), "-", now.value, "new", now.unit);
+                continue;
+            }
+            double change = before.value == 0
+                    ? (now.value == 0 ? 0 : Double.POSITIVE_INFINITY)
+                    : (now.value - before.value) / before.value * 100;
+            double worse = lowerIsBetter(now.unit) ? change : -change;
+            boolean regressed = worse > threshold
+                    && Math.abs(now.value - before.value) > now.error + before.error;
+            if (regressed) regressions++;
+            System.out.printf(Locale.US, "%-90s %14.3f %14.3f %+8.1f%%  %s%s%n",
+                    e.getKey(), before.value, now.value, change, now.unit,
+                    regressed ? "  REGRESSION" : "");
+        }
+        System.out.printf(Locale.US, "%d regression(s) over %.1f%%%n", regressions, threshold);
+        if (regressions > 0) System.exit(1);
+    }
+
+    // Time per op and bytes per op: smaller is better; ops per time: larger
+    private static boolean lowerIsBetter(String unit) {
+        return !unit.startsWith("ops/");
+    }
+
+    // Key: benchmark name plus every non-empty "Param: x" column
+    private static Map<String, Score> read(String path) throws IOException {
+        List<String> lines = Files.readAllLines(Paths.get(path), StandardCharsets.UTF_8);
+        Map<String, Score> scores = new LinkedHashMap<>();
+        if (lines.isEmpty()) return scores;
+        List<String> header = parseLine(lines.get(0));
+        int name = header.indexOf("Benchmark"), score = header.indexOf("Score"),
+            error = header.indexOf("Score Error (99.9%)"), unit = header.indexOf("Unit");
+        for (String line : lines.subList(1, lines.size())) {
+            if (line.trim().isEmpty()) continue;
+            List<String> fields = parseLine(line);
+            StringBuilder key = new StringBuilder(fields.get(name));
+            for (int i = 0; i < header.size() && i < fields.size(); i++) {
+                if (header.get(i).startsWith("Param: ") && !fields.get(i).isEmpty()) {
+                    key.append(' ').append(header.get(i).substring(7))
+                       .append('=').append(fields.get(i));
+                }
+            }
+            scores.put(key.toString(), new Score(number(fields.get(score)),
+                    number(fields.get(error)), fields.get(unit)));
+        }
+        return scores;
+    }
+
+    private static double number(String field) {
+        return field.isEmpty() || field.equals("NaN") ? 0.0 : Double.parseDouble(field);
+    }
+
+    // RFC 4180 fields: quoted ones may hold commas and doubled quotes
+    private static List<String> parseLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
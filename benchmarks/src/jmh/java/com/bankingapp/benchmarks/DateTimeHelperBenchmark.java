@@ -0,0 +1,53 @@
+package com.bankingapp.benchmarks;
+
+import com.bankingapp.utils.DateTimeHelper;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DateTimeHelper conversions as a history list binds them: one call per
+ * row, for a screenful up to a full export. Scores are per batch of
+ * {@code rows}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DateTimeHelperBenchmark {
+
+    @Param({ "1", "100", "10000" })
+    int rows;
+
+    private String[] dbTimestamps;
+    private long[]   millis;
+
+    @Setup
+    public void setUp() {
+        dbTimestamps = BenchmarkData.dbTimestamps(rows);
+        millis       = BenchmarkData.timestamps(rows);
+    }
+
+    @Benchmark
+    public void toDisplayFormatFromDb(Blackhole bh) {
+        for (String ts : dbTimestamps) bh.consume(DateTimeHelper.toDisplayFormat(ts));
+    }
+
+    @Benchmark
+    public void toDisplayFormatFromMillis(Blackhole bh) {
+        for (long ms : millis) bh.consume(DateTimeHelper.toDisplayFormat(ms));
+    }
+
+    @Benchmark
+    public void toMonthKey(Blackhole bh) {
+        for (long ms : millis) bh.consume(DateTimeHelper.toMonthKey(ms));
+    }
+}
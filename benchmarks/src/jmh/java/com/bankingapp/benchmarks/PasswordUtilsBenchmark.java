@@ -0,0 +1,36 @@
+package com.bankingapp.benchmarks;
+
+import com.bankingapp.utils.PasswordUtils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/** PasswordUtils.hash — runs on every login and registration. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PasswordUtilsBenchmark {
+
+    @Param({ "8", "32", "256" })
+    int passwordLength;
+
+    private String password;
+
+    @Setup
+    public void setUp() {
+        password = BenchmarkData.password(passwordLength);
+    }
+
+    @Benchmark
+    public String hash() {
+        return PasswordUtils.hash(password);
+    }
+}
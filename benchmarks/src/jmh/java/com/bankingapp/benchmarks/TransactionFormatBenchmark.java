@@ -0,0 +1,48 @@
+package com.bankingapp.benchmarks;
+
+import com.bankingapp.models.Money;
+import com.bankingapp.models.Transaction;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Transaction.getFormattedAmount, and the Money.format under it, over a
+ * batch of {@code rows} mixed SENT / RECEIVED / BILL_PAYMENT rows.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TransactionFormatBenchmark {
+
+    @Param({ "1", "100", "10000" })
+    int rows;
+
+    private Transaction[] transactions;
+    private long[]        amounts;
+
+    @Setup
+    public void setUp() {
+        transactions = BenchmarkData.transactions(rows);
+        amounts      = BenchmarkData.amounts(rows);
+    }
+
+    @Benchmark
+    public void getFormattedAmount(Blackhole bh) {
+        for (Transaction t : transactions) bh.consume(t.getFormattedAmount());
+    }
+
+    @Benchmark
+    public void moneyFormat(Blackhole bh) {
+        for (long paise : amounts) bh.consume(Money.format(paise));
+    }
+}
@@ -0,0 +1,64 @@
+package com.bankingapp.benchmarks;
+
+import com.bankingapp.utils.TransactionRules;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TransactionManager's checks before it reaches the database (see
+ * TransactionRules), over a batch of {@code rows} send attempts. About
+ * one phone in five is malformed and some amounts exceed the balance,
+ * so both the accept and the reject paths are measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TransactionRulesBenchmark {
+
+    @Param({ "1", "100", "10000" })
+    int rows;
+
+    private String[] phones;
+    private long[]   amounts;
+    private long[]   balances;
+
+    @Setup
+    public void setUp() {
+        phones   = BenchmarkData.phones(rows);
+        amounts  = BenchmarkData.amounts(rows);
+        balances = new long[rows];
+        long[] held = BenchmarkData.amounts(rows + 1);
+        for (int i = 0; i < rows; i++) balances[i] = held[i + 1] * 3;
+    }
+
+    @Benchmark
+    public void checkSend(Blackhole bh) {
+        for (int i = 0; i < rows; i++) {
+            bh.consume(TransactionRules.checkSend(phones[i], amounts[i]));
+        }
+    }
+
+    @Benchmark
+    public void checkBalance(Blackhole bh) {
+        for (int i = 0; i < rows; i++) {
+            bh.consume(TransactionRules.checkBalance(amounts[i], balances[i]));
+        }
+    }
+
+    @Benchmark
+    public void isSuspicious(Blackhole bh) {
+        for (int i = 0; i < rows; i++) {
+            bh.consume(TransactionRules.isSuspicious(amounts[i], balances[i]));
+        }
+    }
+}
@@ -24,4 +24,5 @@ dependencyResolutionManagement {
 
 rootProject.name = "BankingTransactionApp"
 include(":app")
+include(":benchmarks")
  
\ No newline at end of file